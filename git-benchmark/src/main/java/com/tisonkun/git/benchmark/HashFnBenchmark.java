@@ -0,0 +1,98 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.benchmark;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import com.tisonkun.git.core.plumbing.hash.HashFn;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the hash functions over inputs sized like a loose object, an index and a pack.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class HashFnBenchmark {
+    @Param({"256", "65536", "16777216"})
+    public int size;
+
+    private byte[] heap;
+    private ByteBuf direct;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        heap = new byte[size];
+        new Random(42).nextBytes(heap);
+        direct = Unpooled.directBuffer(size).writeBytes(heap);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        direct.release();
+    }
+
+    @SuppressWarnings("deprecation")
+    @Benchmark
+    public HashCode guavaSha1() {
+        return Hashing.sha1().hashBytes(heap);
+    }
+
+    @Benchmark
+    public HashCode sha1() {
+        return HashFn.SHA1.calculate(heap, 0, size);
+    }
+
+    @Benchmark
+    public HashCode sha1Direct() {
+        return HashFn.SHA1.calculate(direct, 0, size);
+    }
+
+    @Benchmark
+    public HashCode sha1dc() {
+        return HashFn.SHA1DC.calculate(heap, 0, size);
+    }
+
+    @Benchmark
+    public HashCode sha1dcDirect() {
+        return HashFn.SHA1DC.calculate(direct, 0, size);
+    }
+
+    @Benchmark
+    public HashCode sha256() {
+        return HashFn.SHA256.calculate(heap, 0, size);
+    }
+}
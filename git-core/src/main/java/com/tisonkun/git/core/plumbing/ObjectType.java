@@ -0,0 +1,101 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.plumbing;
+
+import java.nio.charset.StandardCharsets;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * The type of git object. Delta types only appear in packfiles.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ObjectType {
+    COMMIT("commit", 1),
+    TREE("tree", 2),
+    BLOB("blob", 3),
+    TAG("tag", 4),
+    OFS_DELTA("ofs-delta", 6),
+    REF_DELTA("ref-delta", 7);
+
+    /**
+     * The type name as in object headers, e.g., "blob".
+     */
+    private final String typeName;
+
+    /**
+     * The 3-bit type code in packfile entry headers.
+     */
+    private final int packCode;
+
+    /**
+     * @return whether the type is a delta that only appears in packfiles.
+     */
+    public boolean isDelta() {
+        return this == OFS_DELTA || this == REF_DELTA;
+    }
+
+    /**
+     * @return the header of a loose object of this type, i.e., {@code <type> <size>\0}.
+     */
+    public byte[] header(long size) {
+        return (typeName + ' ' + size + '\0').getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Returns the object type of the given name in bytes[start, start + len), which must not be a delta type.
+     */
+    public static ObjectType of(byte[] bytes, int start, int len) {
+        for (ObjectType type : values()) {
+            if (!type.isDelta() && matches(type.typeName, bytes, start, len)) {
+                return type;
+            }
+        }
+        throw new IllegalStateException(
+                "unknown object type: " + new String(bytes, start, len, StandardCharsets.US_ASCII));
+    }
+
+    public static ObjectType ofPackCode(int packCode) {
+        return switch (packCode) {
+            case 1 -> COMMIT;
+            case 2 -> TREE;
+            case 3 -> BLOB;
+            case 4 -> TAG;
+            case 6 -> OFS_DELTA;
+            case 7 -> REF_DELTA;
+            default -> throw new IllegalStateException("unknown pack object type: " + packCode);
+        };
+    }
+
+    private static boolean matches(String name, byte[] bytes, int start, int len) {
+        if (name.length() != len) {
+            return false;
+        }
+        for (int i = 0; i < len; i++) {
+            if (name.charAt(i) != bytes[start + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return typeName;
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.plumbing.format.chunk;
+
+import com.google.common.base.Preconditions;
+import com.tisonkun.git.core.plumbing.hash.HashFn;
+import com.tisonkun.git.core.plumbing.hash.ObjectId;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The table of contents of a file in git's chunk-based format, shared by the multi-pack-index and the
+ * commit-graph. The table lists a 4-byte id and an 8-byte offset per chunk, terminated by an entry with
+ * id zero whose offset is the end of the last chunk; each chunk spans up to the next offset.
+ *
+ * @see <a href="https://git-scm.com/docs/gitformat-chunk">gitformat-chunk</a>
+ */
+public class ChunkFile {
+    public static final int FANOUT_SIZE = 256 * 4;
+
+    private final String format;
+    private final Map<Integer, ByteBuf> chunks;
+
+    private ChunkFile(String format, Map<Integer, ByteBuf> chunks) {
+        this.format = format;
+        this.chunks = chunks;
+    }
+
+    /**
+     * Read the table of contents at the given offset. Chunks are returned as slices of the bytes.
+     *
+     * @param format the name of the file format for error messages.
+     * @param end where the chunks must end, i.e., before the trailing checksum.
+     */
+    public static ChunkFile read(String format, ByteBuf bytes, int tocOffset, int chunkCount, int end) {
+        Preconditions.checkState(
+                tocOffset + (chunkCount + 1) * 12L <= end, "malformed %s: table of contents too long", format);
+        final Map<Integer, ByteBuf> chunks = new LinkedHashMap<>();
+        long offset = bytes.getLong(tocOffset + 4);
+        for (int i = 0; i < chunkCount; i++) {
+            final int entry = tocOffset + i * 12;
+            final int id = bytes.getInt(entry);
+            final long next = bytes.getLong(entry + 16);
+            Preconditions.checkState(id != 0, "malformed %s: chunk id 0 before the end", format);
+            Preconditions.checkState(
+                    offset >= tocOffset + (chunkCount + 1) * 12L && offset <= next && next <= end,
+                    "malformed %s: improper offset of chunk %s",
+                    format,
+                    chunkName(id));
+            Preconditions.checkState(
+                    chunks.put(id, bytes.slice((int) offset, (int) (next - offset))) == null,
+                    "malformed %s: duplicate chunk %s",
+                    format,
+                    chunkName(id));
+            offset = next;
+        }
+        Preconditions.checkState(
+                bytes.getInt(tocOffset + chunkCount * 12) == 0, "malformed %s: unterminated table of contents", format);
+        return new ChunkFile(format, chunks);
+    }
+
+    /**
+     * Map the whole file read-only. The mapping is kept alive as long as the returned buffer.
+     */
+    public static ByteBuf map(File source, String format) throws IOException {
+        try (FileChannel channel = FileChannel.open(source.toPath(), StandardOpenOption.READ)) {
+            final long length = channel.size();
+            Preconditions.checkState(length <= Integer.MAX_VALUE, "%s too large to map (length: %s)", format, length);
+            final MappedByteBuffer content = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            return Unpooled.wrappedBuffer(content);
+        }
+    }
+
+    /**
+     * Check the hash version in the header of a chunk-based file, which is 1 for SHA-1 and 2 for SHA-256.
+     */
+    public static void checkHashVersion(String format, int version, HashFn hashFn) {
+        final int expected = hashFn.size() == 32 ? 2 : 1;
+        Preconditions.checkState(
+                version == expected, "%s hash version %s does not match %s", format, version, hashFn.name());
+    }
+
+    public static int chunkId(String name) {
+        Preconditions.checkArgument(name.length() == 4, "chunk id must have 4 characters: %s", name);
+        final byte[] bytes = name.getBytes(StandardCharsets.US_ASCII);
+        return (bytes[0] & 0xFF) << 24 | (bytes[1] & 0xFF) << 16 | (bytes[2] & 0xFF) << 8 | (bytes[3] & 0xFF);
+    }
+
+    public static String chunkName(int id) {
+        final byte[] bytes = {(byte) (id >>> 24), (byte) (id >>> 16), (byte) (id >>> 8), (byte) id};
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    public Optional<ByteBuf> chunk(int id) {
+        return Optional.ofNullable(chunks.get(id));
+    }
+
+    public ByteBuf requireChunk(int id) {
+        final ByteBuf chunk = chunks.get(id);
+        Preconditions.checkState(chunk != null, "malformed %s: missing required chunk %s", format, chunkName(id));
+        return chunk;
+    }
+
+    /**
+     * Check that the fanout chunk is monotonic and covers exactly the ids in the lookup chunk.
+     *
+     * @return the number of ids.
+     */
+    public int checkLookup(ByteBuf fanout, ByteBuf lookup, int hashSize) {
+        Preconditions.checkState(fanout.readableBytes() == FANOUT_SIZE, "malformed %s: improper fanout size", format);
+        int previous = 0;
+        for (int i = 0; i < 256; i++) {
+            final int count = fanout.getInt(i * 4);
+            Preconditions.checkState(
+                    Integer.compareUnsigned(count, previous) >= 0, "malformed %s: fanout not monotonic", format);
+            previous = count;
+        }
+        Preconditions.checkState(
+                previous >= 0 && (long) previous * hashSize == lookup.readableBytes(),
+                "malformed %s: fanout has %s ids but the lookup is %s bytes",
+                format,
+                previous,
+                lookup.readableBytes());
+        return previous;
+    }
+
+    /**
+     * Binary search the sorted ids of the lookup chunk within the range given by the fanout chunk.
+     *
+     * @return the position of the id, or -1 if it is absent.
+     */
+    public static int findPosition(ByteBuf fanout, ByteBuf lookup, ObjectId id) {
+        final int first = (int) (id.word(0) >>> 56);
+        int lo = first == 0 ? 0 : fanout.getInt((first - 1) * 4);
+        int hi = fanout.getInt(first * 4);
+        final int hashSize = id.size();
+        while (lo < hi) {
+            final int mid = (lo + hi) >>> 1;
+            final int c = id.compareTo(lookup, mid * hashSize);
+            if (c < 0) {
+                hi = mid;
+            } else if (c > 0) {
+                lo = mid + 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.plumbing.format.commitgraph;
+
+import com.google.common.base.Preconditions;
+import com.tisonkun.git.core.plumbing.format.chunk.ChunkFile;
+import com.tisonkun.git.core.plumbing.hash.HashFn;
+import com.tisonkun.git.core.plumbing.hash.ObjectId;
+import io.netty.buffer.ByteBuf;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import lombok.Getter;
+
+/**
+ * A commit-graph file, which stores the tree, parents, commit time and generation of commits so that
+ * walking history need not inflate and parse commit objects. Commits are addressed by their position in
+ * the sorted ids, and parents are given as positions too.
+ *
+ * @see <a href="https://git-scm.com/docs/gitformat-commit-graph">gitformat-commit-graph</a>
+ */
+public class CommitGraph {
+    public static final String FILE_NAME = "commit-graph";
+
+    private static final String FORMAT = "commit-graph";
+    private static final int MAGIC = 0x43475048; // "CGPH"
+    private static final int HEADER_SIZE = 8;
+
+    private static final int CHUNK_OID_FANOUT = ChunkFile.chunkId("OIDF");
+    private static final int CHUNK_OID_LOOKUP = ChunkFile.chunkId("OIDL");
+    private static final int CHUNK_COMMIT_DATA = ChunkFile.chunkId("CDAT");
+    private static final int CHUNK_GENERATION_DATA = ChunkFile.chunkId("GDA2");
+    private static final int CHUNK_GENERATION_DATA_OVERFLOW = ChunkFile.chunkId("GDO2");
+    private static final int CHUNK_EXTRA_EDGES = ChunkFile.chunkId("EDGE");
+
+    private static final int PARENT_NONE = 0x70000000;
+    private static final int EDGE_LAST = 0x80000000;
+    private static final int[] NO_PARENTS = new int[0];
+
+    @Getter
+    private final HashFn hashFn;
+
+    @Getter
+    private final int commitCount;
+
+    private final int dataSize;
+    private final ByteBuf fanout;
+    private final ByteBuf lookup;
+    private final ByteBuf commitData;
+    private final ByteBuf generationData;
+    private final ByteBuf generationDataOverflow;
+    private final ByteBuf extraEdges;
+
+    private CommitGraph(ByteBuf bytes, HashFn hashFn) {
+        this.hashFn = hashFn;
+
+        final int hashSize = hashFn.size();
+        Preconditions.checkState(
+                bytes.readableBytes() >= HEADER_SIZE + 12 + hashSize, "malformed %s: too short", FORMAT);
+        Preconditions.checkState(bytes.getInt(0) == MAGIC, "malformed %s: bad signature", FORMAT);
+        final int version = bytes.getUnsignedByte(4);
+        Preconditions.checkState(version == 1, "unsupported %s version: %s", FORMAT, version);
+        ChunkFile.checkHashVersion(FORMAT, bytes.getUnsignedByte(5), hashFn);
+        final int chunkCount = bytes.getUnsignedByte(6);
+        final int baseCount = bytes.getUnsignedByte(7);
+        Preconditions.checkState(baseCount == 0, "unsupported split %s with %s bases", FORMAT, baseCount);
+
+        final ChunkFile chunks =
+                ChunkFile.read(FORMAT, bytes, HEADER_SIZE, chunkCount, bytes.readableBytes() - hashSize);
+        this.fanout = chunks.requireChunk(CHUNK_OID_FANOUT);
+        this.lookup = chunks.requireChunk(CHUNK_OID_LOOKUP);
+        this.commitData = chunks.requireChunk(CHUNK_COMMIT_DATA);
+        this.generationData = chunks.chunk(CHUNK_GENERATION_DATA).orElse(null);
+        this.generationDataOverflow =
+                chunks.chunk(CHUNK_GENERATION_DATA_OVERFLOW).orElse(null);
+        this.extraEdges = chunks.chunk(CHUNK_EXTRA_EDGES).orElse(null);
+
+        this.commitCount = chunks.checkLookup(fanout, lookup, hashSize);
+        this.dataSize = hashSize + 16;
+        Preconditions.checkState(
+                commitData.readableBytes() == (long) commitCount * dataSize,
+                "malformed %s: improper commit data size",
+                FORMAT);
+        Preconditions.checkState(
+                generationData == null || generationData.readableBytes() == commitCount * 4L,
+                "malformed %s: improper generation data size",
+                FORMAT);
+    }
+
+    public static CommitGraph create(ByteBuf bytes, HashFn hashFn) {
+        return new CommitGraph(bytes, hashFn);
+    }
+
+    /**
+     * Open the commit-graph over a read-only memory mapping of the file, i.e., objects/info/commit-graph.
+     */
+    public static CommitGraph open(File source, HashFn hashFn) throws IOException {
+        return create(ChunkFile.map(source, FORMAT), hashFn);
+    }
+
+    /**
+     * @return the position of the commit in the sorted ids, or -1 if the graph does not contain it.
+     */
+    public int findPosition(ObjectId id) {
+        Preconditions.checkArgument(id.size() == hashFn.size(), "object id size mismatch: %s", id);
+        return ChunkFile.findPosition(fanout, lookup, id);
+    }
+
+    public boolean contains(ObjectId id) {
+        return findPosition(id) >= 0;
+    }
+
+    public ObjectId objectId(int position) {
+        Preconditions.checkElementIndex(position, commitCount);
+        return ObjectId.get(lookup, position * hashFn.size(), hashFn.size());
+    }
+
+    public ObjectId treeId(int position) {
+        Preconditions.checkElementIndex(position, commitCount);
+        return ObjectId.get(commitData, position * dataSize, hashFn.size());
+    }
+
+    /**
+     * @return the positions of the parents of the commit, in order.
+     */
+    public int[] parents(int position) {
+        Preconditions.checkElementIndex(position, commitCount);
+        final int data = position * dataSize + hashFn.size();
+        final int first = commitData.getInt(data);
+        if (first == PARENT_NONE) {
+            return NO_PARENTS;
+        }
+        final int second = commitData.getInt(data + 4);
+        if (second == PARENT_NONE) {
+            return new int[] {checkParent(first)};
+        }
+        if ((second & EDGE_LAST) == 0) {
+            return new int[] {checkParent(first), checkParent(second)};
+        }
+
+        // an octopus merge: the second and later parents are listed in the extra edges chunk, the
+        // last one marked by its most significant bit
+        Preconditions.checkState(extraEdges != null, "malformed %s: missing required chunk EDGE", FORMAT);
+        int edge = second & ~EDGE_LAST;
+        int[] parents = new int[4];
+        parents[0] = checkParent(first);
+        int count = 1;
+        while (true) {
+            Preconditions.checkState(
+                    edge < extraEdges.readableBytes() / 4, "malformed %s: extra edge %s out of range", FORMAT, edge);
+            final int parent = extraEdges.getInt(edge++ * 4);
+            if (count == parents.length) {
+                parents = Arrays.copyOf(parents, count * 2);
+            }
+            parents[count++] = checkParent(parent & ~EDGE_LAST);
+            if ((parent & EDGE_LAST) != 0) {
+                return Arrays.copyOf(parents, count);
+            }
+        }
+    }
+
+    private int checkParent(int parent) {
+        Preconditions.checkState(
+                parent >= 0 && parent < commitCount, "malformed %s: parent %s out of range", FORMAT, parent);
+        return parent;
+    }
+
+    /**
+     * @return the committer time of the commit in seconds since the epoch.
+     */
+    public long commitTime(int position) {
+        Preconditions.checkElementIndex(position, commitCount);
+        return commitData.getLong(position * dataSize + hashFn.size() + 8) & 0x3_FFFF_FFFFL;
+    }
+
+    /**
+     * @return the topological level of the commit, i.e., one more than the maximum of its parents, or
+     * one for root commits. This is generation number v1.
+     */
+    public int topologicalLevel(int position) {
+        Preconditions.checkElementIndex(position, commitCount);
+        return commitData.getInt(position * dataSize + hashFn.size() + 8) >>> 2;
+    }
+
+    /**
+     * @return whether the graph stores corrected commit dates, i.e., generation number v2.
+     */
+    public boolean hasCorrectedCommitDates() {
+        return generationData != null;
+    }
+
+    /**
+     * @return the generation number of the commit, which is the corrected commit date when the graph
+     * stores it and the topological level otherwise. A commit never has a smaller generation than
+     * its parents, so walks can stop early at commits older than the target.
+     */
+    public long generation(int position) {
+        if (generationData == null) {
+            return topologicalLevel(position);
+        }
+        final int offset = generationData.getInt(position * 4);
+        if ((offset & 0x80000000) == 0) {
+            return commitTime(position) + offset;
+        }
+        final int overflow = offset & 0x7FFFFFFF;
+        Preconditions.checkState(
+                generationDataOverflow != null && overflow < generationDataOverflow.readableBytes() / 8,
+                "malformed %s: generation data overflow %s out of range",
+                FORMAT,
+                overflow);
+        return commitTime(position) + generationDataOverflow.getLong(overflow * 8);
+    }
+}
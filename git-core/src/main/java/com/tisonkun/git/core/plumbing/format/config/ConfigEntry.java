@@ -0,0 +1,40 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.plumbing.format.config;
+
+import javax.annotation.Nullable;
+
+/**
+ * A variable as read from a config file, with its section and key case-folded. Includes are entries
+ * too: {@code include.path} and {@code includeIf.<condition>.path}. The value is null for a variable
+ * written without {@code =}.
+ */
+public record ConfigEntry(String section, @Nullable String subsection, String key, @Nullable String value) {
+    static final String INCLUDE = "include";
+    static final String INCLUDE_IF = "includeif";
+
+    boolean isInclude() {
+        return section.equals(INCLUDE) || section.equals(INCLUDE_IF);
+    }
+
+    /**
+     * @return the name of the variable, like {@code remote.origin.url}.
+     */
+    public String name() {
+        return ConfigView.name(section, subsection, key);
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.plumbing.format.config;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import javax.annotation.Nullable;
+
+/**
+ * Caches the parsed entries of config files keyed by path, so that many repositories opened on the
+ * same host share one parse of the system and global config. An entry is reused as long as the mtime
+ * and size of the file are unchanged; a rewrite within the mtime granularity that keeps the size is
+ * missed, as with git's own stat-based caches.
+ */
+public class ConfigFileCache {
+    private static final ConfigFileCache SHARED = new ConfigFileCache(1024);
+
+    private final Cache<Path, Parsed> cache;
+
+    private record Parsed(FileTime lastModified, long size, List<ConfigEntry> entries) {}
+
+    public ConfigFileCache(long maximumFiles) {
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maximumFiles)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * @return the cache shared by default across the process.
+     */
+    public static ConfigFileCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * @return the entries of the file in file order, or empty if it does not exist.
+     */
+    Optional<List<ConfigEntry>> get(Path file) throws IOException {
+        final Path path = file.toAbsolutePath().normalize();
+        final BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            cache.invalidate(path);
+            return Optional.empty();
+        }
+        if (!attributes.isRegularFile()) {
+            return Optional.empty();
+        }
+
+        final Parsed cached = cache.getIfPresent(path);
+        if (cached != null
+                && cached.lastModified().equals(attributes.lastModifiedTime())
+                && cached.size() == attributes.size()) {
+            return Optional.of(cached.entries());
+        }
+        final List<ConfigEntry> entries = parse(path);
+        cache.put(path, new Parsed(attributes.lastModifiedTime(), attributes.size(), entries));
+        return Optional.of(entries);
+    }
+
+    private static List<ConfigEntry> parse(Path path) throws IOException {
+        final List<ConfigEntry> entries = new ArrayList<>();
+        try (InputStream input = Files.newInputStream(path)) {
+            new ConfigParser(new InputStreamReader(input, StandardCharsets.UTF_8)).parse(new ConfigParser.Handler() {
+                @Override
+                public void section(String section, @Nullable String subsection) {}
+
+                @Override
+                public void option(String section, @Nullable String subsection, String key, @Nullable String value) {
+                    entries.add(new ConfigEntry(section, subsection, key, value));
+                }
+
+                @Override
+                public void include(@Nullable String condition, String path) {
+                    entries.add(new ConfigEntry(
+                            condition == null ? ConfigEntry.INCLUDE : ConfigEntry.INCLUDE_IF, condition, "path", path));
+                }
+            });
+        }
+        return Collections.unmodifiableList(entries);
+    }
+
+    /**
+     * Drop the parse of the file, so that the next read parses it even if its stat has not changed.
+     */
+    void invalidate(Path file) {
+        cache.invalidate(file.toAbsolutePath().normalize());
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.plumbing.format.config;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import javax.annotation.Nullable;
+
+/**
+ * The modification time and size of a file a {@link ConfigView} was loaded from, or null and -1 if
+ * the file was absent. A view is stale once any of its stamps no longer matches its file.
+ */
+record ConfigFileStamp(Path path, @Nullable FileTime lastModified, long size) {
+    static ConfigFileStamp of(Path path) throws IOException {
+        try {
+            final BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            return new ConfigFileStamp(path, attributes.lastModifiedTime(), attributes.size());
+        } catch (NoSuchFileException e) {
+            return new ConfigFileStamp(path, null, -1);
+        }
+    }
+
+    boolean isCurrent() throws IOException {
+        return equals(of(path));
+    }
+}
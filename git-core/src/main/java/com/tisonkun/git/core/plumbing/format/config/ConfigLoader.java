@@ -0,0 +1,242 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.plumbing.format.config;
+
+import com.google.common.base.Preconditions;
+import com.tisonkun.git.core.util.PathUtils;
+import com.tisonkun.git.core.util.WildMatch;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import javax.annotation.Nullable;
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import org.apache.commons.lang3.SystemProperties;
+
+/**
+ * Reads the system, global, repository and worktree config files of a repository into a
+ * {@link ConfigView}, following {@code include.path} and the {@code gitdir:}, {@code gitdir/i:} and
+ * {@code onbranch:} conditions of {@code includeIf}. An included file takes effect where it is
+ * included. Other conditions, such as {@code hasconfig:}, never match.
+ * <p>
+ * Files are parsed through a {@link ConfigFileCache}, shared across loaders by default.
+ *
+ * @see <a href="https://git-scm.com/docs/git-config#FILES">git-config FILES</a>
+ * @see <a href="https://git-scm.com/docs/git-config#_includes">git-config Includes</a>
+ */
+@Builder
+public class ConfigLoader {
+    /**
+     * Git's limit on nested includes, which also stops include cycles.
+     */
+    public static final int MAX_INCLUDE_DEPTH = 10;
+
+    /**
+     * The system config file, or null to skip it, as with {@code GIT_CONFIG_NOSYSTEM}.
+     */
+    @Nullable
+    @Builder.Default
+    private final File systemConfig = new File("/etc/gitconfig");
+
+    /**
+     * The global config files in order: {@code $XDG_CONFIG_HOME/git/config}, then {@code ~/.gitconfig}.
+     */
+    @Builder.Default
+    private final List<File> globalConfigs = defaultGlobalConfigs();
+
+    @Builder.Default
+    @Getter(AccessLevel.PACKAGE)
+    private final ConfigFileCache cache = ConfigFileCache.shared();
+
+    private static List<File> defaultGlobalConfigs() {
+        final String home = SystemProperties.getUserHome();
+        final String xdgConfigHome = System.getenv("XDG_CONFIG_HOME");
+        final File xdg = xdgConfigHome != null && !xdgConfigHome.isEmpty()
+                ? new File(xdgConfigHome, "git/config")
+                : new File(home, ".config/git/config");
+        return List.of(xdg, new File(home, ".gitconfig"));
+    }
+
+    /**
+     * Load the effective config of the repository whose git directory is given, or only the system and
+     * global config if it is null.
+     */
+    public ConfigView load(@Nullable File gitDir) throws IOException {
+        final Loader loader = new Loader(
+                gitDir == null ? null : gitDir.toPath().toAbsolutePath().normalize());
+        if (systemConfig != null) {
+            loader.read(systemConfig.toPath());
+        }
+        for (File globalConfig : globalConfigs) {
+            loader.read(globalConfig.toPath());
+        }
+        if (loader.gitDir != null) {
+            loader.read(loader.commonDir().resolve("config"));
+            if (new ConfigView(loader.entries)
+                    .getBoolean("extensions.worktreeConfig")
+                    .orElse(false)) {
+                loader.read(loader.gitDir.resolve("config.worktree"));
+            }
+        }
+        return new ConfigView(loader.entries, loader.sources);
+    }
+
+    private final class Loader {
+        private final List<ConfigEntry> entries = new ArrayList<>();
+        private final List<ConfigFileStamp> sources = new ArrayList<>();
+
+        /**
+         * The files being read, innermost first.
+         */
+        private final Deque<Path> including = new ArrayDeque<>();
+
+        @Nullable
+        private final Path gitDir;
+
+        private boolean branchRead = false;
+
+        @Nullable
+        private String branch;
+
+        Loader(@Nullable Path gitDir) {
+            this.gitDir = gitDir;
+        }
+
+        void read(Path file) throws IOException {
+            final Path path = file.toAbsolutePath().normalize();
+            Preconditions.checkState(
+                    !including.contains(path), "include cycle: %s includes %s again", including.peek(), path);
+            Preconditions.checkState(
+                    including.size() <= MAX_INCLUDE_DEPTH,
+                    "exceeded maximum include depth (%s) while including %s from %s",
+                    MAX_INCLUDE_DEPTH,
+                    path,
+                    including.peek());
+            // stamp before parsing, so that a change racing with the parse makes the view stale
+            sources.add(ConfigFileStamp.of(path));
+            final Optional<List<ConfigEntry>> fileEntries = cache.get(path);
+            if (fileEntries.isEmpty()) {
+                return;
+            }
+            including.push(path);
+            try {
+                for (ConfigEntry entry : fileEntries.get()) {
+                    entries.add(entry);
+                    if (entry.isInclude()
+                            && entry.value() != null
+                            && !entry.value().isEmpty()
+                            && matches(entry.subsection(), path)) {
+                        read(resolve(entry.value(), path));
+                    }
+                }
+            } finally {
+                including.pop();
+            }
+        }
+
+        /**
+         * @return the directory shared by all worktrees, which a linked worktree names in its commondir file.
+         */
+        Path commonDir() throws IOException {
+            final Path commonDirFile = gitDir.resolve("commondir");
+            sources.add(ConfigFileStamp.of(commonDirFile));
+            if (!Files.isRegularFile(commonDirFile)) {
+                return gitDir;
+            }
+            final String commonDir =
+                    Files.readString(commonDirFile, StandardCharsets.UTF_8).strip();
+            return gitDir.resolve(commonDir).normalize();
+        }
+
+        private static Path resolve(String include, Path from) {
+            final Path path = Path.of(PathUtils.replaceTildeWithHome(include));
+            return path.isAbsolute() ? path : from.resolveSibling(path);
+        }
+
+        private boolean matches(@Nullable String condition, Path from) throws IOException {
+            if (condition == null) {
+                return true;
+            }
+            if (condition.startsWith("gitdir:")) {
+                return matchesGitDir(condition.substring("gitdir:".length()), from, false);
+            }
+            if (condition.startsWith("gitdir/i:")) {
+                return matchesGitDir(condition.substring("gitdir/i:".length()), from, true);
+            }
+            if (condition.startsWith("onbranch:")) {
+                final String branch = branch();
+                String pattern = condition.substring("onbranch:".length());
+                if (pattern.endsWith("/")) {
+                    pattern += "**";
+                }
+                return branch != null && WildMatch.match(pattern, branch, false);
+            }
+            return false;
+        }
+
+        private boolean matchesGitDir(String pattern, Path from, boolean ignoreCase) throws IOException {
+            if (gitDir == null) {
+                return false;
+            }
+            if (pattern.startsWith("./")) {
+                pattern = from.getParent().toString() + pattern.substring(1);
+            } else {
+                pattern = PathUtils.replaceTildeWithHome(pattern);
+            }
+            if (!pattern.startsWith("/")) {
+                pattern = "**/" + pattern;
+            }
+            if (pattern.endsWith("/")) {
+                pattern += "**";
+            }
+            if (WildMatch.match(pattern, gitDir.toString(), ignoreCase)) {
+                return true;
+            }
+            // git matches the real path too, so that a symlinked checkout matches either way
+            return Files.exists(gitDir)
+                    && WildMatch.match(pattern, gitDir.toRealPath().toString(), ignoreCase);
+        }
+
+        /**
+         * @return the short name of the checked out branch, or null if HEAD is detached or unknown.
+         */
+        @Nullable
+        private String branch() throws IOException {
+            if (!branchRead && gitDir != null) {
+                branchRead = true;
+                final Path head = gitDir.resolve("HEAD");
+                sources.add(ConfigFileStamp.of(head));
+                if (Files.isRegularFile(head)) {
+                    final String ref =
+                            Files.readString(head, StandardCharsets.UTF_8).strip();
+                    if (ref.startsWith("ref: refs/heads/")) {
+                        branch = ref.substring("ref: refs/heads/".length());
+                    }
+                }
+            }
+            return branch;
+        }
+    }
+}
@@ -16,7 +16,30 @@
 
 package com.tisonkun.git.core.plumbing.format.config;
 
-public record ConfigOption(String key, String value) {
+import javax.annotation.Nullable;
+
+/**
+ * A config variable. A variable written without {@code =}, like a bare {@code bare} line, has no
+ * value: its value reads as the empty string, as {@code git config --get} prints it, but it is true
+ * as a boolean, while an explicit {@code key =} is false.
+ */
+public record ConfigOption(String key, String value, boolean hasValue) {
+    public ConfigOption(String key, String value) {
+        this(key, value, true);
+    }
+
+    static ConfigOption withoutValue(String key) {
+        return new ConfigOption(key, "", false);
+    }
+
+    /**
+     * @return the value, or null if the variable has none.
+     */
+    @Nullable
+    String rawValue() {
+        return hasValue ? value : null;
+    }
+
     // Option's key is in a case-insensitive comparison.
     public boolean isKey(String key) {
         return this.key.equalsIgnoreCase(key);
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.plumbing.format.config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * The options of a section or subsection in file order, indexed by case-folded key so that lookups
+ * need not scan. Each key maps to its values in file order, and the last one wins for single-valued
+ * lookups, as in git.
+ * <p>
+ * Typed values are parsed from the effective option once per type and memoized until the key gets
+ * another value. The memo is concurrent, so that readers sharing a config need not synchronize.
+ */
+final class ConfigOptionList {
+    private final List<ConfigOption> options = new ArrayList<>();
+    private final Map<String, List<ConfigOption>> index = new HashMap<>();
+    private final Map<String, Map<Object, Object>> parsed = new ConcurrentHashMap<>();
+
+    static String foldCase(String key) {
+        // returns the same string when it is already lower case, which is the common case
+        return key.toLowerCase(Locale.ROOT);
+    }
+
+    void add(ConfigOption option) {
+        options.add(option);
+        final String key = foldCase(option.key());
+        index.computeIfAbsent(key, k -> new ArrayList<>(1)).add(option);
+        parsed.remove(key);
+    }
+
+    /**
+     * Returns the effective value of the key as parsed by the given function, memoized under the kind,
+     * which identifies the parsed type.
+     */
+    @SuppressWarnings("unchecked")
+    <T> Optional<T> parsed(String key, Object kind, Function<ConfigOption, T> parser) {
+        final String folded = foldCase(key);
+        final List<ConfigOption> values = index.get(folded);
+        if (values == null) {
+            return Optional.empty();
+        }
+        final Map<Object, Object> memo = parsed.computeIfAbsent(folded, k -> new ConcurrentHashMap<>());
+        Object value = memo.get(kind);
+        if (value == null) {
+            // parse outside computeIfAbsent so that a malformed value throws without poisoning the memo
+            value = parser.apply(values.getLast());
+            memo.put(kind, value);
+        }
+        return Optional.of((T) value);
+    }
+
+    Optional<ConfigOption> last(String key) {
+        final List<ConfigOption> values = index.get(foldCase(key));
+        return values == null ? Optional.empty() : Optional.of(values.getLast());
+    }
+
+    List<ConfigOption> all(String key) {
+        final List<ConfigOption> values = index.get(foldCase(key));
+        return values == null ? List.of() : Collections.unmodifiableList(values);
+    }
+
+    boolean contains(String key) {
+        return index.containsKey(foldCase(key));
+    }
+
+    List<ConfigOption> view() {
+        return Collections.unmodifiableList(options);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof ConfigOptionList that && options.equals(that.options);
+    }
+
+    @Override
+    public int hashCode() {
+        return options.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return options.toString();
+    }
+}
@@ -0,0 +1,286 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.plumbing.format.config;
+
+import com.google.common.base.Preconditions;
+import java.io.IOException;
+import java.io.Reader;
+import javax.annotation.Nullable;
+
+/**
+ * A single-pass tokenizer of git config files, following git's own parser in config.c: it reads
+ * characters from a buffered reader without splitting lines first, and reuses one builder for names
+ * and values.
+ *
+ * @see <a href="https://git-scm.com/docs/git-config#_configuration_file">Configuration File</a>
+ */
+final class ConfigParser {
+    /**
+     * Receives what the parser reads in file order.
+     */
+    interface Handler {
+        void section(String section, @Nullable String subsection);
+
+        /**
+         * An option, whose value is null if it is written without {@code =}.
+         */
+        void option(String section, @Nullable String subsection, String key, @Nullable String value);
+
+        /**
+         * An {@code include.path}, or an {@code includeIf.<condition>.path} with the condition.
+         */
+        void include(@Nullable String condition, String path);
+    }
+
+    private static final int EOF = -1;
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position = 0;
+    private int limit = 0;
+    private int line = 1;
+
+    /**
+     * A character pushed back, or {@link #EOF} for none.
+     */
+    private int pending = EOF;
+
+    private final StringBuilder token = new StringBuilder();
+
+    private String section;
+    private String subsection;
+    private boolean include;
+    private String includeCondition;
+
+    ConfigParser(Reader reader) {
+        this.reader = reader;
+    }
+
+    void parse(Handler handler) throws IOException {
+        int c = read();
+        if (c == '\uFEFF') {
+            // a byte order mark, which some editors write
+            c = read();
+        }
+        for (; c != EOF; c = read()) {
+            if (isSpace(c)) {
+                continue;
+            }
+            if (c == '#' || c == ';') {
+                skipLine();
+                continue;
+            }
+            if (c == '[') {
+                parseSectionHeader(handler);
+                continue;
+            }
+            Preconditions.checkState(isAlpha(c), "malformed variable names at line %s", line);
+            parseVariable(handler, c);
+        }
+    }
+
+    private void parseSectionHeader(Handler handler) throws IOException {
+        token.setLength(0);
+        int c = read();
+        while (isAlnum(c) || c == '.' || c == '-') {
+            token.append(Character.toLowerCase((char) c));
+            c = read();
+        }
+        Preconditions.checkState(!token.isEmpty(), "malformed section name at line %s", line);
+        section = token.toString();
+
+        if (c == ']') {
+            subsection = null;
+        } else {
+            Preconditions.checkState(c == ' ' || c == '\t', "malformed section name at line %s", line);
+            do {
+                c = read();
+            } while (c == ' ' || c == '\t');
+            Preconditions.checkState(c == '"', "malformed section name at line %s", line);
+            token.setLength(0);
+            for (c = read(); c != '"'; c = read()) {
+                Preconditions.checkState(c != EOF && c != '\n', "malformed section name at line %s", line);
+                if (c == '\\') {
+                    c = read();
+                    Preconditions.checkState(c != EOF && c != '\n', "malformed section name at line %s", line);
+                }
+                token.append((char) c);
+            }
+            Preconditions.checkState(read() == ']', "malformed section name at line %s", line);
+            subsection = token.toString();
+        }
+
+        include = false;
+        includeCondition = null;
+        if (section.equals("include")) {
+            Preconditions.checkState(subsection == null, "malformed include section with cond at line %s", line);
+            include = true;
+        } else if (section.equals("includeif")) {
+            Preconditions.checkState(subsection != null, "malformed includeIf section without cond at line %s", line);
+            include = true;
+            includeCondition = subsection;
+        } else {
+            handler.section(section, subsection);
+        }
+    }
+
+    private void parseVariable(Handler handler, int first) throws IOException {
+        Preconditions.checkState(section != null, "each variable must belong to some section at line %s", line);
+        token.setLength(0);
+        token.append(Character.toLowerCase((char) first));
+        int c = read();
+        while (isAlnum(c) || c == '-') {
+            token.append(Character.toLowerCase((char) c));
+            c = read();
+        }
+        final String key = token.toString();
+        while (c == ' ' || c == '\t') {
+            c = read();
+        }
+
+        @Nullable final String value;
+        if (c == '=') {
+            value = parseValue();
+        } else {
+            Preconditions.checkState(
+                    c == '\n' || c == EOF || c == '#' || c == ';', "malformed variable: %s at line %s", key, line);
+            if (c == '#' || c == ';') {
+                skipLine();
+            }
+            value = null;
+        }
+
+        if (include) {
+            Preconditions.checkState(key.equals("path"), "include section can contain only 'path' at line %s", line);
+            Preconditions.checkState(value != null, "missing value for include path at line %s", line);
+            handler.include(includeCondition, value);
+        } else {
+            handler.option(section, subsection, key, value);
+        }
+    }
+
+    /**
+     * Parse a value up to the end of its line, where whitespace outside quotes collapses into single
+     * spaces, trailing whitespace is dropped, and a backslash at the end of a line continues the value.
+     */
+    private String parseValue() throws IOException {
+        token.setLength(0);
+        boolean quoted = false;
+        boolean comment = false;
+        int spaces = 0;
+        while (true) {
+            int c = read();
+            if (c == '\n' || c == EOF) {
+                Preconditions.checkState(!quoted, "malformed variable value: unclosed quote at line %s", line);
+                return token.toString();
+            }
+            if (comment) {
+                continue;
+            }
+            if (!quoted && isSpace(c)) {
+                if (!token.isEmpty()) {
+                    spaces++;
+                }
+                continue;
+            }
+            if (!quoted && (c == ';' || c == '#')) {
+                comment = true;
+                continue;
+            }
+            for (; spaces > 0; spaces--) {
+                token.append(' ');
+            }
+            if (c == '\\') {
+                c = read();
+                switch (c) {
+                    case '\n' -> {}
+                    case '\\', '"' -> token.append((char) c);
+                    case 'n' -> token.append('\n');
+                    case 't' -> token.append('\t');
+                    case 'b' -> token.append('\b');
+                    default -> throw new IllegalStateException(
+                            "cannot escape " + (c == EOF ? "EOF" : String.valueOf((char) c)) + " at line " + line);
+                }
+                continue;
+            }
+            if (c == '"') {
+                quoted = !quoted;
+                continue;
+            }
+            token.append((char) c);
+        }
+    }
+
+    private void skipLine() throws IOException {
+        int c;
+        do {
+            c = read();
+        } while (c != '\n' && c != EOF);
+    }
+
+    /**
+     * @return the next character, with CRLF read as LF, or {@link #EOF}.
+     */
+    private int read() throws IOException {
+        int c = readRaw();
+        if (c == '\r') {
+            final int next = readRaw();
+            if (next == '\n') {
+                c = next;
+            } else {
+                pending = next;
+            }
+        }
+        if (c == '\n') {
+            line++;
+        }
+        return c;
+    }
+
+    private int readRaw() throws IOException {
+        if (pending != EOF) {
+            final int c = pending;
+            pending = EOF;
+            return c;
+        }
+        if (position == limit) {
+            limit = reader.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return EOF;
+            }
+        }
+        return buffer[position++];
+    }
+
+    /**
+     * Whether the character is whitespace to git's {@code isspace}, which only covers ASCII.
+     */
+    static boolean isSpace(int c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == 0x0B || c == '\f' || c == '\r';
+    }
+
+    private static boolean isAlpha(int c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
+    }
+
+    private static boolean isAlnum(int c) {
+        return isAlpha(c) || (c >= '0' && c <= '9');
+    }
+}
@@ -16,10 +16,13 @@
 
 package com.tisonkun.git.core.plumbing.format.config;
 
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.RequiredArgsConstructor;
@@ -30,9 +33,13 @@ import lombok.ToString;
 @RequiredArgsConstructor(access = AccessLevel.PACKAGE)
 public class ConfigSection {
     private final String name;
-    private final List<ConfigOption> options = new ArrayList<>();
+    private final ConfigOptionList options = new ConfigOptionList();
     private final List<ConfigSubsection> subsections = new ArrayList<>();
 
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private final Map<String, ConfigSubsection> subsectionIndex = new HashMap<>();
+
     // Section's name is in a case-insensitive comparison.
     public boolean isName(String name) {
         return this.name.equalsIgnoreCase(name);
@@ -42,46 +49,89 @@ public class ConfigSection {
      * Returns an existing subsection with the given name or creates a new one.
      */
     public ConfigSubsection subsection(String name) {
-        for (ConfigSubsection subsection : subsections.reversed()) {
-            if (subsection.isName(name)) {
-                return subsection;
-            }
-        }
-        final ConfigSubsection subsection = new ConfigSubsection(name);
-        subsections.add(subsection);
-        return subsection;
+        return subsectionIndex.computeIfAbsent(name, n -> {
+            final ConfigSubsection subsection = new ConfigSubsection(n, this.name);
+            subsections.add(subsection);
+            return subsection;
+        });
+    }
+
+    public boolean hasSubsection(String name) {
+        return subsectionIndex.containsKey(name);
     }
 
     public List<ConfigSubsection> subsections() {
-        return subsections;
+        return Collections.unmodifiableList(subsections);
     }
 
+    /**
+     * Returns the last option with the given key, which is the effective one of a single-valued key.
+     */
     public Optional<ConfigOption> option(String key) {
-        return options.stream().filter(opt -> opt.isKey(key)).findFirst();
+        return options.last(key);
     }
 
+    /**
+     * Returns all options with the given key in file order.
+     */
     public List<ConfigOption> optionAll(String key) {
-        return options.stream().filter(opt -> opt.isKey(key)).collect(Collectors.toList());
+        return options.all(key);
     }
 
     public List<ConfigOption> options() {
-        return options;
+        return options.view();
+    }
+
+    /**
+     * Returns the effective value of the key as a boolean; see {@link ConfigValues#parseBoolean}.
+     */
+    public Optional<Boolean> getBoolean(String key) {
+        return options.parsed(key, Boolean.class, o -> ConfigValues.parseBoolean(name + "." + o.key(), o.rawValue()));
+    }
+
+    /**
+     * Returns the effective value of the key as an int with an optional unit suffix; see
+     * {@link ConfigValues#parseLong}.
+     */
+    public Optional<Integer> getInt(String key) {
+        return options.parsed(key, Integer.class, o -> ConfigValues.parseInt(name + "." + o.key(), o.value()));
+    }
+
+    /**
+     * Returns the effective value of the key as a long with an optional unit suffix; see
+     * {@link ConfigValues#parseLong}.
+     */
+    public Optional<Long> getLong(String key) {
+        return options.parsed(key, Long.class, o -> ConfigValues.parseLong(name + "." + o.key(), o.value()));
+    }
+
+    /**
+     * Returns the effective value of the key as a path with a leading tilde expanded.
+     */
+    public Optional<Path> getPath(String key) {
+        return options.parsed(key, Path.class, o -> ConfigValues.parsePath(name + "." + o.key(), o.value()));
+    }
+
+    /**
+     * Returns the effective value of the key as an enum constant; see {@link ConfigValues#parseEnum}.
+     */
+    public <E extends Enum<E>> Optional<E> getEnum(String key, Class<E> type) {
+        return options.parsed(key, type, o -> ConfigValues.parseEnum(name + "." + o.key(), o.value(), type));
     }
 
     /**
      * Adds a new Option to the Section and returns the updated Section.
      */
     public ConfigSection addOption(String key, String value) {
-        options.add(new ConfigOption(key, value));
+        return addOption(new ConfigOption(key, value));
+    }
+
+    ConfigSection addOption(ConfigOption option) {
+        options.add(option);
         return this;
     }
 
     public boolean hasOption(String key) {
-        for (ConfigOption option : options.reversed()) {
-            if (option.isKey(key)) {
-                return true;
-            }
-        }
-        return false;
+        return options.contains(key);
     }
 }
@@ -16,10 +16,9 @@
 
 package com.tisonkun.git.core.plumbing.format.config;
 
-import java.util.ArrayList;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.RequiredArgsConstructor;
@@ -30,39 +29,93 @@ import lombok.ToString;
 @RequiredArgsConstructor(access = AccessLevel.PACKAGE)
 public class ConfigSubsection {
     private final String name;
-    private final List<ConfigOption> options = new ArrayList<>();
+
+    /**
+     * The name of the enclosing section, to qualify variable names in errors.
+     */
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private final String section;
+
+    private final ConfigOptionList options = new ConfigOptionList();
 
     // Section's name is in a case-sensitive comparison.
     public boolean isName(String name) {
         return this.name.equals(name);
     }
 
+    /**
+     * Returns the last option with the given key, which is the effective one of a single-valued key.
+     */
     public Optional<ConfigOption> option(String key) {
-        return options.stream().filter(opt -> opt.isKey(key)).findFirst();
+        return options.last(key);
     }
 
+    /**
+     * Returns all options with the given key in file order.
+     */
     public List<ConfigOption> optionAll(String key) {
-        return options.stream().filter(opt -> opt.isKey(key)).collect(Collectors.toList());
+        return options.all(key);
     }
 
     public List<ConfigOption> options() {
-        return options;
+        return options.view();
+    }
+
+    /**
+     * Returns the effective value of the key as a boolean; see {@link ConfigValues#parseBoolean}.
+     */
+    public Optional<Boolean> getBoolean(String key) {
+        return options.parsed(key, Boolean.class, o -> ConfigValues.parseBoolean(qualify(o.key()), o.rawValue()));
+    }
+
+    /**
+     * Returns the effective value of the key as an int with an optional unit suffix; see
+     * {@link ConfigValues#parseLong}.
+     */
+    public Optional<Integer> getInt(String key) {
+        return options.parsed(key, Integer.class, o -> ConfigValues.parseInt(qualify(o.key()), o.value()));
+    }
+
+    /**
+     * Returns the effective value of the key as a long with an optional unit suffix; see
+     * {@link ConfigValues#parseLong}.
+     */
+    public Optional<Long> getLong(String key) {
+        return options.parsed(key, Long.class, o -> ConfigValues.parseLong(qualify(o.key()), o.value()));
+    }
+
+    /**
+     * Returns the effective value of the key as a path with a leading tilde expanded.
+     */
+    public Optional<Path> getPath(String key) {
+        return options.parsed(key, Path.class, o -> ConfigValues.parsePath(qualify(o.key()), o.value()));
+    }
+
+    /**
+     * Returns the effective value of the key as an enum constant; see {@link ConfigValues#parseEnum}.
+     */
+    public <E extends Enum<E>> Optional<E> getEnum(String key, Class<E> type) {
+        return options.parsed(key, type, o -> ConfigValues.parseEnum(qualify(o.key()), o.value(), type));
+    }
+
+    private String qualify(String key) {
+        return section + "." + name + "." + key;
     }
 
     /**
      * Adds a new Option to the Section and returns the updated Section.
      */
     public ConfigSubsection addOption(String key, String value) {
-        this.options.add(new ConfigOption(key, value));
+        return addOption(new ConfigOption(key, value));
+    }
+
+    ConfigSubsection addOption(ConfigOption option) {
+        options.add(option);
         return this;
     }
 
     public boolean hasOption(String key) {
-        for (ConfigOption option : options.reversed()) {
-            if (option.isKey(key)) {
-                return true;
-            }
-        }
-        return false;
+        return options.contains(key);
     }
 }
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.plumbing.format.config;
+
+import com.tisonkun.git.core.util.PathUtils;
+import java.nio.file.Path;
+import java.util.Locale;
+import javax.annotation.Nullable;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Parses config values as git does.
+ *
+ * @see <a href="https://git-scm.com/docs/git-config#_values">git-config Values</a>
+ */
+@UtilityClass
+public class ConfigValues {
+    /**
+     * Parse {@code true}, {@code yes}, {@code on} and {@code 1} as true and {@code false}, {@code no},
+     * {@code off}, {@code 0} and the empty string as false, ignoring case. Other integers are true if
+     * nonzero. A null value, from a variable without {@code =}, is true.
+     */
+    public static boolean parseBoolean(String name, @Nullable String value) {
+        if (value == null) {
+            return true;
+        }
+        switch (value.toLowerCase(Locale.ROOT)) {
+            case "true", "yes", "on" -> {
+                return true;
+            }
+            case "", "false", "no", "off" -> {
+                return false;
+            }
+            default -> {
+                try {
+                    return parseLong(name, value) != 0;
+                } catch (IllegalStateException e) {
+                    throw new IllegalStateException("bad boolean config value '" + value + "' for '" + name + "'");
+                }
+            }
+        }
+    }
+
+    /**
+     * Parse an integer with an optional {@code k}, {@code m} or {@code g} suffix, which scales it by
+     * 1024, 1024^2 or 1024^3. Like git's {@code strtoimax} with base 0, leading whitespace and a sign
+     * are allowed, and a {@code 0x} or {@code 0} prefix reads the digits as hex or octal.
+     */
+    public static long parseLong(String name, String value) {
+        final int len = value.length();
+        int pos = 0;
+        while (pos < len && ConfigParser.isSpace(value.charAt(pos))) {
+            pos++;
+        }
+        final boolean negative = pos < len && value.charAt(pos) == '-';
+        if (pos < len && (value.charAt(pos) == '-' || value.charAt(pos) == '+')) {
+            pos++;
+        }
+        int radix = 10;
+        if (pos + 2 < len
+                && value.charAt(pos) == '0'
+                && (value.charAt(pos + 1) == 'x' || value.charAt(pos + 1) == 'X')
+                && digit(value.charAt(pos + 2)) < 16) {
+            radix = 16;
+            pos += 2;
+        } else if (pos < len && value.charAt(pos) == '0') {
+            radix = 8;
+        }
+        final int start = pos;
+        while (pos < len && digit(value.charAt(pos)) < radix) {
+            pos++;
+        }
+        if (pos == start) {
+            throw new IllegalStateException("bad numeric config value '" + value + "' for '" + name + "'");
+        }
+
+        final long factor =
+                switch (value.substring(pos)) {
+                    case "" -> 1;
+                    case "k", "K" -> 1L << 10;
+                    case "m", "M" -> 1L << 20;
+                    case "g", "G" -> 1L << 30;
+                    default -> throw new IllegalStateException(
+                            "bad numeric config value '" + value + "' for '" + name + "'");
+                };
+        try {
+            final long number = Long.parseLong((negative ? "-" : "") + value.substring(start, pos), radix);
+            return Math.multiplyExact(number, factor);
+        } catch (NumberFormatException | ArithmeticException e) {
+            // the digits have been checked, so parsing can only fail on overflow
+            throw new IllegalStateException(
+                    "bad numeric config value '" + value + "' for '" + name + "': out of range");
+        }
+    }
+
+    /**
+     * @return the value of an ASCII hex digit, or {@link Integer#MAX_VALUE} if it is not one.
+     */
+    private static int digit(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+        return Integer.MAX_VALUE;
+    }
+
+    public static int parseInt(String name, String value) {
+        final long number = parseLong(name, value);
+        if (number != (int) number) {
+            throw new IllegalStateException(
+                    "bad numeric config value '" + value + "' for '" + name + "': out of range");
+        }
+        return (int) number;
+    }
+
+    /**
+     * Parse a path, expanding a leading {@code ~/} to the home directory.
+     */
+    public static Path parsePath(String name, String value) {
+        if (value.isEmpty()) {
+            throw new IllegalStateException("missing value for '" + name + "'");
+        }
+        return Path.of(PathUtils.replaceTildeWithHome(value));
+    }
+
+    /**
+     * Parse the name of an enum constant, ignoring case and reading dashes as underscores, so that
+     * {@code no-tags} selects {@code NO_TAGS}.
+     */
+    public static <E extends Enum<E>> E parseEnum(String name, String value, Class<E> type) {
+        final String constant = value.strip().replace('-', '_');
+        for (E e : type.getEnumConstants()) {
+            if (e.name().equalsIgnoreCase(constant)) {
+                return e;
+            }
+        }
+        throw new IllegalStateException("bad config value '" + value + "' for '" + name + "'");
+    }
+}
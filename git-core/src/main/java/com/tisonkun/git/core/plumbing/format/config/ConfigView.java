@@ -0,0 +1,156 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.plumbing.format.config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import javax.annotation.Nullable;
+
+/**
+ * The effective configuration of a repository: the entries of all levels and their includes in the
+ * order git reads them, indexed by variable name. A view is immutable; see {@link ConfigLoader}.
+ */
+public class ConfigView {
+    private final List<ConfigEntry> entries;
+    private final Map<String, List<ConfigEntry>> values = new HashMap<>();
+    private final Map<String, Set<String>> subsections = new HashMap<>();
+    private final List<ConfigFileStamp> sources;
+
+    ConfigView(List<ConfigEntry> entries) {
+        this(entries, List.of());
+    }
+
+    ConfigView(List<ConfigEntry> entries, List<ConfigFileStamp> sources) {
+        this.entries = Collections.unmodifiableList(entries);
+        this.sources = List.copyOf(sources);
+        for (ConfigEntry entry : entries) {
+            values.computeIfAbsent(entry.name(), n -> new ArrayList<>(1)).add(entry);
+            if (entry.subsection() != null) {
+                subsections
+                        .computeIfAbsent(entry.section(), s -> new LinkedHashSet<>())
+                        .add(entry.subsection());
+            }
+        }
+    }
+
+    static String name(String section, @Nullable String subsection, String key) {
+        final String foldedSection = ConfigOptionList.foldCase(section);
+        final String foldedKey = ConfigOptionList.foldCase(key);
+        return subsection == null
+                ? foldedSection + '.' + foldedKey
+                : foldedSection + '.' + subsection + '.' + foldedKey;
+    }
+
+    /**
+     * Split a variable name like {@code remote.origin.url} at its first and last dots; the part in
+     * between is the subsection.
+     */
+    private static String name(String name) {
+        final int first = name.indexOf('.');
+        final int last = name.lastIndexOf('.');
+        if (first < 0) {
+            throw new IllegalArgumentException("config name must contain a section and a key: " + name);
+        }
+        return first == last
+                ? name(name.substring(0, first), null, name.substring(last + 1))
+                : name(name.substring(0, first), name.substring(first + 1, last), name.substring(last + 1));
+    }
+
+    /**
+     * @return the files this view was read from, including candidates that were absent.
+     */
+    List<ConfigFileStamp> sources() {
+        return sources;
+    }
+
+    /**
+     * @return all entries in the order they take effect.
+     */
+    public List<ConfigEntry> entries() {
+        return entries;
+    }
+
+    /**
+     * @return the effective value of the variable, i.e., the last one, like {@code git config --get}.
+     */
+    public Optional<String> get(String name) {
+        return last(values.get(name(name)));
+    }
+
+    public Optional<String> get(String section, @Nullable String subsection, String key) {
+        return last(values.get(name(section, subsection, key)));
+    }
+
+    /**
+     * @return all values of the variable in order, like {@code git config --get-all}.
+     */
+    public List<String> getAll(String name) {
+        return all(values.get(name(name)));
+    }
+
+    public List<String> getAll(String section, @Nullable String subsection, String key) {
+        return all(values.get(name(section, subsection, key)));
+    }
+
+    /**
+     * @return the effective value of the variable as a boolean; see {@link ConfigValues#parseBoolean}.
+     */
+    public Optional<Boolean> getBoolean(String name) {
+        final String folded = name(name);
+        final List<ConfigEntry> entries = values.get(folded);
+        return entries == null
+                ? Optional.empty()
+                : Optional.of(
+                        ConfigValues.parseBoolean(folded, entries.getLast().value()));
+    }
+
+    public boolean has(String name) {
+        return values.containsKey(name(name));
+    }
+
+    /**
+     * @return the names of the subsections of the section in order of appearance, such as the remotes.
+     */
+    public Set<String> subsections(String section) {
+        final Set<String> names = subsections.get(ConfigOptionList.foldCase(section));
+        return names == null ? Set.of() : Collections.unmodifiableSet(names);
+    }
+
+    private static Optional<String> last(@Nullable List<ConfigEntry> entries) {
+        return entries == null ? Optional.empty() : Optional.of(value(entries.getLast()));
+    }
+
+    private static List<String> all(@Nullable List<ConfigEntry> entries) {
+        return entries == null
+                ? List.of()
+                : entries.stream().map(ConfigView::value).toList();
+    }
+
+    /**
+     * @return the value of the entry, where a variable without a value reads as the empty string, like
+     *     {@code git config --get} prints it.
+     */
+    private static String value(ConfigEntry entry) {
+        return entry.value() == null ? "" : entry.value();
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.plumbing.format.config;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+
+/**
+ * Keeps the {@link ConfigView} of a repository current for long-running processes. A background
+ * thread reloads the view when any file it was read from changes, and swaps in the new view
+ * atomically, so {@link #get()} is a plain volatile read.
+ * <p>
+ * Changes are noticed through a {@link WatchService} on the directories of those files, or by
+ * checking their modification time and size every poll interval. The poll also backs up the
+ * watch service, whose events may be late, coalesced or missing for directories that do not exist
+ * yet. A watch event for a file the view was read from forces a reload that parses the file again,
+ * since a rewrite of the same size within the granularity of the modification time leaves its stat
+ * unchanged. If a reload fails, for example on a malformed file, the previous view stays in effect.
+ */
+public class ConfigWatcher implements Closeable {
+    public static final Duration DEFAULT_POLL_INTERVAL = Duration.ofSeconds(1);
+
+    private final ConfigLoader loader;
+
+    @Nullable
+    private final File gitDir;
+
+    private final Duration pollInterval;
+
+    @Nullable
+    private final WatchService watchService;
+
+    private final Set<Path> watchedDirs = new HashSet<>();
+    private final Thread thread;
+    private volatile ConfigView snapshot;
+    private volatile boolean closed = false;
+
+    private ConfigWatcher(
+            ConfigLoader loader, @Nullable File gitDir, Duration pollInterval, @Nullable WatchService watchService)
+            throws IOException {
+        this.loader = loader;
+        this.gitDir = gitDir;
+        this.pollInterval = pollInterval;
+        this.watchService = watchService;
+        this.snapshot = loader.load(gitDir);
+        watchSources();
+        this.thread = Thread.ofPlatform().name("config-watcher").daemon().start(this::run);
+    }
+
+    /**
+     * Watch the config of the repository, or only the system and global config if gitDir is null,
+     * falling back to polling if the file system cannot be watched.
+     */
+    public static ConfigWatcher watch(ConfigLoader loader, @Nullable File gitDir) throws IOException {
+        return watch(loader, gitDir, DEFAULT_POLL_INTERVAL);
+    }
+
+    public static ConfigWatcher watch(ConfigLoader loader, @Nullable File gitDir, Duration pollInterval)
+            throws IOException {
+        WatchService watchService;
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+        } catch (UnsupportedOperationException | IOException e) {
+            watchService = null;
+        }
+        return new ConfigWatcher(loader, gitDir, pollInterval, watchService);
+    }
+
+    /**
+     * Watch the config by polling only, which suits file systems whose change events are unreliable,
+     * such as network mounts.
+     */
+    public static ConfigWatcher poll(ConfigLoader loader, @Nullable File gitDir, Duration pollInterval)
+            throws IOException {
+        return new ConfigWatcher(loader, gitDir, pollInterval, null);
+    }
+
+    /**
+     * @return the latest loaded view.
+     */
+    public ConfigView get() {
+        return snapshot;
+    }
+
+    /**
+     * Reload the view now if any file it was read from has changed.
+     *
+     * @return whether a new view was swapped in.
+     */
+    public synchronized boolean refresh() throws IOException {
+        for (ConfigFileStamp source : snapshot.sources()) {
+            if (!source.isCurrent()) {
+                return reload();
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reload the view if any of the changed paths, as reported by the watch service, is a file it was
+     * read from, bypassing the parsed-file cache for those files; otherwise refresh by stat.
+     */
+    private synchronized boolean refresh(Set<Path> changed, boolean overflow) throws IOException {
+        boolean stale = false;
+        for (ConfigFileStamp source : snapshot.sources()) {
+            if (overflow || changed.contains(source.path())) {
+                loader.getCache().invalidate(source.path());
+                stale = true;
+            }
+        }
+        return stale ? reload() : refresh();
+    }
+
+    private boolean reload() throws IOException {
+        snapshot = loader.load(gitDir);
+        watchSources();
+        return true;
+    }
+
+    private void watchSources() {
+        if (watchService == null) {
+            return;
+        }
+        for (ConfigFileStamp source : snapshot.sources()) {
+            final Path dir = source.path().getParent();
+            if (dir != null && !watchedDirs.contains(dir) && Files.isDirectory(dir)) {
+                try {
+                    dir.register(
+                            watchService,
+                            StandardWatchEventKinds.ENTRY_CREATE,
+                            StandardWatchEventKinds.ENTRY_MODIFY,
+                            StandardWatchEventKinds.ENTRY_DELETE);
+                    watchedDirs.add(dir);
+                } catch (IOException e) {
+                    // polling still covers files in this directory
+                }
+            }
+        }
+    }
+
+    private void run() {
+        // changes are kept until a reload succeeds, so that a failed one is retried
+        final Set<Path> changed = new HashSet<>();
+        boolean overflow = false;
+        while (!closed) {
+            try {
+                if (watchService != null) {
+                    WatchKey key = watchService.poll(pollInterval.toNanos(), TimeUnit.NANOSECONDS);
+                    while (key != null) {
+                        final Path dir = (Path) key.watchable();
+                        for (WatchEvent<?> event : key.pollEvents()) {
+                            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                                overflow = true;
+                            } else if (event.context() instanceof Path name) {
+                                changed.add(dir.resolve(name));
+                            }
+                        }
+                        key.reset();
+                        key = watchService.poll();
+                    }
+                } else {
+                    Thread.sleep(pollInterval);
+                }
+                refresh(changed, overflow);
+                changed.clear();
+                overflow = false;
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            } catch (IOException | RuntimeException e) {
+                // keep the current view until the files read again
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        thread.interrupt();
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+}
@@ -0,0 +1,425 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.plumbing.format.ewah;
+
+import com.google.common.base.Preconditions;
+import io.netty.buffer.ByteBuf;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.IntConsumer;
+import java.util.function.LongBinaryOperator;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * An EWAH-compressed bitmap in git's serialization, as used by several index extensions and by
+ * reachability bitmaps.
+ * <p>
+ * The compressed buffer is a sequence of marker words, each followed by its literal words. A marker
+ * word (RLW) holds, from the least significant bit: the running bit, a 32-bit running length of words
+ * that are all running bits, and a 31-bit count of the literal words that follow the run.
+ *
+ * @see <a href="https://github.com/git/git/blob/master/Documentation/technical/bitmap-format.txt">bitmap-format</a>
+ */
+@ToString
+@EqualsAndHashCode
+public class EwahBitmap {
+    static final int RUNNING_BITS = 32;
+    static final int LITERAL_BITS = 31;
+    static final long MAX_RUNNING_LEN = (1L << RUNNING_BITS) - 1;
+    static final long MAX_LITERAL_WORDS = (1L << LITERAL_BITS) - 1;
+
+    /**
+     * Number of bits the bitmap spans; git sets it to the last set bit plus one.
+     */
+    private final int bitSize;
+
+    private final long[] words;
+
+    /**
+     * Position of the last marker word in the buffer.
+     */
+    private final int rlwPosition;
+
+    EwahBitmap(int bitSize, long[] words, int rlwPosition) {
+        this.bitSize = bitSize;
+        this.words = words;
+        this.rlwPosition = rlwPosition;
+    }
+
+    public static EwahBitmap create(ByteBuf bytes) {
+        final int bitSize = bytes.readInt();
+        final int wordCount = bytes.readInt();
+        Preconditions.checkState(
+                wordCount >= 0 && (long) wordCount * 8 <= bytes.readableBytes(),
+                "malformed ewah bitmap (word count: %s)",
+                wordCount);
+        final long[] words = new long[wordCount];
+        for (int i = 0; i < wordCount; i++) {
+            words[i] = bytes.readLong();
+        }
+        final int rlwPosition = bytes.readInt();
+        Preconditions.checkState(
+                wordCount == 0 || (rlwPosition >= 0 && rlwPosition < wordCount),
+                "malformed ewah bitmap (rlw position: %s)",
+                rlwPosition);
+        return new EwahBitmap(bitSize, words, rlwPosition);
+    }
+
+    /**
+     * Compress the given bits.
+     */
+    public static EwahBitmap of(BitSet bits) {
+        final int bitSize = bits.length();
+        final long[] uncompressed = bits.toLongArray();
+        final EwahBuilder builder = new EwahBuilder();
+        for (long word : uncompressed) {
+            builder.addWord(word);
+        }
+        return builder.build(bitSize);
+    }
+
+    /**
+     * Compress the given set bits, which must be in strictly ascending order.
+     */
+    public static EwahBitmap of(int... bits) {
+        final BitSet bitSet = new BitSet();
+        int last = -1;
+        for (int bit : bits) {
+            Preconditions.checkArgument(bit > last, "bits must be in strictly ascending order");
+            bitSet.set(bit);
+            last = bit;
+        }
+        return of(bitSet);
+    }
+
+    public void write(ByteBuf bytes) {
+        bytes.writeInt(bitSize);
+        bytes.writeInt(words.length);
+        for (long word : words) {
+            bytes.writeLong(word);
+        }
+        bytes.writeInt(rlwPosition);
+    }
+
+    /**
+     * @return the number of bytes {@link #write(ByteBuf)} writes.
+     */
+    public int serializedSize() {
+        return 4 + 4 + words.length * 8 + 4;
+    }
+
+    public int bitSize() {
+        return bitSize;
+    }
+
+    /**
+     * @return the number of words of the compressed buffer.
+     */
+    public int compressedWords() {
+        return words.length;
+    }
+
+    public boolean get(int bit) {
+        if (bit < 0 || bit >= bitSize) {
+            return false;
+        }
+        final long target = bit >>> 6;
+        long wordPos = 0;
+        int pos = 0;
+        while (pos < words.length) {
+            final long rlw = words[pos++];
+            final long runningLen = runningLength(rlw);
+            if (target < wordPos + runningLen) {
+                return runningBit(rlw);
+            }
+            wordPos += runningLen;
+            final long literalWords = literalWords(rlw);
+            if (target < wordPos + literalWords) {
+                final long literal = words[pos + (int) (target - wordPos)];
+                return (literal & (1L << (bit & 63))) != 0;
+            }
+            wordPos += literalWords;
+            pos += (int) literalWords;
+        }
+        return false;
+    }
+
+    /**
+     * Call the consumer with each set bit in ascending order, without decompressing the bitmap.
+     */
+    public void forEach(IntConsumer consumer) {
+        long bitBase = 0;
+        int pos = 0;
+        while (pos < words.length) {
+            final long rlw = words[pos++];
+            final long runningLen = runningLength(rlw);
+            if (runningBit(rlw)) {
+                final long end = Math.min(bitBase + runningLen * 64, bitSize);
+                for (long bit = bitBase; bit < end; bit++) {
+                    consumer.accept((int) bit);
+                }
+            }
+            bitBase += runningLen * 64;
+
+            final long literalWords = literalWords(rlw);
+            for (long i = 0; i < literalWords; i++) {
+                long literal = words[pos++];
+                while (literal != 0) {
+                    final long bit = bitBase + Long.numberOfTrailingZeros(literal);
+                    if (bit >= bitSize) {
+                        return;
+                    }
+                    consumer.accept((int) bit);
+                    literal &= literal - 1;
+                }
+                bitBase += 64;
+            }
+        }
+    }
+
+    public int cardinality() {
+        final int[] count = {0};
+        forEach(bit -> count[0]++);
+        return count[0];
+    }
+
+    public BitSet toBitSet() {
+        final BitSet bits = new BitSet(bitSize);
+        forEach(bits::set);
+        return bits;
+    }
+
+    public EwahBitmap or(EwahBitmap other) {
+        return logicalOp(other, (a, b) -> a | b, Math.max(bitSize, other.bitSize));
+    }
+
+    public EwahBitmap and(EwahBitmap other) {
+        return logicalOp(other, (a, b) -> a & b, Math.min(bitSize, other.bitSize));
+    }
+
+    /**
+     * @return the bits set in this bitmap but not in the other.
+     */
+    public EwahBitmap andNot(EwahBitmap other) {
+        return logicalOp(other, (a, b) -> a & ~b, bitSize);
+    }
+
+    public EwahBitmap xor(EwahBitmap other) {
+        return logicalOp(other, (a, b) -> a ^ b, Math.max(bitSize, other.bitSize));
+    }
+
+    /**
+     * Combine two bitmaps word by word without decompressing them. Runs against runs yield runs, and a
+     * run that decides the result on its own, like ones for OR, skips the literal words of the other
+     * side instead of reading them.
+     */
+    private EwahBitmap logicalOp(EwahBitmap other, LongBinaryOperator op, int resultBitSize) {
+        final RunCursor a = new RunCursor(words);
+        final RunCursor b = new RunCursor(other.words);
+        final EwahBuilder builder = new EwahBuilder();
+        while (!a.done() || !b.done()) {
+            if (a.runningLen > 0 && b.runningLen > 0) {
+                final long n = Math.min(a.runningLen, b.runningLen);
+                builder.addRun(op.applyAsLong(a.runningWord(), b.runningWord()) == -1, n);
+                a.skip(n);
+                b.skip(n);
+            } else if (a.runningLen > 0) {
+                runAgainstLiterals(builder, a, b, (run, literal) -> op.applyAsLong(run, literal));
+            } else if (b.runningLen > 0) {
+                runAgainstLiterals(builder, b, a, (run, literal) -> op.applyAsLong(literal, run));
+            } else {
+                final long n = Math.min(a.literalWords, b.literalWords);
+                for (long i = 0; i < n; i++) {
+                    builder.addWord(op.applyAsLong(a.nextLiteral(), b.nextLiteral()));
+                }
+                a.normalize();
+                b.normalize();
+            }
+        }
+        return builder.build(resultBitSize);
+    }
+
+    private static void runAgainstLiterals(
+            EwahBuilder builder, RunCursor run, RunCursor literals, LongBinaryOperator op) {
+        final long n = Math.min(run.runningLen, literals.literalWords);
+        final long word = run.runningWord();
+        final long fixed = op.applyAsLong(word, 0);
+        if (fixed == op.applyAsLong(word, -1) && (fixed == 0 || fixed == -1)) {
+            builder.addRun(fixed == -1, n);
+            literals.skip(n);
+        } else {
+            for (long i = 0; i < n; i++) {
+                builder.addWord(op.applyAsLong(word, literals.nextLiteral()));
+            }
+            literals.normalize();
+        }
+        run.skip(n);
+    }
+
+    long[] words() {
+        return words;
+    }
+
+    static boolean runningBit(long rlw) {
+        return (rlw & 1) != 0;
+    }
+
+    static long runningLength(long rlw) {
+        return (rlw >>> 1) & MAX_RUNNING_LEN;
+    }
+
+    static long literalWords(long rlw) {
+        return rlw >>> (1 + RUNNING_BITS);
+    }
+
+    static long rlw(boolean runningBit, long runningLen, long literalWords) {
+        return (runningBit ? 1L : 0L) | (runningLen << 1) | (literalWords << (1 + RUNNING_BITS));
+    }
+
+    /**
+     * Walks the compressed words as a run of identical words followed by literal words, at word
+     * granularity. Past the end it acts as an endless run of zeros, so bitmaps of different lengths
+     * can be combined.
+     */
+    private static final class RunCursor {
+        private final long[] words;
+        private int pos = 0;
+        private boolean runningBit;
+        private long runningLen;
+        private long literalWords;
+
+        RunCursor(long[] words) {
+            this.words = words;
+            normalize();
+        }
+
+        boolean done() {
+            return runningLen == Long.MAX_VALUE;
+        }
+
+        long runningWord() {
+            return runningBit ? -1 : 0;
+        }
+
+        long nextLiteral() {
+            literalWords--;
+            return words[pos++];
+        }
+
+        /**
+         * Advance n words, which must not exceed the current run or literal words.
+         */
+        void skip(long n) {
+            if (done()) {
+                return;
+            }
+            if (runningLen > 0) {
+                runningLen -= n;
+            } else {
+                literalWords -= n;
+                pos += (int) n;
+            }
+            normalize();
+        }
+
+        void normalize() {
+            while (runningLen == 0 && literalWords == 0) {
+                if (pos >= words.length) {
+                    runningBit = false;
+                    runningLen = Long.MAX_VALUE;
+                    return;
+                }
+                final long rlw = words[pos++];
+                runningBit = runningBit(rlw);
+                runningLen = runningLength(rlw);
+                literalWords = literalWords(rlw);
+                Preconditions.checkState(
+                        pos + literalWords <= words.length, "malformed ewah bitmap (literal words: %s)", literalWords);
+            }
+        }
+    }
+
+    /**
+     * Appends uncompressed words and compresses them on the fly.
+     */
+    static final class EwahBuilder {
+        private long[] buffer = new long[16];
+        private int size = 0;
+        private int rlwPosition = 0;
+
+        EwahBuilder() {
+            buffer[size++] = 0;
+        }
+
+        void addWord(long word) {
+            if (word == 0 || word == -1) {
+                addRun(word == -1, 1);
+            } else {
+                addLiteral(word);
+            }
+        }
+
+        /**
+         * Append count words that are all the given bit.
+         */
+        void addRun(boolean bit, long count) {
+            while (count > 0) {
+                final long rlw = buffer[rlwPosition];
+                final long runningLen = runningLength(rlw);
+                final boolean canExtend = literalWords(rlw) == 0
+                        && (runningLen == 0 || runningBit(rlw) == bit)
+                        && runningLen < MAX_RUNNING_LEN;
+                if (!canExtend) {
+                    newRlw();
+                    continue;
+                }
+                final long n = Math.min(count, MAX_RUNNING_LEN - runningLen);
+                buffer[rlwPosition] = rlw(bit, runningLen + n, 0);
+                count -= n;
+            }
+        }
+
+        void addLiteral(long word) {
+            final long rlw = buffer[rlwPosition];
+            final long literalWords = literalWords(rlw);
+            if (literalWords >= MAX_LITERAL_WORDS) {
+                newRlw();
+                addLiteral(word);
+                return;
+            }
+            buffer[rlwPosition] = rlw(runningBit(rlw), runningLength(rlw), literalWords + 1);
+            push(word);
+        }
+
+        EwahBitmap build(int bitSize) {
+            return new EwahBitmap(bitSize, Arrays.copyOf(buffer, size), rlwPosition);
+        }
+
+        private void newRlw() {
+            rlwPosition = size;
+            push(0);
+        }
+
+        private void push(long word) {
+            if (size == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+            buffer[size++] = word;
+        }
+    }
+}
@@ -0,0 +1,268 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.plumbing.format.index;
+
+import com.google.common.base.Preconditions;
+import com.google.common.hash.HashCode;
+import com.tisonkun.git.core.plumbing.hash.HashFn;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import javax.annotation.Nullable;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * The cache tree (TREE) extension: a tree of directory nodes, each recording how many index entries
+ * it covers and the object id of the tree it was last written as. A node is invalid, with an entry
+ * count of -1 and no object id, once any path under it changes, so that building trees from the index
+ * only needs to rehash the invalid nodes and can reuse the valid subtrees as-is.
+ * <p>
+ * Nodes are mutated in place on {@link #invalidate(String)} and {@link #validate(int, HashCode)};
+ * there is no need to re-parse the extension.
+ *
+ * @see <a href="https://git-scm.com/docs/index-format#_cache_tree">Cache tree</a>
+ */
+@ToString
+@EqualsAndHashCode
+public class CacheTree {
+    public static final String SIGNATURE = "TREE";
+
+    /**
+     * The path component of this node relative to its parent; empty for the root.
+     */
+    private final String name;
+
+    private int entryCount;
+
+    @Nullable
+    private HashCode objectId;
+
+    private final List<CacheTree> subtrees = new ArrayList<>();
+
+    private CacheTree(String name, int entryCount, @Nullable HashCode objectId) {
+        this.name = name;
+        this.entryCount = entryCount;
+        this.objectId = objectId;
+    }
+
+    /**
+     * @return a new invalid root node.
+     */
+    public static CacheTree root() {
+        return new CacheTree("", -1, null);
+    }
+
+    public static CacheTree create(IndexExtension extension) {
+        return create(extension, HashFn.DEFAULT);
+    }
+
+    public static CacheTree create(IndexExtension extension, HashFn hashFn) {
+        Preconditions.checkArgument(
+                SIGNATURE.contentEquals(extension.getSig()), "not a cache tree extension: %s", extension.getSig());
+        return create(extension.getData().duplicate(), hashFn);
+    }
+
+    static CacheTree create(ByteBuf data, HashFn hashFn) {
+        final CacheTree root = read(data, hashFn);
+        Preconditions.checkState(!data.isReadable(), "malformed cache tree: %s trailing bytes", data.readableBytes());
+        return root;
+    }
+
+    // Nodes are stored in pre-order, each followed by its subtrees.
+    private static CacheTree read(ByteBuf data, HashFn hashFn) {
+        final int nameLen = data.bytesBefore((byte) 0);
+        Preconditions.checkState(nameLen >= 0, "malformed cache tree: missing NUL after path component");
+        final String name =
+                data.readCharSequence(nameLen, StandardCharsets.UTF_8).toString();
+        data.skipBytes(1);
+
+        final int entryCount = readNumber(data, (byte) ' ');
+        final int subtreeCount = readNumber(data, (byte) '\n');
+        Preconditions.checkState(subtreeCount >= 0, "malformed cache tree: negative subtree count");
+        final HashCode objectId = entryCount >= 0 ? hashFn.read(data) : null;
+
+        final CacheTree tree = new CacheTree(name, entryCount, objectId);
+        for (int i = 0; i < subtreeCount; i++) {
+            tree.subtrees.add(read(data, hashFn));
+        }
+        return tree;
+    }
+
+    private static int readNumber(ByteBuf data, byte terminator) {
+        final int len = data.bytesBefore(terminator);
+        Preconditions.checkState(len > 0, "malformed cache tree: missing number");
+        final CharSequence number = data.readCharSequence(len, StandardCharsets.US_ASCII);
+        data.skipBytes(1);
+        try {
+            return Integer.parseInt(number, 0, len, 10);
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("malformed cache tree: bad number " + number, e);
+        }
+    }
+
+    public IndexExtension toExtension() {
+        final ByteBuf data = Unpooled.buffer();
+        write(data);
+        return new IndexExtension(SIGNATURE, data);
+    }
+
+    void write(ByteBuf data) {
+        ByteBufUtil.writeUtf8(data, name);
+        data.writeByte(0);
+        data.writeCharSequence(Integer.toString(entryCount), StandardCharsets.US_ASCII);
+        data.writeByte(' ');
+        data.writeCharSequence(Integer.toString(subtrees.size()), StandardCharsets.US_ASCII);
+        data.writeByte('\n');
+        if (objectId != null) {
+            data.writeBytes(objectId.asBytes());
+        }
+        for (CacheTree subtree : subtrees) {
+            subtree.write(data);
+        }
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /**
+     * @return the number of index entries covered by this node, or -1 if it is invalid.
+     */
+    public int entryCount() {
+        return entryCount;
+    }
+
+    /**
+     * @return the id of the tree object of this node, or empty if it is invalid.
+     */
+    public Optional<HashCode> objectId() {
+        return Optional.ofNullable(objectId);
+    }
+
+    public boolean isValid() {
+        return entryCount >= 0;
+    }
+
+    public List<CacheTree> subtrees() {
+        return subtrees;
+    }
+
+    /**
+     * Returns the direct subtree with the given name.
+     */
+    public Optional<CacheTree> subtree(String name) {
+        for (CacheTree subtree : subtrees) {
+            if (subtree.name.equals(name)) {
+                return Optional.of(subtree);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Returns an existing direct subtree with the given name or creates a new invalid one.
+     */
+    public CacheTree subtreeOrCreate(String name) {
+        final Optional<CacheTree> existing = subtree(name);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+
+        // git orders subtrees by name length first and then by name bytes
+        final CacheTree subtree = new CacheTree(name, -1, null);
+        int pos = 0;
+        while (pos < subtrees.size() && compareName(subtrees.get(pos).name, name) < 0) {
+            pos += 1;
+        }
+        subtrees.add(pos, subtree);
+        return subtree;
+    }
+
+    /**
+     * Returns the node of the given directory path relative to this node, such as "a/b".
+     */
+    public Optional<CacheTree> find(String path) {
+        CacheTree tree = this;
+        int start = 0;
+        while (start < path.length()) {
+            final int slash = path.indexOf('/', start);
+            final int end = slash < 0 ? path.length() : slash;
+            final Optional<CacheTree> subtree = tree.subtree(path.substring(start, end));
+            if (subtree.isEmpty()) {
+                return Optional.empty();
+            }
+            tree = subtree.get();
+            start = end + 1;
+        }
+        return Optional.of(tree);
+    }
+
+    /**
+     * Invalidate the nodes along the given changed path, relative to this node, like git does when
+     * an index entry is added, removed or updated. If the last component of the path names a subtree,
+     * the path is no longer that directory and the subtree is dropped. Nodes off the path stay valid.
+     *
+     * @return whether this node was valid before.
+     */
+    public boolean invalidate(String path) {
+        final boolean wasValid = isValid();
+        CacheTree tree = this;
+        int start = 0;
+        while (true) {
+            tree.entryCount = -1;
+            tree.objectId = null;
+
+            final int slash = path.indexOf('/', start);
+            if (slash < 0) {
+                final String name = path.substring(start);
+                tree.subtrees.removeIf(subtree -> subtree.name.equals(name));
+                return wasValid;
+            }
+
+            final Optional<CacheTree> subtree = tree.subtree(path.substring(start, slash));
+            if (subtree.isEmpty()) {
+                return wasValid;
+            }
+            tree = subtree.get();
+            start = slash + 1;
+        }
+    }
+
+    /**
+     * Mark this node valid again once its tree has been written.
+     */
+    public void validate(int entryCount, HashCode objectId) {
+        Preconditions.checkArgument(entryCount >= 0, "entry count of a valid node must not be negative");
+        this.entryCount = entryCount;
+        this.objectId = objectId;
+    }
+
+    private static int compareName(String lhs, String rhs) {
+        final byte[] lhsBytes = lhs.getBytes(StandardCharsets.UTF_8);
+        final byte[] rhsBytes = rhs.getBytes(StandardCharsets.UTF_8);
+        if (lhsBytes.length != rhsBytes.length) {
+            return Integer.compare(lhsBytes.length, rhsBytes.length);
+        }
+        return Arrays.compareUnsigned(lhsBytes, rhsBytes);
+    }
+}
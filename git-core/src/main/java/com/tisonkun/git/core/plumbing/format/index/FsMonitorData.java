@@ -0,0 +1,138 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.plumbing.format.index;
+
+import com.google.common.base.Preconditions;
+import com.tisonkun.git.core.plumbing.format.ewah.EwahBitmap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import java.nio.charset.StandardCharsets;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * The file system monitor cache (FSMN) extension: the token of the last fsmonitor query and a bitmap
+ * of the index entries that were not known to be clean at that point. Entries outside the bitmap
+ * need no stat as long as the fsmonitor does not report their paths as changed since the token.
+ *
+ * @see <a href="https://git-scm.com/docs/index-format#_file_system_monitor_cache">File System Monitor cache</a>
+ */
+@ToString
+@EqualsAndHashCode
+public class FsMonitorData {
+    public static final String SIGNATURE = "FSMN";
+
+    /**
+     * Version 1 stores the query time in nanoseconds; version 2 stores an opaque token.
+     */
+    private int version;
+
+    private String token;
+
+    private EwahBitmap dirty;
+
+    private FsMonitorData(int version, String token, EwahBitmap dirty) {
+        this.version = version;
+        this.token = token;
+        this.dirty = dirty;
+    }
+
+    /**
+     * @param token the token returned by the fsmonitor.
+     * @param dirty the index entries that are not known to be clean.
+     */
+    public static FsMonitorData create(String token, EwahBitmap dirty) {
+        return new FsMonitorData(2, token, dirty);
+    }
+
+    public static FsMonitorData create(IndexExtension extension) {
+        Preconditions.checkArgument(
+                SIGNATURE.contentEquals(extension.getSig()), "not an fsmonitor extension: %s", extension.getSig());
+        return create(extension.getData().duplicate());
+    }
+
+    static FsMonitorData create(ByteBuf data) {
+        final int version = data.readInt();
+        final String token;
+        if (version == 1) {
+            token = Long.toString(data.readLong());
+        } else if (version == 2) {
+            final int len = data.bytesBefore((byte) 0);
+            Preconditions.checkState(len >= 0, "malformed fsmonitor token: missing NUL");
+            token = data.readCharSequence(len, StandardCharsets.UTF_8).toString();
+            data.skipBytes(1);
+        } else {
+            throw new IllegalStateException("unsupported fsmonitor version: " + version);
+        }
+
+        final int bitmapSize = data.readInt();
+        Preconditions.checkState(
+                bitmapSize == data.readableBytes(),
+                "malformed fsmonitor bitmap (size: %s, remaining: %s)",
+                bitmapSize,
+                data.readableBytes());
+        final EwahBitmap dirty = EwahBitmap.create(data);
+        return new FsMonitorData(version, token, dirty);
+    }
+
+    public IndexExtension toExtension() {
+        final ByteBuf data = Unpooled.buffer();
+        write(data);
+        return new IndexExtension(SIGNATURE, data);
+    }
+
+    void write(ByteBuf data) {
+        data.writeInt(version);
+        if (version == 1) {
+            data.writeLong(Long.parseLong(token));
+        } else {
+            ByteBufUtil.writeUtf8(data, token);
+            data.writeByte(0);
+        }
+        data.writeInt(dirty.serializedSize());
+        dirty.write(data);
+    }
+
+    public int version() {
+        return version;
+    }
+
+    public String token() {
+        return token;
+    }
+
+    public EwahBitmap dirty() {
+        return dirty;
+    }
+
+    /**
+     * Whether the entry at the given position may have changed before the token was taken.
+     */
+    public boolean isDirty(int entry) {
+        return dirty.get(entry);
+    }
+
+    /**
+     * Record the result of a refresh with a new token. The extension is upgraded to version 2.
+     */
+    public void update(String token, EwahBitmap dirty) {
+        this.version = 2;
+        this.token = token;
+        this.dirty = dirty;
+    }
+}
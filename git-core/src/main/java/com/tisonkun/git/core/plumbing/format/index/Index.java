@@ -24,25 +24,115 @@ import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import java.io.File;
 import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import javax.annotation.Nullable;
 import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import lombok.ToString;
 
 @Data
-@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
 public class Index {
     private final int version;
     private final List<IndexEntry> entries;
     private final List<IndexExtension> extensions;
 
+    /**
+     * The hash function of the object format of the repository.
+     */
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private final HashFn hashFn;
+
+    /**
+     * The decoded cache tree extension, if any. It is decoded once on first access and then updated
+     * in place; {@link IndexWriter} writes it back in place of the raw TREE extension.
+     */
+    @Getter(lazy = true)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private final Optional<CacheTree> cacheTree = extension(CacheTree.SIGNATURE).map(e -> CacheTree.create(e, hashFn));
+
+    /**
+     * The decoded untracked cache extension, if any; decoded and written back like {@link #getCacheTree()}.
+     */
+    @Getter(lazy = true)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private final Optional<UntrackedCache> untrackedCache =
+            extension(UntrackedCache.SIGNATURE).map(e -> UntrackedCache.create(e, hashFn));
+
+    /**
+     * The decoded fsmonitor extension, if any; decoded and written back like {@link #getCacheTree()}.
+     */
+    @Getter(lazy = true)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private final Optional<FsMonitorData> fsMonitorData =
+            extension(FsMonitorData.SIGNATURE).map(FsMonitorData::create);
+
     public static Index create(File source) throws IOException {
+        return create(source, HashFn.DEFAULT, null);
+    }
+
+    /**
+     * Parse the index file and, if it carries the EOIE and IEOT extensions, parse its entry blocks
+     * in parallel on the given pool. Falls back to sequential parsing when either extension is missing.
+     */
+    public static Index create(File source, @Nullable ForkJoinPool pool) throws IOException {
+        return create(source, HashFn.DEFAULT, pool);
+    }
+
+    /**
+     * Parse the index file of a repository whose object format uses the given hash function, such as
+     * {@code Config.hashFn()}.
+     */
+    public static Index create(File source, HashFn hashFn, @Nullable ForkJoinPool pool) throws IOException {
         final byte[] content = Files.asByteSource(source).read();
-        Preconditions.checkState(content.length >= 12, "malformed index header (length: %s)", content.length);
+        return create(Unpooled.wrappedBuffer(content), hashFn, pool);
+    }
+
+    /**
+     * Parse the index file from a read-only memory mapping of its content. Unlike {@link #create(File)},
+     * entries and the trailing checksum are read from the mapped region directly, so the file content is
+     * never copied into an intermediate heap array.
+     */
+    public static Index map(File source) throws IOException {
+        return map(source, HashFn.DEFAULT, null);
+    }
+
+    /**
+     * Combine {@link #map(File)} and {@link #create(File, ForkJoinPool)}: parse entry blocks of the
+     * mapped index file in parallel on the given pool.
+     */
+    public static Index map(File source, @Nullable ForkJoinPool pool) throws IOException {
+        return map(source, HashFn.DEFAULT, pool);
+    }
+
+    public static Index map(File source, HashFn hashFn, @Nullable ForkJoinPool pool) throws IOException {
+        try (FileChannel channel = FileChannel.open(source.toPath(), StandardOpenOption.READ)) {
+            final long length = channel.size();
+            Preconditions.checkState(length <= Integer.MAX_VALUE, "index file too large to map (length: %s)", length);
+            final MappedByteBuffer content = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            return create(Unpooled.wrappedBuffer(content), hashFn, pool);
+        }
+    }
+
+    static Index create(ByteBuf bytes, HashFn hashFn, @Nullable ForkJoinPool pool) {
+        final int length = bytes.readableBytes();
+        Preconditions.checkState(length >= 12, "malformed index header (length: %s)", length);
 
-        final ByteBuf bytes = Unpooled.wrappedBuffer(content);
         final CharSequence signature = bytes.readCharSequence(4, StandardCharsets.US_ASCII);
         Preconditions.checkState("DIRC".contentEquals(signature), "malformed index header signature", signature);
 
@@ -51,27 +141,160 @@ public class Index {
 
         // read entries
         final int entryLen = bytes.readInt();
-        final List<IndexEntry> entries = new ArrayList<>();
-        for (int i = 0; i < entryLen; i++) {
-            entries.add(IndexEntry.create(bytes, version));
-        }
+        final List<IndexEntry> entries = readEntries(bytes, version, entryLen, hashFn, pool);
 
         // read extensions
         final List<IndexExtension> extensions = new ArrayList<>();
-        while (bytes.readableBytes() > HashFn.DEFAULT.size()) {
+        while (bytes.readableBytes() > hashFn.size()) {
             extensions.add(IndexExtension.create(bytes));
         }
 
         // compare checksum
         final int offset = bytes.readerIndex();
-        final HashCode actualChecksum = HashFn.DEFAULT.calculate(content, 0, offset);
-        final HashCode expectedChecksum = HashFn.DEFAULT.read(bytes);
+        final HashCode actualChecksum = hashFn.calculate(bytes, 0, offset);
+        final HashCode expectedChecksum = hashFn.read(bytes);
         Preconditions.checkState(
                 expectedChecksum.equals(actualChecksum),
                 "checksum mismatch (expected = %s, actual = %s)",
                 expectedChecksum,
                 actualChecksum);
 
-        return new Index(version, entries, extensions);
+        return new Index(version, entries, extensions, hashFn);
+    }
+
+    /**
+     * Returns the first extension with the given signature.
+     */
+    public Optional<IndexExtension> extension(String signature) {
+        for (IndexExtension extension : extensions) {
+            if (signature.contentEquals(extension.getSig())) {
+                return Optional.of(extension);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Binary search for the entry with the given pathname, in UTF-8 bytes, and stage.
+     *
+     * @return the position of the entry if found; otherwise, (-(insertion point) - 1).
+     */
+    public int indexOf(byte[] pathname, IndexEntryStage stage) {
+        final int pos = IndexSearch.lowerBound(entries.size(), i -> compare(i, pathname, stage));
+        if (pos < entries.size() && compare(pos, pathname, stage) == 0) {
+            return pos;
+        }
+        return -pos - 1;
+    }
+
+    public Optional<IndexEntry> entry(byte[] pathname, IndexEntryStage stage) {
+        final int pos = indexOf(pathname, stage);
+        return pos >= 0 ? Optional.of(entries.get(pos)) : Optional.empty();
+    }
+
+    public Optional<IndexEntry> entry(String pathname) {
+        return entry(pathname.getBytes(StandardCharsets.UTF_8), IndexEntryStage.Merged);
+    }
+
+    /**
+     * @return whether any entry, of any stage, has the given pathname in UTF-8 bytes.
+     */
+    public boolean isTracked(byte[] pathname) {
+        final int pos = IndexSearch.lowerBound(entries.size(), i -> compare(i, pathname, false));
+        return pos < entries.size() && compare(pos, pathname, false) == 0;
+    }
+
+    public boolean isTracked(String pathname) {
+        return isTracked(pathname.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the range of entries whose pathname starts with the given UTF-8 bytes.
+     */
+    public IndexRange prefixRange(byte[] prefix) {
+        final int from = IndexSearch.lowerBound(entries.size(), i -> compare(i, prefix, true));
+        final int to = IndexSearch.upperBound(entries.size(), i -> compare(i, prefix, true));
+        return new IndexRange(from, to);
+    }
+
+    /**
+     * @return the entries whose pathname starts with the given prefix, as a view of {@link #getEntries()}.
+     */
+    public List<IndexEntry> entriesWithPrefix(String prefix) {
+        final IndexRange range = prefixRange(prefix.getBytes(StandardCharsets.UTF_8));
+        return entries.subList(range.from(), range.to());
+    }
+
+    /**
+     * @return the entries under the given directory recursively, as a view of {@link #getEntries()}.
+     */
+    public List<IndexEntry> entriesUnder(String directory) {
+        if (directory.isEmpty()) {
+            return entries;
+        }
+        return entriesWithPrefix(directory.endsWith("/") ? directory : directory + "/");
+    }
+
+    private int compare(int pos, byte[] pathname, boolean prefix) {
+        return IndexSearch.compare(entries.get(pos).getPathname(), pathname, prefix);
+    }
+
+    private int compare(int pos, byte[] pathname, IndexEntryStage stage) {
+        final IndexEntry entry = entries.get(pos);
+        final int cmp = IndexSearch.compare(entry.getPathname(), pathname, false);
+        return cmp != 0 ? cmp : Integer.compare(entry.getStage().ordinal(), stage.ordinal());
+    }
+
+    private static List<IndexEntry> readEntries(
+            ByteBuf bytes, int version, int entryLen, HashFn hashFn, @Nullable ForkJoinPool pool) {
+        if (pool != null) {
+            final Optional<IndexEndOfEntries> eoie = IndexEndOfEntries.find(bytes, hashFn);
+            final Optional<IndexEntryOffsetTable> ieot = eoie.flatMap(
+                            e -> e.findExtension(bytes, IndexEntryOffsetTable.SIGNATURE))
+                    .map(IndexEntryOffsetTable::create);
+            if (ieot.isPresent() && ieot.get().getBlocks().size() > 1) {
+                final List<IndexEntry> entries = readEntries(bytes, version, entryLen, hashFn, pool, ieot.get());
+                bytes.readerIndex(eoie.get().getOffset());
+                return entries;
+            }
+        }
+
+        final IndexPathBuffer path = new IndexPathBuffer();
+        final List<IndexEntry> entries = new ArrayList<>(entryLen);
+        for (int i = 0; i < entryLen; i++) {
+            entries.add(IndexEntry.create(bytes, version, hashFn, path));
+        }
+        return entries;
+    }
+
+    private static List<IndexEntry> readEntries(
+            ByteBuf bytes, int version, int entryLen, HashFn hashFn, ForkJoinPool pool, IndexEntryOffsetTable ieot) {
+        final List<ForkJoinTask<List<IndexEntry>>> tasks = new ArrayList<>();
+        int blockEntryLen = 0;
+        for (IndexEntryOffsetTable.Block block : ieot.getBlocks()) {
+            // each task reads through its own duplicate so that reader indexes are not shared
+            final ByteBuf blockBytes = bytes.duplicate().readerIndex(block.offset());
+            tasks.add(pool.submit(() -> {
+                final IndexPathBuffer path = new IndexPathBuffer();
+                final List<IndexEntry> entries = new ArrayList<>(block.count());
+                for (int i = 0; i < block.count(); i++) {
+                    entries.add(IndexEntry.create(blockBytes, version, hashFn, path));
+                }
+                return entries;
+            }));
+            blockEntryLen += block.count();
+        }
+        Preconditions.checkState(
+                blockEntryLen == entryLen,
+                "IEOT entry count mismatch (expected = %s, actual = %s)",
+                entryLen,
+                blockEntryLen);
+
+        // merge blocks in order
+        final List<IndexEntry> entries = new ArrayList<>(entryLen);
+        for (ForkJoinTask<List<IndexEntry>> task : tasks) {
+            entries.addAll(task.join());
+        }
+        return entries;
     }
 }
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.plumbing.format.index;
+
+import com.google.common.hash.HashCode;
+import com.tisonkun.git.core.plumbing.hash.HashFn;
+import io.netty.buffer.ByteBuf;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * The end of index entry (EOIE) extension, which tells where the entries end and thus where the
+ * extensions begin. It is always the last extension before the trailing checksum.
+ *
+ * @see <a href="https://git-scm.com/docs/index-format#_end_of_index_entry">End of Index Entry</a>
+ */
+@Data
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class IndexEndOfEntries {
+    public static final String SIGNATURE = "EOIE";
+
+    /**
+     * Offset from the beginning of the file to the end of the index entries.
+     */
+    private final int offset;
+
+    /**
+     * Hash over the signature and size of every extension between the entries and this extension.
+     */
+    private final HashCode hash;
+
+    /**
+     * Locate the EOIE extension at the tail of the index content and validate it against the extension
+     * headers it covers. Returns empty if the extension is absent or does not match.
+     */
+    static Optional<IndexEndOfEntries> find(ByteBuf bytes, HashFn hashFn) {
+        final int hashSize = hashFn.size();
+        final int size = 4 + hashSize;
+        final int start = bytes.writerIndex() - hashSize - 8 - size;
+        if (start < bytes.readerIndex()) {
+            return Optional.empty();
+        }
+        if (!SIGNATURE.contentEquals(bytes.getCharSequence(start, 4, StandardCharsets.US_ASCII))) {
+            return Optional.empty();
+        }
+        if (bytes.getInt(start + 4) != size) {
+            return Optional.empty();
+        }
+
+        final int offset = bytes.getInt(start + 8);
+        if (offset < bytes.readerIndex() || offset > start) {
+            return Optional.empty();
+        }
+
+        // the hash covers the 8-byte header (signature and size) of each extension in order
+        final byte[] headers = new byte[start - offset];
+        int headersLen = 0;
+        int pos = offset;
+        while (pos < start) {
+            if (start - pos < 8) {
+                return Optional.empty();
+            }
+            // a stale or corrupt offset may point at arbitrary sizes, which must not move the walk
+            // backward or beyond the EOIE extension
+            final int extensionSize = bytes.getInt(pos + 4);
+            if (extensionSize < 0 || extensionSize > start - pos - 8) {
+                return Optional.empty();
+            }
+            bytes.getBytes(pos, headers, headersLen, 8);
+            headersLen += 8;
+            pos += 8 + extensionSize;
+        }
+        if (pos != start) {
+            return Optional.empty();
+        }
+
+        final HashCode expected = hashFn.read(bytes.slice(start + 12, hashSize));
+        final HashCode actual = hashFn.calculate(headers, 0, headersLen);
+        if (!expected.equals(actual)) {
+            return Optional.empty();
+        }
+        return Optional.of(new IndexEndOfEntries(offset, expected));
+    }
+
+    /**
+     * Find the extension with the given signature among those covered by this EOIE extension.
+     * The returned buffer is a slice of the extension data without the header.
+     */
+    Optional<ByteBuf> findExtension(ByteBuf bytes, String signature) {
+        // headers have been validated by find(), so this walk always stops at the EOIE extension
+        int pos = offset;
+        while (true) {
+            final CharSequence sig = bytes.getCharSequence(pos, 4, StandardCharsets.US_ASCII);
+            if (SIGNATURE.contentEquals(sig)) {
+                return Optional.empty();
+            }
+            final int size = bytes.getInt(pos + 4);
+            if (signature.contentEquals(sig)) {
+                return Optional.of(bytes.slice(pos + 8, size));
+            }
+            pos += 8 + size;
+        }
+    }
+}
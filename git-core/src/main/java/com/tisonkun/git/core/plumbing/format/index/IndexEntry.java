@@ -19,12 +19,16 @@ package com.tisonkun.git.core.plumbing.format.index;
 import com.google.common.base.Preconditions;
 import com.google.common.hash.HashCode;
 import com.tisonkun.git.core.plumbing.hash.HashFn;
+import com.tisonkun.git.core.plumbing.hash.ObjectId;
+import com.tisonkun.git.core.util.VarintUtils;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
 import java.nio.charset.StandardCharsets;
 import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
+import lombok.With;
 
 @Data
 @Builder(builderClassName = "Builder", builderMethodName = "")
@@ -40,13 +44,32 @@ public class IndexEntry {
     private final int uid;
     private final int gid;
     private final int fileSize;
-    private final HashCode sha1;
+    private final ObjectId objectId;
+
+    @With(AccessLevel.PACKAGE)
     private final String pathname;
+
     private final IndexEntryStage stage;
+    private final boolean assumeValid;
     private final boolean skipWorktree;
     private final boolean intentToAdd;
 
-    static IndexEntry create(ByteBuf bytes, int version) {
+    /**
+     * @return the object id of this entry as a {@link HashCode}, which is a copy; prefer {@link #getObjectId()}.
+     */
+    public HashCode getSha1() {
+        return objectId.toHashCode();
+    }
+
+    /**
+     * @return the stat part of this entry.
+     */
+    public StatData statData() {
+        return new StatData(
+                ctimeSeconds, ctimeNanoseconds, mtimeSeconds, mtimeNanoseconds, dev, ino, uid, gid, fileSize);
+    }
+
+    static IndexEntry create(ByteBuf bytes, int version, HashFn hashFn, IndexPathBuffer path) {
         final Builder builder = new Builder();
         builder.ctimeSeconds(bytes.readInt());
         builder.ctimeNanoseconds(bytes.readInt());
@@ -58,13 +81,14 @@ public class IndexEntry {
         builder.uid(bytes.readInt());
         builder.gid(bytes.readInt());
         builder.fileSize(bytes.readInt());
-        builder.sha1(HashFn.DEFAULT.read(bytes));
+        builder.objectId(ObjectId.read(bytes, hashFn.size()));
 
         final short flag = bytes.readShort();
         final int nameLen = flag & 0xFFF;
+        builder.assumeValid((flag & 0x8000) != 0);
         builder.stage(IndexEntryStage.of((flag >> 12) & 0x3));
 
-        int entryLen = 62;
+        int entryLen = 42 + hashFn.size();
         if ((flag & 0x4000) != 0) { // extended
             Preconditions.checkState(version >= 3, "version (%s) < 3 cannot have extended flags", version);
             final int extraFlags = bytes.readShort();
@@ -73,19 +97,104 @@ public class IndexEntry {
             entryLen += 2;
         }
 
+        // In version 4, the pathname is prefix-compressed against the previous one.
+        if (version >= 4) {
+            path.read(bytes, VarintUtils.read(bytes));
+            builder.pathname(path.toString());
+            return builder.build();
+        }
+
         final int fixedNameLen = nameLen < 0xFFF ? nameLen : bytes.bytesBefore((byte) 0);
-        final CharSequence pathname = bytes.readCharSequence(nameLen, StandardCharsets.UTF_8);
+        final CharSequence pathname = bytes.readCharSequence(fixedNameLen, StandardCharsets.UTF_8);
         builder.pathname(pathname.toString());
         entryLen += fixedNameLen;
 
-        // In version 4, the padding after the pathname does not exist.
-        if (version < 4) {
-            final int padLen = 8 - Math.floorMod(entryLen, 8);
-            bytes.readBytes(padLen);
-        }
+        final int padLen = 8 - Math.floorMod(entryLen, 8);
+        bytes.skipBytes(padLen);
 
         return builder.build();
     }
 
+    /**
+     * Skip over an entry without decoding any of its fields. In version 4, the pathname is still
+     * decoded into the shared path buffer since the next entry depends on it.
+     */
+    static void skip(ByteBuf bytes, int version, HashFn hashFn, IndexPathBuffer path) {
+        bytes.skipBytes(40 + hashFn.size());
+
+        final short flag = bytes.readShort();
+        final int nameLen = flag & 0xFFF;
+
+        int entryLen = 42 + hashFn.size();
+        if ((flag & 0x4000) != 0) { // extended
+            Preconditions.checkState(version >= 3, "version (%s) < 3 cannot have extended flags", version);
+            bytes.skipBytes(2);
+            entryLen += 2;
+        }
+
+        if (version >= 4) {
+            path.read(bytes, VarintUtils.read(bytes));
+            return;
+        }
+
+        final int fixedNameLen = nameLen < 0xFFF ? nameLen : bytes.bytesBefore((byte) 0);
+        bytes.skipBytes(fixedNameLen);
+        entryLen += fixedNameLen;
+
+        final int padLen = 8 - Math.floorMod(entryLen, 8);
+        bytes.skipBytes(padLen);
+    }
+
+    /**
+     * Write this entry in the format of the given version. In version 4, the pathname is encoded
+     * against the previous one kept in the shared path buffer, which is then updated to this one.
+     */
+    void write(ByteBuf bytes, int version, IndexPathBuffer path) {
+        final int start = bytes.writerIndex();
+        bytes.writeInt(ctimeSeconds);
+        bytes.writeInt(ctimeNanoseconds);
+        bytes.writeInt(mtimeSeconds);
+        bytes.writeInt(mtimeNanoseconds);
+        bytes.writeInt(dev);
+        bytes.writeInt(ino);
+        bytes.writeInt(mode);
+        bytes.writeInt(uid);
+        bytes.writeInt(gid);
+        bytes.writeInt(fileSize);
+        objectId.write(bytes);
+
+        // v4 compares raw bytes against the previous pathname; otherwise, encode straight into the buffer
+        final byte[] name = version >= 4 ? pathname.getBytes(StandardCharsets.UTF_8) : null;
+        final int nameLen = name != null ? name.length : ByteBufUtil.utf8Bytes(pathname);
+        final boolean extended = skipWorktree || intentToAdd;
+        Preconditions.checkState(
+                !extended || version >= 3, "version (%s) < 3 cannot have extended flags: %s", version, pathname);
+
+        int flag = Math.min(nameLen, 0xFFF) | (stage.ordinal() << 12);
+        if (assumeValid) {
+            flag |= 0x8000;
+        }
+        if (extended) {
+            flag |= 0x4000;
+        }
+        bytes.writeShort(flag);
+        if (extended) {
+            bytes.writeShort((skipWorktree ? 0x4000 : 0) | (intentToAdd ? 0x2000 : 0));
+        }
+
+        if (name != null) {
+            final int common = path.commonPrefix(name);
+            VarintUtils.write(bytes, path.length() - common);
+            bytes.writeBytes(name, common, name.length - common);
+            bytes.writeByte(0);
+            path.set(name);
+            return;
+        }
+
+        ByteBufUtil.reserveAndWriteUtf8(bytes, pathname, nameLen);
+        final int padLen = 8 - Math.floorMod(bytes.writerIndex() - start, 8);
+        bytes.writeZero(padLen);
+    }
+
     private static class Builder {}
 }
@@ -0,0 +1,226 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.plumbing.format.index;
+
+import com.google.common.base.Preconditions;
+import com.google.common.hash.HashCode;
+import com.tisonkun.git.core.plumbing.hash.HashFn;
+import com.tisonkun.git.core.plumbing.hash.ObjectId;
+import io.netty.buffer.ByteBuf;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A flyweight over the entries of an {@link IndexView}. The cursor is positioned on one entry at a time,
+ * and each getter decodes its field from the raw index bytes on demand, so iterating over all entries
+ * allocates nothing unless the pathname or the object id is requested.
+ */
+public class IndexEntryCursor {
+    private final IndexView view;
+    private final ByteBuf bytes;
+    private final HashFn hashFn;
+    private final int flagsOffset;
+    private int index = -1;
+    private int offset = -1;
+
+    IndexEntryCursor(IndexView view) {
+        this.view = view;
+        this.bytes = view.bytes();
+        this.hashFn = view.getHashFn();
+        this.flagsOffset = view.flagsOffset();
+    }
+
+    /**
+     * Move to the next entry.
+     *
+     * @return false if there is no more entry.
+     */
+    public boolean next() {
+        if (index + 1 >= view.size()) {
+            return false;
+        }
+        moveTo(index + 1);
+        return true;
+    }
+
+    /**
+     * Move to the entry at the given position.
+     */
+    public IndexEntryCursor moveTo(int index) {
+        Preconditions.checkElementIndex(index, view.size());
+        this.index = index;
+        this.offset = view.offset(index);
+        return this;
+    }
+
+    /**
+     * @return the position of the current entry.
+     */
+    public int index() {
+        return index;
+    }
+
+    public int getCtimeSeconds() {
+        return field(0);
+    }
+
+    public int getCtimeNanoseconds() {
+        return field(1);
+    }
+
+    public int getMtimeSeconds() {
+        return field(2);
+    }
+
+    public int getMtimeNanoseconds() {
+        return field(3);
+    }
+
+    public int getDev() {
+        return field(4);
+    }
+
+    public int getIno() {
+        return field(5);
+    }
+
+    public int getMode() {
+        return field(6);
+    }
+
+    public int getUid() {
+        return field(7);
+    }
+
+    public int getGid() {
+        return field(8);
+    }
+
+    public int getFileSize() {
+        return field(9);
+    }
+
+    public HashCode getSha1() {
+        checkPositioned();
+        return hashFn.read(bytes.slice(offset + 40, hashFn.size()));
+    }
+
+    public ObjectId getObjectId() {
+        checkPositioned();
+        return ObjectId.get(bytes, offset + 40, hashFn.size());
+    }
+
+    /**
+     * Copy the object id of the current entry into dst[dstIndex, dstIndex + hashFn.size()).
+     */
+    public void getSha1(byte[] dst, int dstIndex) {
+        checkPositioned();
+        bytes.getBytes(offset + 40, dst, dstIndex, hashFn.size());
+    }
+
+    public boolean isAssumeValid() {
+        return (flags() & 0x8000) != 0;
+    }
+
+    public IndexEntryStage getStage() {
+        return IndexEntryStage.of((flags() >> 12) & 0x3);
+    }
+
+    public boolean isSkipWorktree() {
+        return (extendedFlags() & 0x4000) != 0;
+    }
+
+    public boolean isIntentToAdd() {
+        return (extendedFlags() & 0x2000) != 0;
+    }
+
+    public String getPathname() {
+        final byte[] pathnames = view.pathnames();
+        if (pathnames != null) {
+            return new String(pathnames, view.pathnameOffset(index), pathnameLength(), StandardCharsets.UTF_8);
+        }
+        return bytes.toString(pathnameOffset(), pathnameLength(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return the length of the pathname in UTF-8 bytes.
+     */
+    public int pathnameLength() {
+        if (view.pathnames() != null) {
+            checkPositioned();
+            return view.pathnameOffset(index + 1) - view.pathnameOffset(index);
+        }
+        final int nameLen = flags() & 0xFFF;
+        if (nameLen < 0xFFF) {
+            return nameLen;
+        }
+        final int nameOffset = pathnameOffset();
+        return bytes.bytesBefore(nameOffset, bytes.writerIndex() - nameOffset, (byte) 0);
+    }
+
+    /**
+     * Compare the pathname of the current entry with the given UTF-8 bytes without decoding it.
+     */
+    public boolean pathnameEquals(byte[] pathname) {
+        final int nameLen = pathnameLength();
+        if (nameLen != pathname.length) {
+            return false;
+        }
+        final byte[] pathnames = view.pathnames();
+        if (pathnames != null) {
+            final int nameOffset = view.pathnameOffset(index);
+            return Arrays.equals(pathnames, nameOffset, nameOffset + nameLen, pathname, 0, nameLen);
+        }
+        final int nameOffset = pathnameOffset();
+        for (int i = 0; i < nameLen; i++) {
+            if (bytes.getByte(nameOffset + i) != pathname[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Materialize the current entry.
+     */
+    public IndexEntry toEntry() {
+        checkPositioned();
+        return view.entry(index);
+    }
+
+    private int field(int n) {
+        checkPositioned();
+        return bytes.getInt(offset + n * 4);
+    }
+
+    private int flags() {
+        checkPositioned();
+        return bytes.getShort(offset + flagsOffset);
+    }
+
+    private int extendedFlags() {
+        return (flags() & 0x4000) != 0 ? bytes.getShort(offset + flagsOffset + 2) : 0;
+    }
+
+    private int pathnameOffset() {
+        return offset + flagsOffset + ((flags() & 0x4000) != 0 ? 4 : 2);
+    }
+
+    private void checkPositioned() {
+        Preconditions.checkState(offset >= 0, "cursor is not positioned on an entry");
+    }
+}
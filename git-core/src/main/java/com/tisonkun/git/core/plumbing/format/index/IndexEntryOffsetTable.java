@@ -0,0 +1,60 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.plumbing.format.index;
+
+import com.google.common.base.Preconditions;
+import io.netty.buffer.ByteBuf;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * The index entry offset table (IEOT) extension, which splits the index entries into blocks that
+ * can be loaded independently, e.g., on multiple threads.
+ *
+ * @see <a href="https://git-scm.com/docs/index-format#_index_entry_offset_table">Index Entry Offset Table</a>
+ */
+@Data
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class IndexEntryOffsetTable {
+    public static final String SIGNATURE = "IEOT";
+
+    private final int version;
+    private final List<Block> blocks;
+
+    /**
+     * A block of index entries.
+     *
+     * @param offset offset from the beginning of the file to the first entry of this block.
+     * @param count  number of entries in this block.
+     */
+    public record Block(int offset, int count) {}
+
+    public static IndexEntryOffsetTable create(ByteBuf data) {
+        final int version = data.readInt();
+        Preconditions.checkState(version == 1, "unsupported IEOT version: %s", version);
+        Preconditions.checkState(data.readableBytes() % 8 == 0, "malformed IEOT (length: %s)", data.readableBytes());
+
+        final List<Block> blocks = new ArrayList<>();
+        while (data.isReadable()) {
+            blocks.add(new Block(data.readInt(), data.readInt()));
+        }
+        return new IndexEntryOffsetTable(version, blocks);
+    }
+}
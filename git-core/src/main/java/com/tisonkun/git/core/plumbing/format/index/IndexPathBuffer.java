@@ -0,0 +1,102 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.plumbing.format.index;
+
+import com.google.common.base.Preconditions;
+import io.netty.buffer.ByteBuf;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A growable pathname buffer shared across consecutive entries, for the pathname prefix compression
+ * of index version 4: each entry strips some bytes from the previous pathname and appends a suffix.
+ */
+final class IndexPathBuffer {
+    private byte[] buf = new byte[256];
+    private int len = 0;
+
+    // whether the next entry starts a new block and thus ignores the previous pathname
+    private boolean blockStart = true;
+
+    int length() {
+        return len;
+    }
+
+    byte[] array() {
+        return buf;
+    }
+
+    /**
+     * Start a new block of entries, whose first pathname is not compressed against the previous one.
+     */
+    void reset() {
+        len = 0;
+        blockStart = true;
+    }
+
+    /**
+     * Replace the previous pathname with the pathname of a v4 entry read from bytes: a varint of how
+     * many bytes to strip, followed by the NUL-terminated suffix.
+     */
+    void read(ByteBuf bytes, long strip) {
+        if (blockStart) {
+            // git strips everything at the beginning of an IEOT block, which a block reader ignores
+            len = 0;
+            blockStart = false;
+        } else {
+            Preconditions.checkState(strip <= len, "malformed v4 pathname (strip %s from %s bytes)", strip, len);
+            len -= (int) strip;
+        }
+
+        final int suffixLen = bytes.bytesBefore((byte) 0);
+        Preconditions.checkState(suffixLen >= 0, "malformed v4 pathname: missing NUL terminator");
+        ensureCapacity(len + suffixLen);
+        bytes.readBytes(buf, len, suffixLen);
+        bytes.skipBytes(1);
+        len += suffixLen;
+    }
+
+    /**
+     * @return the length of the common prefix between the current pathname and the given one.
+     */
+    int commonPrefix(byte[] pathname) {
+        final int mismatch = Arrays.mismatch(buf, 0, len, pathname, 0, pathname.length);
+        return mismatch < 0 ? len : mismatch;
+    }
+
+    void set(byte[] pathname) {
+        set(pathname, 0, pathname.length);
+    }
+
+    void set(byte[] pathname, int offset, int length) {
+        ensureCapacity(length);
+        System.arraycopy(pathname, offset, buf, 0, length);
+        len = length;
+        blockStart = false;
+    }
+
+    @Override
+    public String toString() {
+        return new String(buf, 0, len, StandardCharsets.UTF_8);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > buf.length) {
+            buf = Arrays.copyOf(buf, Math.max(capacity, buf.length * 2));
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.plumbing.format.index;
+
+import java.util.function.IntUnaryOperator;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Binary search helpers over index entries, which git keeps sorted by the raw bytes of their pathname
+ * and then by their stage.
+ */
+@UtilityClass
+class IndexSearch {
+    /**
+     * @return the first position in [0, size) whose comparison result is not negative, or size if none.
+     */
+    static int lowerBound(int size, IntUnaryOperator comparator) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            final int mid = (lo + hi) >>> 1;
+            if (comparator.applyAsInt(mid) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * @return the first position in [0, size) whose comparison result is positive, or size if none.
+     */
+    static int upperBound(int size, IntUnaryOperator comparator) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            final int mid = (lo + hi) >>> 1;
+            if (comparator.applyAsInt(mid) <= 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Compare the UTF-8 encoding of the pathname with the key as unsigned bytes, encoding the pathname
+     * on the fly without allocating. If prefix is true, only the first key.length bytes of the pathname
+     * take part in the comparison, so that all pathnames starting with the key compare equal.
+     */
+    static int compare(String pathname, byte[] key, boolean prefix) {
+        int k = 0;
+        final int len = pathname.length();
+        for (int i = 0; i < len; i++) {
+            int cp = pathname.charAt(i);
+            if (Character.isHighSurrogate((char) cp)
+                    && i + 1 < len
+                    && Character.isLowSurrogate(pathname.charAt(i + 1))) {
+                cp = Character.toCodePoint((char) cp, pathname.charAt(++i));
+            } else if (Character.isSurrogate((char) cp)) {
+                cp = '?'; // as String#getBytes replaces malformed input
+            }
+
+            final int n = cp < 0x80 ? 1 : cp < 0x800 ? 2 : cp < 0x10000 ? 3 : 4;
+            for (int j = n - 1; j >= 0; j--) {
+                final int b;
+                if (n == 1) {
+                    b = cp;
+                } else if (j == n - 1) {
+                    b = (0xF00 >> n) & 0xFF | (cp >> (6 * j));
+                } else {
+                    b = 0x80 | ((cp >> (6 * j)) & 0x3F);
+                }
+                if (k == key.length) {
+                    return prefix ? 0 : 1;
+                }
+                final int c = Integer.compare(b & 0xFF, key[k++] & 0xFF);
+                if (c != 0) {
+                    return c;
+                }
+            }
+        }
+        return k == key.length ? 0 : -1;
+    }
+}
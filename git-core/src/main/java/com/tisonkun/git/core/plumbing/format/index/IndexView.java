@@ -0,0 +1,275 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.plumbing.format.index;
+
+import com.google.common.base.Preconditions;
+import com.google.common.hash.HashCode;
+import com.google.common.io.Files;
+import com.tisonkun.git.core.plumbing.hash.HashFn;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.annotation.Nullable;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * A lazy view over the raw index content. Unlike {@link Index}, entries are not materialized on load;
+ * only an offset table into the buffer is built. Fields of an entry are decoded on demand through an
+ * {@link IndexEntryCursor}, and an {@link IndexEntry} can still be materialized by {@link #entry(int)}.
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class IndexView {
+    private final ByteBuf bytes;
+
+    @Getter
+    private final int version;
+
+    @Getter
+    private final HashFn hashFn;
+
+    private final int[] offsets;
+
+    // In version 4, pathnames are prefix-compressed and cannot be decoded from an entry alone.
+    // They are decoded once on load into a shared arena, one after another.
+    @Nullable
+    private final byte[] pathnames;
+
+    @Nullable
+    private final int[] pathnameOffsets;
+
+    @Getter
+    private final List<IndexExtension> extensions;
+
+    public static IndexView create(File source) throws IOException {
+        return create(source, HashFn.DEFAULT);
+    }
+
+    public static IndexView create(File source, HashFn hashFn) throws IOException {
+        final byte[] content = Files.asByteSource(source).read();
+        return create(Unpooled.wrappedBuffer(content), hashFn);
+    }
+
+    /**
+     * Create a view over a read-only memory mapping of the index file. The mapping is kept alive as long
+     * as the view, and entries are decoded from the mapped region directly.
+     */
+    public static IndexView map(File source) throws IOException {
+        return map(source, HashFn.DEFAULT);
+    }
+
+    public static IndexView map(File source, HashFn hashFn) throws IOException {
+        try (FileChannel channel = FileChannel.open(source.toPath(), StandardOpenOption.READ)) {
+            final long length = channel.size();
+            Preconditions.checkState(length <= Integer.MAX_VALUE, "index file too large to map (length: %s)", length);
+            final MappedByteBuffer content = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            return create(Unpooled.wrappedBuffer(content), hashFn);
+        }
+    }
+
+    static IndexView create(ByteBuf bytes, HashFn hashFn) {
+        final int length = bytes.readableBytes();
+        Preconditions.checkState(length >= 12, "malformed index header (length: %s)", length);
+
+        final CharSequence signature = bytes.readCharSequence(4, StandardCharsets.US_ASCII);
+        Preconditions.checkState("DIRC".contentEquals(signature), "malformed index header signature", signature);
+
+        // read version
+        final int version = bytes.readInt();
+
+        // build offset table
+        final int entryLen = bytes.readInt();
+        final int[] offsets = new int[entryLen];
+        final IndexPathBuffer path = new IndexPathBuffer();
+        byte[] pathnames = null;
+        int[] pathnameOffsets = null;
+        if (version >= 4) {
+            pathnames = new byte[Math.max(256, entryLen * 32)];
+            pathnameOffsets = new int[entryLen + 1];
+        }
+        for (int i = 0; i < entryLen; i++) {
+            offsets[i] = bytes.readerIndex();
+            IndexEntry.skip(bytes, version, hashFn, path);
+            if (pathnames != null) {
+                final int start = pathnameOffsets[i];
+                if (start + path.length() > pathnames.length) {
+                    pathnames = Arrays.copyOf(pathnames, Math.max(start + path.length(), pathnames.length * 2));
+                }
+                System.arraycopy(path.array(), 0, pathnames, start, path.length());
+                pathnameOffsets[i + 1] = start + path.length();
+            }
+        }
+
+        // read extensions
+        final List<IndexExtension> extensions = new ArrayList<>();
+        while (bytes.readableBytes() > hashFn.size()) {
+            extensions.add(IndexExtension.create(bytes));
+        }
+
+        // compare checksum
+        final int offset = bytes.readerIndex();
+        final HashCode actualChecksum = hashFn.calculate(bytes, 0, offset);
+        final HashCode expectedChecksum = hashFn.read(bytes);
+        Preconditions.checkState(
+                expectedChecksum.equals(actualChecksum),
+                "checksum mismatch (expected = %s, actual = %s)",
+                expectedChecksum,
+                actualChecksum);
+
+        return new IndexView(bytes, version, hashFn, offsets, pathnames, pathnameOffsets, extensions);
+    }
+
+    /**
+     * @return the number of entries.
+     */
+    public int size() {
+        return offsets.length;
+    }
+
+    /**
+     * @return a new cursor positioned before the first entry.
+     */
+    public IndexEntryCursor cursor() {
+        return new IndexEntryCursor(this);
+    }
+
+    /**
+     * Materialize the entry at the given position.
+     */
+    public IndexEntry entry(int index) {
+        final IndexPathBuffer path = new IndexPathBuffer();
+        if (pathnames != null && index > 0) {
+            path.set(pathnames, pathnameOffsets[index - 1], pathnameOffsets[index] - pathnameOffsets[index - 1]);
+        }
+        return IndexEntry.create(bytes.duplicate().readerIndex(offsets[index]), version, hashFn, path);
+    }
+
+    /**
+     * Materialize all entries into an {@link Index}.
+     */
+    public Index toIndex() {
+        final List<IndexEntry> entries = new ArrayList<>(offsets.length);
+        for (int i = 0; i < offsets.length; i++) {
+            entries.add(entry(i));
+        }
+        return new Index(version, entries, extensions, hashFn);
+    }
+
+    /**
+     * Binary search for the entry with the given pathname, in UTF-8 bytes, and stage. Pathnames are
+     * compared as raw bytes in the index and never decoded.
+     *
+     * @return the position of the entry if found; otherwise, (-(insertion point) - 1).
+     */
+    public int indexOf(byte[] pathname, IndexEntryStage stage) {
+        final int pos = IndexSearch.lowerBound(offsets.length, i -> compare(i, pathname, stage));
+        if (pos < offsets.length && compare(pos, pathname, stage) == 0) {
+            return pos;
+        }
+        return -pos - 1;
+    }
+
+    /**
+     * @return whether any entry, of any stage, has the given pathname in UTF-8 bytes.
+     */
+    public boolean isTracked(byte[] pathname) {
+        final int pos = IndexSearch.lowerBound(offsets.length, i -> compare(i, pathname, false));
+        return pos < offsets.length && compare(pos, pathname, false) == 0;
+    }
+
+    /**
+     * @return the range of entries whose pathname starts with the given UTF-8 bytes. Iterate over it
+     * with {@link IndexEntryCursor#moveTo(int)}.
+     */
+    public IndexRange prefixRange(byte[] prefix) {
+        final int from = IndexSearch.lowerBound(offsets.length, i -> compare(i, prefix, true));
+        final int to = IndexSearch.upperBound(offsets.length, i -> compare(i, prefix, true));
+        return new IndexRange(from, to);
+    }
+
+    private int compare(int pos, byte[] pathname, boolean prefix) {
+        final int nameLen;
+        final int nameOffset;
+        if (pathnames != null) {
+            nameOffset = pathnameOffsets[pos];
+            nameLen = pathnameOffsets[pos + 1] - nameOffset;
+        } else {
+            final int flags = bytes.getShort(offsets[pos] + flagsOffset());
+            nameOffset = offsets[pos] + flagsOffset() + ((flags & 0x4000) != 0 ? 4 : 2);
+            final int len = flags & 0xFFF;
+            nameLen = len < 0xFFF ? len : bytes.bytesBefore(nameOffset, bytes.writerIndex() - nameOffset, (byte) 0);
+        }
+
+        final int len = Math.min(nameLen, pathname.length);
+        for (int i = 0; i < len; i++) {
+            final int b = pathnames != null ? pathnames[nameOffset + i] : bytes.getByte(nameOffset + i);
+            final int c = Integer.compare(b & 0xFF, pathname[i] & 0xFF);
+            if (c != 0) {
+                return c;
+            }
+        }
+        if (prefix && nameLen >= pathname.length) {
+            return 0;
+        }
+        return Integer.compare(nameLen, pathname.length);
+    }
+
+    private int compare(int pos, byte[] pathname, IndexEntryStage stage) {
+        final int cmp = compare(pos, pathname, false);
+        if (cmp != 0) {
+            return cmp;
+        }
+        final int entryStage = (bytes.getShort(offsets[pos] + flagsOffset()) >> 12) & 0x3;
+        return Integer.compare(entryStage, stage.ordinal());
+    }
+
+    /**
+     * @return the offset of the flags within an entry, which follow the stat fields and the object id.
+     */
+    int flagsOffset() {
+        return 40 + hashFn.size();
+    }
+
+    ByteBuf bytes() {
+        return bytes;
+    }
+
+    int offset(int index) {
+        return offsets[index];
+    }
+
+    /**
+     * @return the decoded pathnames of a version 4 index, or null if pathnames are stored in entries.
+     */
+    @Nullable
+    byte[] pathnames() {
+        return pathnames;
+    }
+
+    int pathnameOffset(int index) {
+        return pathnameOffsets[index];
+    }
+}
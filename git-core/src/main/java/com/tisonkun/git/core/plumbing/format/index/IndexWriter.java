@@ -0,0 +1,158 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.plumbing.format.index;
+
+import com.google.common.base.Preconditions;
+import com.google.common.hash.HashCode;
+import com.tisonkun.git.core.plumbing.hash.Hasher;
+import com.tisonkun.git.core.util.LockFile;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.buffer.UnpooledDirectByteBuf;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import javax.annotation.Nullable;
+
+/**
+ * Writes an {@link Index} back in the index file format.
+ * <p>
+ * Entries and extensions are streamed to the channel through a direct buffer that is reused across
+ * writes, and the trailing checksum is computed incrementally as bytes go out. Hence, a writer is not
+ * thread-safe and is meant to be kept around by whoever updates the index frequently.
+ */
+public class IndexWriter {
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private final ByteBuf buffer;
+    private final int bufferSize;
+
+    public IndexWriter() {
+        this(DEFAULT_BUFFER_SIZE);
+    }
+
+    public IndexWriter(int bufferSize) {
+        Preconditions.checkArgument(bufferSize > 0, "buffer size must be positive: %s", bufferSize);
+        // backed by a JDK direct buffer, which is freed along with the writer without an explicit release
+        this.buffer = new UnpooledDirectByteBuf(UnpooledByteBufAllocator.DEFAULT, bufferSize, Integer.MAX_VALUE);
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Write the index in its own version to the target file.
+     */
+    public void write(Index index, File target) throws IOException {
+        write(index, index.getVersion(), target);
+    }
+
+    /**
+     * Write the index in the given version to the target file. Writing version 4 enables the pathname
+     * prefix compression, which shrinks the index considerably for deep trees.
+     * <p>
+     * The content is written to {@code <target>.lock} first and renamed over the target once complete,
+     * following git's {@code index.lock} protocol; it fails if the lock is already held.
+     */
+    public void write(Index index, int version, File target) throws IOException {
+        try (LockFile lock = LockFile.lock(target)) {
+            write(index, version, lock.channel());
+            lock.commit();
+        }
+    }
+
+    /**
+     * Write the index in the given version to the channel.
+     * <p>
+     * The EOIE and IEOT extensions are dropped, since the entry offsets they record do not survive
+     * a rewrite.
+     *
+     * @return the trailing checksum.
+     */
+    public HashCode write(Index index, int version, WritableByteChannel channel) throws IOException {
+        Preconditions.checkArgument(version >= 2 && version <= 4, "unsupported index version: %s", version);
+
+        final Hasher hasher = index.getHashFn().newHasher();
+        buffer.clear();
+        try {
+            buffer.writeCharSequence("DIRC", StandardCharsets.US_ASCII);
+            buffer.writeInt(version);
+            buffer.writeInt(index.getEntries().size());
+
+            final IndexPathBuffer path = new IndexPathBuffer();
+            for (IndexEntry entry : index.getEntries()) {
+                entry.write(buffer, version, path);
+                if (buffer.readableBytes() >= bufferSize) {
+                    flush(channel, hasher);
+                }
+            }
+
+            for (IndexExtension extension : index.getExtensions()) {
+                if (isOffsetExtension(extension)) {
+                    continue;
+                }
+                // decoded extensions may have been updated since they were read
+                if (CacheTree.SIGNATURE.contentEquals(extension.getSig())) {
+                    extension = index.getCacheTree().orElseThrow().toExtension();
+                } else if (UntrackedCache.SIGNATURE.contentEquals(extension.getSig())) {
+                    extension = index.getUntrackedCache().orElseThrow().toExtension();
+                } else if (FsMonitorData.SIGNATURE.contentEquals(extension.getSig())) {
+                    extension = index.getFsMonitorData().orElseThrow().toExtension();
+                }
+                final ByteBuf data = extension.getData();
+                buffer.writeCharSequence(extension.getSig(), StandardCharsets.US_ASCII);
+                buffer.writeInt(data.readableBytes());
+                flush(channel, hasher);
+                // extension data can be large, so it bypasses the buffer
+                write(channel, hasher, data.nioBuffer());
+            }
+
+            flush(channel, hasher);
+            final HashCode checksum = hasher.finish();
+            write(channel, null, ByteBuffer.wrap(checksum.asBytes()));
+            return checksum;
+        } finally {
+            // shrink back in case a huge entry has expanded the reusable buffer
+            buffer.clear();
+            if (buffer.capacity() > bufferSize) {
+                buffer.capacity(bufferSize);
+            }
+        }
+    }
+
+    private void flush(WritableByteChannel channel, Hasher hasher) throws IOException {
+        if (buffer.isReadable()) {
+            write(channel, hasher, buffer.nioBuffer());
+            buffer.clear();
+        }
+    }
+
+    private static void write(WritableByteChannel channel, @Nullable Hasher hasher, ByteBuffer bytes)
+            throws IOException {
+        if (hasher != null) {
+            hasher.update(bytes.duplicate());
+        }
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+    }
+
+    private static boolean isOffsetExtension(IndexExtension extension) {
+        final CharSequence sig = extension.getSig();
+        return IndexEndOfEntries.SIGNATURE.contentEquals(sig) || IndexEntryOffsetTable.SIGNATURE.contentEquals(sig);
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.plumbing.format.index;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.hash.HashCode;
+import com.google.common.io.Files;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.tisonkun.git.core.plumbing.hash.HashFn;
+import io.netty.buffer.Unpooled;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Resolves split indexes against their shared index. Parsed shared indexes are kept in memory keyed
+ * by their checksum, so loading a split index again only parses its delta. Since shared indexes are
+ * named by their content, one cache can serve several repositories.
+ *
+ * @see SplitIndexLink
+ */
+public class SharedIndexCache {
+    private static final String SHARED_INDEX_PREFIX = "sharedindex.";
+
+    private final Cache<HashCode, Index> cache;
+
+    public SharedIndexCache() {
+        this(8);
+    }
+
+    /**
+     * @param maximumSize the number of shared indexes to keep.
+     */
+    public SharedIndexCache(long maximumSize) {
+        this.cache =
+                CacheBuilder.newBuilder().maximumSize(maximumSize).recordStats().build();
+    }
+
+    /**
+     * Read the index file and, if it is a split index, merge it with its shared index, which is looked
+     * up next to the index file.
+     */
+    public Index read(File source) throws IOException {
+        return read(source, HashFn.DEFAULT);
+    }
+
+    /**
+     * Like {@link #read(File)} for a repository whose object format uses the given hash function.
+     */
+    public Index read(File source, HashFn hashFn) throws IOException {
+        final Index index = Index.create(source, hashFn, null);
+        return resolve(index, source.getAbsoluteFile().getParentFile());
+    }
+
+    /**
+     * Merge a split index with its shared index in the given directory. Returns the index as-is if it
+     * is not split.
+     */
+    public Index resolve(Index index, File directory) throws IOException {
+        final Optional<SplitIndexLink> link =
+                index.extension(SplitIndexLink.SIGNATURE).map(e -> SplitIndexLink.create(e, index.getHashFn()));
+        if (link.isEmpty()) {
+            return index;
+        }
+        // a null shared index id means that all entries are in the index itself
+        final HashCode sharedIndex = link.get().getSharedIndex();
+        if (isNull(sharedIndex)) {
+            return new Index(
+                    index.getVersion(), index.getEntries(), withoutLink(index.getExtensions()), index.getHashFn());
+        }
+        return merge(index, link.get(), load(directory, sharedIndex, index.getHashFn()));
+    }
+
+    /**
+     * Returns the shared index with the given checksum from the cache, or reads it from the given
+     * directory.
+     */
+    public Index load(File directory, HashCode sharedIndex, HashFn hashFn) throws IOException {
+        try {
+            return cache.get(sharedIndex, () -> readSharedIndex(directory, sharedIndex, hashFn));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            Throwables.throwIfInstanceOf(e.getCause(), IOException.class);
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new IOException("cannot read shared index " + sharedIndex, e.getCause());
+        }
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private static Index readSharedIndex(File directory, HashCode sharedIndex, HashFn hashFn) throws IOException {
+        final File source = new File(directory, SHARED_INDEX_PREFIX + sharedIndex);
+        final byte[] content = Files.asByteSource(source).read();
+        final int hashSize = hashFn.size();
+        Preconditions.checkState(content.length >= hashSize, "malformed shared index (length: %s)", content.length);
+        final HashCode checksum =
+                HashCode.fromBytes(Arrays.copyOfRange(content, content.length - hashSize, content.length));
+        Preconditions.checkState(
+                checksum.equals(sharedIndex),
+                "shared index checksum mismatch (expected = %s, actual = %s)",
+                sharedIndex,
+                checksum);
+
+        final Index index = Index.create(Unpooled.wrappedBuffer(content), hashFn, null);
+        Preconditions.checkState(
+                index.extension(SplitIndexLink.SIGNATURE).isEmpty(), "shared index %s is itself split", sharedIndex);
+        return index;
+    }
+
+    /**
+     * Apply the split index to the shared index like git's {@code merge_base_index}: the leading split
+     * entries replace the shared entries in the replace bitmap, the shared entries in the delete bitmap
+     * are dropped, and the rest of the split entries are added in order, replacing shared entries with
+     * the same name and stage. Like git's {@code add_index_entry}, an added stage 0 entry also resolves
+     * the conflict of its path, so the shared entries of stages 1-3 with the same name are dropped.
+     */
+    static Index merge(Index split, SplitIndexLink link, Index shared) {
+        final List<IndexEntry> base = shared.getEntries();
+        final List<IndexEntry> delta = split.getEntries();
+        final IndexEntry[] entries = base.toArray(new IndexEntry[0]);
+
+        int replacements = 0;
+        if (link.getReplace() != null) {
+            final BitSet replace = link.getReplace().toBitSet();
+            for (int pos = replace.nextSetBit(0); pos >= 0; pos = replace.nextSetBit(pos + 1)) {
+                Preconditions.checkState(
+                        pos < entries.length, "malformed split index: replaced entry %s out of range", pos);
+                Preconditions.checkState(
+                        replacements < delta.size(), "malformed split index: missing replacement for entry %s", pos);
+                final IndexEntry replacement = delta.get(replacements);
+                Preconditions.checkState(
+                        replacement.getPathname().isEmpty(),
+                        "malformed split index: replacement entry %s should have an empty name",
+                        replacements);
+                entries[pos] = replacement.withPathname(entries[pos].getPathname());
+                replacements += 1;
+            }
+        }
+
+        final BitSet delete = link.getDelete() != null ? link.getDelete().toBitSet() : new BitSet();
+        Preconditions.checkState(
+                delete.length() <= entries.length, "malformed split index: deleted entry out of range");
+
+        final List<IndexEntry> added = new ArrayList<>(delta.subList(replacements, delta.size()));
+        for (IndexEntry entry : added) {
+            Preconditions.checkState(
+                    !entry.getPathname().isEmpty(), "malformed split index: added entry should have a name");
+        }
+        added.sort(Comparator.comparing(SharedIndexCache::pathnameBytes, Arrays::compareUnsigned)
+                .thenComparing(IndexEntry::getStage));
+
+        final Set<String> resolved = new HashSet<>();
+        for (IndexEntry entry : added) {
+            if (entry.getStage() == IndexEntryStage.Merged) {
+                resolved.add(entry.getPathname());
+            }
+        }
+
+        final List<IndexEntry> merged = new ArrayList<>(entries.length - delete.cardinality() + added.size());
+        final byte[][] keys = new byte[added.size()][];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = pathnameBytes(added.get(i));
+        }
+        int next = 0;
+        for (int i = 0; i < entries.length; i++) {
+            if (delete.get(i)) {
+                continue;
+            }
+            final IndexEntry entry = entries[i];
+            if (entry.getStage() != IndexEntryStage.Merged && resolved.contains(entry.getPathname())) {
+                continue;
+            }
+            while (next < keys.length && compare(entry, keys[next], added.get(next)) > 0) {
+                merged.add(added.get(next++));
+            }
+            if (next < keys.length && compare(entry, keys[next], added.get(next)) == 0) {
+                // the added entry replaces the shared one
+                merged.add(added.get(next++));
+            } else {
+                merged.add(entry);
+            }
+        }
+        merged.addAll(added.subList(next, added.size()));
+
+        return new Index(split.getVersion(), merged, withoutLink(split.getExtensions()), split.getHashFn());
+    }
+
+    private static int compare(IndexEntry entry, byte[] key, IndexEntry keyEntry) {
+        final int cmp = IndexSearch.compare(entry.getPathname(), key, false);
+        return cmp != 0 ? cmp : entry.getStage().compareTo(keyEntry.getStage());
+    }
+
+    private static byte[] pathnameBytes(IndexEntry entry) {
+        return entry.getPathname().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<IndexExtension> withoutLink(List<IndexExtension> extensions) {
+        final List<IndexExtension> result = new ArrayList<>(extensions);
+        result.removeIf(extension -> SplitIndexLink.SIGNATURE.contentEquals(extension.getSig()));
+        return result;
+    }
+
+    private static boolean isNull(HashCode hash) {
+        for (byte b : hash.asBytes()) {
+            if (b != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.plumbing.format.index;
+
+import com.google.common.base.Preconditions;
+import com.google.common.hash.HashCode;
+import com.tisonkun.git.core.plumbing.format.ewah.EwahBitmap;
+import com.tisonkun.git.core.plumbing.hash.HashFn;
+import io.netty.buffer.ByteBuf;
+import javax.annotation.Nullable;
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * The split index (link) extension. A split index only holds the entries that changed since the
+ * shared index named by this extension was written; the shared index is {@code sharedindex.<hash>}
+ * next to the index file.
+ *
+ * @see <a href="https://git-scm.com/docs/index-format#_split_index">Split index</a>
+ * @see SharedIndexCache
+ */
+@Data
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class SplitIndexLink {
+    public static final String SIGNATURE = "link";
+
+    /**
+     * The checksum of the shared index.
+     */
+    private final HashCode sharedIndex;
+
+    /**
+     * Positions of the shared entries removed from the index; null if nothing has been removed.
+     */
+    @Nullable
+    private final EwahBitmap delete;
+
+    /**
+     * Positions of the shared entries replaced, in order, by the leading entries of the split index;
+     * null if nothing has been replaced.
+     */
+    @Nullable
+    private final EwahBitmap replace;
+
+    public static SplitIndexLink create(IndexExtension extension) {
+        return create(extension, HashFn.DEFAULT);
+    }
+
+    public static SplitIndexLink create(IndexExtension extension, HashFn hashFn) {
+        Preconditions.checkArgument(
+                SIGNATURE.contentEquals(extension.getSig()), "not a split index extension: %s", extension.getSig());
+        return create(extension.getData().duplicate(), hashFn);
+    }
+
+    static SplitIndexLink create(ByteBuf data, HashFn hashFn) {
+        final HashCode sharedIndex = hashFn.read(data);
+        if (!data.isReadable()) {
+            return new SplitIndexLink(sharedIndex, null, null);
+        }
+        final EwahBitmap delete = EwahBitmap.create(data);
+        final EwahBitmap replace = EwahBitmap.create(data);
+        Preconditions.checkState(
+                !data.isReadable(), "malformed split index link: %s trailing bytes", data.readableBytes());
+        return new SplitIndexLink(sharedIndex, delete, replace);
+    }
+}
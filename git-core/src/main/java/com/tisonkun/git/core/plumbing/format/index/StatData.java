@@ -0,0 +1,78 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.plumbing.format.index;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * The cached stat information of a file or directory as stored by index extensions, which is the
+ * stat part of an index entry without the mode.
+ */
+public record StatData(
+        int ctimeSeconds,
+        int ctimeNanoseconds,
+        int mtimeSeconds,
+        int mtimeNanoseconds,
+        int dev,
+        int ino,
+        int uid,
+        int gid,
+        int size) {
+    public static final int SIZE = 36;
+
+    public static final StatData EMPTY = new StatData(0, 0, 0, 0, 0, 0, 0, 0, 0);
+
+    public static StatData read(ByteBuf bytes) {
+        return new StatData(
+                bytes.readInt(),
+                bytes.readInt(),
+                bytes.readInt(),
+                bytes.readInt(),
+                bytes.readInt(),
+                bytes.readInt(),
+                bytes.readInt(),
+                bytes.readInt(),
+                bytes.readInt());
+    }
+
+    public void write(ByteBuf bytes) {
+        bytes.writeInt(ctimeSeconds);
+        bytes.writeInt(ctimeNanoseconds);
+        bytes.writeInt(mtimeSeconds);
+        bytes.writeInt(mtimeNanoseconds);
+        bytes.writeInt(dev);
+        bytes.writeInt(ino);
+        bytes.writeInt(uid);
+        bytes.writeInt(gid);
+        bytes.writeInt(size);
+    }
+
+    /**
+     * Whether the file is unchanged judging by its stat, like git's {@code match_stat_data}: the
+     * device is not compared since it is unstable on network file systems.
+     */
+    public boolean matches(StatData other) {
+        return mtimeSeconds == other.mtimeSeconds
+                && mtimeNanoseconds == other.mtimeNanoseconds
+                && ctimeSeconds == other.ctimeSeconds
+                && ctimeNanoseconds == other.ctimeNanoseconds
+                && ino == other.ino
+                && uid == other.uid
+                && gid == other.gid
+                && size == other.size;
+    }
+}
@@ -0,0 +1,467 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.plumbing.format.index;
+
+import com.google.common.base.Preconditions;
+import com.google.common.hash.HashCode;
+import com.tisonkun.git.core.plumbing.format.ewah.EwahBitmap;
+import com.tisonkun.git.core.plumbing.hash.HashFn;
+import com.tisonkun.git.core.util.VarintUtils;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Optional;
+import javax.annotation.Nullable;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * The untracked cache (UNTR) extension: for each directory of the worktree that has been scanned,
+ * the untracked files and directories it contains along with the stat of the directory at scan time.
+ * A directory whose stat is unchanged does not need to be read again, since adding or removing a
+ * child changes its mtime.
+ * <p>
+ * Directories are mutated in place on refresh; {@link IndexWriter} writes the cache back in place of
+ * the raw UNTR extension.
+ *
+ * @see <a href="https://git-scm.com/docs/index-format#_untracked_cache">Untracked cache</a>
+ */
+@ToString
+@EqualsAndHashCode
+public class UntrackedCache {
+    public static final String SIGNATURE = "UNTR";
+
+    /**
+     * Identifies the worktree location and system the cache was created for; git drops the cache
+     * when it does not match.
+     */
+    private String ident;
+
+    private StatData infoExcludeStat;
+    private StatData excludesFileStat;
+
+    /**
+     * The {@code dir_struct} flags, such as whether untracked directories are shown as a whole.
+     */
+    private int dirFlags;
+
+    private HashCode infoExcludeHash;
+    private HashCode excludesFileHash;
+
+    /**
+     * Name of the per-directory exclude file, normally ".gitignore".
+     */
+    private final String excludePerDir;
+
+    @Nullable
+    private Directory root;
+
+    private UntrackedCache(
+            String ident,
+            StatData infoExcludeStat,
+            StatData excludesFileStat,
+            int dirFlags,
+            HashCode infoExcludeHash,
+            HashCode excludesFileHash,
+            String excludePerDir) {
+        this.ident = ident;
+        this.infoExcludeStat = infoExcludeStat;
+        this.excludesFileStat = excludesFileStat;
+        this.dirFlags = dirFlags;
+        this.infoExcludeHash = infoExcludeHash;
+        this.excludesFileHash = excludesFileHash;
+        this.excludePerDir = excludePerDir;
+    }
+
+    public static UntrackedCache create(IndexExtension extension) {
+        return create(extension, HashFn.DEFAULT);
+    }
+
+    public static UntrackedCache create(IndexExtension extension, HashFn hashFn) {
+        Preconditions.checkArgument(
+                SIGNATURE.contentEquals(extension.getSig()),
+                "not an untracked cache extension: %s",
+                extension.getSig());
+        return create(extension.getData().duplicate(), hashFn);
+    }
+
+    static UntrackedCache create(ByteBuf data, HashFn hashFn) {
+        final int identLen = VarintUtils.readInt(data);
+        Preconditions.checkState(identLen >= 0 && identLen <= data.readableBytes(), "malformed untracked cache ident");
+        final String ident =
+                data.readCharSequence(identLen, StandardCharsets.UTF_8).toString();
+
+        final StatData infoExcludeStat = StatData.read(data);
+        final StatData excludesFileStat = StatData.read(data);
+        final int dirFlags = data.readInt();
+        final HashCode infoExcludeHash = hashFn.read(data);
+        final HashCode excludesFileHash = hashFn.read(data);
+        final String excludePerDir = readName(data);
+
+        final UntrackedCache cache = new UntrackedCache(
+                ident, infoExcludeStat, excludesFileStat, dirFlags, infoExcludeHash, excludesFileHash, excludePerDir);
+
+        final int dirCount = VarintUtils.readInt(data);
+        if (dirCount == 0) {
+            return cache;
+        }
+
+        // directories are stored in pre-order; their flags, stat and hashes follow all the names
+        final List<Directory> dirs = new ArrayList<>(dirCount);
+        cache.root = readDirectory(data, dirs);
+        Preconditions.checkState(
+                dirs.size() == dirCount,
+                "malformed untracked cache: %s directories, expected %s",
+                dirs.size(),
+                dirCount);
+
+        final EwahBitmap valid = EwahBitmap.create(data);
+        final EwahBitmap checkOnly = EwahBitmap.create(data);
+        final EwahBitmap hashValid = EwahBitmap.create(data);
+        Preconditions.checkState(
+                valid.bitSize() <= dirCount && checkOnly.bitSize() <= dirCount && hashValid.bitSize() <= dirCount,
+                "malformed untracked cache: bitmap larger than %s directories",
+                dirCount);
+        valid.forEach(i -> dirs.get(i).stat = StatData.read(data));
+        checkOnly.forEach(i -> dirs.get(i).checkOnly = true);
+        hashValid.forEach(i -> dirs.get(i).excludeHash = hashFn.read(data));
+
+        Preconditions.checkState(
+                data.readableBytes() == 1 && data.readByte() == 0, "malformed untracked cache: missing trailing NUL");
+        return cache;
+    }
+
+    private static Directory readDirectory(ByteBuf data, List<Directory> dirs) {
+        final int untrackedCount = VarintUtils.readInt(data);
+        final int subdirCount = VarintUtils.readInt(data);
+        Preconditions.checkState(untrackedCount >= 0 && subdirCount >= 0, "malformed untracked cache: negative count");
+
+        final Directory dir = new Directory(readName(data));
+        dirs.add(dir);
+        for (int i = 0; i < untrackedCount; i++) {
+            dir.untracked.add(readName(data));
+        }
+        for (int i = 0; i < subdirCount; i++) {
+            dir.subdirs.add(readDirectory(data, dirs));
+        }
+        return dir;
+    }
+
+    private static String readName(ByteBuf data) {
+        final int len = data.bytesBefore((byte) 0);
+        Preconditions.checkState(len >= 0, "malformed untracked cache: missing NUL after name");
+        final String name = data.readCharSequence(len, StandardCharsets.UTF_8).toString();
+        data.skipBytes(1);
+        return name;
+    }
+
+    public IndexExtension toExtension() {
+        final ByteBuf data = Unpooled.buffer();
+        write(data);
+        return new IndexExtension(SIGNATURE, data);
+    }
+
+    void write(ByteBuf data) {
+        final byte[] identBytes = ident.getBytes(StandardCharsets.UTF_8);
+        VarintUtils.write(data, identBytes.length);
+        data.writeBytes(identBytes);
+        infoExcludeStat.write(data);
+        excludesFileStat.write(data);
+        data.writeInt(dirFlags);
+        data.writeBytes(infoExcludeHash.asBytes());
+        data.writeBytes(excludesFileHash.asBytes());
+        writeName(data, excludePerDir);
+
+        if (root == null) {
+            VarintUtils.write(data, 0);
+            return;
+        }
+
+        final List<Directory> dirs = new ArrayList<>();
+        collect(root, dirs);
+        VarintUtils.write(data, dirs.size());
+
+        final BitSet valid = new BitSet();
+        final BitSet checkOnly = new BitSet();
+        final BitSet hashValid = new BitSet();
+        for (int i = 0; i < dirs.size(); i++) {
+            final Directory dir = dirs.get(i);
+            VarintUtils.write(data, dir.untracked.size());
+            VarintUtils.write(data, dir.subdirs.size());
+            writeName(data, dir.name);
+            for (String untracked : dir.untracked) {
+                writeName(data, untracked);
+            }
+            valid.set(i, dir.stat != null);
+            checkOnly.set(i, dir.checkOnly);
+            hashValid.set(i, dir.excludeHash != null);
+        }
+
+        EwahBitmap.of(valid).write(data);
+        EwahBitmap.of(checkOnly).write(data);
+        EwahBitmap.of(hashValid).write(data);
+        for (Directory dir : dirs) {
+            if (dir.stat != null) {
+                dir.stat.write(data);
+            }
+        }
+        for (Directory dir : dirs) {
+            if (dir.excludeHash != null) {
+                data.writeBytes(dir.excludeHash.asBytes());
+            }
+        }
+        data.writeByte(0);
+    }
+
+    private static void collect(Directory dir, List<Directory> dirs) {
+        dirs.add(dir);
+        for (Directory subdir : dir.subdirs) {
+            collect(subdir, dirs);
+        }
+    }
+
+    private static void writeName(ByteBuf data, String name) {
+        ByteBufUtil.writeUtf8(data, name);
+        data.writeByte(0);
+    }
+
+    public String ident() {
+        return ident;
+    }
+
+    public int dirFlags() {
+        return dirFlags;
+    }
+
+    public String excludePerDir() {
+        return excludePerDir;
+    }
+
+    public StatData infoExcludeStat() {
+        return infoExcludeStat;
+    }
+
+    public StatData excludesFileStat() {
+        return excludesFileStat;
+    }
+
+    public HashCode infoExcludeHash() {
+        return infoExcludeHash;
+    }
+
+    public HashCode excludesFileHash() {
+        return excludesFileHash;
+    }
+
+    /**
+     * Whether the cache was created for the given ident. The stored ident ends with a NUL, which git
+     * keeps from when it was a list of NUL separated strings.
+     */
+    public boolean hasIdent(String ident) {
+        final int nul = this.ident.indexOf('\0');
+        return (nul < 0 ? this.ident : this.ident.substring(0, nul)).equals(ident);
+    }
+
+    /**
+     * Drop every cached directory and start over for the given ident and flags, like git does when
+     * they no longer match those the cache was created for.
+     */
+    public void reset(String ident, int dirFlags) {
+        final HashCode zero = HashCode.fromBytes(new byte[infoExcludeHash.bits() / Byte.SIZE]);
+        this.ident = ident + '\0';
+        this.dirFlags = dirFlags;
+        this.infoExcludeStat = StatData.EMPTY;
+        this.excludesFileStat = StatData.EMPTY;
+        this.infoExcludeHash = zero;
+        this.excludesFileHash = zero;
+        this.root = null;
+    }
+
+    /**
+     * Record the stat and hash of {@code $GIT_DIR/info/exclude}. If its content has changed, every
+     * cached directory is invalidated since any of them may have other files ignored now.
+     */
+    public void updateInfoExclude(StatData stat, HashCode hash) {
+        if (!hash.equals(infoExcludeHash)) {
+            invalidateAll();
+        }
+        this.infoExcludeStat = stat;
+        this.infoExcludeHash = hash;
+    }
+
+    /**
+     * Record the stat and hash of {@code core.excludesFile}, like {@link #updateInfoExclude}.
+     */
+    public void updateExcludesFile(StatData stat, HashCode hash) {
+        if (!hash.equals(excludesFileHash)) {
+            invalidateAll();
+        }
+        this.excludesFileStat = stat;
+        this.excludesFileHash = hash;
+    }
+
+    private void invalidateAll() {
+        if (root == null) {
+            return;
+        }
+        final List<Directory> dirs = new ArrayList<>();
+        collect(root, dirs);
+        for (Directory dir : dirs) {
+            dir.invalidate();
+        }
+    }
+
+    /**
+     * @return the root directory of the worktree, or empty if nothing has been cached yet.
+     */
+    public Optional<Directory> root() {
+        return Optional.ofNullable(root);
+    }
+
+    /**
+     * @return the root directory, which is created empty and invalid if nothing has been cached yet.
+     */
+    public Directory rootOrCreate() {
+        if (root == null) {
+            root = new Directory("");
+        }
+        return root;
+    }
+
+    /**
+     * Returns the cached directory of the given path relative to the worktree, such as "a/b".
+     */
+    public Optional<Directory> find(String path) {
+        Directory dir = root;
+        int start = 0;
+        while (dir != null && start < path.length()) {
+            final int slash = path.indexOf('/', start);
+            final int end = slash < 0 ? path.length() : slash;
+            dir = dir.subdir(path.substring(start, end)).orElse(null);
+            start = end + 1;
+        }
+        return Optional.ofNullable(dir);
+    }
+
+    /**
+     * A scanned directory. It is valid, that is its untracked list can be trusted, only while the
+     * directory still matches its cached stat.
+     */
+    @ToString
+    @EqualsAndHashCode
+    public static class Directory {
+        /**
+         * The path component of this directory relative to its parent; empty for the root.
+         */
+        private final String name;
+
+        /**
+         * Names of the untracked children; untracked directories end with '/'.
+         */
+        private final List<String> untracked = new ArrayList<>();
+
+        /**
+         * Directories below this one that have been scanned.
+         */
+        private final List<Directory> subdirs = new ArrayList<>();
+
+        @Nullable
+        private StatData stat;
+
+        /**
+         * Whether the directory was only scanned to see if it has any untracked files, in which case
+         * its untracked list is not complete.
+         */
+        private boolean checkOnly;
+
+        /**
+         * Hash of the per-directory exclude file when the directory was scanned.
+         */
+        @Nullable
+        private HashCode excludeHash;
+
+        Directory(String name) {
+            this.name = name;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public List<String> untracked() {
+            return untracked;
+        }
+
+        public List<Directory> subdirs() {
+            return subdirs;
+        }
+
+        public boolean isValid() {
+            return stat != null;
+        }
+
+        public Optional<StatData> stat() {
+            return Optional.ofNullable(stat);
+        }
+
+        public boolean isCheckOnly() {
+            return checkOnly;
+        }
+
+        public Optional<HashCode> excludeHash() {
+            return Optional.ofNullable(excludeHash);
+        }
+
+        public Optional<Directory> subdir(String name) {
+            for (Directory subdir : subdirs) {
+                if (subdir.name.equals(name)) {
+                    return Optional.of(subdir);
+                }
+            }
+            return Optional.empty();
+        }
+
+        /**
+         * Replace the cached content with the result of a fresh scan. Subdirectories that are still
+         * scanned keep their own cache; the others are dropped.
+         */
+        public void refresh(StatData stat, List<String> untracked, List<String> subdirNames) {
+            final List<Directory> subdirs = new ArrayList<>(subdirNames.size());
+            for (String subdirName : subdirNames) {
+                subdirs.add(subdir(subdirName).orElseGet(() -> new Directory(subdirName)));
+            }
+            this.subdirs.clear();
+            this.subdirs.addAll(subdirs);
+            this.untracked.clear();
+            this.untracked.addAll(untracked);
+            this.stat = stat;
+            this.checkOnly = false;
+        }
+
+        /**
+         * Mark the cached content stale, so that the next scan reads the directory again.
+         */
+        public void invalidate() {
+            this.stat = null;
+            this.untracked.clear();
+        }
+    }
+}
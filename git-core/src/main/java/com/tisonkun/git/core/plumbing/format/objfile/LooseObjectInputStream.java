@@ -0,0 +1,226 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.plumbing.format.objfile;
+
+import com.google.common.base.Preconditions;
+import com.tisonkun.git.core.plumbing.ObjectType;
+import com.tisonkun.git.core.plumbing.hash.HashFn;
+import com.tisonkun.git.core.plumbing.hash.Hasher;
+import com.tisonkun.git.core.plumbing.hash.ObjectId;
+import com.tisonkun.git.core.util.InflaterPool;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import javax.annotation.Nullable;
+import lombok.Getter;
+
+/**
+ * Streams the content of a loose object, inflating it chunk by chunk so that a large blob is never
+ * held in memory as a whole. The header is parsed on open.
+ * <p>
+ * When the content has been read to the end, its size is checked against the header and, unless
+ * verification is off, its hash against the object id; a mismatch is reported as
+ * {@link IllegalStateException}.
+ */
+public class LooseObjectInputStream extends InputStream {
+    private static final int MAX_HEADER_SIZE = 32;
+    private static final int BUFFER_SIZE = 8192;
+
+    @Getter
+    private final ObjectId objectId;
+
+    @Getter
+    private final ObjectType type;
+
+    /**
+     * The size of the content, excluding the header.
+     */
+    @Getter
+    private final long size;
+
+    private final InputStream in;
+    private final byte[] input = new byte[BUFFER_SIZE];
+
+    @Nullable
+    private final Hasher hasher;
+
+    @Nullable
+    private Inflater inflater;
+
+    // content inflated together with the header
+    private final byte[] pending = new byte[MAX_HEADER_SIZE];
+    private int pendingPos;
+    private int pendingLen;
+
+    private long remaining;
+    private boolean verified;
+
+    LooseObjectInputStream(ObjectId objectId, InputStream in, @Nullable HashFn hashFn) throws IOException {
+        this.objectId = objectId;
+        this.in = in;
+        this.inflater = InflaterPool.acquire();
+        try {
+            int headerLen = 0;
+            int nul = -1;
+            while (nul < 0) {
+                Preconditions.checkState(headerLen < MAX_HEADER_SIZE, "malformed loose object header: %s", objectId);
+                final int n = inflate(pending, headerLen, MAX_HEADER_SIZE - headerLen);
+                Preconditions.checkState(n > 0, "malformed loose object header: %s", objectId);
+                for (int i = headerLen; i < headerLen + n; i++) {
+                    if (pending[i] == 0) {
+                        nul = i;
+                        break;
+                    }
+                }
+                headerLen += n;
+            }
+
+            final int space = indexOf(pending, (byte) ' ', nul);
+            Preconditions.checkState(space > 0, "malformed loose object header: %s", objectId);
+            this.type = ObjectType.of(pending, 0, space);
+            this.size = parseSize(pending, space + 1, nul);
+            this.remaining = size;
+
+            if (hashFn != null) {
+                this.hasher = hashFn.newHasher();
+                hasher.update(pending, 0, nul + 1);
+            } else {
+                this.hasher = null;
+            }
+            this.pendingPos = nul + 1;
+            this.pendingLen = headerLen;
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    private static int indexOf(byte[] bytes, byte b, int end) {
+        for (int i = 0; i < end; i++) {
+            if (bytes[i] == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private long parseSize(byte[] bytes, int start, int end) {
+        Preconditions.checkState(start < end, "malformed loose object size: %s", objectId);
+        Preconditions.checkState(bytes[start] != '0' || end - start == 1, "malformed loose object size: %s", objectId);
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            final int digit = bytes[i] - '0';
+            Preconditions.checkState(digit >= 0 && digit <= 9, "malformed loose object size: %s", objectId);
+            Preconditions.checkState(
+                    value <= (Long.MAX_VALUE - digit) / 10, "malformed loose object size: %s", objectId);
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    @Override
+    public int read() throws IOException {
+        final byte[] b = new byte[1];
+        return read(b, 0, 1) < 0 ? -1 : b[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        Preconditions.checkPositionIndexes(off, off + len, b.length);
+        if (len == 0) {
+            return 0;
+        }
+        if (remaining == 0) {
+            verify();
+            return -1;
+        }
+
+        final int n;
+        if (pendingPos < pendingLen) {
+            n = Math.min(Math.min(len, pendingLen - pendingPos), (int) Math.min(remaining, Integer.MAX_VALUE));
+            System.arraycopy(pending, pendingPos, b, off, n);
+            pendingPos += n;
+        } else {
+            n = inflate(b, off, (int) Math.min(len, remaining));
+            Preconditions.checkState(n > 0, "loose object is shorter than its size (%s): %s", size, objectId);
+        }
+        if (hasher != null) {
+            hasher.update(b, off, n);
+        }
+        remaining -= n;
+        return n;
+    }
+
+    @Override
+    public int available() {
+        return (int) Math.min(remaining, pendingLen - pendingPos);
+    }
+
+    private void verify() throws IOException {
+        if (verified) {
+            return;
+        }
+        verified = true;
+        // the zlib stream must end right after the content
+        Preconditions.checkState(
+                pendingPos == pendingLen && inflate(new byte[1], 0, 1) <= 0,
+                "loose object is longer than its size (%s): %s",
+                size,
+                objectId);
+        if (hasher != null) {
+            final ObjectId actual = ObjectId.fromHashCode(hasher.finish());
+            Preconditions.checkState(
+                    actual.equals(objectId), "loose object id mismatch: expected %s, actual %s", objectId, actual);
+        }
+    }
+
+    /**
+     * @return the number of bytes inflated into b, or -1 at the end of the zlib stream.
+     */
+    private int inflate(byte[] b, int off, int len) throws IOException {
+        Preconditions.checkState(inflater != null, "stream closed");
+        try {
+            while (true) {
+                final int n = inflater.inflate(b, off, len);
+                if (n > 0) {
+                    return n;
+                }
+                if (inflater.finished()) {
+                    return -1;
+                }
+                Preconditions.checkState(!inflater.needsDictionary(), "malformed loose object: %s", objectId);
+                if (inflater.needsInput()) {
+                    final int read = in.read(input);
+                    Preconditions.checkState(read > 0, "truncated loose object: %s", objectId);
+                    inflater.setInput(input, 0, read);
+                }
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("malformed loose object: " + objectId, e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (inflater != null) {
+            InflaterPool.release(inflater);
+            inflater = null;
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.plumbing.format.objfile;
+
+import com.google.common.base.Preconditions;
+import com.tisonkun.git.core.plumbing.ObjectHeader;
+import com.tisonkun.git.core.plumbing.RawObject;
+import com.tisonkun.git.core.plumbing.hash.HashFn;
+import com.tisonkun.git.core.plumbing.hash.ObjectId;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import lombok.Getter;
+
+/**
+ * Reads loose objects stored zlib-compressed as {@code objects/xx/yyyy}, where xxyyyy is the hex object id.
+ *
+ * @see <a href="https://git-scm.com/book/en/v2/Git-Internals-Git-Objects">Git Objects</a>
+ */
+public class LooseObjectReader {
+    @Getter
+    private final File objectsDir;
+
+    @Getter
+    private final HashFn hashFn;
+
+    /**
+     * Whether reading an object to the end checks its hash against its id.
+     */
+    private final boolean verify;
+
+    public LooseObjectReader(File objectsDir, HashFn hashFn) {
+        this(objectsDir, hashFn, true);
+    }
+
+    public LooseObjectReader(File objectsDir, HashFn hashFn, boolean verify) {
+        this.objectsDir = objectsDir;
+        this.hashFn = hashFn;
+        this.verify = verify;
+    }
+
+    public File path(ObjectId id) {
+        final String name = id.name();
+        return new File(new File(objectsDir, name.substring(0, 2)), name.substring(2));
+    }
+
+    public boolean has(ObjectId id) {
+        return path(id).isFile();
+    }
+
+    /**
+     * Open the object for streaming its content.
+     *
+     * @throws java.nio.file.NoSuchFileException if the object is not stored loose.
+     */
+    public LooseObjectInputStream open(ObjectId id) throws IOException {
+        Preconditions.checkArgument(id.size() == hashFn.size(), "object id size mismatch: %s", id);
+        return new LooseObjectInputStream(id, Files.newInputStream(path(id).toPath()), verify ? hashFn : null);
+    }
+
+    /**
+     * Read the type and size of the object, inflating no more than its header.
+     */
+    public ObjectHeader readHeader(ObjectId id) throws IOException {
+        try (LooseObjectInputStream in = open(id)) {
+            return new ObjectHeader(in.getType(), in.getSize());
+        }
+    }
+
+    /**
+     * Read the whole object, which must fit in an array; prefer {@link #open(ObjectId)} for large blobs.
+     */
+    public RawObject read(ObjectId id) throws IOException {
+        try (LooseObjectInputStream in = open(id)) {
+            Preconditions.checkState(
+                    in.getSize() <= Integer.MAX_VALUE - 8,
+                    "object too large (%s) to read at once: %s",
+                    in.getSize(),
+                    id);
+            final byte[] content = new byte[(int) in.getSize()];
+            int n = 0;
+            while (n < content.length) {
+                n += in.read(content, n, content.length - n);
+            }
+            // reach the end to verify the size and the id
+            Preconditions.checkState(in.read() == -1, "loose object is longer than its size: %s", id);
+            return new RawObject(in.getType(), content);
+        }
+    }
+}
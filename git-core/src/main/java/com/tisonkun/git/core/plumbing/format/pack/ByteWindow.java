@@ -0,0 +1,48 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.plumbing.format.pack;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A memory-mapped region of a pack file, covering [start, start + size).
+ */
+record ByteWindow(long start, ByteBuffer buffer) {
+    int size() {
+        return buffer.capacity();
+    }
+
+    long end() {
+        return start + buffer.capacity();
+    }
+
+    boolean contains(long position) {
+        return position >= start && position < end();
+    }
+
+    byte get(long position) {
+        return buffer.get((int) (position - start));
+    }
+
+    /**
+     * @return a buffer over [position, end()) of this window, whose position is independent of others.
+     */
+    ByteBuffer slice(long position) {
+        final int offset = (int) (position - start);
+        return buffer.slice(offset, buffer.capacity() - offset);
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.plumbing.format.pack;
+
+import com.google.common.base.Preconditions;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Applies git's binary deltas. A delta starts with the base and result sizes as little-endian base-128
+ * varints, followed by instructions that either copy a range of the base or insert literal bytes.
+ *
+ * @see <a href="https://git-scm.com/docs/gitformat-pack#_deltified_representation">Deltified representation</a>
+ */
+@UtilityClass
+public class DeltaApplier {
+    /**
+     * @return the size of the result of applying the delta, read from its header.
+     */
+    public static long resultSize(byte[] delta) {
+        final int[] pos = {0};
+        readSize(delta, pos);
+        return readSize(delta, pos);
+    }
+
+    public static byte[] apply(byte[] base, byte[] delta) {
+        final int[] cursor = {0};
+        final long baseSize = readSize(delta, cursor);
+        Preconditions.checkState(
+                baseSize == base.length, "malformed delta: base size %s != actual %s", baseSize, base.length);
+        final long resultSize = readSize(delta, cursor);
+        Preconditions.checkState(resultSize <= Integer.MAX_VALUE - 8, "delta result too large: %s", resultSize);
+
+        final byte[] result = new byte[(int) resultSize];
+        int pos = cursor[0];
+        int out = 0;
+        while (pos < delta.length) {
+            final int cmd = delta[pos++] & 0xFF;
+            if ((cmd & 0x80) != 0) {
+                // copy from base: bits 0-3 select offset bytes, bits 4-6 select size bytes, little-endian
+                long offset = 0;
+                int size = 0;
+                for (int i = 0; i < 4; i++) {
+                    if ((cmd & (1 << i)) != 0) {
+                        Preconditions.checkState(pos < delta.length, "malformed delta: truncated copy");
+                        offset |= (long) (delta[pos++] & 0xFF) << (i * 8);
+                    }
+                }
+                for (int i = 0; i < 3; i++) {
+                    if ((cmd & (0x10 << i)) != 0) {
+                        Preconditions.checkState(pos < delta.length, "malformed delta: truncated copy");
+                        size |= (delta[pos++] & 0xFF) << (i * 8);
+                    }
+                }
+                if (size == 0) {
+                    size = 0x10000;
+                }
+                Preconditions.checkState(
+                        offset + size <= base.length && out + size <= result.length,
+                        "malformed delta: copy out of range");
+                System.arraycopy(base, (int) offset, result, out, size);
+                out += size;
+            } else {
+                // cmd 0 is reserved
+                Preconditions.checkState(cmd != 0, "malformed delta: unexpected delta opcode 0");
+                Preconditions.checkState(
+                        pos + cmd <= delta.length && out + cmd <= result.length,
+                        "malformed delta: insert out of range");
+                System.arraycopy(delta, pos, result, out, cmd);
+                pos += cmd;
+                out += cmd;
+            }
+        }
+        Preconditions.checkState(
+                out == result.length, "malformed delta: result size %s != expected %s", out, result.length);
+        return result;
+    }
+
+    private static long readSize(byte[] delta, int[] cursor) {
+        long size = 0;
+        int shift = 0;
+        int c;
+        do {
+            Preconditions.checkState(cursor[0] < delta.length, "malformed delta: truncated header");
+            Preconditions.checkState(shift < 64, "malformed delta: size overflow");
+            c = delta[cursor[0]++] & 0xFF;
+            size |= (long) (c & 0x7F) << shift;
+            shift += 7;
+        } while ((c & 0x80) != 0);
+        return size;
+    }
+}
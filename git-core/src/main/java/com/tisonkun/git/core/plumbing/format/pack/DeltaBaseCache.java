@@ -0,0 +1,86 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.plumbing.format.pack;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.tisonkun.git.core.plumbing.RawObject;
+import javax.annotation.Nullable;
+
+/**
+ * Caches objects that deltas were resolved against, keyed by their pack and offset, like git's
+ * {@code core.deltaBaseCacheLimit}. Consecutive versions of a file or a tree usually share a delta
+ * chain, so walking history hits the cache instead of re-inflating the chain. The cache is bounded
+ * by the total content size and evicts least recently used bases first. One cache can serve all packs
+ * of a process.
+ */
+public class DeltaBaseCache {
+    public static final long DEFAULT_MEMORY_LIMIT = 96L << 20;
+
+    private final Cache<BaseKey, RawObject> cache;
+
+    public DeltaBaseCache() {
+        this(DEFAULT_MEMORY_LIMIT);
+    }
+
+    /**
+     * @param memoryLimit the maximum total content size of cached bases.
+     */
+    public DeltaBaseCache(long memoryLimit) {
+        this.cache = CacheBuilder.newBuilder()
+                // a single segment, so that a base up to the whole limit can be cached; see WindowCache
+                .concurrencyLevel(1)
+                .maximumWeight(memoryLimit)
+                .weigher((BaseKey key, RawObject object) -> object.size())
+                .recordStats()
+                .build();
+    }
+
+    @Nullable
+    RawObject get(PackFile pack, long offset) {
+        return cache.getIfPresent(new BaseKey(pack, offset));
+    }
+
+    void put(PackFile pack, long offset, RawObject object) {
+        cache.put(new BaseKey(pack, offset), object);
+    }
+
+    /**
+     * Drop the bases of a pack, e.g., when it is closed.
+     */
+    void invalidate(PackFile pack) {
+        cache.asMap().keySet().removeIf(key -> key.pack() == pack);
+    }
+
+    /**
+     * @return the hit, miss and eviction counts of the cache.
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private record BaseKey(PackFile pack, long offset) {}
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.plumbing.format.pack;
+
+import com.google.common.base.Preconditions;
+import com.tisonkun.git.core.plumbing.format.chunk.ChunkFile;
+import com.tisonkun.git.core.plumbing.hash.HashFn;
+import com.tisonkun.git.core.plumbing.hash.ObjectId;
+import io.netty.buffer.ByteBuf;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import lombok.Getter;
+
+/**
+ * A multi-pack-index, which maps every object of a set of packs to the pack and offset it is read
+ * from, so that finding an object takes a single binary search however many packs there are. When an
+ * object is in several packs, the index records only one of them.
+ *
+ * @see <a href="https://git-scm.com/docs/gitformat-pack#_multi_pack_index_midx_files_have_the_following_format">multi-pack-index format</a>
+ */
+public class MultiPackIndex {
+    public static final String FILE_NAME = "multi-pack-index";
+
+    private static final String FORMAT = "multi-pack-index";
+    private static final int MAGIC = 0x4D494458; // "MIDX"
+    private static final int HEADER_SIZE = 12;
+
+    private static final int CHUNK_PACK_NAMES = ChunkFile.chunkId("PNAM");
+    private static final int CHUNK_OID_FANOUT = ChunkFile.chunkId("OIDF");
+    private static final int CHUNK_OID_LOOKUP = ChunkFile.chunkId("OIDL");
+    private static final int CHUNK_OBJECT_OFFSETS = ChunkFile.chunkId("OOFF");
+    private static final int CHUNK_LARGE_OFFSETS = ChunkFile.chunkId("LOFF");
+
+    /**
+     * Where an object is stored: the position of its pack in {@link #getPackNames()} and its offset there.
+     */
+    public record Location(int packId, long offset) {}
+
+    @Getter
+    private final HashFn hashFn;
+
+    /**
+     * The names of the index files of the packs, e.g., pack-*.idx, sorted.
+     */
+    @Getter
+    private final List<String> packNames;
+
+    @Getter
+    private final int objectCount;
+
+    private final ByteBuf bytes;
+    private final ByteBuf fanout;
+    private final ByteBuf lookup;
+    private final ByteBuf offsets;
+    private final ByteBuf largeOffsets;
+
+    private MultiPackIndex(ByteBuf bytes, HashFn hashFn) {
+        this.bytes = bytes;
+        this.hashFn = hashFn;
+
+        final int hashSize = hashFn.size();
+        Preconditions.checkState(
+                bytes.readableBytes() >= HEADER_SIZE + 12 + hashSize, "malformed %s: too short", FORMAT);
+        Preconditions.checkState(bytes.getInt(0) == MAGIC, "malformed %s: bad signature", FORMAT);
+        final int version = bytes.getUnsignedByte(4);
+        Preconditions.checkState(version == 1, "unsupported %s version: %s", FORMAT, version);
+        ChunkFile.checkHashVersion(FORMAT, bytes.getUnsignedByte(5), hashFn);
+        final int chunkCount = bytes.getUnsignedByte(6);
+        final int baseCount = bytes.getUnsignedByte(7);
+        Preconditions.checkState(baseCount == 0, "unsupported incremental %s with %s bases", FORMAT, baseCount);
+        final int packCount = bytes.getInt(8);
+
+        final ChunkFile chunks =
+                ChunkFile.read(FORMAT, bytes, HEADER_SIZE, chunkCount, bytes.readableBytes() - hashSize);
+        this.fanout = chunks.requireChunk(CHUNK_OID_FANOUT);
+        this.lookup = chunks.requireChunk(CHUNK_OID_LOOKUP);
+        this.offsets = chunks.requireChunk(CHUNK_OBJECT_OFFSETS);
+        this.largeOffsets = chunks.chunk(CHUNK_LARGE_OFFSETS).orElse(null);
+        this.objectCount = chunks.checkLookup(fanout, lookup, hashSize);
+        Preconditions.checkState(
+                offsets.readableBytes() == objectCount * 8L, "malformed %s: improper object offsets size", FORMAT);
+        this.packNames = readPackNames(chunks.requireChunk(CHUNK_PACK_NAMES), packCount);
+    }
+
+    private static List<String> readPackNames(ByteBuf chunk, int packCount) {
+        // NUL-terminated names, possibly followed by NUL padding to a multiple of four
+        final List<String> names = new ArrayList<>(packCount);
+        int pos = 0;
+        while (names.size() < packCount) {
+            final int end = chunk.indexOf(pos, chunk.readableBytes(), (byte) 0);
+            Preconditions.checkState(end > pos, "malformed %s: expected %s pack names", FORMAT, packCount);
+            final String name = chunk.toString(pos, end - pos, StandardCharsets.UTF_8);
+            Preconditions.checkState(
+                    names.isEmpty() || names.getLast().compareTo(name) < 0,
+                    "malformed %s: pack names out of order",
+                    FORMAT);
+            names.add(name);
+            pos = end + 1;
+        }
+        return Collections.unmodifiableList(names);
+    }
+
+    public static MultiPackIndex create(ByteBuf bytes, HashFn hashFn) {
+        return new MultiPackIndex(bytes, hashFn);
+    }
+
+    /**
+     * Open the multi-pack-index over a read-only memory mapping of the file.
+     */
+    public static MultiPackIndex open(File source, HashFn hashFn) throws IOException {
+        return create(ChunkFile.map(source, FORMAT), hashFn);
+    }
+
+    /**
+     * @return the position of the id in the sorted ids, or -1 if no pack contains it.
+     */
+    public int findPosition(ObjectId id) {
+        Preconditions.checkArgument(id.size() == hashFn.size(), "object id size mismatch: %s", id);
+        return ChunkFile.findPosition(fanout, lookup, id);
+    }
+
+    public Optional<Location> find(ObjectId id) {
+        final int position = findPosition(id);
+        return position < 0 ? Optional.empty() : Optional.of(location(position));
+    }
+
+    public boolean contains(ObjectId id) {
+        return findPosition(id) >= 0;
+    }
+
+    public ObjectId objectId(int position) {
+        Preconditions.checkElementIndex(position, objectCount);
+        return ObjectId.get(lookup, position * hashFn.size(), hashFn.size());
+    }
+
+    public Location location(int position) {
+        Preconditions.checkElementIndex(position, objectCount);
+        final int packId = offsets.getInt(position * 8);
+        Preconditions.checkState(
+                packId >= 0 && packId < packNames.size(), "malformed %s: pack id %s out of range", FORMAT, packId);
+        final int offset = offsets.getInt(position * 8 + 4);
+        if (offset >= 0) {
+            return new Location(packId, offset);
+        }
+        // the most significant bit set means an index into the large offsets chunk
+        final int large = offset & 0x7FFFFFFF;
+        Preconditions.checkState(
+                largeOffsets != null && large < largeOffsets.readableBytes() / 8,
+                "malformed %s: large offset %s",
+                FORMAT,
+                large);
+        return new Location(packId, largeOffsets.getLong(large * 8));
+    }
+
+    /**
+     * @return the checksum of the multi-pack-index itself.
+     */
+    public ObjectId checksum() {
+        return ObjectId.get(bytes, bytes.readableBytes() - hashFn.size(), hashFn.size());
+    }
+}
@@ -0,0 +1,276 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.plumbing.format.pack;
+
+import com.google.common.base.Preconditions;
+import com.tisonkun.git.core.plumbing.ObjectType;
+import com.tisonkun.git.core.plumbing.format.ewah.EwahBitmap;
+import com.tisonkun.git.core.plumbing.hash.ObjectId;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Optional;
+import lombok.Getter;
+
+/**
+ * The reachability bitmaps of a pack (.bitmap). Bit i stands for the i-th object of the pack in offset
+ * order, and the bitmap of a selected commit has the bits of all objects reachable from it, so counting
+ * or enumerating reachable objects is a few OR and AND-NOT operations over compressed bitmaps instead
+ * of a walk over commits and trees.
+ * <p>
+ * Bitmaps of commits are stored XORed against a nearby earlier one; they are resolved on first use.
+ *
+ * @see <a href="https://git-scm.com/docs/bitmap-format">bitmap-format</a>
+ */
+public class PackBitmapIndex {
+    private static final int MAGIC = 0x4249544D; // "BITM"
+    private static final int OPT_FULL_DAG = 0x1;
+    private static final int OPT_HASH_CACHE = 0x4;
+
+    @Getter
+    private final PackIndex packIndex;
+
+    private final EwahBitmap commits;
+    private final EwahBitmap trees;
+    private final EwahBitmap blobs;
+    private final EwahBitmap tags;
+
+    /**
+     * The pack index position of the commit of each entry.
+     */
+    private final int[] entryPositions;
+
+    private final EwahBitmap[] storedBitmaps;
+
+    /**
+     * How many entries back the entry each stored bitmap is XORed against is, or zero.
+     */
+    private final int[] xorOffsets;
+
+    private final EwahBitmap[] resolvedBitmaps;
+
+    /**
+     * The entry of the commit at each pack index position, or -1.
+     */
+    private final int[] entryByPosition;
+
+    /**
+     * The pack index position of the object at each bit, i.e., the reverse index of the pack.
+     */
+    private final int[] positionByBit;
+
+    private final int[] bitByPosition;
+
+    private PackBitmapIndex(ByteBuf bytes, PackIndex packIndex) {
+        this.packIndex = packIndex;
+
+        final int hashSize = packIndex.getHashFn().size();
+        Preconditions.checkState(bytes.readableBytes() >= 12 + hashSize, "malformed pack bitmap: too short");
+        Preconditions.checkState(bytes.readInt() == MAGIC, "malformed pack bitmap: bad signature");
+        final int version = bytes.readUnsignedShort();
+        Preconditions.checkState(version == 1, "unsupported pack bitmap version: %s", version);
+        final int flags = bytes.readUnsignedShort();
+        Preconditions.checkState((flags & OPT_FULL_DAG) != 0, "unsupported pack bitmap without full DAG");
+        final int entryCount = bytes.readInt();
+        final ObjectId checksum = ObjectId.read(bytes, hashSize);
+        Preconditions.checkState(
+                checksum.equals(packIndex.packChecksum()),
+                "pack bitmap checksum %s does not match its pack %s",
+                checksum,
+                packIndex.packChecksum());
+
+        this.commits = EwahBitmap.create(bytes);
+        this.trees = EwahBitmap.create(bytes);
+        this.blobs = EwahBitmap.create(bytes);
+        this.tags = EwahBitmap.create(bytes);
+
+        final int objectCount = packIndex.getObjectCount();
+        this.entryPositions = new int[entryCount];
+        this.storedBitmaps = new EwahBitmap[entryCount];
+        this.xorOffsets = new int[entryCount];
+        this.resolvedBitmaps = new EwahBitmap[entryCount];
+        this.entryByPosition = new int[objectCount];
+        Arrays.fill(entryByPosition, -1);
+        for (int i = 0; i < entryCount; i++) {
+            Preconditions.checkState(bytes.readableBytes() >= 6, "malformed pack bitmap: truncated entry %s", i);
+            final int position = bytes.readInt();
+            final int xorOffset = bytes.readUnsignedByte();
+            bytes.skipBytes(1); // flags, for hints of which commits to reuse
+            Preconditions.checkState(
+                    position >= 0 && position < objectCount,
+                    "malformed pack bitmap: entry %s names object %s",
+                    i,
+                    position);
+            Preconditions.checkState(
+                    xorOffset <= i, "malformed pack bitmap: entry %s XORed against a missing entry", i);
+            entryPositions[i] = position;
+            xorOffsets[i] = xorOffset;
+            storedBitmaps[i] = EwahBitmap.create(bytes);
+            entryByPosition[position] = i;
+        }
+        if ((flags & OPT_HASH_CACHE) != 0) {
+            Preconditions.checkState(
+                    bytes.readableBytes() >= objectCount * 4L, "malformed pack bitmap: truncated name-hash cache");
+        }
+
+        this.positionByBit = reverseIndex(packIndex);
+        this.bitByPosition = new int[objectCount];
+        for (int bit = 0; bit < objectCount; bit++) {
+            bitByPosition[positionByBit[bit]] = bit;
+        }
+    }
+
+    private static int[] reverseIndex(PackIndex index) {
+        final int count = index.getObjectCount();
+        final long[] offsetsAndPositions = new long[count];
+        boolean compact = true;
+        for (int i = 0; i < count && compact; i++) {
+            final long offset = index.offset(i);
+            compact = offset <= Integer.MAX_VALUE;
+            offsetsAndPositions[i] = offset << 32 | i;
+        }
+        if (compact) {
+            Arrays.sort(offsetsAndPositions);
+            final int[] positions = new int[count];
+            for (int i = 0; i < count; i++) {
+                positions[i] = (int) offsetsAndPositions[i];
+            }
+            return positions;
+        }
+        // offsets past 2GiB do not fit beside the position in a long
+        final Integer[] positions = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            positions[i] = i;
+        }
+        Arrays.sort(positions, (a, b) -> Long.compare(index.offset(a), index.offset(b)));
+        return Arrays.stream(positions).mapToInt(Integer::intValue).toArray();
+    }
+
+    public static PackBitmapIndex create(ByteBuf bytes, PackIndex packIndex) {
+        return new PackBitmapIndex(bytes, packIndex);
+    }
+
+    /**
+     * Read the bitmap file of a pack, i.e., pack-*.bitmap next to pack-*.idx.
+     */
+    public static PackBitmapIndex open(File source, PackIndex packIndex) throws IOException {
+        try (FileChannel channel = FileChannel.open(source.toPath(), StandardOpenOption.READ)) {
+            final long length = channel.size();
+            Preconditions.checkState(
+                    length <= Integer.MAX_VALUE, "pack bitmap file too large to map (length: %s)", length);
+            final MappedByteBuffer content = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            return create(Unpooled.wrappedBuffer(content), packIndex);
+        }
+    }
+
+    /**
+     * @return the number of commits that have a bitmap.
+     */
+    public int getEntryCount() {
+        return entryPositions.length;
+    }
+
+    /**
+     * @return the bits of all objects of the given type in the pack.
+     */
+    public EwahBitmap typeBitmap(ObjectType type) {
+        return switch (type) {
+            case COMMIT -> commits;
+            case TREE -> trees;
+            case BLOB -> blobs;
+            case TAG -> tags;
+            default -> throw new IllegalArgumentException("no bitmap for object type " + type);
+        };
+    }
+
+    /**
+     * @return the bit of the object, or -1 if the pack does not contain it.
+     */
+    public int bitPosition(ObjectId id) {
+        final int position = packIndex.findPosition(id);
+        return position < 0 ? -1 : bitByPosition[position];
+    }
+
+    public ObjectId objectId(int bit) {
+        Preconditions.checkElementIndex(bit, positionByBit.length);
+        return packIndex.objectId(positionByBit[bit]);
+    }
+
+    /**
+     * @return the bits of all objects reachable from the commit, if it has a bitmap.
+     */
+    public Optional<EwahBitmap> bitmap(ObjectId commit) {
+        final int position = packIndex.findPosition(commit);
+        if (position < 0 || entryByPosition[position] < 0) {
+            return Optional.empty();
+        }
+        return Optional.of(resolve(entryByPosition[position]));
+    }
+
+    /**
+     * @return the bits of all objects reachable from any of the commits, or empty if some commit has no
+     * bitmap and the caller must walk from it instead.
+     */
+    public Optional<EwahBitmap> reachable(Collection<ObjectId> commits) {
+        EwahBitmap result = EwahBitmap.of();
+        for (ObjectId commit : commits) {
+            final Optional<EwahBitmap> bitmap = bitmap(commit);
+            if (bitmap.isEmpty()) {
+                return Optional.empty();
+            }
+            result = result.or(bitmap.get());
+        }
+        return Optional.of(result);
+    }
+
+    private EwahBitmap resolve(int entry) {
+        final EwahBitmap resolved = resolvedBitmaps[entry];
+        if (resolved != null) {
+            return resolved;
+        }
+
+        // walk back the XOR chain to a resolved or plain bitmap, then XOR forward
+        final Deque<Integer> chain = new ArrayDeque<>();
+        int current = entry;
+        EwahBitmap base = null;
+        while (true) {
+            if (resolvedBitmaps[current] != null) {
+                base = resolvedBitmaps[current];
+                break;
+            }
+            chain.push(current);
+            if (xorOffsets[current] == 0) {
+                break;
+            }
+            current -= xorOffsets[current];
+        }
+        while (!chain.isEmpty()) {
+            final int next = chain.pop();
+            base = base == null ? storedBitmaps[next] : storedBitmaps[next].xor(base);
+            resolvedBitmaps[next] = base;
+        }
+        return base;
+    }
+}
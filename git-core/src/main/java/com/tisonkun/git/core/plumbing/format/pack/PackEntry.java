@@ -0,0 +1,34 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.plumbing.format.pack;
+
+import com.tisonkun.git.core.plumbing.ObjectType;
+import com.tisonkun.git.core.plumbing.hash.ObjectId;
+import javax.annotation.Nullable;
+
+/**
+ * The header of an entry in a pack file.
+ *
+ * @param offset the offset of the entry in the pack.
+ * @param type the type of the entry, which may be a delta type.
+ * @param size the inflated size of the entry data; for a delta, the size of the delta itself.
+ * @param dataOffset the offset of the zlib-compressed data in the pack.
+ * @param baseOffset the offset of the base object of an {@link ObjectType#OFS_DELTA}, or -1.
+ * @param baseId the id of the base object of an {@link ObjectType#REF_DELTA}, or null.
+ */
+public record PackEntry(
+        long offset, ObjectType type, long size, long dataOffset, long baseOffset, @Nullable ObjectId baseId) {}
@@ -0,0 +1,330 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.plumbing.format.pack;
+
+import com.google.common.base.Preconditions;
+import com.tisonkun.git.core.plumbing.ObjectType;
+import com.tisonkun.git.core.plumbing.RawObject;
+import com.tisonkun.git.core.plumbing.hash.HashFn;
+import com.tisonkun.git.core.plumbing.hash.ObjectId;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Optional;
+import javax.annotation.Nullable;
+import lombok.Getter;
+
+/**
+ * A pack file together with its index. Entries are read through a shared {@link WindowCache}, so only
+ * the windows recently read are mapped, however large the pack is. A pack file is thread-safe.
+ *
+ * @see <a href="https://git-scm.com/docs/gitformat-pack">gitformat-pack</a>
+ */
+public class PackFile implements Closeable {
+    private static final int MAGIC = 0x5041434B; // "PACK"
+
+    /**
+     * Longer chains than git ever writes (its maximum --depth is 4095), so only REF_DELTA cycles hit it.
+     */
+    private static final int MAX_CHAIN_LENGTH = 10000;
+
+    private static final DeltaBaseCache DEFAULT_DELTA_BASE_CACHE = new DeltaBaseCache();
+
+    @Getter
+    private final File file;
+
+    /**
+     * The index of the pack, which is null only while {@link PackIndexer} is building it.
+     */
+    @Getter
+    private final PackIndex index;
+
+    @Getter
+    private final int objectCount;
+
+    @Getter
+    private final long length;
+
+    @Getter
+    private final HashFn hashFn;
+
+    private final FileChannel channel;
+    private final WindowCache windowCache;
+    private final DeltaBaseCache deltaBaseCache;
+
+    private PackFile(
+            File file,
+            HashFn hashFn,
+            @Nullable PackIndex index,
+            FileChannel channel,
+            WindowCache windowCache,
+            DeltaBaseCache deltaBaseCache)
+            throws IOException {
+        this.file = file;
+        this.hashFn = hashFn;
+        this.index = index;
+        this.channel = channel;
+        this.length = channel.size();
+        this.windowCache = windowCache;
+        this.deltaBaseCache = deltaBaseCache;
+        this.objectCount = checkHeader();
+    }
+
+    /**
+     * Open the pack file and its index next to it, i.e., pack-*.pack and pack-*.idx. Delta bases are
+     * cached in a process-wide {@link DeltaBaseCache}.
+     */
+    public static PackFile open(File file, HashFn hashFn, WindowCache windowCache) throws IOException {
+        return open(file, hashFn, windowCache, DEFAULT_DELTA_BASE_CACHE);
+    }
+
+    /**
+     * Open the pack file and its index next to it, i.e., pack-*.pack and pack-*.idx.
+     */
+    public static PackFile open(File file, HashFn hashFn, WindowCache windowCache, DeltaBaseCache deltaBaseCache)
+            throws IOException {
+        final String name = file.getName();
+        Preconditions.checkArgument(name.endsWith(".pack"), "not a pack file: %s", file);
+        final File indexFile = new File(file.getParentFile(), name.substring(0, name.length() - 5) + ".idx");
+        final PackIndex index = PackIndex.open(indexFile, hashFn);
+        return open(file, hashFn, index, windowCache, deltaBaseCache);
+    }
+
+    /**
+     * Open the pack file alone, for {@link PackIndexer} to scan its entries in order.
+     */
+    static PackFile openUnindexed(File file, HashFn hashFn, WindowCache windowCache) throws IOException {
+        return open(file, hashFn, null, windowCache, DEFAULT_DELTA_BASE_CACHE);
+    }
+
+    private static PackFile open(
+            File file, HashFn hashFn, @Nullable PackIndex index, WindowCache windowCache, DeltaBaseCache deltaBaseCache)
+            throws IOException {
+        final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        try {
+            return new PackFile(file, hashFn, index, channel, windowCache, deltaBaseCache);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private int checkHeader() throws IOException {
+        final int hashSize = hashFn.size();
+        Preconditions.checkState(length >= 12 + hashSize, "malformed pack file: too short");
+        final ByteBuffer header = ByteBuffer.allocate(12);
+        channel.read(header, 0);
+        Preconditions.checkState(header.getInt(0) == MAGIC, "malformed pack file: bad signature");
+        final int version = header.getInt(4);
+        Preconditions.checkState(version == 2 || version == 3, "unsupported pack version: %s", version);
+        final int objectCount = header.getInt(8);
+        Preconditions.checkState(objectCount >= 0, "malformed pack file: too many objects (%s)", objectCount);
+        if (index == null) {
+            return objectCount;
+        }
+        Preconditions.checkState(
+                objectCount == index.getObjectCount(),
+                "pack has %s objects but its index has %s",
+                objectCount,
+                index.getObjectCount());
+
+        final ObjectId checksum = checksum();
+        Preconditions.checkState(
+                checksum.equals(index.packChecksum()),
+                "pack checksum %s does not match its index %s",
+                checksum,
+                index.packChecksum());
+        return objectCount;
+    }
+
+    /**
+     * @return the trailing checksum of the pack, which also names it.
+     */
+    public ObjectId checksum() throws IOException {
+        final ByteBuffer trailer = ByteBuffer.allocate(hashFn.size());
+        channel.read(trailer, length - hashFn.size());
+        trailer.flip();
+        return ObjectId.fromBytes(trailer.array());
+    }
+
+    /**
+     * Hash the whole pack and compare against its trailing checksum.
+     */
+    public boolean verifyChecksum() throws IOException {
+        final long dataLength = length - hashFn.size();
+        final ObjectId actual = ObjectId.fromHashCode(
+                hashFn.newHasher().update(channel, 0, dataLength).finish());
+        return actual.equals(checksum());
+    }
+
+    public boolean contains(ObjectId id) {
+        return index.contains(id);
+    }
+
+    /**
+     * Read the object of the given id if this pack contains it.
+     */
+    public Optional<RawObject> read(ObjectId id) throws IOException {
+        final long offset = index.findOffset(id);
+        if (offset < 0) {
+            return Optional.empty();
+        }
+        return Optional.of(read(offset));
+    }
+
+    /**
+     * Read the whole object at the given offset, resolving its delta chain if it is deltified.
+     */
+    public RawObject read(long offset) throws IOException {
+        final RawObject cached = deltaBaseCache.get(this, offset);
+        if (cached != null) {
+            return new RawObject(cached.type(), cached.content().clone());
+        }
+
+        // walk down the chain until a whole object, either cached or stored as is, so that long
+        // chains cannot overflow the stack
+        final WindowCursor cursor = new WindowCursor(this);
+        final Deque<PackEntry> deltas = new ArrayDeque<>();
+        PackEntry entry = readEntry(cursor, offset);
+        RawObject base;
+        while (true) {
+            if (!entry.type().isDelta()) {
+                base = new RawObject(entry.type(), inflate(cursor, entry));
+                break;
+            }
+            Preconditions.checkState(
+                    deltas.size() < MAX_CHAIN_LENGTH, "delta chain of %s at %s is too long", file, offset);
+            deltas.push(entry);
+            final long baseOffset = baseOffset(entry);
+            base = deltaBaseCache.get(this, baseOffset);
+            if (base != null) {
+                break;
+            }
+            entry = readEntry(cursor, baseOffset);
+        }
+
+        // apply the deltas back up, caching each base on the way since its siblings likely follow
+        while (!deltas.isEmpty()) {
+            final PackEntry delta = deltas.pop();
+            deltaBaseCache.put(this, baseOffset(delta), base);
+            base = new RawObject(base.type(), DeltaApplier.apply(base.content(), inflate(cursor, delta)));
+        }
+        return base;
+    }
+
+    private long baseOffset(PackEntry delta) {
+        if (delta.type() == ObjectType.OFS_DELTA) {
+            return delta.baseOffset();
+        }
+        final long baseOffset = index.findOffset(delta.baseId());
+        Preconditions.checkState(
+                baseOffset >= 0, "base %s of delta at %s not found in %s", delta.baseId(), delta.offset(), file);
+        return baseOffset;
+    }
+
+    /**
+     * Read the header of the entry at the given offset.
+     */
+    public PackEntry readEntry(long offset) throws IOException {
+        return readEntry(new WindowCursor(this), offset);
+    }
+
+    PackEntry readEntry(WindowCursor cursor, long offset) throws IOException {
+        Preconditions.checkArgument(
+                offset >= 12 && offset < length - hashFn.size(), "pack entry offset out of range: %s", offset);
+        long pos = offset;
+        int c = cursor.byteAt(pos++);
+        final ObjectType type = ObjectType.ofPackCode((c >> 4) & 0x7);
+        long size = c & 0x0F;
+        int shift = 4;
+        while ((c & 0x80) != 0) {
+            Preconditions.checkState(shift < 64 - 7, "malformed pack entry at %s: size overflow", offset);
+            c = cursor.byteAt(pos++);
+            size |= (long) (c & 0x7F) << shift;
+            shift += 7;
+        }
+
+        long baseOffset = -1;
+        ObjectId baseId = null;
+        if (type == ObjectType.OFS_DELTA) {
+            // a big-endian varint where each continuation adds one, like the index varint
+            c = cursor.byteAt(pos++);
+            long distance = c & 0x7F;
+            while ((c & 0x80) != 0) {
+                Preconditions.checkState(
+                        distance < (Long.MAX_VALUE >>> 7), "malformed pack entry at %s: offset overflow", offset);
+                c = cursor.byteAt(pos++);
+                distance = ((distance + 1) << 7) | (c & 0x7F);
+            }
+            baseOffset = offset - distance;
+            Preconditions.checkState(
+                    baseOffset >= 12 && baseOffset < offset, "malformed pack entry at %s: bad base offset", offset);
+        } else if (type == ObjectType.REF_DELTA) {
+            final byte[] id = new byte[hashFn.size()];
+            for (int i = 0; i < id.length; i++) {
+                id[i] = (byte) cursor.byteAt(pos++);
+            }
+            baseId = ObjectId.fromBytes(id);
+        }
+        return new PackEntry(offset, type, size, pos, baseOffset, baseId);
+    }
+
+    /**
+     * Inflate the data of the entry, which is the object content or, for a delta, the delta itself.
+     */
+    byte[] inflate(WindowCursor cursor, PackEntry entry) throws IOException {
+        final byte[] data = allocate(entry);
+        cursor.inflate(entry.dataOffset(), data);
+        return data;
+    }
+
+    static byte[] allocate(PackEntry entry) {
+        Preconditions.checkState(
+                entry.size() <= Integer.MAX_VALUE - 8,
+                "pack entry at %s too large (%s) to read at once",
+                entry.offset(),
+                entry.size());
+        return new byte[(int) entry.size()];
+    }
+
+    ByteWindow window(long position) throws IOException {
+        Preconditions.checkState(position < length, "read beyond the end of pack %s at %s", file, position);
+        return windowCache.get(this, position);
+    }
+
+    ByteWindow map(long start, int size) throws IOException {
+        final long len = Math.min(size, length - start);
+        return new ByteWindow(start, channel.map(FileChannel.MapMode.READ_ONLY, start, len));
+    }
+
+    @Override
+    public void close() throws IOException {
+        windowCache.invalidate(this);
+        deltaBaseCache.invalidate(this);
+        channel.close();
+    }
+
+    @Override
+    public String toString() {
+        return file.getPath();
+    }
+}
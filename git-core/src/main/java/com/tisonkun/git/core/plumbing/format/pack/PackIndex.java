@@ -0,0 +1,175 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.plumbing.format.pack;
+
+import com.google.common.base.Preconditions;
+import com.tisonkun.git.core.plumbing.hash.HashFn;
+import com.tisonkun.git.core.plumbing.hash.ObjectId;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import lombok.Getter;
+
+/**
+ * A pack index (.idx) of version 2, read from a memory mapping. Lookups binary search the sorted object
+ * names within the range given by the fanout table, comparing ids against the mapping in place.
+ *
+ * @see <a href="https://git-scm.com/docs/gitformat-pack#_version_2_pack_idx_files_support_packs_larger_than_4_gib_and">pack-*.idx files v2</a>
+ */
+public class PackIndex {
+    private static final int MAGIC = 0xFF744F63; // "\377tOc"
+    private static final int FANOUT_OFFSET = 8;
+    private static final int NAMES_OFFSET = FANOUT_OFFSET + 256 * 4;
+
+    private final ByteBuf bytes;
+
+    @Getter
+    private final HashFn hashFn;
+
+    @Getter
+    private final int objectCount;
+
+    private final int crcOffset;
+    private final int offsetsOffset;
+    private final int largeOffsetsOffset;
+    private final int largeOffsetCount;
+
+    private PackIndex(ByteBuf bytes, HashFn hashFn) {
+        this.bytes = bytes;
+        this.hashFn = hashFn;
+
+        Preconditions.checkState(bytes.readableBytes() >= NAMES_OFFSET, "malformed pack index: too short");
+        Preconditions.checkState(bytes.getInt(0) == MAGIC, "unsupported pack index version: 1");
+        final int version = bytes.getInt(4);
+        Preconditions.checkState(version == 2, "unsupported pack index version: %s", version);
+
+        int previous = 0;
+        for (int i = 0; i < 256; i++) {
+            final int count = bytes.getInt(FANOUT_OFFSET + i * 4);
+            Preconditions.checkState(
+                    Integer.compareUnsigned(count, previous) >= 0, "malformed pack index: fanout not monotonic");
+            previous = count;
+        }
+        this.objectCount = previous;
+        Preconditions.checkState(objectCount >= 0, "malformed pack index: too many objects (%s)", objectCount);
+
+        final long crcOffset = NAMES_OFFSET + (long) objectCount * hashFn.size();
+        final long offsetsOffset = crcOffset + objectCount * 4L;
+        final long largeOffsetsOffset = offsetsOffset + objectCount * 4L;
+        final long largeOffsetsSize = bytes.readableBytes() - largeOffsetsOffset - 2L * hashFn.size();
+        Preconditions.checkState(
+                largeOffsetsSize >= 0 && largeOffsetsSize % 8 == 0,
+                "malformed pack index: size mismatch for %s objects",
+                objectCount);
+        this.crcOffset = (int) crcOffset;
+        this.offsetsOffset = (int) offsetsOffset;
+        this.largeOffsetsOffset = (int) largeOffsetsOffset;
+        this.largeOffsetCount = (int) (largeOffsetsSize / 8);
+    }
+
+    public static PackIndex create(ByteBuf bytes, HashFn hashFn) {
+        return new PackIndex(bytes, hashFn);
+    }
+
+    /**
+     * Open the pack index over a read-only memory mapping of the file, which is kept alive as long as
+     * the returned object.
+     */
+    public static PackIndex open(File source, HashFn hashFn) throws IOException {
+        try (FileChannel channel = FileChannel.open(source.toPath(), StandardOpenOption.READ)) {
+            final long length = channel.size();
+            Preconditions.checkState(
+                    length <= Integer.MAX_VALUE, "pack index file too large to map (length: %s)", length);
+            final MappedByteBuffer content = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            return create(Unpooled.wrappedBuffer(content), hashFn);
+        }
+    }
+
+    /**
+     * @return the position of the id in the sorted names, or -1 if the pack does not contain it.
+     */
+    public int findPosition(ObjectId id) {
+        Preconditions.checkArgument(id.size() == hashFn.size(), "object id size mismatch: %s", id);
+        final int first = (int) (id.word(0) >>> 56);
+        int lo = first == 0 ? 0 : bytes.getInt(FANOUT_OFFSET + (first - 1) * 4);
+        int hi = bytes.getInt(FANOUT_OFFSET + first * 4);
+        final int hashSize = hashFn.size();
+        while (lo < hi) {
+            final int mid = (lo + hi) >>> 1;
+            final int c = id.compareTo(bytes, NAMES_OFFSET + mid * hashSize);
+            if (c < 0) {
+                hi = mid;
+            } else if (c > 0) {
+                lo = mid + 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the offset of the object in the pack, or -1 if the pack does not contain it.
+     */
+    public long findOffset(ObjectId id) {
+        final int position = findPosition(id);
+        return position < 0 ? -1 : offset(position);
+    }
+
+    public boolean contains(ObjectId id) {
+        return findPosition(id) >= 0;
+    }
+
+    public ObjectId objectId(int position) {
+        Preconditions.checkElementIndex(position, objectCount);
+        return ObjectId.get(bytes, NAMES_OFFSET + position * hashFn.size(), hashFn.size());
+    }
+
+    /**
+     * @return the offset in the pack of the object at the given position of the sorted names.
+     */
+    public long offset(int position) {
+        Preconditions.checkElementIndex(position, objectCount);
+        final int offset = bytes.getInt(offsetsOffset + position * 4);
+        if (offset >= 0) {
+            return offset;
+        }
+        // the most significant bit set means an index into the 64-bit offset table
+        final int large = offset & 0x7FFFFFFF;
+        Preconditions.checkState(large < largeOffsetCount, "malformed pack index: large offset %s", large);
+        return bytes.getLong(largeOffsetsOffset + large * 8);
+    }
+
+    /**
+     * @return the CRC32 of the packed data of the object at the given position.
+     */
+    public int crc32(int position) {
+        Preconditions.checkElementIndex(position, objectCount);
+        return bytes.getInt(crcOffset + position * 4);
+    }
+
+    /**
+     * @return the checksum of the pack file this index is for.
+     */
+    public ObjectId packChecksum() {
+        return ObjectId.get(bytes, bytes.readableBytes() - 2 * hashFn.size(), hashFn.size());
+    }
+}
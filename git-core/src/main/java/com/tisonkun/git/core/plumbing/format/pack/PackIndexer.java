@@ -0,0 +1,356 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.plumbing.format.pack;
+
+import com.google.common.base.Preconditions;
+import com.tisonkun.git.core.plumbing.ObjectType;
+import com.tisonkun.git.core.plumbing.hash.HashFn;
+import com.tisonkun.git.core.plumbing.hash.ObjectId;
+import com.tisonkun.git.core.plumbing.hash.ObjectIdMap;
+import com.tisonkun.git.core.util.LockFile;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.io.File;
+import java.io.IOException;
+import java.io.Serial;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Builds the index (.idx version 2) of a pack file, like {@code git index-pack}.
+ * <p>
+ * A sequential scan walks the entries to record their offsets and CRC32s, hashing whole objects on
+ * the way, since entries can only be delimited by inflating them. Deltas form trees below the whole
+ * objects they finally apply to, and those trees are independent, so they are resolved in parallel on
+ * a fork-join pool, each walked depth-first with an explicit stack. The sorted index is written last.
+ * <p>
+ * Thin packs, whose deltas refer to bases outside the pack, are rejected.
+ */
+public class PackIndexer {
+    private static final int LARGE_OFFSET_THRESHOLD = 0x7FFFFFFF;
+
+    private final ForkJoinPool pool;
+    private final WindowCache windowCache;
+
+    public PackIndexer() {
+        this(ForkJoinPool.commonPool(), new WindowCache());
+    }
+
+    public PackIndexer(ForkJoinPool pool, WindowCache windowCache) {
+        this.pool = pool;
+        this.windowCache = windowCache;
+    }
+
+    /**
+     * Index the pack into pack-*.idx next to it.
+     *
+     * @return the checksum of the pack.
+     */
+    public ObjectId index(File packFile, HashFn hashFn) throws IOException {
+        final String name = packFile.getName();
+        Preconditions.checkArgument(name.endsWith(".pack"), "not a pack file: %s", packFile);
+        return index(
+                packFile, hashFn, new File(packFile.getParentFile(), name.substring(0, name.length() - 5) + ".idx"));
+    }
+
+    /**
+     * Index the pack into the target file, which is replaced through a lock file.
+     *
+     * @return the checksum of the pack.
+     */
+    public ObjectId index(File packFile, HashFn hashFn, File target) throws IOException {
+        try (PackFile pack = PackFile.openUnindexed(packFile, hashFn, windowCache);
+                ObjectIdMap<Integer> refDeltas = ObjectIdMap.create(hashFn)) {
+            Preconditions.checkState(pack.verifyChecksum(), "pack checksum mismatch: %s", packFile);
+            final ScannedObjects objects = scan(pack, refDeltas);
+            resolveDeltas(pack, objects, refDeltas);
+            final ByteBuf index = write(objects, pack.checksum(), hashFn);
+            try (LockFile lock = LockFile.lock(target)) {
+                final ByteBuffer bytes = index.nioBuffer();
+                while (bytes.hasRemaining()) {
+                    lock.channel().write(bytes);
+                }
+                lock.commit();
+            }
+            return pack.checksum();
+        }
+    }
+
+    /**
+     * The entries of the pack in offset order. Delta children are linked lists threaded through
+     * firstChild and nextSibling.
+     */
+    private static final class ScannedObjects {
+        final PackEntry[] entries;
+        final ObjectId[] ids;
+        final ObjectType[] types;
+        final int[] crc32s;
+        final int[] firstChild;
+        final int[] nextSibling;
+
+        ScannedObjects(int count) {
+            this.entries = new PackEntry[count];
+            this.ids = new ObjectId[count];
+            this.types = new ObjectType[count];
+            this.crc32s = new int[count];
+            this.firstChild = new int[count];
+            this.nextSibling = new int[count];
+            Arrays.fill(firstChild, -1);
+            Arrays.fill(nextSibling, -1);
+        }
+
+        int size() {
+            return entries.length;
+        }
+
+        /**
+         * @return the object at the offset among the first scanned ones, or -1 if no entry starts there.
+         */
+        int at(long offset, int scanned) {
+            int lo = 0;
+            int hi = scanned - 1;
+            while (lo <= hi) {
+                final int mid = (lo + hi) >>> 1;
+                final long midOffset = entries[mid].offset();
+                if (midOffset < offset) {
+                    lo = mid + 1;
+                } else if (midOffset > offset) {
+                    hi = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -1;
+        }
+    }
+
+    private ScannedObjects scan(PackFile pack, ObjectIdMap<Integer> refDeltas) throws IOException {
+        final int count = pack.getObjectCount();
+        final ScannedObjects objects = new ScannedObjects(count);
+        final WindowCursor cursor = new WindowCursor(pack);
+        final long end = pack.getLength() - pack.getHashFn().size();
+        long offset = 12;
+        for (int i = 0; i < count; i++) {
+            Preconditions.checkState(offset < end, "truncated pack: %s of %s objects", i, count);
+            final PackEntry entry = pack.readEntry(cursor, offset);
+            final byte[] data = PackFile.allocate(entry);
+            final long next = cursor.inflate(entry.dataOffset(), data);
+            objects.entries[i] = entry;
+            objects.crc32s[i] = cursor.crc32(offset, next);
+            switch (entry.type()) {
+                case OFS_DELTA -> {
+                    final int base = objects.at(entry.baseOffset(), i);
+                    Preconditions.checkState(
+                            base >= 0, "malformed pack entry at %s: no entry at its base offset", offset);
+                    objects.nextSibling[i] = objects.firstChild[base];
+                    objects.firstChild[base] = i;
+                }
+                case REF_DELTA -> {
+                    final Integer sibling = refDeltas.put(entry.baseId(), i);
+                    objects.nextSibling[i] = sibling == null ? -1 : sibling;
+                }
+                default -> {
+                    objects.types[i] = entry.type();
+                    objects.ids[i] = hash(pack.getHashFn(), entry.type(), data);
+                }
+            }
+            offset = next;
+        }
+        Preconditions.checkState(offset == end, "malformed pack: %s bytes after the last object", end - offset);
+        return objects;
+    }
+
+    private void resolveDeltas(PackFile pack, ScannedObjects objects, ObjectIdMap<Integer> refDeltas)
+            throws IOException {
+        final int[] roots = new int[objects.size()];
+        int rootCount = 0;
+        for (int i = 0; i < objects.size(); i++) {
+            if (!objects.entries[i].type().isDelta()) {
+                roots[rootCount++] = i;
+            }
+        }
+        try {
+            pool.invoke(new ResolveTrees(pack, objects, refDeltas, roots, 0, rootCount));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        for (int i = 0; i < objects.size(); i++) {
+            final PackEntry entry = objects.entries[i];
+            // only REF_DELTA bases can be missing, since OFS_DELTA bases were checked during the scan
+            Preconditions.checkState(
+                    objects.ids[i] != null,
+                    "unresolved delta at %s: base %s is not in the pack",
+                    entry.offset(),
+                    entry.baseId());
+        }
+    }
+
+    /**
+     * Resolve the delta trees of a range of roots, splitting the range in halves down to a few roots.
+     */
+    private static final class ResolveTrees extends RecursiveAction {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private static final int THRESHOLD = 8;
+
+        // tasks are never serialized; the fields are transient only to satisfy Serializable
+        private final transient PackFile pack;
+        private final transient ScannedObjects objects;
+        private final transient ObjectIdMap<Integer> refDeltas;
+        private final int[] roots;
+        private final int from;
+        private final int to;
+
+        ResolveTrees(
+                PackFile pack, ScannedObjects objects, ObjectIdMap<Integer> refDeltas, int[] roots, int from, int to) {
+            this.pack = pack;
+            this.objects = objects;
+            this.refDeltas = refDeltas;
+            this.roots = roots;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > THRESHOLD) {
+                final int mid = (from + to) >>> 1;
+                invokeAll(
+                        new ResolveTrees(pack, objects, refDeltas, roots, from, mid),
+                        new ResolveTrees(pack, objects, refDeltas, roots, mid, to));
+                return;
+            }
+            try {
+                final WindowCursor cursor = new WindowCursor(pack);
+                for (int i = from; i < to; i++) {
+                    resolveTree(cursor, roots[i]);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void resolveTree(WindowCursor cursor, int root) throws IOException {
+            if (!hasChildren(root)) {
+                return;
+            }
+            final Deque<PendingDelta> stack = new ArrayDeque<>();
+            pushChildren(stack, root, pack.inflate(cursor, objects.entries[root]));
+            while (!stack.isEmpty()) {
+                final PendingDelta pending = stack.pop();
+                final int delta = pending.delta();
+                final byte[] content = DeltaApplier.apply(pending.base(), pack.inflate(cursor, objects.entries[delta]));
+                final ObjectType type = objects.types[delta];
+                objects.ids[delta] = hash(pack.getHashFn(), type, content);
+                if (hasChildren(delta)) {
+                    pushChildren(stack, delta, content);
+                }
+            }
+        }
+
+        private boolean hasChildren(int base) {
+            return objects.firstChild[base] >= 0 || refDeltas.containsKey(objects.ids[base]);
+        }
+
+        private void pushChildren(Deque<PendingDelta> stack, int base, byte[] content) {
+            final ObjectType type = objects.types[base];
+            for (int child = objects.firstChild[base]; child >= 0; child = objects.nextSibling[child]) {
+                objects.types[child] = type;
+                stack.push(new PendingDelta(child, content));
+            }
+            final Integer first = refDeltas.get(objects.ids[base]);
+            for (int child = first == null ? -1 : first; child >= 0; child = objects.nextSibling[child]) {
+                objects.types[child] = type;
+                stack.push(new PendingDelta(child, content));
+            }
+        }
+    }
+
+    /**
+     * A delta to apply on the content of its base.
+     */
+    private record PendingDelta(int delta, byte[] base) {}
+
+    private static ObjectId hash(HashFn hashFn, ObjectType type, byte[] content) {
+        final byte[] header = type.header(content.length);
+        return ObjectId.fromHashCode(hashFn.newHasher()
+                .update(header, 0, header.length)
+                .update(content, 0, content.length)
+                .finish());
+    }
+
+    private static ByteBuf write(ScannedObjects objects, ObjectId packChecksum, HashFn hashFn) {
+        final int count = objects.size();
+        final Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        Arrays.parallelSort(order, (a, b) -> objects.ids[a].compareTo(objects.ids[b]));
+
+        int largeOffsets = 0;
+        for (PackEntry entry : objects.entries) {
+            if (entry.offset() > LARGE_OFFSET_THRESHOLD) {
+                largeOffsets++;
+            }
+        }
+        final int hashSize = hashFn.size();
+        final ByteBuf bytes = Unpooled.buffer(8 + 256 * 4 + count * (hashSize + 8) + largeOffsets * 8 + 2 * hashSize);
+        bytes.writeInt(0xFF744F63);
+        bytes.writeInt(2);
+
+        int position = 0;
+        for (int first = 0; first < 256; first++) {
+            while (position < count && (int) (objects.ids[order[position]].word(0) >>> 56) == first) {
+                position++;
+            }
+            bytes.writeInt(position);
+        }
+        for (int i = 0; i < count; i++) {
+            final ObjectId id = objects.ids[order[i]];
+            if (i > 0) {
+                Preconditions.checkState(!id.equals(objects.ids[order[i - 1]]), "duplicate object %s in the pack", id);
+            }
+            id.write(bytes);
+        }
+        for (int i = 0; i < count; i++) {
+            bytes.writeInt(objects.crc32s[order[i]]);
+        }
+        int large = 0;
+        final long[] largeTable = new long[largeOffsets];
+        for (int i = 0; i < count; i++) {
+            final long offset = objects.entries[order[i]].offset();
+            if (offset > LARGE_OFFSET_THRESHOLD) {
+                largeTable[large] = offset;
+                bytes.writeInt(0x80000000 | large++);
+            } else {
+                bytes.writeInt((int) offset);
+            }
+        }
+        for (long offset : largeTable) {
+            bytes.writeLong(offset);
+        }
+        packChecksum.write(bytes);
+        ObjectId.fromHashCode(hashFn.newHasher().update(bytes).finish()).write(bytes);
+        return bytes;
+    }
+}
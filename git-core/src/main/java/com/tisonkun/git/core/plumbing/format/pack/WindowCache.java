@@ -0,0 +1,104 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.plumbing.format.pack;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Caches memory-mapped windows of pack files, in the spirit of JGit's WindowCache. Packs are read
+ * through fixed-size, aligned windows rather than mapped whole, and windows are evicted least recently
+ * used first once their total size exceeds the memory limit, so reading a multi-GB pack keeps a bounded
+ * amount of address space mapped and a bounded number of mappings reachable. One cache can serve all
+ * packs of a process.
+ * <p>
+ * An evicted window is unmapped when it is garbage collected, since the JDK offers no explicit unmap.
+ */
+public class WindowCache {
+    public static final int DEFAULT_WINDOW_SIZE = 1 << 20;
+    public static final long DEFAULT_MEMORY_LIMIT = 256L << 20;
+
+    private final int windowSize;
+    private final Cache<WindowKey, ByteWindow> cache;
+
+    public WindowCache() {
+        this(DEFAULT_WINDOW_SIZE, DEFAULT_MEMORY_LIMIT);
+    }
+
+    /**
+     * @param windowSize the size of each window, which must be a power of two.
+     * @param memoryLimit the maximum total size of cached windows.
+     */
+    public WindowCache(int windowSize, long memoryLimit) {
+        Preconditions.checkArgument(
+                windowSize > 0 && Integer.bitCount(windowSize) == 1,
+                "window size must be a power of two: %s",
+                windowSize);
+        Preconditions.checkArgument(memoryLimit >= windowSize, "memory limit (%s) < window size", memoryLimit);
+        this.windowSize = windowSize;
+        this.cache = CacheBuilder.newBuilder()
+                // a single segment, or the limit is split across segments and a window heavier than
+                // its share is evicted as soon as it is loaded
+                .concurrencyLevel(1)
+                .maximumWeight(memoryLimit)
+                .weigher((WindowKey key, ByteWindow window) -> window.size())
+                .recordStats()
+                .build();
+    }
+
+    public int windowSize() {
+        return windowSize;
+    }
+
+    /**
+     * @return the window of the pack that contains the given position.
+     */
+    ByteWindow get(PackFile pack, long position) throws IOException {
+        final long start = position & -windowSize;
+        try {
+            return cache.get(new WindowKey(pack, start), () -> pack.map(start, windowSize));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            Throwables.throwIfInstanceOf(e.getCause(), IOException.class);
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new IOException(e.getCause());
+        }
+    }
+
+    /**
+     * Drop the windows of a pack, e.g., when it is closed.
+     */
+    void invalidate(PackFile pack) {
+        cache.asMap().keySet().removeIf(key -> key.pack() == pack);
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    // packs compare by identity, so that a pack reopened after repacking never sees stale windows
+    private record WindowKey(PackFile pack, long start) {}
+}
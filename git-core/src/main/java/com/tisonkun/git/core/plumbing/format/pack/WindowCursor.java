@@ -0,0 +1,114 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.plumbing.format.pack;
+
+import com.google.common.base.Preconditions;
+import com.tisonkun.git.core.util.InflaterPool;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import javax.annotation.Nullable;
+
+/**
+ * Reads a pack through its cached windows, holding on to the current window so that sequential reads
+ * within it, such as an entry header followed by its data, skip the cache lookup. A cursor is cheap and
+ * not thread-safe; create one per read.
+ */
+final class WindowCursor {
+    private final PackFile pack;
+
+    @Nullable
+    private ByteWindow window;
+
+    WindowCursor(PackFile pack) {
+        this.pack = pack;
+    }
+
+    private ByteWindow window(long position) throws IOException {
+        if (window == null || !window.contains(position)) {
+            window = pack.window(position);
+        }
+        return window;
+    }
+
+    int byteAt(long position) throws IOException {
+        return window(position).get(position) & 0xFF;
+    }
+
+    /**
+     * Inflate the zlib stream starting at the position into dst, which it must fill exactly.
+     *
+     * @return the position right after the zlib stream.
+     */
+    long inflate(long position, byte[] dst) throws IOException {
+        final Inflater inflater = InflaterPool.acquire();
+        try {
+            long next = position;
+            int produced = 0;
+            final byte[] probe = new byte[1];
+            while (!inflater.finished()) {
+                final int n = produced < dst.length
+                        ? inflater.inflate(dst, produced, dst.length - produced)
+                        : inflater.inflate(probe, 0, 1);
+                Preconditions.checkState(
+                        produced < dst.length || n == 0,
+                        "malformed pack entry at %s: data is longer than its size (%s)",
+                        position,
+                        dst.length);
+                produced += n;
+                if (n > 0 || inflater.finished()) {
+                    continue;
+                }
+                Preconditions.checkState(!inflater.needsDictionary(), "malformed pack entry at %s", position);
+                if (inflater.needsInput()) {
+                    Preconditions.checkState(next < pack.getLength(), "truncated pack entry at %s", position);
+                    final ByteWindow w = window(next);
+                    inflater.setInput(w.slice(next));
+                    next = w.end();
+                }
+            }
+            Preconditions.checkState(
+                    produced == dst.length,
+                    "malformed pack entry at %s: data is shorter than its size (%s)",
+                    position,
+                    dst.length);
+            return next - inflater.getRemaining();
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("malformed pack entry at " + position, e);
+        } finally {
+            InflaterPool.release(inflater);
+        }
+    }
+
+    /**
+     * @return the CRC32 of the raw bytes between the positions.
+     */
+    int crc32(long start, long end) throws IOException {
+        final CRC32 crc32 = new CRC32();
+        long position = start;
+        while (position < end) {
+            final ByteWindow w = window(position);
+            final ByteBuffer slice = w.slice(position);
+            slice.limit((int) Math.min(slice.limit(), end - position));
+            position += slice.remaining();
+            crc32.update(slice);
+        }
+        return (int) crc32.getValue();
+    }
+}
@@ -18,15 +18,46 @@ package com.tisonkun.git.core.plumbing.hash;
 
 import com.google.common.hash.HashCode;
 import io.netty.buffer.ByteBuf;
+import java.util.Locale;
 
 public interface HashFn {
-    HashFn DEFAULT = new HashFnSha1();
+    HashFn SHA1 = new HashFnSha1();
+    /**
+     * SHA-1 with collision detection, for ids of objects that may come from untrusted sources.
+     */
+    HashFn SHA1DC = new HashFnSha1dc();
+
+    HashFn SHA256 = new HashFnSha256();
+    HashFn DEFAULT = SHA1;
+
+    /**
+     * Returns the hash function of the given object format, as in {@code extensions.objectFormat}.
+     */
+    static HashFn of(String objectFormat) {
+        return switch (objectFormat.toLowerCase(Locale.ROOT)) {
+            case "sha1" -> SHA1;
+            case "sha256" -> SHA256;
+            default -> throw new IllegalArgumentException("unknown object format: " + objectFormat);
+        };
+    }
+
+    /**
+     * @return the name of the object format, such as "sha1".
+     */
+    String name();
 
     /**
      * @return the size of bytes representing the hash code.
      */
     int size();
 
+    /**
+     * @return the number of longs a hash code takes as big-endian words; see {@link #read(ByteBuf, long[], int)}.
+     */
+    default int words() {
+        return (size() + 7) / 8;
+    }
+
     /**
      * Read the hash code from bytes[0, size()).
      */
@@ -36,8 +67,35 @@ public interface HashFn {
         return HashCode.fromBytes(hashCode);
     }
 
+    /**
+     * Read the hash code into dst[dstIndex, dstIndex + size()) without allocating.
+     */
+    default void read(ByteBuf bytes, byte[] dst, int dstIndex) {
+        bytes.readBytes(dst, dstIndex, size());
+    }
+
+    /**
+     * Read the hash code into dst[dstIndex, dstIndex + words()) as big-endian words without allocating.
+     * A trailing partial word is left-aligned and zero-padded, so that comparing words as unsigned longs
+     * orders hash codes like their bytes.
+     */
+    default void read(ByteBuf bytes, long[] dst, int dstIndex) {
+        HashWords.read(bytes, size(), dst, dstIndex);
+    }
+
     /**
      * Calculate the hash code for bytes[start, start + len).
      */
     HashCode calculate(byte[] bytes, int start, int len);
+
+    /**
+     * Calculate the hash code for bytes[start, start + len) without copying them onto heap,
+     * regardless of whether the buffer is heap, direct or memory-mapped.
+     */
+    HashCode calculate(ByteBuf bytes, int start, int len);
+
+    /**
+     * @return a new hasher to calculate the hash code incrementally, e.g., while bytes are written out.
+     */
+    Hasher newHasher();
 }
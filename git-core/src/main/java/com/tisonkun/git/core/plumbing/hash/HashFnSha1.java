@@ -16,23 +16,21 @@
 
 package com.tisonkun.git.core.plumbing.hash;
 
-import com.google.common.hash.HashCode;
-import com.google.common.hash.Hashing;
-
 /**
- * Current default implementation of {@link HashFn}. See also
- * <a href="https://git-scm.com/docs/hash-function-transition/">
- * "Migrate Git from SHA-1 to a stronger hash function"</a> for a future plan.
+ * The SHA-1 {@link HashFn}, which is the object format of repositories by default.
  */
-class HashFnSha1 implements HashFn {
+class HashFnSha1 extends MessageDigestHashFn {
+    HashFnSha1() {
+        super("SHA-1");
+    }
+
     @Override
-    public int size() {
-        return 20;
+    public String name() {
+        return "sha1";
     }
 
-    @SuppressWarnings("deprecation")
     @Override
-    public HashCode calculate(byte[] bytes, int start, int len) {
-        return Hashing.sha1().hashBytes(bytes, start, len);
+    public int size() {
+        return 20;
     }
 }
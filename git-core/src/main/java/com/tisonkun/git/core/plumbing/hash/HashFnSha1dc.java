@@ -0,0 +1,63 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.plumbing.hash;
+
+import com.google.common.hash.HashCode;
+import io.netty.buffer.ByteBuf;
+
+/**
+ * The SHA-1 {@link HashFn} with collision detection, as git computes object ids by default. It is
+ * slower than {@link HashFn#SHA1}, which may use CPU intrinsics, so the latter remains the choice
+ * for checksums over trusted local files.
+ */
+class HashFnSha1dc implements HashFn {
+    private final ThreadLocal<Sha1dcHasher> hasher = ThreadLocal.withInitial(() -> new Sha1dcHasher(true));
+
+    @Override
+    public String name() {
+        return "sha1";
+    }
+
+    @Override
+    public int size() {
+        return 20;
+    }
+
+    @Override
+    public HashCode calculate(byte[] bytes, int start, int len) {
+        final Sha1dcHasher h = hasher.get();
+        h.reset();
+        return h.update(bytes, start, len).finish();
+    }
+
+    @Override
+    public HashCode calculate(ByteBuf bytes, int start, int len) {
+        final Sha1dcHasher h = hasher.get();
+        h.reset();
+        return h.update(bytes, start, len).finish();
+    }
+
+    @Override
+    public Hasher newHasher() {
+        return new Sha1dcHasher(true);
+    }
+
+    @Override
+    public String toString() {
+        return "sha1dc";
+    }
+}
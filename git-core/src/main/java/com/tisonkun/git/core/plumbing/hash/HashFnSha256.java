@@ -0,0 +1,38 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.plumbing.hash;
+
+/**
+ * The SHA-256 {@link HashFn} of repositories with {@code extensions.objectFormat=sha256}.
+ *
+ * @see <a href="https://git-scm.com/docs/hash-function-transition/">hash-function-transition</a>
+ */
+class HashFnSha256 extends MessageDigestHashFn {
+    HashFnSha256() {
+        super("SHA-256");
+    }
+
+    @Override
+    public String name() {
+        return "sha256";
+    }
+
+    @Override
+    public int size() {
+        return 32;
+    }
+}
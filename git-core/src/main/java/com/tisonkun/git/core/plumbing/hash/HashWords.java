@@ -0,0 +1,54 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.plumbing.hash;
+
+import io.netty.buffer.ByteBuf;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Conversions between hash codes in bytes and in big-endian words, where a trailing partial word is
+ * left-aligned and zero-padded.
+ */
+@UtilityClass
+class HashWords {
+    static void read(ByteBuf bytes, int len, long[] dst, int dstIndex) {
+        int i = dstIndex;
+        int remaining = len;
+        while (remaining >= 8) {
+            dst[i++] = bytes.readLong();
+            remaining -= 8;
+        }
+        if (remaining > 0) {
+            long word = 0;
+            for (int j = 0; j < 8; j++) {
+                word = (word << 8) | (j < remaining ? bytes.readByte() & 0xFF : 0);
+            }
+            dst[i] = word;
+        }
+    }
+
+    static void toWords(byte[] src, int srcIndex, int len, long[] dst, int dstIndex) {
+        for (int i = 0; i < (len + 7) / 8; i++) {
+            long word = 0;
+            for (int j = 0; j < 8; j++) {
+                final int pos = i * 8 + j;
+                word = (word << 8) | (pos < len ? src[srcIndex + pos] & 0xFF : 0);
+            }
+            dst[dstIndex + i] = word;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.plumbing.hash;
+
+import com.google.common.hash.HashCode;
+import io.netty.buffer.ByteBuf;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Calculates a hash code incrementally. Input is consumed in place, whether it lives on heap, in a
+ * direct buffer or in a memory mapping, so hashing never needs a heap copy of the whole input.
+ * <p>
+ * A hasher is not thread-safe. It can be reused after {@link #reset()} or any of the finish methods.
+ */
+public interface Hasher {
+    /**
+     * @return the size of bytes of the hash code.
+     */
+    int size();
+
+    Hasher update(byte[] bytes, int start, int len);
+
+    /**
+     * Update with the remaining bytes of the buffer, which are consumed.
+     */
+    Hasher update(ByteBuffer bytes);
+
+    /**
+     * Update with bytes[start, start + len) of the buffer without changing its indexes.
+     */
+    default Hasher update(ByteBuf bytes, int start, int len) {
+        if (bytes.hasArray()) {
+            return update(bytes.array(), bytes.arrayOffset() + start, len);
+        }
+        for (ByteBuffer nioBuffer : bytes.nioBuffers(start, len)) {
+            update(nioBuffer);
+        }
+        return this;
+    }
+
+    /**
+     * Update with the readable bytes of the buffer without changing its indexes.
+     */
+    default Hasher update(ByteBuf bytes) {
+        return update(bytes, bytes.readerIndex(), bytes.readableBytes());
+    }
+
+    /**
+     * Update with the given region of the file, which is memory-mapped one window at a time.
+     */
+    Hasher update(FileChannel channel, long position, long len) throws IOException;
+
+    /**
+     * Write the hash code into dst[dstIndex, dstIndex + size()) and reset.
+     */
+    void finish(byte[] dst, int dstIndex);
+
+    /**
+     * Write the hash code into the buffer at its writer index and reset.
+     */
+    void finish(ByteBuf dst);
+
+    /**
+     * Write the hash code as big-endian words into dst[dstIndex, dstIndex + HashFn.words()) and reset.
+     *
+     * @see HashFn#read(ByteBuf, long[], int)
+     */
+    void finish(long[] dst, int dstIndex);
+
+    /**
+     * @return the hash code, after which the hasher is reset.
+     */
+    default HashCode finish() {
+        final byte[] hashCode = new byte[size()];
+        finish(hashCode, 0);
+        return HashCode.fromBytes(hashCode);
+    }
+
+    void reset();
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.plumbing.hash;
+
+import com.google.common.hash.HashCode;
+import io.netty.buffer.ByteBuf;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * A {@link HashFn} backed by a JDK {@link MessageDigest}. One digest instance is kept per thread and
+ * reset after each use, so hashing neither looks up the provider nor clones a prototype digest.
+ */
+abstract class MessageDigestHashFn implements HashFn {
+    private final MessageDigest prototype;
+    private final ThreadLocal<MessageDigest> digest;
+
+    MessageDigestHashFn(String algorithm) {
+        this.prototype = newDigest(algorithm);
+        this.digest = ThreadLocal.withInitial(this::copyPrototype);
+    }
+
+    private MessageDigest copyPrototype() {
+        try {
+            return (MessageDigest) prototype.clone();
+        } catch (CloneNotSupportedException e) {
+            return newDigest(prototype.getAlgorithm());
+        }
+    }
+
+    private static MessageDigest newDigest(String algorithm) {
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("cannot create " + algorithm + " digest", e);
+        }
+    }
+
+    @Override
+    public HashCode calculate(byte[] bytes, int start, int len) {
+        final MessageDigest md = digest.get();
+        md.update(bytes, start, len);
+        return HashCode.fromBytes(md.digest());
+    }
+
+    @Override
+    public HashCode calculate(ByteBuf bytes, int start, int len) {
+        if (bytes.hasArray()) {
+            return calculate(bytes.array(), bytes.arrayOffset() + start, len);
+        }
+        final MessageDigest md = digest.get();
+        md.update(bytes.nioBuffer(start, len));
+        return HashCode.fromBytes(md.digest());
+    }
+
+    @Override
+    public Hasher newHasher() {
+        return new MessageDigestHasher(copyPrototype());
+    }
+
+    @Override
+    public String toString() {
+        return name();
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.plumbing.hash;
+
+import com.google.common.base.Preconditions;
+import io.netty.buffer.ByteBuf;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.DigestException;
+import java.security.MessageDigest;
+
+/**
+ * A {@link Hasher} over a JDK {@link MessageDigest}. The digest is written into a scratch array kept
+ * by the hasher, so finishing into a caller buffer does not allocate.
+ */
+class MessageDigestHasher implements Hasher {
+    /**
+     * Files are mapped in windows of this size, so that hashing a huge file does not reserve a huge
+     * range of address space.
+     */
+    static final long MAP_WINDOW_SIZE = 64L * 1024 * 1024;
+
+    private final MessageDigest digest;
+    private final byte[] scratch;
+
+    MessageDigestHasher(MessageDigest digest) {
+        this.digest = digest;
+        this.scratch = new byte[digest.getDigestLength()];
+    }
+
+    @Override
+    public int size() {
+        return scratch.length;
+    }
+
+    @Override
+    public Hasher update(byte[] bytes, int start, int len) {
+        digest.update(bytes, start, len);
+        return this;
+    }
+
+    @Override
+    public Hasher update(ByteBuffer bytes) {
+        digest.update(bytes);
+        return this;
+    }
+
+    @Override
+    public Hasher update(FileChannel channel, long position, long len) throws IOException {
+        Preconditions.checkArgument(position >= 0 && len >= 0, "negative position or length");
+        long offset = position;
+        final long end = position + len;
+        while (offset < end) {
+            final long window = Math.min(MAP_WINDOW_SIZE, end - offset);
+            final MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, offset, window);
+            digest.update(mapped);
+            offset += window;
+        }
+        return this;
+    }
+
+    @Override
+    public void finish(byte[] dst, int dstIndex) {
+        try {
+            digest.digest(dst, dstIndex, scratch.length);
+        } catch (DigestException e) {
+            throw new IllegalArgumentException("no room for the hash code in the output array", e);
+        }
+    }
+
+    @Override
+    public void finish(ByteBuf dst) {
+        dst.ensureWritable(scratch.length);
+        if (dst.hasArray()) {
+            finish(dst.array(), dst.arrayOffset() + dst.writerIndex());
+            dst.writerIndex(dst.writerIndex() + scratch.length);
+            return;
+        }
+        finish(scratch, 0);
+        dst.writeBytes(scratch);
+    }
+
+    @Override
+    public void finish(long[] dst, int dstIndex) {
+        finish(scratch, 0);
+        HashWords.toWords(scratch, 0, scratch.length, dst, dstIndex);
+    }
+
+    @Override
+    public void reset() {
+        digest.reset();
+    }
+}
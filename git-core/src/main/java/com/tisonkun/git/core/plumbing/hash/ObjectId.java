@@ -0,0 +1,305 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.plumbing.hash;
+
+import com.google.common.base.Preconditions;
+import com.google.common.hash.HashCode;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+/**
+ * An object id held in primitive words rather than a byte array, so that an id is a single small
+ * object and equality is a few long comparisons.
+ * <p>
+ * The id bytes are packed into big-endian words; a trailing partial word is left-aligned and
+ * zero-padded. Both SHA-1 (20 bytes) and SHA-256 (32 bytes) ids fit. SHA-1 ids, by far the most
+ * common, use a layout of two longs and an int (32 bytes per id with compressed oops, against 48
+ * for the general layout); other sizes keep four longs and the size.
+ */
+public abstract sealed class ObjectId implements Comparable<ObjectId> {
+    private static final int SHA1_SIZE = 20;
+    private static final int MAX_SIZE = 32;
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private ObjectId() {}
+
+    private static ObjectId of(long w0, long w1, long w2, long w3, int size) {
+        return size == SHA1_SIZE ? new Sha1Id(w0, w1, (int) (w2 >>> 32)) : new WideId(w0, w1, w2, w3, size);
+    }
+
+    /**
+     * @return the all-zero id of the given hash function, which git uses for "no object".
+     */
+    public static ObjectId zero(HashFn hashFn) {
+        return of(0, 0, 0, 0, checkSize(hashFn.size()));
+    }
+
+    /**
+     * Read an id of the given size at the reader index and advance it.
+     */
+    public static ObjectId read(ByteBuf bytes, int size) {
+        final ObjectId id = get(bytes, bytes.readerIndex(), size);
+        bytes.skipBytes(size);
+        return id;
+    }
+
+    /**
+     * Get an id of the given size at bytes[index, index + size) without changing the buffer indexes.
+     */
+    public static ObjectId get(ByteBuf bytes, int index, int size) {
+        checkSize(size);
+        return of(
+                word(bytes, index, size, 0),
+                word(bytes, index, size, 1),
+                word(bytes, index, size, 2),
+                word(bytes, index, size, 3),
+                size);
+    }
+
+    public static ObjectId fromBytes(byte[] bytes) {
+        return fromBytes(bytes, 0, bytes.length);
+    }
+
+    public static ObjectId fromBytes(byte[] bytes, int start, int size) {
+        return get(Unpooled.wrappedBuffer(bytes), start, size);
+    }
+
+    public static ObjectId fromHashCode(HashCode hashCode) {
+        return fromBytes(hashCode.asBytes());
+    }
+
+    /**
+     * Parse an id from its lowercase or uppercase hex name.
+     */
+    public static ObjectId fromString(String name) {
+        Preconditions.checkArgument(name.length() % 2 == 0, "malformed object id: %s", name);
+        final byte[] bytes = new byte[name.length() / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            final int hi = Character.digit(name.charAt(2 * i), 16);
+            final int lo = Character.digit(name.charAt(2 * i + 1), 16);
+            Preconditions.checkArgument(hi >= 0 && lo >= 0, "malformed object id: %s", name);
+            bytes[i] = (byte) ((hi << 4) | lo);
+        }
+        return fromBytes(bytes);
+    }
+
+    private static int checkSize(int size) {
+        Preconditions.checkArgument(
+                size > 0 && size <= MAX_SIZE && size % 4 == 0, "unsupported object id size: %s", size);
+        return size;
+    }
+
+    private static long word(ByteBuf bytes, int index, int size, int i) {
+        final int remaining = size - i * 8;
+        if (remaining >= 8) {
+            return bytes.getLong(index + i * 8);
+        }
+        if (remaining >= 4) {
+            return (long) bytes.getInt(index + i * 8) << 32;
+        }
+        return 0;
+    }
+
+    /**
+     * @return the size of bytes of this id.
+     */
+    public abstract int size();
+
+    /**
+     * @return the i-th big-endian word of this id, or 0 for a word past its size.
+     */
+    public abstract long word(int i);
+
+    /**
+     * @return the first four bytes of this id, which are uniformly distributed and make a good hash.
+     */
+    int firstInt() {
+        return (int) (word(0) >>> 32);
+    }
+
+    /**
+     * Write this id to bytes[index, index + size()) without changing the buffer indexes.
+     */
+    public void set(ByteBuf bytes, int index) {
+        for (int i = 0; i * 8 < size(); i++) {
+            final long word = word(i);
+            if (size() - i * 8 >= 8) {
+                bytes.setLong(index + i * 8, word);
+            } else {
+                bytes.setInt(index + i * 8, (int) (word >>> 32));
+            }
+        }
+    }
+
+    /**
+     * Write this id at the writer index and advance it.
+     */
+    public void write(ByteBuf bytes) {
+        bytes.ensureWritable(size());
+        set(bytes, bytes.writerIndex());
+        bytes.writerIndex(bytes.writerIndex() + size());
+    }
+
+    public void copyTo(byte[] dst, int dstIndex) {
+        set(Unpooled.wrappedBuffer(dst), dstIndex);
+    }
+
+    /**
+     * @return whether this id equals bytes[index, index + size()), without allocating.
+     */
+    public boolean equals(ByteBuf bytes, int index) {
+        for (int i = 0; i * 8 < size(); i++) {
+            if (word(i) != word(bytes, index, size(), i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Compare this id with bytes[index, index + size()) as unsigned bytes, without allocating.
+     */
+    public int compareTo(ByteBuf bytes, int index) {
+        for (int i = 0; i * 8 < size(); i++) {
+            final int c = Long.compareUnsigned(word(i), word(bytes, index, size(), i));
+            if (c != 0) {
+                return c;
+            }
+        }
+        return 0;
+    }
+
+    public byte[] toBytes() {
+        final byte[] bytes = new byte[size()];
+        copyTo(bytes, 0);
+        return bytes;
+    }
+
+    public HashCode toHashCode() {
+        return HashCode.fromBytes(toBytes());
+    }
+
+    /**
+     * @return the lowercase hex name of this id.
+     */
+    public String name() {
+        final char[] name = new char[size() * 2];
+        for (int i = 0; i < size(); i++) {
+            final int b = (int) (word(i / 8) >>> (56 - (i % 8) * 8)) & 0xFF;
+            name[2 * i] = HEX_DIGITS[b >>> 4];
+            name[2 * i + 1] = HEX_DIGITS[b & 0xF];
+        }
+        return new String(name);
+    }
+
+    @Override
+    public int compareTo(ObjectId o) {
+        for (int i = 0; i < MAX_SIZE / 8; i++) {
+            final int c = Long.compareUnsigned(word(i), o.word(i));
+            if (c != 0) {
+                return c;
+            }
+        }
+        return Integer.compare(size(), o.size());
+    }
+
+    @Override
+    public final int hashCode() {
+        return firstInt();
+    }
+
+    @Override
+    public final String toString() {
+        return name();
+    }
+
+    private static final class Sha1Id extends ObjectId {
+        private final long w0;
+        private final long w1;
+        private final int w2;
+
+        private Sha1Id(long w0, long w1, int w2) {
+            this.w0 = w0;
+            this.w1 = w1;
+            this.w2 = w2;
+        }
+
+        @Override
+        public int size() {
+            return SHA1_SIZE;
+        }
+
+        @Override
+        public long word(int i) {
+            return switch (i) {
+                case 0 -> w0;
+                case 1 -> w1;
+                case 2 -> (long) w2 << 32;
+                case 3 -> 0;
+                default -> throw new IndexOutOfBoundsException(i);
+            };
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o || (o instanceof Sha1Id that && w0 == that.w0 && w1 == that.w1 && w2 == that.w2);
+        }
+    }
+
+    private static final class WideId extends ObjectId {
+        private final long w0;
+        private final long w1;
+        private final long w2;
+        private final long w3;
+        private final int size;
+
+        private WideId(long w0, long w1, long w2, long w3, int size) {
+            this.w0 = w0;
+            this.w1 = w1;
+            this.w2 = w2;
+            this.w3 = w3;
+            this.size = size;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public long word(int i) {
+            return switch (i) {
+                case 0 -> w0;
+                case 1 -> w1;
+                case 2 -> w2;
+                case 3 -> w3;
+                default -> throw new IndexOutOfBoundsException(i);
+            };
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o
+                    || (o instanceof WideId that
+                            && w0 == that.w0
+                            && w1 == that.w1
+                            && w2 == that.w2
+                            && w3 == that.w3
+                            && size == that.size);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.plumbing.hash;
+
+import io.netty.buffer.ByteBuf;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+
+/**
+ * A map keyed by object ids backed by an {@link ObjectIdTable}. Values live in a plain array parallel
+ * to the key slots; null values are not allowed.
+ */
+public final class ObjectIdMap<V> extends ObjectIdTable {
+    private Object[] values;
+    private Object[] resizing;
+
+    private ObjectIdMap(HashFn hashFn, int expectedSize, boolean direct) {
+        super(hashFn, expectedSize, direct);
+        this.values = new Object[capacity()];
+    }
+
+    public static <V> ObjectIdMap<V> create(HashFn hashFn) {
+        return create(hashFn, 0);
+    }
+
+    public static <V> ObjectIdMap<V> create(HashFn hashFn, int expectedSize) {
+        return new ObjectIdMap<>(hashFn, expectedSize, false);
+    }
+
+    /**
+     * Create a map whose keys live off heap. It must be {@link #close() closed} to free the memory.
+     */
+    public static <V> ObjectIdMap<V> createDirect(HashFn hashFn, int expectedSize) {
+        return new ObjectIdMap<>(hashFn, expectedSize, true);
+    }
+
+    @Nullable
+    public V get(ObjectId id) {
+        return valueAt(find(id));
+    }
+
+    /**
+     * Same as {@link #get(ObjectId)} for the raw id at bytes[index, index + id size).
+     */
+    @Nullable
+    public V get(ByteBuf bytes, int index) {
+        return valueAt(find(bytes, index));
+    }
+
+    public boolean containsKey(ObjectId id) {
+        return find(id) >= 0;
+    }
+
+    /**
+     * @return the previous value, or null if there was none.
+     */
+    @Nullable
+    public V put(ObjectId id, V value) {
+        Objects.requireNonNull(value, "value");
+        final int slot = find(id);
+        if (slot >= 0) {
+            final V previous = valueAt(slot);
+            values[slot] = value;
+            return previous;
+        }
+        final int inserted = insert(~slot, id);
+        values[inserted] = value;
+        return null;
+    }
+
+    /**
+     * Same as {@link #put(ObjectId, Object)} for the raw id at bytes[index, index + id size).
+     */
+    @Nullable
+    public V put(ByteBuf bytes, int index, V value) {
+        Objects.requireNonNull(value, "value");
+        final int slot = find(bytes, index);
+        if (slot >= 0) {
+            final V previous = valueAt(slot);
+            values[slot] = value;
+            return previous;
+        }
+        final int inserted = insert(~slot, bytes, index);
+        values[inserted] = value;
+        return null;
+    }
+
+    public V computeIfAbsent(ObjectId id, Function<ObjectId, V> mappingFunction) {
+        final int slot = find(id);
+        if (slot >= 0) {
+            return valueAt(slot);
+        }
+        final V value = Objects.requireNonNull(mappingFunction.apply(id), "value");
+        final int inserted = insert(~slot, id);
+        values[inserted] = value;
+        return value;
+    }
+
+    public void forEach(BiConsumer<ObjectId, V> action) {
+        for (int slot = 0; slot < capacity(); slot++) {
+            if (isUsed(slot)) {
+                action.accept(key(slot), valueAt(slot));
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Nullable
+    private V valueAt(int slot) {
+        return slot >= 0 ? (V) values[slot] : null;
+    }
+
+    @Override
+    void beginResize(int capacity) {
+        resizing = values;
+        values = new Object[capacity];
+    }
+
+    @Override
+    void move(int from, int to) {
+        values[to] = resizing[from];
+    }
+
+    @Override
+    void endResize() {
+        resizing = null;
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.plumbing.hash;
+
+import io.netty.buffer.ByteBuf;
+import java.util.function.Consumer;
+
+/**
+ * A set of object ids backed by an {@link ObjectIdTable}; an id costs its raw size in bytes plus a
+ * fraction for free slots, against several dozen bytes for a boxed id in a {@link java.util.HashSet}.
+ */
+public final class ObjectIdSet extends ObjectIdTable {
+    private ObjectIdSet(HashFn hashFn, int expectedSize, boolean direct) {
+        super(hashFn, expectedSize, direct);
+    }
+
+    public static ObjectIdSet create(HashFn hashFn) {
+        return create(hashFn, 0);
+    }
+
+    public static ObjectIdSet create(HashFn hashFn, int expectedSize) {
+        return new ObjectIdSet(hashFn, expectedSize, false);
+    }
+
+    /**
+     * Create a set whose keys live off heap. It must be {@link #close() closed} to free the memory.
+     */
+    public static ObjectIdSet createDirect(HashFn hashFn, int expectedSize) {
+        return new ObjectIdSet(hashFn, expectedSize, true);
+    }
+
+    /**
+     * @return true if the id was not in the set before.
+     */
+    public boolean add(ObjectId id) {
+        final int slot = find(id);
+        if (slot >= 0) {
+            return false;
+        }
+        insert(~slot, id);
+        return true;
+    }
+
+    /**
+     * Same as {@link #add(ObjectId)} for the raw id at bytes[index, index + id size).
+     */
+    public boolean add(ByteBuf bytes, int index) {
+        final int slot = find(bytes, index);
+        if (slot >= 0) {
+            return false;
+        }
+        insert(~slot, bytes, index);
+        return true;
+    }
+
+    public boolean contains(ObjectId id) {
+        return find(id) >= 0;
+    }
+
+    /**
+     * Same as {@link #contains(ObjectId)} for the raw id at bytes[index, index + id size).
+     */
+    public boolean contains(ByteBuf bytes, int index) {
+        return find(bytes, index) >= 0;
+    }
+
+    public void forEach(Consumer<ObjectId> action) {
+        for (int slot = 0; slot < capacity(); slot++) {
+            if (isUsed(slot)) {
+                action.accept(key(slot));
+            }
+        }
+    }
+
+    @Override
+    void beginResize(int capacity) {}
+
+    @Override
+    void move(int from, int to) {}
+
+    @Override
+    void endResize() {}
+}
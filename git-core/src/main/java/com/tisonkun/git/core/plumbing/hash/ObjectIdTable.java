@@ -0,0 +1,209 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.plumbing.hash;
+
+import com.google.common.base.Preconditions;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+/**
+ * An open-addressing hash table keyed by object ids. Keys are stored back to back as raw bytes in one
+ * buffer, on heap or off heap, and occupancy is a bitmap, so a key costs exactly the id size. Slots are
+ * probed linearly from the first four bytes of the id, which are already uniformly distributed.
+ * <p>
+ * Entries cannot be removed; the table suits sets that only grow, such as reachability walks.
+ */
+abstract class ObjectIdTable implements AutoCloseable {
+    private static final float LOAD_FACTOR = 0.75f;
+    private static final int MIN_CAPACITY = 16;
+
+    final int idSize;
+    private final boolean direct;
+
+    private ByteBuf keys;
+    private long[] used;
+    private int mask;
+    private int size;
+    private int threshold;
+
+    ObjectIdTable(HashFn hashFn, int expectedSize, boolean direct) {
+        Preconditions.checkArgument(expectedSize >= 0, "negative expected size: %s", expectedSize);
+        this.idSize = hashFn.size();
+        this.direct = direct;
+        allocate(capacityFor(expectedSize));
+    }
+
+    private static int capacityFor(int expectedSize) {
+        final long capacity = Math.max(MIN_CAPACITY, (long) Math.ceil(expectedSize / LOAD_FACTOR));
+        Preconditions.checkArgument(capacity <= 1 << 30, "too many object ids: %s", expectedSize);
+        return Integer.highestOneBit((int) capacity - 1) << 1;
+    }
+
+    private void allocate(int capacity) {
+        final long keysSize = (long) capacity * idSize;
+        Preconditions.checkState(keysSize <= Integer.MAX_VALUE, "too many object ids: %s", size);
+        keys = direct ? Unpooled.directBuffer((int) keysSize) : Unpooled.buffer((int) keysSize);
+        used = new long[(capacity + 63) >>> 6];
+        mask = capacity - 1;
+        threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    /**
+     * @return the number of ids in this table.
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return the slot holding the id, or the bitwise complement of the slot to insert it at.
+     */
+    final int find(ObjectId id) {
+        checkSize(id.size());
+        int slot = id.firstInt() & mask;
+        while (isUsed(slot)) {
+            if (id.equals(keys, slot * idSize)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return ~slot;
+    }
+
+    /**
+     * Same as {@link #find(ObjectId)} for the raw id at bytes[index, index + id size).
+     */
+    final int find(ByteBuf bytes, int index) {
+        int slot = bytes.getInt(index) & mask;
+        while (isUsed(slot)) {
+            if (keyEquals(slot * idSize, bytes, index)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return ~slot;
+    }
+
+    /**
+     * Store the id at a free slot returned by find, growing the table if needed.
+     *
+     * @return the slot the id ends up at.
+     */
+    final int insert(int freeSlot, ObjectId id) {
+        id.set(keys, freeSlot * idSize);
+        return occupy(freeSlot);
+    }
+
+    final int insert(int freeSlot, ByteBuf bytes, int index) {
+        keys.setBytes(freeSlot * idSize, bytes, index, idSize);
+        return occupy(freeSlot);
+    }
+
+    final ObjectId key(int slot) {
+        return ObjectId.get(keys, slot * idSize, idSize);
+    }
+
+    final int capacity() {
+        return mask + 1;
+    }
+
+    final boolean isUsed(int slot) {
+        return (used[slot >>> 6] & (1L << slot)) != 0;
+    }
+
+    /**
+     * Called before the slots are rehashed into a table of the given capacity.
+     */
+    abstract void beginResize(int capacity);
+
+    /**
+     * Called when the entry at slot from of the old table moves to slot to of the new table.
+     */
+    abstract void move(int from, int to);
+
+    /**
+     * Called after all slots are rehashed.
+     */
+    abstract void endResize();
+
+    private int occupy(int slot) {
+        used[slot >>> 6] |= 1L << slot;
+        if (++size <= threshold) {
+            return slot;
+        }
+        return resize(slot);
+    }
+
+    private int resize(int trackedSlot) {
+        final ByteBuf oldKeys = keys;
+        final long[] oldUsed = used;
+        final int oldCapacity = capacity();
+        allocate(oldCapacity << 1);
+        beginResize(capacity());
+
+        int tracked = -1;
+        for (int slot = 0; slot < oldCapacity; slot++) {
+            if ((oldUsed[slot >>> 6] & (1L << slot)) == 0) {
+                continue;
+            }
+            final int to = ~find(oldKeys, slot * idSize);
+            keys.setBytes(to * idSize, oldKeys, slot * idSize, idSize);
+            used[to >>> 6] |= 1L << to;
+            move(slot, to);
+            if (slot == trackedSlot) {
+                tracked = to;
+            }
+        }
+        oldKeys.release();
+        endResize();
+        return tracked;
+    }
+
+    // ByteBufUtil.equals bounds-checks against the writer index, which the key buffer does not maintain
+    private boolean keyEquals(int keyIndex, ByteBuf bytes, int index) {
+        int i = 0;
+        for (; i + 8 <= idSize; i += 8) {
+            if (keys.getLong(keyIndex + i) != bytes.getLong(index + i)) {
+                return false;
+            }
+        }
+        for (; i < idSize; i += 4) {
+            if (keys.getInt(keyIndex + i) != bytes.getInt(index + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void checkSize(int size) {
+        Preconditions.checkArgument(size == idSize, "object id size (%s) != table id size (%s)", size, idSize);
+    }
+
+    /**
+     * Release the key buffer, which matters for tables allocated off heap.
+     */
+    @Override
+    public void close() {
+        if (keys.refCnt() > 0) {
+            keys.release();
+        }
+    }
+}
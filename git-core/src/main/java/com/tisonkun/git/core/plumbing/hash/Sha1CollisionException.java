@@ -0,0 +1,40 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.plumbing.hash;
+
+import java.io.Serial;
+import lombok.Getter;
+
+/**
+ * Thrown by {@link HashFn#SHA1DC} if the hashed content is likely half of a SHA-1 collision, such as
+ * the SHAttered PDFs.
+ */
+@Getter
+public class Sha1CollisionException extends RuntimeException {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The id of the colliding content; the message keeps its name across serialization.
+     */
+    private final transient ObjectId objectId;
+
+    public Sha1CollisionException(ObjectId objectId) {
+        super("SHA-1 appears to be part of a collision attack: " + objectId.name());
+        this.objectId = objectId;
+    }
+}
@@ -0,0 +1,608 @@
+/*
+ * Copyright (C) 2017, Google Inc. and others
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0 which accompanies this
+ * distribution, is reproduced below, and is available at
+ * https://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or
+ * without modification, are permitted provided that the following
+ * conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright
+ *   notice, this list of conditions and the following disclaimer.
+ *
+ * - Redistributions in binary form must reproduce the above
+ *   copyright notice, this list of conditions and the following
+ *   disclaimer in the documentation and/or other materials provided
+ *   with the distribution.
+ *
+ * - Neither the name of the Eclipse Foundation, Inc. nor the
+ *   names of its contributors may be used to endorse or promote
+ *   products derived from this software without specific prior
+ *   written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND
+ * CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES,
+ * INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES
+ * OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+ * NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+/*
+ * Copyright 2017 Marc Stevens <marc@marc-stevens.nl>, Dan Shumow <danshu@microsoft.com>
+ * Distributed under the MIT Software License.
+ * MIT License
+ *
+ * Copyright (c) 2017:
+ *     Marc Stevens
+ *     Cryptology Group
+ *     Centrum Wiskunde & Informatica
+ *     P.O. Box 94079, 1090 GB Amsterdam, Netherlands
+ *     marc@marc-stevens.nl
+ *
+ *     Dan Shumow
+ *     Microsoft Research
+ *     danshu@microsoft.com
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.tisonkun.git.core.plumbing.hash;
+
+import static java.lang.Integer.rotateLeft;
+import static java.lang.Integer.rotateRight;
+import com.google.common.base.Preconditions;
+import io.netty.buffer.ByteBuf;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * SHA-1 with the collision detection of <a href="https://github.com/cr-marcstevens/sha1collisiondetection">
+ * sha1collisiondetection</a>, which is what git uses to reject SHAttered-style collisions. Ported from
+ * JGit's {@code org.eclipse.jgit.util.sha1.SHA1Java}.
+ * <p>
+ * Unlike the original, blocks are decoded straight from the input, whether it is a heap array, a
+ * direct buffer or a memory mapping, with a byte-array view {@link VarHandle} that the JIT turns into
+ * a single load. No state is allocated after construction.
+ */
+final class Sha1dcHasher implements Hasher {
+    private static final VarHandle INT_BE = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+
+    private static final int K1 = 0x5A827999;
+    private static final int K2 = 0x6ED9EBA1;
+    private static final int K3 = 0x8F1BBCDC;
+    private static final int K4 = 0xCA62C1D6;
+
+    private final boolean detectCollision;
+
+    private final int[] w = new int[80];
+    private final int[] w2 = new int[80];
+    private final int[] state58 = new int[5];
+    private final int[] state65 = new int[5];
+    private final int[] hIn = new int[5];
+
+    /**
+     * Buffer to accumulate partial blocks to 64 byte alignment.
+     */
+    private final byte[] buffer = new byte[64];
+
+    private int h0;
+    private int h1;
+    private int h2;
+    private int h3;
+    private int h4;
+
+    /**
+     * Total number of bytes in the message.
+     */
+    private long length;
+
+    private boolean foundCollision;
+
+    Sha1dcHasher(boolean detectCollision) {
+        this.detectCollision = detectCollision;
+        reset();
+    }
+
+    @Override
+    public int size() {
+        return 20;
+    }
+
+    @Override
+    public Hasher update(byte[] bytes, int start, int len) {
+        Preconditions.checkPositionIndexes(start, start + len, bytes.length);
+        // compress only processes whole 64 byte blocks; hold partial updates in the buffer
+        int bufferLen = (int) (length & 63);
+        length += len;
+
+        if (bufferLen > 0) {
+            final int n = Math.min(64 - bufferLen, len);
+            System.arraycopy(bytes, start, buffer, bufferLen, n);
+            start += n;
+            len -= n;
+            if (bufferLen + n < 64) {
+                return this;
+            }
+            compress(buffer, 0);
+        }
+        while (len >= 64) {
+            compress(bytes, start);
+            start += 64;
+            len -= 64;
+        }
+        if (len > 0) {
+            System.arraycopy(bytes, start, buffer, 0, len);
+        }
+        return this;
+    }
+
+    @Override
+    public Hasher update(ByteBuffer bytes) {
+        if (bytes.hasArray()) {
+            update(bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining());
+            bytes.position(bytes.limit());
+            return this;
+        }
+
+        int pos = bytes.position();
+        int len = bytes.remaining();
+        int bufferLen = (int) (length & 63);
+        length += len;
+
+        if (bufferLen > 0) {
+            final int n = Math.min(64 - bufferLen, len);
+            bytes.get(pos, buffer, bufferLen, n);
+            pos += n;
+            len -= n;
+            if (bufferLen + n < 64) {
+                bytes.position(pos);
+                return this;
+            }
+            compress(buffer, 0);
+        }
+        final boolean bigEndian = bytes.order() == ByteOrder.BIG_ENDIAN;
+        while (len >= 64) {
+            for (int t = 0; t < 16; t++) {
+                final int word = bytes.getInt(pos + (t << 2));
+                w[t] = bigEndian ? word : Integer.reverseBytes(word);
+            }
+            compressBlock();
+            pos += 64;
+            len -= 64;
+        }
+        if (len > 0) {
+            bytes.get(pos, buffer, 0, len);
+        }
+        bytes.position(pos + len);
+        return this;
+    }
+
+    @Override
+    public Hasher update(FileChannel channel, long position, long len) throws IOException {
+        Preconditions.checkArgument(position >= 0 && len >= 0, "negative position or length");
+        long offset = position;
+        final long end = position + len;
+        while (offset < end) {
+            final long window = Math.min(MessageDigestHasher.MAP_WINDOW_SIZE, end - offset);
+            final MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, offset, window);
+            update(mapped);
+            offset += window;
+        }
+        return this;
+    }
+
+    @Override
+    public void finish(byte[] dst, int dstIndex) {
+        pad();
+        INT_BE.set(dst, dstIndex, h0);
+        INT_BE.set(dst, dstIndex + 4, h1);
+        INT_BE.set(dst, dstIndex + 8, h2);
+        INT_BE.set(dst, dstIndex + 12, h3);
+        INT_BE.set(dst, dstIndex + 16, h4);
+        reset();
+    }
+
+    @Override
+    public void finish(ByteBuf dst) {
+        pad();
+        dst.ensureWritable(20);
+        dst.writeInt(h0).writeInt(h1).writeInt(h2).writeInt(h3).writeInt(h4);
+        reset();
+    }
+
+    @Override
+    public void finish(long[] dst, int dstIndex) {
+        pad();
+        dst[dstIndex] = ((long) h0 << 32) | (h1 & 0xFFFFFFFFL);
+        dst[dstIndex + 1] = ((long) h2 << 32) | (h3 & 0xFFFFFFFFL);
+        dst[dstIndex + 2] = (long) h4 << 32;
+        reset();
+    }
+
+    @Override
+    public void reset() {
+        // magic initialization constants defined by FIPS 180
+        h0 = 0x67452301;
+        h1 = 0xEFCDAB89;
+        h2 = 0x98BADCFE;
+        h3 = 0x10325476;
+        h4 = 0xC3D2E1F0;
+        length = 0;
+        foundCollision = false;
+    }
+
+    private void pad() {
+        int bufferLen = (int) (length & 63);
+        buffer[bufferLen++] = (byte) 0x80;
+        if (bufferLen > 56) {
+            // the last block is too small to hold the length; pad, compress, and pad another block
+            Arrays.fill(buffer, bufferLen, 64, (byte) 0);
+            compress(buffer, 0);
+            Arrays.fill(buffer, 0, 56, (byte) 0);
+        } else {
+            Arrays.fill(buffer, bufferLen, 56, (byte) 0);
+        }
+
+        // the message length in bits goes after the padding
+        INT_BE.set(buffer, 56, (int) (length >>> (32 - 3)));
+        INT_BE.set(buffer, 60, (int) (length << 3));
+        compress(buffer, 0);
+
+        if (foundCollision) {
+            final byte[] id = new byte[20];
+            INT_BE.set(id, 0, h0);
+            INT_BE.set(id, 4, h1);
+            INT_BE.set(id, 8, h2);
+            INT_BE.set(id, 12, h3);
+            INT_BE.set(id, 16, h4);
+            reset();
+            throw new Sha1CollisionException(ObjectId.fromBytes(id));
+        }
+    }
+
+    private void compress(byte[] block, int start) {
+        for (int t = 0; t < 16; t++) {
+            w[t] = (int) INT_BE.get(block, start + (t << 2));
+        }
+        compressBlock();
+    }
+
+    private void compressBlock() {
+        // RFC 3174 6.1.b, extend the message schedule to 80 words
+        for (int t = 16; t < 80; t++) {
+            w[t] = rotateLeft(w[t - 3] ^ w[t - 8] ^ w[t - 14] ^ w[t - 16], 1);
+        }
+
+        int ubcDvMask = detectCollision ? UbcCheck.check(w) : 0;
+        compressRounds();
+
+        while (ubcDvMask != 0) {
+            final int b = Integer.numberOfTrailingZeros(ubcDvMask);
+            if (isCollision(UbcCheck.DV[b])) {
+                foundCollision = true;
+                break;
+            }
+            ubcDvMask &= ~(1 << b);
+        }
+    }
+
+    private void compressRounds() {
+        // method 1 of RFC 3174 section 6.1, unrolled; the roles of the working variables rotate
+        // instead of the values, and the states before steps 58 and 65 are kept for recompression
+        int a = h0;
+        int b = h1;
+        int c = h2;
+        int d = h3;
+        int e = h4;
+
+        e += rotateLeft(a, 5) + f1(b, c, d) + K1 + w[0];
+        b = rotateLeft(b, 30);
+        d += rotateLeft(e, 5) + f1(a, b, c) + K1 + w[1];
+        a = rotateLeft(a, 30);
+        c += rotateLeft(d, 5) + f1(e, a, b) + K1 + w[2];
+        e = rotateLeft(e, 30);
+        b += rotateLeft(c, 5) + f1(d, e, a) + K1 + w[3];
+        d = rotateLeft(d, 30);
+        a += rotateLeft(b, 5) + f1(c, d, e) + K1 + w[4];
+        c = rotateLeft(c, 30);
+        e += rotateLeft(a, 5) + f1(b, c, d) + K1 + w[5];
+        b = rotateLeft(b, 30);
+        d += rotateLeft(e, 5) + f1(a, b, c) + K1 + w[6];
+        a = rotateLeft(a, 30);
+        c += rotateLeft(d, 5) + f1(e, a, b) + K1 + w[7];
+        e = rotateLeft(e, 30);
+        b += rotateLeft(c, 5) + f1(d, e, a) + K1 + w[8];
+        d = rotateLeft(d, 30);
+        a += rotateLeft(b, 5) + f1(c, d, e) + K1 + w[9];
+        c = rotateLeft(c, 30);
+        e += rotateLeft(a, 5) + f1(b, c, d) + K1 + w[10];
+        b = rotateLeft(b, 30);
+        d += rotateLeft(e, 5) + f1(a, b, c) + K1 + w[11];
+        a = rotateLeft(a, 30);
+        c += rotateLeft(d, 5) + f1(e, a, b) + K1 + w[12];
+        e = rotateLeft(e, 30);
+        b += rotateLeft(c, 5) + f1(d, e, a) + K1 + w[13];
+        d = rotateLeft(d, 30);
+        a += rotateLeft(b, 5) + f1(c, d, e) + K1 + w[14];
+        c = rotateLeft(c, 30);
+        e += rotateLeft(a, 5) + f1(b, c, d) + K1 + w[15];
+        b = rotateLeft(b, 30);
+        d += rotateLeft(e, 5) + f1(a, b, c) + K1 + w[16];
+        a = rotateLeft(a, 30);
+        c += rotateLeft(d, 5) + f1(e, a, b) + K1 + w[17];
+        e = rotateLeft(e, 30);
+        b += rotateLeft(c, 5) + f1(d, e, a) + K1 + w[18];
+        d = rotateLeft(d, 30);
+        a += rotateLeft(b, 5) + f1(c, d, e) + K1 + w[19];
+        c = rotateLeft(c, 30);
+
+        e += rotateLeft(a, 5) + f2(b, c, d) + K2 + w[20];
+        b = rotateLeft(b, 30);
+        d += rotateLeft(e, 5) + f2(a, b, c) + K2 + w[21];
+        a = rotateLeft(a, 30);
+        c += rotateLeft(d, 5) + f2(e, a, b) + K2 + w[22];
+        e = rotateLeft(e, 30);
+        b += rotateLeft(c, 5) + f2(d, e, a) + K2 + w[23];
+        d = rotateLeft(d, 30);
+        a += rotateLeft(b, 5) + f2(c, d, e) + K2 + w[24];
+        c = rotateLeft(c, 30);
+        e += rotateLeft(a, 5) + f2(b, c, d) + K2 + w[25];
+        b = rotateLeft(b, 30);
+        d += rotateLeft(e, 5) + f2(a, b, c) + K2 + w[26];
+        a = rotateLeft(a, 30);
+        c += rotateLeft(d, 5) + f2(e, a, b) + K2 + w[27];
+        e = rotateLeft(e, 30);
+        b += rotateLeft(c, 5) + f2(d, e, a) + K2 + w[28];
+        d = rotateLeft(d, 30);
+        a += rotateLeft(b, 5) + f2(c, d, e) + K2 + w[29];
+        c = rotateLeft(c, 30);
+        e += rotateLeft(a, 5) + f2(b, c, d) + K2 + w[30];
+        b = rotateLeft(b, 30);
+        d += rotateLeft(e, 5) + f2(a, b, c) + K2 + w[31];
+        a = rotateLeft(a, 30);
+        c += rotateLeft(d, 5) + f2(e, a, b) + K2 + w[32];
+        e = rotateLeft(e, 30);
+        b += rotateLeft(c, 5) + f2(d, e, a) + K2 + w[33];
+        d = rotateLeft(d, 30);
+        a += rotateLeft(b, 5) + f2(c, d, e) + K2 + w[34];
+        c = rotateLeft(c, 30);
+        e += rotateLeft(a, 5) + f2(b, c, d) + K2 + w[35];
+        b = rotateLeft(b, 30);
+        d += rotateLeft(e, 5) + f2(a, b, c) + K2 + w[36];
+        a = rotateLeft(a, 30);
+        c += rotateLeft(d, 5) + f2(e, a, b) + K2 + w[37];
+        e = rotateLeft(e, 30);
+        b += rotateLeft(c, 5) + f2(d, e, a) + K2 + w[38];
+        d = rotateLeft(d, 30);
+        a += rotateLeft(b, 5) + f2(c, d, e) + K2 + w[39];
+        c = rotateLeft(c, 30);
+
+        e += rotateLeft(a, 5) + f3(b, c, d) + K3 + w[40];
+        b = rotateLeft(b, 30);
+        d += rotateLeft(e, 5) + f3(a, b, c) + K3 + w[41];
+        a = rotateLeft(a, 30);
+        c += rotateLeft(d, 5) + f3(e, a, b) + K3 + w[42];
+        e = rotateLeft(e, 30);
+        b += rotateLeft(c, 5) + f3(d, e, a) + K3 + w[43];
+        d = rotateLeft(d, 30);
+        a += rotateLeft(b, 5) + f3(c, d, e) + K3 + w[44];
+        c = rotateLeft(c, 30);
+        e += rotateLeft(a, 5) + f3(b, c, d) + K3 + w[45];
+        b = rotateLeft(b, 30);
+        d += rotateLeft(e, 5) + f3(a, b, c) + K3 + w[46];
+        a = rotateLeft(a, 30);
+        c += rotateLeft(d, 5) + f3(e, a, b) + K3 + w[47];
+        e = rotateLeft(e, 30);
+        b += rotateLeft(c, 5) + f3(d, e, a) + K3 + w[48];
+        d = rotateLeft(d, 30);
+        a += rotateLeft(b, 5) + f3(c, d, e) + K3 + w[49];
+        c = rotateLeft(c, 30);
+        e += rotateLeft(a, 5) + f3(b, c, d) + K3 + w[50];
+        b = rotateLeft(b, 30);
+        d += rotateLeft(e, 5) + f3(a, b, c) + K3 + w[51];
+        a = rotateLeft(a, 30);
+        c += rotateLeft(d, 5) + f3(e, a, b) + K3 + w[52];
+        e = rotateLeft(e, 30);
+        b += rotateLeft(c, 5) + f3(d, e, a) + K3 + w[53];
+        d = rotateLeft(d, 30);
+        a += rotateLeft(b, 5) + f3(c, d, e) + K3 + w[54];
+        c = rotateLeft(c, 30);
+        e += rotateLeft(a, 5) + f3(b, c, d) + K3 + w[55];
+        b = rotateLeft(b, 30);
+        d += rotateLeft(e, 5) + f3(a, b, c) + K3 + w[56];
+        a = rotateLeft(a, 30);
+        c += rotateLeft(d, 5) + f3(e, a, b) + K3 + w[57];
+        e = rotateLeft(e, 30);
+        state58[0] = c;
+        state58[1] = d;
+        state58[2] = e;
+        state58[3] = a;
+        state58[4] = b;
+        b += rotateLeft(c, 5) + f3(d, e, a) + K3 + w[58];
+        d = rotateLeft(d, 30);
+        a += rotateLeft(b, 5) + f3(c, d, e) + K3 + w[59];
+        c = rotateLeft(c, 30);
+
+        e += rotateLeft(a, 5) + f4(b, c, d) + K4 + w[60];
+        b = rotateLeft(b, 30);
+        d += rotateLeft(e, 5) + f4(a, b, c) + K4 + w[61];
+        a = rotateLeft(a, 30);
+        c += rotateLeft(d, 5) + f4(e, a, b) + K4 + w[62];
+        e = rotateLeft(e, 30);
+        b += rotateLeft(c, 5) + f4(d, e, a) + K4 + w[63];
+        d = rotateLeft(d, 30);
+        a += rotateLeft(b, 5) + f4(c, d, e) + K4 + w[64];
+        c = rotateLeft(c, 30);
+        state65[0] = a;
+        state65[1] = b;
+        state65[2] = c;
+        state65[3] = d;
+        state65[4] = e;
+        e += rotateLeft(a, 5) + f4(b, c, d) + K4 + w[65];
+        b = rotateLeft(b, 30);
+        d += rotateLeft(e, 5) + f4(a, b, c) + K4 + w[66];
+        a = rotateLeft(a, 30);
+        c += rotateLeft(d, 5) + f4(e, a, b) + K4 + w[67];
+        e = rotateLeft(e, 30);
+        b += rotateLeft(c, 5) + f4(d, e, a) + K4 + w[68];
+        d = rotateLeft(d, 30);
+        a += rotateLeft(b, 5) + f4(c, d, e) + K4 + w[69];
+        c = rotateLeft(c, 30);
+        e += rotateLeft(a, 5) + f4(b, c, d) + K4 + w[70];
+        b = rotateLeft(b, 30);
+        d += rotateLeft(e, 5) + f4(a, b, c) + K4 + w[71];
+        a = rotateLeft(a, 30);
+        c += rotateLeft(d, 5) + f4(e, a, b) + K4 + w[72];
+        e = rotateLeft(e, 30);
+        b += rotateLeft(c, 5) + f4(d, e, a) + K4 + w[73];
+        d = rotateLeft(d, 30);
+        a += rotateLeft(b, 5) + f4(c, d, e) + K4 + w[74];
+        c = rotateLeft(c, 30);
+        e += rotateLeft(a, 5) + f4(b, c, d) + K4 + w[75];
+        b = rotateLeft(b, 30);
+        d += rotateLeft(e, 5) + f4(a, b, c) + K4 + w[76];
+        a = rotateLeft(a, 30);
+        c += rotateLeft(d, 5) + f4(e, a, b) + K4 + w[77];
+        e = rotateLeft(e, 30);
+        b += rotateLeft(c, 5) + f4(d, e, a) + K4 + w[78];
+        d = rotateLeft(d, 30);
+        a += rotateLeft(b, 5) + f4(c, d, e) + K4 + w[79];
+        c = rotateLeft(c, 30);
+
+        h0 += a;
+        h1 += b;
+        h2 += c;
+        h3 += d;
+        h4 += e;
+    }
+
+    /**
+     * @return whether the last compressed block, disturbed by the given vector, reaches the same output.
+     */
+    boolean isCollision(UbcCheck.DvInfo dv) {
+        for (int i = 0; i < 80; i++) {
+            w2[i] = w[i] ^ dv.dm[i];
+        }
+        return recompress(dv.testt);
+    }
+
+    /**
+     * Recompress the disturbed message w2 from the state saved before step t, backwards to the input
+     * state and forwards to the output state.
+     *
+     * @return whether the disturbed message reaches the same output, i.e., the block is likely half of a
+     * collision.
+     */
+    private boolean recompress(int t) {
+        final int[] saved = t == 58 ? state58 : state65;
+        int a = saved[0];
+        int b = saved[1];
+        int c = saved[2];
+        int d = saved[3];
+        int e = saved[4];
+        for (int i = t - 1; i >= 0; i--) {
+            final int prevB = rotateRight(c, 30);
+            final int prevE = a - rotateLeft(b, 5) - f(i, prevB, d, e) - k(i) - w2[i];
+            a = b;
+            b = prevB;
+            c = d;
+            d = e;
+            e = prevE;
+        }
+        hIn[0] = a;
+        hIn[1] = b;
+        hIn[2] = c;
+        hIn[3] = d;
+        hIn[4] = e;
+
+        a = saved[0];
+        b = saved[1];
+        c = saved[2];
+        d = saved[3];
+        e = saved[4];
+        for (int i = t; i < 80; i++) {
+            final int temp = rotateLeft(a, 5) + f(i, b, c, d) + e + k(i) + w2[i];
+            e = d;
+            d = c;
+            c = rotateLeft(b, 30);
+            b = a;
+            a = temp;
+        }
+        return hIn[0] + a == h0 && hIn[1] + b == h1 && hIn[2] + c == h2 && hIn[3] + d == h3 && hIn[4] + e == h4;
+    }
+
+    private static int f(int t, int b, int c, int d) {
+        if (t < 20) {
+            return f1(b, c, d);
+        } else if (t < 40) {
+            return f2(b, c, d);
+        } else if (t < 60) {
+            return f3(b, c, d);
+        }
+        return f4(b, c, d);
+    }
+
+    private static int k(int t) {
+        if (t < 20) {
+            return K1;
+        } else if (t < 40) {
+            return K2;
+        } else if (t < 60) {
+            return K3;
+        }
+        return K4;
+    }
+
+    private static int f1(int b, int c, int d) {
+        return (b & c) | (~b & d);
+    }
+
+    private static int f2(int b, int c, int d) {
+        return b ^ c ^ d;
+    }
+
+    private static int f3(int b, int c, int d) {
+        return (b & c) | (b & d) | (c & d);
+    }
+
+    private static int f4(int b, int c, int d) {
+        return b ^ c ^ d;
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.util;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Inflater;
+import lombok.experimental.UtilityClass;
+
+/**
+ * A bounded pool of {@link Inflater}s. An inflater holds native zlib state that is costly to set up
+ * and is only freed by {@link Inflater#end()} or a GC cycle, so reading many small objects should
+ * reuse them rather than create one each.
+ */
+@UtilityClass
+public class InflaterPool {
+    private final int MAX_POOLED = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+    private final ConcurrentLinkedQueue<Inflater> POOL = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger POOLED = new AtomicInteger();
+
+    /**
+     * @return a reset inflater expecting a zlib header, which should be given back by {@link #release(Inflater)}.
+     */
+    public static Inflater acquire() {
+        final Inflater inflater = POOL.poll();
+        if (inflater == null) {
+            return new Inflater();
+        }
+        POOLED.decrementAndGet();
+        return inflater;
+    }
+
+    public static void release(Inflater inflater) {
+        inflater.reset();
+        if (POOLED.incrementAndGet() <= MAX_POOLED) {
+            POOL.offer(inflater);
+        } else {
+            POOLED.decrementAndGet();
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.util;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Git's lock file protocol: new content is written to {@code <target>.lock}, which is created
+ * exclusively so that concurrent writers fail fast, and then atomically renamed over the target on
+ * {@link #commit()}. Closing a lock file that has not been committed rolls back by removing the lock.
+ */
+public class LockFile implements Closeable {
+    private final Path target;
+    private final Path lock;
+    private final FileChannel channel;
+    private boolean committed = false;
+
+    private LockFile(Path target, Path lock, FileChannel channel) {
+        this.target = target;
+        this.lock = lock;
+        this.channel = channel;
+    }
+
+    public static LockFile lock(File target) throws IOException {
+        final Path targetPath = target.toPath();
+        final Path lockPath = targetPath.resolveSibling(targetPath.getFileName() + ".lock");
+        try {
+            final FileChannel channel =
+                    FileChannel.open(lockPath, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            return new LockFile(targetPath, lockPath, channel);
+        } catch (FileAlreadyExistsException e) {
+            throw new IOException(
+                    "unable to create '" + lockPath + "': file exists; another git process may be running", e);
+        }
+    }
+
+    /**
+     * @return the channel to write the new content of the target to.
+     */
+    public FileChannel channel() {
+        return channel;
+    }
+
+    /**
+     * Atomically replace the target with the content written to the lock file.
+     */
+    public void commit() throws IOException {
+        channel.close();
+        Files.move(lock, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        committed = true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!committed) {
+            channel.close();
+            Files.deleteIfExists(lock);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.util;
+
+import com.google.common.base.Preconditions;
+import io.netty.buffer.ByteBuf;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Git's variable width integer encoding, as used by the index v4 pathname prefix and several index
+ * extensions. Unlike LEB128, each continuation adds one to the accumulated value so that every integer
+ * has exactly one encoding, and the most significant group comes first.
+ */
+@UtilityClass
+public class VarintUtils {
+    public static long read(ByteBuf bytes) {
+        int ch = bytes.readUnsignedByte();
+        long value = ch & 0x7F;
+        while ((ch & 0x80) != 0) {
+            value += 1;
+            Preconditions.checkState(value <= (Long.MAX_VALUE >>> 7), "varint overflow");
+            ch = bytes.readUnsignedByte();
+            value = (value << 7) | (ch & 0x7F);
+        }
+        return value;
+    }
+
+    public static int readInt(ByteBuf bytes) {
+        final long value = read(bytes);
+        Preconditions.checkState(value <= Integer.MAX_VALUE, "varint out of int range: %s", value);
+        return (int) value;
+    }
+
+    public static void write(ByteBuf bytes, long value) {
+        Preconditions.checkArgument(value >= 0, "negative varint: %s", value);
+        int len = 1;
+        for (long v = value >>> 7; v != 0; v = (v - 1) >>> 7) {
+            len += 1;
+        }
+
+        // groups are filled from the least significant one backwards
+        bytes.ensureWritable(len);
+        final int start = bytes.writerIndex();
+        int pos = start + len - 1;
+        bytes.setByte(pos, (int) (value & 0x7F));
+        while ((value >>>= 7) != 0) {
+            bytes.setByte(--pos, (int) (0x80 | (--value & 0x7F)));
+        }
+        bytes.writerIndex(start + len);
+    }
+}
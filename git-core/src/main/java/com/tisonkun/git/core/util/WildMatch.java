@@ -0,0 +1,181 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.util;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Git's wildmatch with {@code WM_PATHNAME}, as used by conditional includes: {@code *} and {@code ?}
+ * do not match a slash, {@code **} between slashes or at either end matches across directories, and
+ * {@code [...]} matches a character class, negated by a leading {@code !} or {@code ^}.
+ */
+@UtilityClass
+public class WildMatch {
+    public static boolean match(String pattern, String text, boolean ignoreCase) {
+        return match(pattern, 0, text, 0, ignoreCase);
+    }
+
+    private static boolean match(String pattern, int p, String text, int t, boolean ignoreCase) {
+        final int plen = pattern.length();
+        final int tlen = text.length();
+        while (p < plen) {
+            final char pc = pattern.charAt(p);
+            switch (pc) {
+                case '*' -> {
+                    if (p + 1 < plen && pattern.charAt(p + 1) == '*') {
+                        final int next = p + 2;
+                        final boolean leading = p == 0 || pattern.charAt(p - 1) == '/';
+                        if (leading && next < plen && pattern.charAt(next) == '/') {
+                            // "**/" matches zero or more whole directories
+                            for (int i = t; i <= tlen; i++) {
+                                if ((i == t || text.charAt(i - 1) == '/')
+                                        && match(pattern, next + 1, text, i, ignoreCase)) {
+                                    return true;
+                                }
+                            }
+                            return false;
+                        }
+                        if (leading && next == plen) {
+                            // a trailing "**" matches everything left
+                            return true;
+                        }
+                    }
+                    // a single star, or a double star elsewhere, which acts like one
+                    int next = p + 1;
+                    while (next < plen && pattern.charAt(next) == '*') {
+                        next++;
+                    }
+                    for (int i = t; i <= tlen; i++) {
+                        if (match(pattern, next, text, i, ignoreCase)) {
+                            return true;
+                        }
+                        if (i < tlen && text.charAt(i) == '/') {
+                            return false;
+                        }
+                    }
+                    return false;
+                }
+                case '?' -> {
+                    if (t >= tlen || text.charAt(t) == '/') {
+                        return false;
+                    }
+                    p++;
+                    t++;
+                }
+                case '[' -> {
+                    if (t >= tlen || text.charAt(t) == '/') {
+                        return false;
+                    }
+                    final int end = classEnd(pattern, p);
+                    if (end < 0) {
+                        // an unclosed bracket is a literal
+                        if (!equal('[', text.charAt(t), ignoreCase)) {
+                            return false;
+                        }
+                        p++;
+                    } else {
+                        if (!classMatches(pattern, p + 1, end, text.charAt(t), ignoreCase)) {
+                            return false;
+                        }
+                        p = end + 1;
+                    }
+                    t++;
+                }
+                default -> {
+                    char literal = pc;
+                    if (pc == '\\' && p + 1 < plen) {
+                        literal = pattern.charAt(++p);
+                    }
+                    if (t >= tlen || !equal(literal, text.charAt(t), ignoreCase)) {
+                        return false;
+                    }
+                    p++;
+                    t++;
+                }
+            }
+        }
+        return t == tlen;
+    }
+
+    /**
+     * @return the position of the bracket closing the class opened at start, or -1.
+     */
+    private static int classEnd(String pattern, int start) {
+        int i = start + 1;
+        if (i < pattern.length() && (pattern.charAt(i) == '!' || pattern.charAt(i) == '^')) {
+            i++;
+        }
+        // a closing bracket right after the opening one is a member
+        if (i < pattern.length() && pattern.charAt(i) == ']') {
+            i++;
+        }
+        for (; i < pattern.length(); i++) {
+            final char c = pattern.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == ']') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean classMatches(String pattern, int start, int end, char c, boolean ignoreCase) {
+        boolean negated = false;
+        int i = start;
+        if (pattern.charAt(i) == '!' || pattern.charAt(i) == '^') {
+            negated = true;
+            i++;
+        }
+        boolean matched = false;
+        boolean first = true;
+        while (i < end) {
+            char lo = pattern.charAt(i);
+            if (lo == '\\' && i + 1 < end) {
+                lo = pattern.charAt(++i);
+            } else if (lo == ']' && !first) {
+                break;
+            }
+            first = false;
+            i++;
+            char hi = lo;
+            if (i + 1 < end && pattern.charAt(i) == '-') {
+                hi = pattern.charAt(i + 1);
+                if (hi == '\\' && i + 2 < end) {
+                    hi = pattern.charAt(i + 2);
+                    i++;
+                }
+                i += 2;
+            }
+            if (inRange(c, lo, hi)
+                    || (ignoreCase
+                            && (inRange(Character.toLowerCase(c), lo, hi)
+                                    || inRange(Character.toUpperCase(c), lo, hi)))) {
+                matched = true;
+            }
+        }
+        return matched != negated;
+    }
+
+    private static boolean inRange(char c, char lo, char hi) {
+        return c >= lo && c <= hi;
+    }
+
+    private static boolean equal(char a, char b, boolean ignoreCase) {
+        return a == b || (ignoreCase && Character.toLowerCase(a) == Character.toLowerCase(b));
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.worktree;
+
+import com.tisonkun.git.core.plumbing.format.index.StatData;
+
+/**
+ * The result of {@link FileStats#lstat(java.nio.file.Path)}.
+ *
+ * @param statData the stat part as cached by git.
+ * @param mode the file type and permissions normalized like git does, for example {@code 0100644}
+ *             for a regular file, {@code 0120000} for a symbolic link and {@code 040000} for a directory.
+ * @param executableKnown whether the file system reports the executable bit; if not, a regular file
+ *                        is always reported as {@code 0100644}.
+ */
+public record FileStat(StatData statData, int mode, boolean executableKnown) {
+    public static final int TYPE_MASK = 0170000;
+    public static final int REGULAR = 0100000;
+    public static final int SYMLINK = 0120000;
+    public static final int DIRECTORY = 0040000;
+    public static final int GITLINK = 0160000;
+
+    public int type() {
+        return mode & TYPE_MASK;
+    }
+}
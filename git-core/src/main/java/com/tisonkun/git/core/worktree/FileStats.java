@@ -0,0 +1,114 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.worktree;
+
+import com.tisonkun.git.core.plumbing.format.index.StatData;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Reads the {@link StatData} and mode that git caches for files and directories.
+ */
+@UtilityClass
+public class FileStats {
+    private static final boolean UNIX_VIEW =
+            Path.of("").getFileSystem().supportedFileAttributeViews().contains("unix");
+
+    /**
+     * Stat the path without following symbolic links, truncating the fields to 32 bits like git does.
+     *
+     * @return the stat data, or empty if the path does not exist.
+     */
+    public static Optional<StatData> stat(Path path) throws IOException {
+        return lstat(path).map(FileStat::statData);
+    }
+
+    /**
+     * Like {@link #stat(Path)}, but also reads the file mode in the same call.
+     */
+    public static Optional<FileStat> lstat(Path path) throws IOException {
+        try {
+            if (UNIX_VIEW) {
+                final Map<String, Object> attrs = Files.readAttributes(
+                        path, "unix:mode,ctime,lastModifiedTime,dev,ino,uid,gid,size", LinkOption.NOFOLLOW_LINKS);
+                final FileTime ctime = (FileTime) attrs.get("ctime");
+                final FileTime mtime = (FileTime) attrs.get("lastModifiedTime");
+                final StatData statData = new StatData(
+                        seconds(ctime),
+                        nanoseconds(ctime),
+                        seconds(mtime),
+                        nanoseconds(mtime),
+                        (int) (long) attrs.get("dev"),
+                        (int) (long) attrs.get("ino"),
+                        (int) attrs.get("uid"),
+                        (int) attrs.get("gid"),
+                        (int) (long) attrs.get("size"));
+                return Optional.of(new FileStat(statData, normalizeMode((int) attrs.get("mode")), true));
+            }
+
+            final BasicFileAttributes attrs =
+                    Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+            final FileTime mtime = attrs.lastModifiedTime();
+            final FileTime ctime = attrs.creationTime();
+            final StatData statData = new StatData(
+                    seconds(ctime), nanoseconds(ctime), seconds(mtime), nanoseconds(mtime), 0, 0, 0, 0, (int)
+                            attrs.size());
+            final int mode;
+            if (attrs.isSymbolicLink()) {
+                mode = FileStat.SYMLINK;
+            } else if (attrs.isDirectory()) {
+                mode = FileStat.DIRECTORY;
+            } else if (attrs.isRegularFile()) {
+                mode = FileStat.REGULAR | 0644;
+            } else {
+                mode = 0;
+            }
+            return Optional.of(new FileStat(statData, mode, false));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Normalize a raw {@code st_mode} like git's {@code ce_mode_from_stat}.
+     */
+    static int normalizeMode(int mode) {
+        return switch (mode & FileStat.TYPE_MASK) {
+            case FileStat.REGULAR -> FileStat.REGULAR | ((mode & 0100) != 0 ? 0755 : 0644);
+            case FileStat.SYMLINK -> FileStat.SYMLINK;
+            case FileStat.DIRECTORY -> FileStat.DIRECTORY;
+            default -> 0;
+        };
+    }
+
+    private static int seconds(FileTime time) {
+        return (int) time.to(TimeUnit.SECONDS);
+    }
+
+    private static int nanoseconds(FileTime time) {
+        return (int) (time.to(TimeUnit.NANOSECONDS) % TimeUnit.SECONDS.toNanos(1));
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.worktree;
+
+import java.io.IOException;
+import java.util.List;
+import javax.annotation.Nullable;
+
+/**
+ * A file system monitor, which tells what paths of the worktree have changed since a previous query
+ * so that a status scan need not stat the rest.
+ */
+public interface FsMonitor {
+    /**
+     * Query the paths changed since the given token.
+     *
+     * @param token the token returned by the previous query, or null if there is none.
+     */
+    Changes query(@Nullable String token) throws IOException;
+
+    /**
+     * @param token the token to pass to the next query.
+     * @param everything whether anything may have changed, for example because the token has expired.
+     * @param paths the changed paths relative to the worktree; directories may end with '/', in which
+     *              case everything under them may have changed.
+     */
+    record Changes(String token, boolean everything, List<String> paths) {
+        public static Changes everything(String token) {
+            return new Changes(token, true, List.of());
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.worktree;
+
+import com.google.common.base.Preconditions;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.Nullable;
+
+/**
+ * An {@link FsMonitor} backed by a {@code core.fsmonitor} hook speaking protocol version 2: the hook
+ * is run as {@code <hook> 2 <token>} and prints the new token and then the changed paths, each
+ * terminated by NUL. A path of "/" means everything may have changed.
+ *
+ * @see <a href="https://git-scm.com/docs/githooks#_fsmonitor_watchman">fsmonitor-watchman</a>
+ */
+public class HookFsMonitor implements FsMonitor {
+    private final Path hook;
+    private final Path worktree;
+
+    public HookFsMonitor(Path hook, Path worktree) {
+        this.hook = hook;
+        this.worktree = worktree;
+    }
+
+    @Override
+    public Changes query(@Nullable String token) throws IOException {
+        final Process process = new ProcessBuilder(hook.toString(), "2", token != null ? token : "")
+                .directory(worktree.toFile())
+                .redirectInput(ProcessBuilder.Redirect.PIPE)
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        process.getOutputStream().close();
+
+        final byte[] output;
+        try (InputStream stdout = process.getInputStream()) {
+            output = stdout.readAllBytes();
+        }
+        final int exitCode;
+        try {
+            exitCode = process.waitFor();
+        } catch (InterruptedException e) {
+            process.destroy();
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while waiting for fsmonitor hook " + hook, e);
+        }
+        if (exitCode != 0) {
+            throw new IOException("fsmonitor hook " + hook + " exited with " + exitCode);
+        }
+        return parse(output);
+    }
+
+    static Changes parse(byte[] output) {
+        final List<String> fields = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i < output.length; i++) {
+            if (output[i] == 0) {
+                fields.add(new String(output, start, i - start, StandardCharsets.UTF_8));
+                start = i + 1;
+            }
+        }
+        Preconditions.checkState(!fields.isEmpty(), "malformed fsmonitor hook output: missing token");
+
+        final String token = fields.get(0);
+        final List<String> paths = fields.subList(1, fields.size());
+        if (paths.contains("/")) {
+            return Changes.everything(token);
+        }
+        return new Changes(token, false, List.copyOf(paths));
+    }
+}
@@ -0,0 +1,251 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.worktree;
+
+import com.tisonkun.git.core.plumbing.format.index.Index;
+import com.tisonkun.git.core.plumbing.format.index.IndexEntry;
+import com.tisonkun.git.core.plumbing.format.index.IndexEntryStage;
+import com.tisonkun.git.core.plumbing.format.index.StatData;
+import com.tisonkun.git.core.plumbing.hash.HashFn;
+import com.tisonkun.git.core.plumbing.hash.ObjectId;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nullable;
+import lombok.Builder;
+import lombok.NonNull;
+
+/**
+ * Checks index entries against the stat of their worktree files, like git's {@code refresh_index}
+ * without rehashing: each entry is classified as a {@link RefreshState}, leaving the content hash of
+ * the {@link RefreshState#NEEDS_HASH} entries to the caller.
+ * <p>
+ * Since stat latency dominates on network file systems, files are stat-ed concurrently by a bounded
+ * number of workers, which default to virtual threads. Each worker claims the next unchecked entry, so
+ * no task is created per entry.
+ * <p>
+ * An entry whose mtime is not older than the index file is racily clean: the file may have been
+ * modified within the same timestamp granularity after it was staged, so its stat cannot be trusted.
+ *
+ * @see <a href="https://git-scm.com/docs/racy-git">Use of index and Racy Git problem</a>
+ */
+@Builder
+public class IndexRefresher {
+    @NonNull
+    private final Path worktree;
+
+    /**
+     * Maximum number of concurrent stat calls.
+     */
+    @Builder.Default
+    private final int parallelism = 64;
+
+    /**
+     * Workers run on this executor if set; otherwise each refresh starts its own virtual threads.
+     */
+    @Nullable
+    private final ExecutorService executor;
+
+    /**
+     * Whether to compare the ctime, as {@code core.trustCtime}.
+     */
+    @Builder.Default
+    private final boolean trustCtime = true;
+
+    /**
+     * Whether to compare the ctime, inode, uid and gid, as {@code core.checkStat=default}; only the
+     * mtime and size are compared otherwise.
+     */
+    @Builder.Default
+    private final boolean checkStat = true;
+
+    /**
+     * Whether to compare the executable bit, as {@code core.fileMode}.
+     */
+    @Builder.Default
+    private final boolean fileMode = true;
+
+    /**
+     * The hash function of the object format, used when refreshing a list of entries.
+     */
+    @Builder.Default
+    private final HashFn hashFn = HashFn.DEFAULT;
+
+    /**
+     * Refresh the entries of the index read from the given file, whose mtime tells racily clean
+     * entries apart.
+     */
+    public RefreshResult refresh(Index index, File indexFile) throws IOException {
+        final StatData indexStat = FileStats.stat(indexFile.toPath())
+                .orElseThrow(() -> new IOException("index file " + indexFile + " does not exist"));
+        return refresh(
+                index.getEntries(),
+                indexStat.mtimeSeconds(),
+                indexStat.mtimeNanoseconds(),
+                emptyBlob(index.getHashFn()));
+    }
+
+    /**
+     * Refresh the entries against the given index timestamp. A zero timestamp disables the racy check.
+     */
+    public RefreshResult refresh(List<IndexEntry> entries, int indexSeconds, int indexNanoseconds) throws IOException {
+        return refresh(entries, indexSeconds, indexNanoseconds, emptyBlob(hashFn));
+    }
+
+    private RefreshResult refresh(List<IndexEntry> entries, int indexSeconds, int indexNanoseconds, ObjectId emptyBlob)
+            throws IOException {
+        final RefreshState[] states = new RefreshState[entries.size()];
+        final AtomicInteger next = new AtomicInteger();
+        final int workers = Math.max(1, Math.min(parallelism, entries.size()));
+
+        final ExecutorService pool = executor != null ? executor : Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            final List<Future<?>> futures = new ArrayList<>(workers);
+            for (int i = 0; i < workers; i++) {
+                futures.add(pool.submit(() -> {
+                    int pos;
+                    try {
+                        while ((pos = next.getAndIncrement()) < states.length) {
+                            states[pos] = check(entries.get(pos), indexSeconds, indexNanoseconds, emptyBlob);
+                        }
+                    } catch (RuntimeException e) {
+                        // stop the other workers early, since the futures are awaited in order
+                        next.set(states.length);
+                        throw e;
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                await(future);
+            }
+        } finally {
+            // stop the remaining workers if awaiting them was interrupted
+            next.set(states.length);
+            if (executor == null) {
+                pool.close();
+            }
+        }
+        return new RefreshResult(entries, states);
+    }
+
+    private static void await(Future<?> future) throws IOException {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while refreshing the index", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException cause) {
+                throw cause.getCause();
+            }
+            throw new IllegalStateException("failed to refresh the index", e.getCause());
+        }
+    }
+
+    private RefreshState check(IndexEntry entry, int indexSeconds, int indexNanoseconds, ObjectId emptyBlob) {
+        if (entry.getStage() != IndexEntryStage.Merged) {
+            return RefreshState.UNMERGED;
+        }
+        if (entry.isAssumeValid() || entry.isSkipWorktree()) {
+            return RefreshState.UNCHANGED;
+        }
+
+        final Optional<FileStat> stat;
+        try {
+            stat = FileStats.lstat(worktree.resolve(entry.getPathname()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (stat.isEmpty()) {
+            return RefreshState.DELETED;
+        }
+        return classify(entry, stat.get(), indexSeconds, indexNanoseconds, emptyBlob);
+    }
+
+    /**
+     * Compare the entry with the stat of its file, following git's {@code ie_match_stat} and
+     * {@code ie_modified}.
+     */
+    private RefreshState classify(
+            IndexEntry entry, FileStat stat, int indexSeconds, int indexNanoseconds, ObjectId emptyBlob) {
+        if (entry.isIntentToAdd()) {
+            return RefreshState.STAT_DIRTY;
+        }
+
+        final int entryType = entry.getMode() & FileStat.TYPE_MASK;
+        if (entryType == FileStat.GITLINK) {
+            // a submodule is checked by its own index; only a type change is visible from here
+            return stat.type() == FileStat.DIRECTORY ? RefreshState.UNCHANGED : RefreshState.STAT_DIRTY;
+        }
+        if (entryType != stat.type()) {
+            return RefreshState.STAT_DIRTY;
+        }
+        if (entryType == FileStat.REGULAR
+                && fileMode
+                && stat.executableKnown()
+                && ((entry.getMode() ^ stat.mode()) & 0100) != 0) {
+            return RefreshState.STAT_DIRTY;
+        }
+
+        final StatData actual = stat.statData();
+        if (entry.getFileSize() != actual.size()) {
+            // a zero size may be a smudged racy entry, whose real size is unknown
+            return entry.getFileSize() != 0 ? RefreshState.STAT_DIRTY : RefreshState.NEEDS_HASH;
+        }
+        if (entry.getFileSize() == 0 && !emptyBlob.equals(entry.getObjectId())) {
+            return RefreshState.NEEDS_HASH;
+        }
+
+        boolean changed = entry.getMtimeSeconds() != actual.mtimeSeconds()
+                || entry.getMtimeNanoseconds() != actual.mtimeNanoseconds();
+        if (checkStat) {
+            changed |= trustCtime
+                    && (entry.getCtimeSeconds() != actual.ctimeSeconds()
+                            || entry.getCtimeNanoseconds() != actual.ctimeNanoseconds());
+            changed |=
+                    entry.getIno() != actual.ino() || entry.getUid() != actual.uid() || entry.getGid() != actual.gid();
+        }
+        if (changed || isRacy(entry, indexSeconds, indexNanoseconds)) {
+            return RefreshState.NEEDS_HASH;
+        }
+        return RefreshState.UNCHANGED;
+    }
+
+    private static boolean isRacy(IndexEntry entry, int indexSeconds, int indexNanoseconds) {
+        if (indexSeconds == 0) {
+            return false;
+        }
+        final int cmp = Integer.compareUnsigned(indexSeconds, entry.getMtimeSeconds());
+        return cmp < 0 || (cmp == 0 && Integer.compareUnsigned(indexNanoseconds, entry.getMtimeNanoseconds()) <= 0);
+    }
+
+    private static ObjectId emptyBlob(HashFn hashFn) {
+        final byte[] header = "blob 0\0".getBytes(StandardCharsets.US_ASCII);
+        return ObjectId.fromHashCode(hashFn.calculate(header, 0, header.length));
+    }
+}
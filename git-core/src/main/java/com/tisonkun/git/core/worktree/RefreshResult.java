@@ -0,0 +1,71 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.worktree;
+
+import com.tisonkun.git.core.plumbing.format.index.IndexEntry;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The result of {@link IndexRefresher#refresh}, with a {@link RefreshState} for each index entry.
+ */
+public class RefreshResult {
+    private final List<IndexEntry> entries;
+    private final RefreshState[] states;
+
+    RefreshResult(List<IndexEntry> entries, RefreshState[] states) {
+        this.entries = entries;
+        this.states = states;
+    }
+
+    /**
+     * @return the state of the entry at the given position of the index.
+     */
+    public RefreshState state(int pos) {
+        return states[pos];
+    }
+
+    /**
+     * @return the entries in the given state, in index order.
+     */
+    public List<IndexEntry> entries(RefreshState state) {
+        final List<IndexEntry> result = new ArrayList<>();
+        for (int i = 0; i < states.length; i++) {
+            if (states[i] == state) {
+                result.add(entries.get(i));
+            }
+        }
+        return result;
+    }
+
+    public int count(RefreshState state) {
+        int count = 0;
+        for (RefreshState s : states) {
+            if (s == state) {
+                count += 1;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Whether every entry is known to be unchanged without hashing any content.
+     */
+    public boolean isClean() {
+        return count(RefreshState.UNCHANGED) == states.length;
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.worktree;
+
+/**
+ * What {@link IndexRefresher} concludes about an index entry from the stat of its worktree file.
+ */
+public enum RefreshState {
+    /**
+     * The stat matches the entry and is not racy; the file is unchanged.
+     */
+    UNCHANGED,
+    /**
+     * The stat proves that the file has changed: its size, type or executable bit differs.
+     */
+    STAT_DIRTY,
+    /**
+     * The stat differs only in fields that change without the content changing, such as timestamps
+     * or the inode, or the entry is racily clean; only hashing the content can tell.
+     */
+    NEEDS_HASH,
+    /**
+     * The file is missing from the worktree.
+     */
+    DELETED,
+    /**
+     * The entry is one of the stages of an unresolved merge and is not checked.
+     */
+    UNMERGED,
+}
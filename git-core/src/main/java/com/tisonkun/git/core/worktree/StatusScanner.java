@@ -0,0 +1,372 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.worktree;
+
+import com.google.common.hash.HashCode;
+import com.tisonkun.git.core.plumbing.ObjectType;
+import com.tisonkun.git.core.plumbing.format.ewah.EwahBitmap;
+import com.tisonkun.git.core.plumbing.format.index.FsMonitorData;
+import com.tisonkun.git.core.plumbing.format.index.Index;
+import com.tisonkun.git.core.plumbing.format.index.IndexEntry;
+import com.tisonkun.git.core.plumbing.format.index.StatData;
+import com.tisonkun.git.core.plumbing.format.index.UntrackedCache;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.NotDirectoryException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+import javax.annotation.Nullable;
+
+/**
+ * Computes the status of a worktree against its index with as few {@code stat} and {@code readdir}
+ * calls as the index extensions allow:
+ * <ul>
+ *     <li>With an {@link FsMonitor} and an FSMN extension, a tracked entry is only stat-ed if it was
+ *     dirty at the last scan or its path has changed since; otherwise every entry is stat-ed.</li>
+ *     <li>With an UNTR extension, a directory is only read again if its stat no longer matches the
+ *     cached one. With an fsmonitor as well, directories it does not report are not even stat-ed.
+ *     The cache is dropped first if it was created for other {@link UntrackedCacheSettings}, and every
+ *     directory is read again if an exclude file has changed.</li>
+ * </ul>
+ * Modified entries are detected by stat only; their content is not compared. Ignore rules are not
+ * evaluated here but given as a predicate over paths relative to the worktree, with directories
+ * ending in '/'.
+ * <p>
+ * The decoded UNTR and FSMN extensions of the index are updated in place, so writing the index with
+ * {@link com.tisonkun.git.core.plumbing.format.index.IndexWriter} persists the refreshed caches.
+ */
+public class StatusScanner {
+    private final Path worktree;
+    private final Index index;
+
+    @Nullable
+    private final FsMonitor fsMonitor;
+
+    private final Predicate<String> ignored;
+    private final UntrackedCacheSettings untrackedCacheSettings;
+
+    private int statCount;
+    private int readdirCount;
+
+    public StatusScanner(Path worktree, Index index) {
+        this(worktree, index, null, path -> false);
+    }
+
+    public StatusScanner(Path worktree, Index index, @Nullable FsMonitor fsMonitor, Predicate<String> ignored) {
+        this(worktree, index, fsMonitor, ignored, UntrackedCacheSettings.of(worktree, worktree.resolve(".git"), null));
+    }
+
+    public StatusScanner(
+            Path worktree,
+            Index index,
+            @Nullable FsMonitor fsMonitor,
+            Predicate<String> ignored,
+            UntrackedCacheSettings untrackedCacheSettings) {
+        this.worktree = worktree;
+        this.index = index;
+        this.fsMonitor = fsMonitor;
+        this.ignored = ignored;
+        this.untrackedCacheSettings = untrackedCacheSettings;
+    }
+
+    public WorktreeStatus scan() throws IOException {
+        statCount = 0;
+        readdirCount = 0;
+
+        final Optional<FsMonitorData> fsMonitorData = index.getFsMonitorData();
+        ChangedPaths changed = ChangedPaths.EVERYTHING;
+        String token = null;
+        if (fsMonitor != null) {
+            final FsMonitor.Changes changes =
+                    fsMonitor.query(fsMonitorData.map(FsMonitorData::token).orElse(null));
+            token = changes.token();
+            // without a previous token the dirty bitmap is unknown, so changes only apply on top of one
+            if (fsMonitorData.isPresent() && !changes.everything()) {
+                changed = new ChangedPaths(changes.paths());
+            }
+        }
+
+        final List<String> modified = new ArrayList<>();
+        final List<String> deleted = new ArrayList<>();
+        final BitSet dirty = new BitSet();
+        final List<IndexEntry> entries = index.getEntries();
+        for (int i = 0; i < entries.size(); i++) {
+            final IndexEntry entry = entries.get(i);
+            if (entry.isAssumeValid() || entry.isSkipWorktree()) {
+                continue;
+            }
+            final String path = entry.getPathname();
+            final boolean wasDirty =
+                    fsMonitorData.isEmpty() || fsMonitorData.get().isDirty(i);
+            if (!wasDirty && !changed.covers(path)) {
+                continue;
+            }
+
+            final Optional<StatData> stat = stat(worktree.resolve(path));
+            if (stat.isEmpty()) {
+                deleted.add(path);
+                dirty.set(i);
+            } else if (!entry.statData().matches(stat.get())) {
+                modified.add(path);
+                dirty.set(i);
+            }
+        }
+
+        final List<String> untracked = new ArrayList<>();
+        final Optional<UntrackedCache> untrackedCache = index.getUntrackedCache();
+        if (untrackedCache.isPresent()) {
+            validate(untrackedCache.get());
+        }
+        final UntrackedCache.Directory root =
+                untrackedCache.map(UntrackedCache::rootOrCreate).orElse(null);
+        final boolean fsMonitorValid = fsMonitor != null && changed != ChangedPaths.EVERYTHING;
+        scanDirectory("", root, fsMonitorValid ? changed : ChangedPaths.EVERYTHING, untracked);
+
+        if (token != null && fsMonitorData.isPresent()) {
+            fsMonitorData.get().update(token, EwahBitmap.of(dirty));
+        }
+        return new WorktreeStatus(modified, deleted, untracked, statCount, readdirCount, token);
+    }
+
+    /**
+     * Drop the cache if it was created for another worktree, system or flags, and invalidate every
+     * cached directory if an exclude file has changed since, like git's {@code validate_untracked_cache}.
+     */
+    private void validate(UntrackedCache cache) throws IOException {
+        final UntrackedCacheSettings settings = untrackedCacheSettings;
+        if (!cache.hasIdent(settings.ident()) || cache.dirFlags() != settings.dirFlags()) {
+            cache.reset(settings.ident(), settings.dirFlags());
+        }
+
+        final HashCode zero = HashCode.fromBytes(new byte[index.getHashFn().size()]);
+        final Optional<StatData> infoExclude = FileStats.stat(settings.infoExclude());
+        if (infoExclude.isEmpty()) {
+            cache.updateInfoExclude(StatData.EMPTY, zero);
+        } else if (!infoExclude.get().matches(cache.infoExcludeStat())) {
+            cache.updateInfoExclude(infoExclude.get(), hashExcludeFile(settings.infoExclude()));
+        }
+
+        final Optional<StatData> excludesFile =
+                settings.excludesFile() != null ? FileStats.stat(settings.excludesFile()) : Optional.empty();
+        if (excludesFile.isEmpty()) {
+            cache.updateExcludesFile(StatData.EMPTY, zero);
+        } else if (!excludesFile.get().matches(cache.excludesFileStat())) {
+            cache.updateExcludesFile(excludesFile.get(), hashExcludeFile(settings.excludesFile()));
+        }
+    }
+
+    /**
+     * Hash an exclude file as git does for the cache: as a blob of its content with a newline appended,
+     * unless it is empty.
+     */
+    private HashCode hashExcludeFile(Path file) throws IOException {
+        final byte[] content = Files.readAllBytes(file);
+        final long size = content.length == 0 ? 0 : content.length + 1;
+        final byte[] header = ObjectType.BLOB.header(size);
+        final byte[] object = new byte[header.length + Math.toIntExact(size)];
+        System.arraycopy(header, 0, object, 0, header.length);
+        System.arraycopy(content, 0, object, header.length, content.length);
+        if (size > 0) {
+            object[object.length - 1] = '\n';
+        }
+        return index.getHashFn().calculate(object, 0, object.length);
+    }
+
+    private void scanDirectory(
+            String path, @Nullable UntrackedCache.Directory cached, ChangedPaths changed, List<String> untracked)
+            throws IOException {
+        final String prefix = path.isEmpty() ? "" : path + "/";
+        final Path dir = path.isEmpty() ? worktree : worktree.resolve(path);
+
+        if (cached != null && cached.isValid() && !cached.isCheckOnly()) {
+            // a directory the fsmonitor does not report is trusted without a stat
+            boolean reuse = !changed.isDirectoryDirty(path);
+            if (!reuse) {
+                final Optional<StatData> stat = stat(dir);
+                reuse = stat.isPresent() && cached.stat().orElseThrow().matches(stat.get());
+            }
+            // git invalidates a directory when a path in it is added; the index may have gained a
+            // cached name since the cache was written without that, so such a directory is read again
+            if (reuse && hasTrackedName(prefix, cached.untracked())) {
+                reuse = false;
+            }
+            if (reuse) {
+                for (String name : cached.untracked()) {
+                    untracked.add(prefix + name);
+                }
+                for (UntrackedCache.Directory subdir : cached.subdirs()) {
+                    if (!subdir.isCheckOnly()) {
+                        scanDirectory(prefix + subdir.name(), subdir, changed, untracked);
+                    }
+                }
+                return;
+            }
+        }
+
+        // stat before reading, so that a change racing with the read invalidates the cache next time
+        final Optional<StatData> stat = stat(dir);
+        if (stat.isEmpty()) {
+            return;
+        }
+        final List<String> names = readDirectory(dir);
+        if (names == null) {
+            return;
+        }
+
+        final List<String> untrackedNames = new ArrayList<>();
+        final List<String> subdirNames = new ArrayList<>();
+        for (String name : names) {
+            final String childPath = prefix + name;
+            final Path child = dir.resolve(name);
+            if (Files.isDirectory(child, LinkOption.NOFOLLOW_LINKS)) {
+                if (name.equals(".git") || ignored.test(childPath + "/")) {
+                    continue;
+                }
+                if (!index.entriesUnder(childPath).isEmpty()) {
+                    subdirNames.add(name);
+                } else if (hasUntrackedFiles(child, childPath)) {
+                    // untracked directories are shown as a whole, and hidden if they are empty
+                    untrackedNames.add(name + "/");
+                }
+            } else if (!index.isTracked(childPath) && !ignored.test(childPath)) {
+                untrackedNames.add(name);
+            }
+        }
+
+        for (String name : untrackedNames) {
+            untracked.add(prefix + name);
+        }
+        if (cached != null) {
+            cached.refresh(stat.get(), untrackedNames, subdirNames);
+        }
+        for (String name : subdirNames) {
+            final UntrackedCache.Directory subdir =
+                    cached != null ? cached.subdir(name).orElseThrow() : null;
+            scanDirectory(prefix + name, subdir, changed, untracked);
+        }
+    }
+
+    private boolean hasTrackedName(String prefix, List<String> names) {
+        for (String name : names) {
+            // an untracked directory is cached with a trailing slash
+            final boolean tracked =
+                    name.endsWith("/") ? !index.entriesUnder(prefix + name).isEmpty() : index.isTracked(prefix + name);
+            if (tracked) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean hasUntrackedFiles(Path dir, String path) throws IOException {
+        final List<String> names = readDirectory(dir);
+        if (names == null) {
+            return false;
+        }
+        for (String name : names) {
+            final String childPath = path + "/" + name;
+            final Path child = dir.resolve(name);
+            if (Files.isDirectory(child, LinkOption.NOFOLLOW_LINKS)) {
+                if (!ignored.test(childPath + "/") && hasUntrackedFiles(child, childPath)) {
+                    return true;
+                }
+            } else if (!ignored.test(childPath)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the sorted names in the directory, or null if it is gone or no longer a directory.
+     */
+    @Nullable
+    private List<String> readDirectory(Path dir) throws IOException {
+        readdirCount += 1;
+        final List<String> names = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+            for (Path child : stream) {
+                names.add(child.getFileName().toString());
+            }
+        } catch (NoSuchFileException | NotDirectoryException e) {
+            return null;
+        }
+        names.sort(null);
+        return names;
+    }
+
+    private Optional<StatData> stat(Path path) throws IOException {
+        statCount += 1;
+        return FileStats.stat(path);
+    }
+
+    /**
+     * Paths reported by the fsmonitor, without trailing slashes.
+     */
+    private static final class ChangedPaths {
+        static final ChangedPaths EVERYTHING = new ChangedPaths(List.of());
+
+        private final Set<String> paths = new HashSet<>();
+
+        /**
+         * Directories that have a changed direct child, since adding or removing it changes their mtime.
+         */
+        private final Set<String> parents = new HashSet<>();
+
+        ChangedPaths(List<String> changes) {
+            for (String change : changes) {
+                final String path = change.endsWith("/") ? change.substring(0, change.length() - 1) : change;
+                paths.add(path);
+                final int slash = path.lastIndexOf('/');
+                parents.add(slash < 0 ? "" : path.substring(0, slash));
+            }
+        }
+
+        /**
+         * Whether the path or any of its parent directories has changed.
+         */
+        boolean covers(String path) {
+            if (this == EVERYTHING) {
+                return true;
+            }
+            int end = path.length();
+            while (end > 0) {
+                if (paths.contains(path.substring(0, end))) {
+                    return true;
+                }
+                end = path.lastIndexOf('/', end - 1);
+            }
+            return false;
+        }
+
+        /**
+         * Whether the content of the directory may have changed.
+         */
+        boolean isDirectoryDirty(String path) {
+            return this == EVERYTHING || parents.contains(path) || covers(path);
+        }
+    }
+}
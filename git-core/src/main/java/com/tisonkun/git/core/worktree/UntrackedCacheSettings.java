@@ -0,0 +1,78 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.worktree;
+
+import java.nio.file.Path;
+import java.util.Locale;
+import javax.annotation.Nullable;
+
+/**
+ * What an untracked cache must have been created for to be trusted, checked against the header of
+ * the UNTR extension before any cached directory is used, like git's {@code validate_untracked_cache}.
+ *
+ * @param ident the worktree location and system, as in {@code "Location /path, system Linux"}.
+ * @param dirFlags the {@code dir_struct} flags of the scan.
+ * @param infoExclude the {@code $GIT_DIR/info/exclude} file.
+ * @param excludesFile the {@code core.excludesFile}, or null if there is none.
+ */
+public record UntrackedCacheSettings(String ident, int dirFlags, Path infoExclude, @Nullable Path excludesFile) {
+    public static final int DIR_SHOW_OTHER_DIRECTORIES = 1 << 1;
+    public static final int DIR_HIDE_EMPTY_DIRECTORIES = 1 << 2;
+
+    /**
+     * The flags of a {@link StatusScanner} scan: untracked directories are shown as a whole, and
+     * hidden if they are empty.
+     */
+    public static final int STATUS_DIR_FLAGS = DIR_SHOW_OTHER_DIRECTORIES | DIR_HIDE_EMPTY_DIRECTORIES;
+
+    /**
+     * The settings git would use for the worktree, with {@code core.excludesFile} defaulting to
+     * {@code $XDG_CONFIG_HOME/git/ignore} if not given.
+     */
+    public static UntrackedCacheSettings of(Path worktree, Path gitDir, @Nullable Path excludesFile) {
+        final String ident = "Location " + worktree.toAbsolutePath().normalize() + ", system " + systemName();
+        return new UntrackedCacheSettings(
+                ident,
+                STATUS_DIR_FLAGS,
+                gitDir.resolve("info").resolve("exclude"),
+                excludesFile != null ? excludesFile : defaultExcludesFile());
+    }
+
+    @Nullable
+    private static Path defaultExcludesFile() {
+        final String configHome = System.getenv("XDG_CONFIG_HOME");
+        if (configHome != null && !configHome.isEmpty()) {
+            return Path.of(configHome, "git", "ignore");
+        }
+        final String home = System.getProperty("user.home");
+        return home != null ? Path.of(home, ".config", "git", "ignore") : null;
+    }
+
+    /**
+     * The system name as reported by {@code uname}, which git puts in the ident.
+     */
+    private static String systemName() {
+        final String osName = System.getProperty("os.name");
+        if (osName.toLowerCase(Locale.ROOT).startsWith("mac")) {
+            return "Darwin";
+        }
+        if (osName.toLowerCase(Locale.ROOT).startsWith("windows")) {
+            return "Windows";
+        }
+        return osName;
+    }
+}
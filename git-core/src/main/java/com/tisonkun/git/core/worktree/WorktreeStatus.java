@@ -0,0 +1,42 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.worktree;
+
+import java.util.List;
+import javax.annotation.Nullable;
+
+/**
+ * The result of a {@link StatusScanner#scan()}.
+ *
+ * @param modified tracked paths whose stat no longer matches the index.
+ * @param deleted tracked paths missing from the worktree.
+ * @param untracked untracked paths in order; untracked directories end with '/'.
+ * @param statCount number of files and directories stat-ed during the scan.
+ * @param readdirCount number of directories read during the scan.
+ * @param token the fsmonitor token to record for the next scan, or null without an fsmonitor.
+ */
+public record WorktreeStatus(
+        List<String> modified,
+        List<String> deleted,
+        List<String> untracked,
+        int statCount,
+        int readdirCount,
+        @Nullable String token) {
+    public boolean isClean() {
+        return modified.isEmpty() && deleted.isEmpty() && untracked.isEmpty();
+    }
+}
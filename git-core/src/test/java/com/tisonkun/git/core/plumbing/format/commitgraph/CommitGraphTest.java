@@ -0,0 +1,88 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.plumbing.format.commitgraph;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import com.tisonkun.git.core.plumbing.hash.HashFn;
+import com.tisonkun.git.core.plumbing.hash.ObjectId;
+import com.tisonkun.git.core.test.TestUtils;
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class CommitGraphTest {
+    private static final File GRAPH_FILE = new File(TestUtils.testResourceDir(), "gitmultipack/info/commit-graph");
+
+    private static ObjectId id(String name) {
+        return ObjectId.fromString(name);
+    }
+
+    private static List<ObjectId> parents(CommitGraph graph, ObjectId id) {
+        return Arrays.stream(graph.parents(graph.findPosition(id)))
+                .mapToObj(graph::objectId)
+                .toList();
+    }
+
+    @Test
+    public void testCommitGraph() throws Exception {
+        final CommitGraph graph = CommitGraph.open(GRAPH_FILE, HashFn.SHA1);
+        assertThat(graph.getCommitCount()).isEqualTo(10);
+        assertThat(graph.hasCorrectedCommitDates()).isTrue();
+        for (int i = 0; i < graph.getCommitCount(); i++) {
+            assertThat(graph.findPosition(graph.objectId(i))).isEqualTo(i);
+        }
+        assertThat(graph.contains(id("48c95dab5eb5e6796cc2da31d4ee2bf1ab9109cb")))
+                .isFalse();
+
+        final ObjectId root = id("3abcbac5cfb972170b40683babcdc7fa1550a1cb");
+        final int rootPosition = graph.findPosition(root);
+        assertThat(graph.parents(rootPosition)).isEmpty();
+        assertThat(graph.treeId(rootPosition)).isEqualTo(id("3761768783e5df864ff0335e7319162e4463fa32"));
+        assertThat(graph.commitTime(rootPosition)).isEqualTo(1704067260L);
+        assertThat(graph.topologicalLevel(rootPosition)).isEqualTo(1);
+
+        assertThat(parents(graph, id("58679aeb8d400e191048bd078193c32f87cad68d")))
+                .containsExactly(id("185fab132e481041ee406cb5d8b30d9dec8cfe41"));
+
+        final ObjectId merge = id("6c92eabb64d64cdd63823310483503598e6af00a");
+        assertThat(parents(graph, merge))
+                .containsExactly(
+                        id("239196c75c05bd84e2be633c06bf86657a0d1704"), id("58679aeb8d400e191048bd078193c32f87cad68d"));
+        assertThat(graph.topologicalLevel(graph.findPosition(merge))).isEqualTo(6);
+        assertThat(graph.treeId(graph.findPosition(merge))).isEqualTo(id("48c95dab5eb5e6796cc2da31d4ee2bf1ab9109cb"));
+
+        // an octopus merge lists its third and later parents in the extra edges chunk
+        final ObjectId octopus = id("5cb9bcb02b6021d035e9cf49cdc30063da17be0b");
+        assertThat(parents(graph, octopus))
+                .containsExactly(
+                        id("677df3bf96c284459e4685b8900995eb017fe3c4"),
+                        id("185fab132e481041ee406cb5d8b30d9dec8cfe41"),
+                        id("abf3adbba5b9912ab31437e279931b93d01275fa"),
+                        id("6ff38855bc875186608265849d1de3ba39407656"));
+        assertThat(graph.topologicalLevel(graph.findPosition(octopus))).isEqualTo(4);
+
+        // generations never decrease from parent to child
+        for (int i = 0; i < graph.getCommitCount(); i++) {
+            for (int parent : graph.parents(i)) {
+                assertThat(graph.generation(i)).isGreaterThan(graph.generation(parent));
+                assertThat(graph.topologicalLevel(i)).isGreaterThan(graph.topologicalLevel(parent));
+            }
+            assertThat(graph.generation(i)).isGreaterThanOrEqualTo(graph.commitTime(i));
+        }
+    }
+}
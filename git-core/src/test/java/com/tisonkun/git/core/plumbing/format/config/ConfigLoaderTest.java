@@ -0,0 +1,140 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.plumbing.format.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ConfigLoaderTest {
+    @TempDir
+    private Path tempDir;
+
+    private ConfigFileCache cache;
+
+    private ConfigLoader loader() throws Exception {
+        cache = new ConfigFileCache(16);
+        return ConfigLoader.builder()
+                .systemConfig(write("etc/gitconfig", "[core]\n\tpager = less\n\teditor = vi\n"))
+                .globalConfigs(List.of(
+                        tempDir.resolve("home/.config/git/config").toFile(),
+                        write("home/.gitconfig", "[core]\n\teditor = nano\n[include]\n\tpath = extra.inc\n")))
+                .cache(cache)
+                .build();
+    }
+
+    private File write(String name, String content) throws Exception {
+        final Path path = tempDir.resolve(name);
+        Files.createDirectories(path.getParent());
+        Files.writeString(path, content);
+        return path.toFile();
+    }
+
+    private File repository(String name, String branch) throws Exception {
+        write(name + "/.git/HEAD", "ref: refs/heads/" + branch + "\n");
+        return tempDir.resolve(name + "/.git").toFile();
+    }
+
+    @Test
+    public void testLayers() throws Exception {
+        final ConfigLoader loader = loader();
+        write("home/extra.inc", "[user]\n\tname = Global\n");
+        final File gitDir = repository("work/repo", "main");
+        write("work/repo/.git/config", "[core]\n\teditor = emacs\n[extensions]\n\tworktreeConfig\n");
+        write("work/repo/.git/config.worktree", "[user]\n\tname = Worktree\n");
+
+        final ConfigView system = loader.load(null);
+        assertThat(system.get("core.pager")).hasValue("less");
+        assertThat(system.get("core.editor")).hasValue("nano");
+        assertThat(system.getAll("core.editor")).containsExactly("vi", "nano");
+        assertThat(system.get("user.name")).hasValue("Global");
+
+        final ConfigView view = loader.load(gitDir);
+        assertThat(view.get("core.editor")).hasValue("emacs");
+        assertThat(view.get("user.name")).hasValue("Worktree");
+        assertThat(view.get("include.path")).hasValue("extra.inc");
+
+        // an explicitly empty value is false, unlike a bare key
+        write("work/repo/.git/config", "[core]\n\teditor = emacs\n[extensions]\n\tworktreeConfig =\n");
+        assertThat(loader.load(gitDir).get("user.name")).hasValue("Global");
+    }
+
+    @Test
+    public void testConditionalIncludes() throws Exception {
+        final ConfigLoader loader = loader();
+        write("home/work.inc", "[user]\n\temail = work@example.com\n");
+        write("home/icase.inc", "[user]\n\tname = Icase\n");
+        write("home/feature.inc", "[user]\n\tsigningKey = feature\n");
+        write("home/hasconfig.inc", "[user]\n\tname = Unsupported\n");
+        write(
+                "home/.gitconfig",
+                """
+                [includeIf "gitdir:work/"]
+                \tpath = work.inc
+                [includeIf "gitdir/i:WORK/REPO/"]
+                \tpath = icase.inc
+                [includeIf "onbranch:feature/"]
+                \tpath = feature.inc
+                [includeIf "hasconfig:remote.*.url:*"]
+                \tpath = hasconfig.inc
+                """);
+
+        final ConfigView feature = loader.load(repository("work/repo", "feature/x"));
+        assertThat(feature.get("user.email")).hasValue("work@example.com");
+        assertThat(feature.get("user.name")).hasValue("Icase");
+        assertThat(feature.get("user.signingKey")).hasValue("feature");
+
+        final ConfigView other = loader.load(repository("other/repo", "main"));
+        assertThat(other.has("user.email")).isFalse();
+        assertThat(other.has("user.name")).isFalse();
+        assertThat(other.has("user.signingKey")).isFalse();
+    }
+
+    @Test
+    public void testIncludeCycle() throws Exception {
+        final ConfigLoader loader = loader();
+        write("home/extra.inc", "[include]\n\tpath = ../home/.gitconfig\n");
+        assertThatThrownBy(() -> loader.load(null))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("include cycle");
+
+        write("home/extra.inc", "[include]\n\tpath = extra.inc\n");
+        assertThatThrownBy(() -> loader.load(null)).hasMessageContaining("include cycle");
+    }
+
+    @Test
+    public void testCache() throws Exception {
+        final ConfigLoader loader = loader();
+        write("home/extra.inc", "[user]\n\tname = Global\n");
+        assertThat(loader.load(null).get("user.name")).hasValue("Global");
+        assertThat(cache.stats().hitCount()).isZero();
+
+        assertThat(loader.load(null).get("user.name")).hasValue("Global");
+        assertThat(cache.stats().hitCount()).isEqualTo(3);
+
+        write("home/extra.inc", "[user]\n\tname = Changed\n");
+        assertThat(loader.load(null).get("user.name")).hasValue("Changed");
+
+        Files.delete(tempDir.resolve("home/extra.inc"));
+        assertThat(loader.load(null).has("user.name")).isFalse();
+    }
+}
@@ -19,7 +19,11 @@ package com.tisonkun.git.core.plumbing.format.config;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import com.tisonkun.git.core.test.TestUtils;
+import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.List;
 import org.junit.jupiter.api.Test;
 
@@ -75,6 +79,42 @@ class ConfigTest {
                         new ConfigInclude("hasconfig:remote.*.url:https://example.com/**", "foo.inc"));
     }
 
+    @Test
+    public void testLookup() throws Exception {
+        final File file = new File(TestUtils.testResourceDir(), "gitconfig/sample-config.ini");
+        final Config config = Config.create(file);
+
+        // names and keys are case-insensitive, subsection names are not
+        assertThat(config.hasSection("CORE")).isTrue();
+        assertThat(config.section("Core")).isSameAs(config.section("core"));
+        assertThat(config.hasSection("nonexistent")).isFalse();
+        final ConfigSection core = config.section("core");
+        assertThat(core.hasOption("GitProxy")).isTrue();
+        assertThat(core.hasOption("proxy")).isFalse();
+        assertThat(config.section("branch").hasSubsection("devel")).isTrue();
+        assertThat(config.section("branch").hasSubsection("Devel")).isFalse();
+
+        // the last value wins, and multiple values keep their order, across repeated section headers
+        assertThat(core.option("gitproxy")).map(ConfigOption::value).hasValue("default-proxy");
+        assertThat(core.optionAll("GITPROXY"))
+                .map(ConfigOption::value)
+                .containsExactly("ssh for kernel.org", "default-proxy");
+        core.addOption("gitProxy", "added-proxy");
+        assertThat(core.option("gitproxy")).map(ConfigOption::value).hasValue("added-proxy");
+        assertThat(core.optionAll("gitproxy")).hasSize(3);
+        assertThat(core.options().getLast()).isEqualTo(new ConfigOption("gitProxy", "added-proxy"));
+        assertThat(core.option("nonexistent")).isEmpty();
+        assertThat(core.optionAll("nonexistent")).isEmpty();
+
+        // lookups of absent sections create them, like before
+        final int sections = config.sections().size();
+        config.section("new").subsection("Sub").addOption("key", "value");
+        assertThat(config.sections()).hasSize(sections + 1);
+        assertThat(config.section("NEW").subsection("Sub").option("KEY"))
+                .map(ConfigOption::value)
+                .hasValue("value");
+    }
+
     @Test
     public void testCornerCase() throws Exception {
         final File file = new File(TestUtils.testResourceDir(), "gitconfig/corner-config.ini");
@@ -102,6 +142,51 @@ class ConfigTest {
         assertThat(option.value()).isEqualTo("https://example.com/");
     }
 
+    @Test
+    public void testParser() throws Exception {
+        final String content = "\uFEFF[Core] bare\r\n"
+                + "\tname = a  b\t\tc   ; trailing comment\r\n"
+                + "\tquoted = \" a ; # b \" c\n"
+                + "\tescaped = x\\ty\\\"z\\\\w\\n\n"
+                + "\tcontinued = one \\\n"
+                + "    two \"three \\\n"
+                + "four\"\n"
+                + "\u000B\fspaced = \u000Ba\u2003b\u00A0\f\n"
+                + "[remote \"or\\\"ig\\in\"]url = https://example.com/git#frag\n"
+                + "[remote \"Origin\"]\n"
+                + "\turl = a\n"
+                + "\turl = b";
+        final Config config = Config.create(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+
+        final ConfigSection core = config.section("core");
+        assertThat(core.option("bare")).map(ConfigOption::value).hasValue("");
+        assertThat(core.option("name")).map(ConfigOption::value).hasValue("a  b  c");
+        assertThat(core.option("quoted")).map(ConfigOption::value).hasValue(" a ; # b  c");
+        assertThat(core.option("escaped")).map(ConfigOption::value).hasValue("x\ty\"z\\w\n");
+        assertThat(core.option("continued")).map(ConfigOption::value).hasValue("one     two three four");
+        // only ASCII whitespace is collapsed, like git's isspace
+        assertThat(core.option("spaced")).map(ConfigOption::value).hasValue("a\u2003b\u00A0");
+
+        final ConfigSection remote = config.section("remote");
+        assertThat(remote.subsections()).hasSize(2);
+        assertThat(remote.subsection("or\"igin").option("url"))
+                .map(ConfigOption::value)
+                .hasValue("https://example.com/git");
+        assertThat(remote.subsection("Origin").optionAll("url"))
+                .map(ConfigOption::value)
+                .containsExactly("a", "b");
+
+        assertThatThrownBy(() -> Config.create(new StringReader("[core]\n\tname = \"open\n")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("unclosed quote");
+        assertThatThrownBy(() -> Config.create(new StringReader("[core]\n\tname = \\q\n")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("cannot escape q at line 2");
+        assertThatThrownBy(() -> Config.create(new StringReader("name = value\n")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("each variable must belong to some section");
+    }
+
     @Test
     public void testMalformed() {
         final String[] messages =
@@ -115,4 +200,71 @@ class ConfigTest {
                     .hasMessageContaining(messages[i]);
         }
     }
+
+    private enum TagOpt {
+        AUTO_FOLLOW,
+        NO_TAGS
+    }
+
+    @Test
+    public void testTypedValues() throws Exception {
+        final Config config = Config.create(
+                new StringReader(
+                        """
+                [core]
+                \tbare
+                \tlogAllRefUpdates =
+                \tfilemode = No
+                \tbigFileThreshold = 512m
+                \tcompression = 0x9
+                \tpackedGitLimit = 8g
+                \texcludesFile = ~/.gitignore
+                \tbroken = maybe
+                [remote "origin"]
+                \ttagOpt = no-tags
+                \tprune = 1
+                """));
+        final ConfigSection core = config.section("core");
+        assertThat(core.getBoolean("bare")).hasValue(true);
+        assertThat(core.getBoolean("logAllRefUpdates")).hasValue(false);
+        assertThat(core.option("logAllRefUpdates")).map(ConfigOption::value).hasValue("");
+        assertThat(core.getBoolean("fileMode")).hasValue(false);
+        assertThat(core.getBoolean("missing")).isEmpty();
+        assertThat(core.getLong("bigFileThreshold")).hasValue(512L << 20);
+        assertThat(core.getInt("compression")).hasValue(9);
+        assertThat(core.getLong("packedGitLimit")).hasValue(8L << 30);
+        assertThat(core.getPath("excludesFile")).hasValue(Path.of(System.getProperty("user.home"), ".gitignore"));
+
+        assertThatThrownBy(() -> core.getBoolean("broken"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("bad boolean config value 'maybe' for 'core.broken'");
+        assertThatThrownBy(() -> core.getInt("packedGitLimit")).hasMessageContaining("out of range");
+        assertThatThrownBy(() -> core.getEnum("broken", TagOpt.class)).isInstanceOf(IllegalStateException.class);
+
+        // parsed once, until the key gets another value
+        assertThat(core.getLong("bigFileThreshold").get())
+                .isSameAs(core.getLong("bigFileThreshold").get());
+        core.addOption("bigFileThreshold", "1k");
+        assertThat(core.getLong("bigFileThreshold")).hasValue(1024L);
+
+        // numbers are read like strtoimax with base 0
+        assertThat(ConfigValues.parseLong("n", " -0x10k")).isEqualTo(-16L << 10);
+        assertThat(ConfigValues.parseLong("n", "+010")).isEqualTo(8L);
+        assertThat(ConfigValues.parseLong("n", "0")).isZero();
+        assertThat(ConfigValues.parseLong("n", "-9223372036854775808")).isEqualTo(Long.MIN_VALUE);
+        for (String bad : new String[] {"#ff", "1 ", "08", "0x", "1kk", "- 1", "", "\u0661"}) {
+            assertThatThrownBy(() -> ConfigValues.parseLong("n", bad))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessage("bad numeric config value '" + bad + "' for 'n'");
+        }
+        assertThatThrownBy(() -> ConfigValues.parseLong("n", "0x8000000000000000"))
+                .hasMessageContaining("out of range");
+
+        final ConfigSubsection origin = config.section("remote").subsection("origin");
+        assertThat(origin.getEnum("tagOpt", TagOpt.class)).hasValue(TagOpt.NO_TAGS);
+        assertThat(origin.getBoolean("prune")).hasValue(true);
+        assertThatThrownBy(() -> origin.getLong("tagOpt"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("bad numeric config value 'no-tags' for 'remote.origin.tagopt'");
+    }
 }
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.plumbing.format.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ConfigWatcherTest {
+    @TempDir
+    private Path tempDir;
+
+    private ConfigLoader loader() {
+        return ConfigLoader.builder()
+                .systemConfig(null)
+                .globalConfigs(List.of(tempDir.resolve("home/.gitconfig").toFile()))
+                .cache(new ConfigFileCache(16))
+                .build();
+    }
+
+    private File repository() throws Exception {
+        final Path gitDir = tempDir.resolve("repo/.git");
+        Files.createDirectories(gitDir);
+        Files.writeString(gitDir.resolve("HEAD"), "ref: refs/heads/main\n");
+        Files.writeString(gitDir.resolve("config"), "[core]\n\tbare = false\n");
+        return gitDir.toFile();
+    }
+
+    private static void await(Supplier<Boolean> condition) throws InterruptedException {
+        final long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+        while (!condition.get()) {
+            assertThat(System.nanoTime()).as("timed out").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    public void testRefresh() throws Exception {
+        final File gitDir = repository();
+        try (ConfigWatcher watcher = ConfigWatcher.poll(loader(), gitDir, Duration.ofDays(1))) {
+            final ConfigView view = watcher.get();
+            assertThat(view.get("core.bare")).hasValue("false");
+            assertThat(watcher.refresh()).isFalse();
+            assertThat(watcher.get()).isSameAs(view);
+
+            Files.writeString(gitDir.toPath().resolve("config"), "[core]\n\tbare = true\n");
+            assertThat(watcher.refresh()).isTrue();
+            assertThat(watcher.get().get("core.bare")).hasValue("true");
+            assertThat(view.get("core.bare")).hasValue("false");
+
+            // a global config file that did not exist at first
+            Files.createDirectories(tempDir.resolve("home"));
+            Files.writeString(tempDir.resolve("home/.gitconfig"), "[user]\n\tname = Watcher\n");
+            assertThat(watcher.refresh()).isTrue();
+            assertThat(watcher.get().get("user.name")).hasValue("Watcher");
+        }
+    }
+
+    @Test
+    public void testPoll() throws Exception {
+        final File gitDir = repository();
+        try (ConfigWatcher watcher = ConfigWatcher.poll(loader(), gitDir, Duration.ofMillis(10))) {
+            Files.writeString(gitDir.toPath().resolve("config"), "[core]\n\tbare = true\n");
+            await(() -> watcher.get().get("core.bare").equals(Optional.of("true")));
+        }
+    }
+
+    @Test
+    public void testWatch() throws Exception {
+        final File gitDir = repository();
+        try (ConfigWatcher watcher = ConfigWatcher.watch(loader(), gitDir)) {
+            final Path config = gitDir.toPath().resolve("config");
+            final Path lock = gitDir.toPath().resolve("config.lock");
+            // git replaces the file by renaming its lock file over it
+            Files.writeString(lock, "[core]\n\tbare = true\n");
+            Files.move(lock, config, StandardCopyOption.ATOMIC_MOVE);
+            await(() -> watcher.get().get("core.bare").equals(Optional.of("true")));
+
+            Files.writeString(gitDir.toPath().resolve("HEAD"), "ref: refs/heads/feature\n");
+            Files.writeString(config, "[core]\n\tbare = true\n[includeIf \"onbranch:feature\"]\n\tpath = feature\n");
+            Files.writeString(gitDir.toPath().resolve("feature"), "[user]\n\tname = Feature\n");
+            await(() -> watcher.get().has("user.name"));
+        }
+    }
+
+    @Test
+    public void testWatchUnchangedStat() throws Exception {
+        final File gitDir = repository();
+        final Path config = gitDir.toPath().resolve("config");
+        Files.writeString(config, "[user]\n\tname = before\n");
+        final FileTime lastModified = FileTime.fromMillis(1_700_000_000_000L);
+        Files.setLastModifiedTime(config, lastModified);
+        try (ConfigWatcher watcher = ConfigWatcher.watch(loader(), gitDir, Duration.ofDays(1))) {
+            assertThat(watcher.get().get("user.name")).hasValue("before");
+
+            // a rewrite of the same size within the mtime granularity is only noticed by the watch
+            Files.writeString(config, "[user]\n\tname = after!\n");
+            Files.setLastModifiedTime(config, lastModified);
+            await(() -> watcher.get().get("user.name").equals(Optional.of("after!")));
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.plumbing.format.ewah;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class EwahBitmapTest {
+    @Test
+    public void testDecode() {
+        // bits 0..5 as written by git: one marker word with a single literal word
+        final ByteBuf bytes = Unpooled.wrappedBuffer(ByteBufUtil.decodeHexDump(
+                "00000006" + "00000002" + "0000000200000000" + "000000000000003f" + "00000000"));
+        final EwahBitmap bitmap = EwahBitmap.create(bytes);
+        assertThat(bytes.isReadable()).isFalse();
+        assertThat(bitmap.bitSize()).isEqualTo(6);
+        assertThat(bitmap.cardinality()).isEqualTo(6);
+        assertThat(bitmap.get(5)).isTrue();
+        assertThat(bitmap.get(6)).isFalse();
+
+        final ByteBuf written = Unpooled.buffer();
+        bitmap.write(written);
+        assertThat(written.readableBytes()).isEqualTo(bitmap.serializedSize());
+        assertThat(written).isEqualTo(bytes.readerIndex(0));
+    }
+
+    @Test
+    public void testRoundTrip() {
+        final BitSet bits = new BitSet();
+        bits.set(3);
+        bits.set(64 * 5, 64 * 9 + 7);
+        bits.set(64 * 300 + 1);
+        final EwahBitmap bitmap = EwahBitmap.of(bits);
+
+        // the run of 4 full words and the run of empty words are compressed
+        assertThat(bitmap.compressedWords()).isLessThan(10);
+        assertThat(bitmap.bitSize()).isEqualTo(64 * 300 + 2);
+        assertThat(bitmap.toBitSet()).isEqualTo(bits);
+        assertThat(bitmap.cardinality()).isEqualTo(bits.cardinality());
+        for (int i = 0; i < bitmap.bitSize() + 64; i++) {
+            assertThat(bitmap.get(i)).as("bit %s", i).isEqualTo(bits.get(i));
+        }
+
+        final ByteBuf bytes = Unpooled.buffer();
+        bitmap.write(bytes);
+        assertThat(EwahBitmap.create(bytes)).isEqualTo(bitmap);
+
+        final List<Integer> set = new ArrayList<>();
+        EwahBitmap.of(1, 2, 200).forEach(set::add);
+        assertThat(set).containsExactly(1, 2, 200);
+    }
+
+    @Test
+    public void testEmpty() {
+        final EwahBitmap bitmap = EwahBitmap.of(new BitSet());
+        assertThat(bitmap.bitSize()).isZero();
+        assertThat(bitmap.get(0)).isFalse();
+        assertThat(bitmap.cardinality()).isZero();
+
+        final ByteBuf bytes = Unpooled.buffer();
+        bitmap.write(bytes);
+        assertThat(ByteBufUtil.hexDump(bytes)).isEqualTo("00000000" + "00000001" + "0000000000000000" + "00000000");
+    }
+
+    @Test
+    public void testLogicalOps() {
+        final Random random = new Random(42);
+        for (int round = 0; round < 200; round++) {
+            final BitSet a = randomBits(random);
+            final BitSet b = randomBits(random);
+            final EwahBitmap x = EwahBitmap.of(a);
+            final EwahBitmap y = EwahBitmap.of(b);
+            assertLogicalOp(x.or(y), a, b, BitSet::or);
+            assertLogicalOp(x.and(y), a, b, BitSet::and);
+            assertLogicalOp(x.andNot(y), a, b, BitSet::andNot);
+            assertLogicalOp(x.xor(y), a, b, BitSet::xor);
+            assertThat(x.xor(y).xor(y).toBitSet()).isEqualTo(a);
+        }
+
+        // long runs stay compressed through the operations
+        final BitSet ones = new BitSet();
+        ones.set(0, 64 * 10000);
+        final EwahBitmap all = EwahBitmap.of(ones);
+        final EwahBitmap some = EwahBitmap.of(5, 64 * 5000, 64 * 9999 + 63);
+        assertThat(all.or(some).compressedWords()).isLessThan(4);
+        assertThat(all.andNot(some).cardinality()).isEqualTo(64 * 10000 - 3);
+        assertThat(all.andNot(some).compressedWords()).isLessThan(10);
+        assertThat(some.and(all).toBitSet()).isEqualTo(some.toBitSet());
+    }
+
+    private static void assertLogicalOp(EwahBitmap actual, BitSet a, BitSet b, BitSetOp op) {
+        final BitSet expected = (BitSet) a.clone();
+        op.apply(expected, b);
+        assertThat(actual.toBitSet()).isEqualTo(expected);
+        assertThat(actual.cardinality()).isEqualTo(expected.cardinality());
+    }
+
+    private interface BitSetOp {
+        void apply(BitSet target, BitSet other);
+    }
+
+    private static BitSet randomBits(Random random) {
+        // a mix of empty runs, full runs and sparse literal words
+        final BitSet bits = new BitSet();
+        int pos = 0;
+        final int segments = random.nextInt(20);
+        for (int i = 0; i < segments; i++) {
+            final int len = random.nextInt(64 * 8) + 1;
+            switch (random.nextInt(3)) {
+                case 0 -> {}
+                case 1 -> bits.set(pos, pos + len);
+                default -> {
+                    for (int j = 0; j < len; j++) {
+                        if (random.nextInt(5) == 0) {
+                            bits.set(pos + j);
+                        }
+                    }
+                }
+            }
+            pos += len;
+        }
+        return bits;
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.plumbing.format.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import com.google.common.hash.HashCode;
+import com.tisonkun.git.core.test.TestUtils;
+import java.io.File;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CacheTreeTest {
+    @Test
+    public void testParseCacheTree() throws Exception {
+        // written by git-write-tree, and then a/b/g1 was updated
+        final File file = new File(TestUtils.testResourceDir(), "gitindex/index-tree");
+        final Index index = Index.create(file);
+        final CacheTree root = index.getCacheTree().orElseThrow();
+
+        assertThat(root.isValid()).isFalse();
+        assertThat(root.subtrees()).map(CacheTree::name).containsExactly("a", "c", "deep");
+        assertThat(root.find("a").map(CacheTree::isValid)).hasValue(false);
+        assertThat(root.find("a/b").map(CacheTree::isValid)).hasValue(false);
+
+        final CacheTree c = root.find("c").orElseThrow();
+        assertThat(c.entryCount()).isEqualTo(20);
+        assertThat(c.objectId()).hasValue(HashCode.fromString("6de8b20092a5d5087c223198ee0465e8da0160d3"));
+
+        final CacheTree very = root.find("deep/very").orElseThrow();
+        assertThat(very.entryCount()).isEqualTo(2);
+        assertThat(very.subtrees()).hasSize(1);
+        assertThat(very.objectId()).hasValue(HashCode.fromString("52308648bf7a0eafa4527d2c58740f05d3ba00f5"));
+        assertThat(root.find("deep/very/long/directory/name/for/prefix")).isPresent();
+        assertThat(root.find("deep/nope")).isEmpty();
+
+        // the encoding round trips byte by byte
+        final IndexExtension extension = index.extension(CacheTree.SIGNATURE).orElseThrow();
+        assertThat(root.toExtension().getData()).isEqualTo(extension.getData());
+    }
+
+    @Test
+    public void testInvalidate(@TempDir File tempDir) throws Exception {
+        final Index index = Index.create(new File(TestUtils.testResourceDir(), "gitindex/index-tree"));
+        final CacheTree root = index.getCacheTree().orElseThrow();
+
+        assertThat(root.invalidate("deep/very/long/x.txt")).isFalse();
+        assertThat(root.find("deep").map(CacheTree::isValid)).hasValue(false);
+        assertThat(root.find("deep/very/long").map(CacheTree::isValid)).hasValue(false);
+        assertThat(root.find("deep/very/long/directory").map(CacheTree::isValid))
+                .hasValue(true);
+        assertThat(root.find("c").map(CacheTree::isValid)).hasValue(true);
+
+        // replacing a directory with a file drops the subtree
+        final CacheTree c = root.find("c").orElseThrow();
+        assertThat(c.invalidate("h1")).isTrue();
+        assertThat(c.isValid()).isFalse();
+        root.invalidate("c");
+        assertThat(root.find("c")).isEmpty();
+
+        final CacheTree x = root.subtreeOrCreate("x");
+        x.validate(3, HashCode.fromString("6de8b20092a5d5087c223198ee0465e8da0160d3"));
+        assertThat(root.subtrees()).map(CacheTree::name).containsExactly("a", "x", "deep");
+
+        // the mutated cache tree is written back
+        final File target = new File(tempDir, "index");
+        new IndexWriter().write(index, target);
+        final CacheTree written = Index.create(target).getCacheTree().orElseThrow();
+        assertThat(written).isEqualTo(root);
+    }
+}
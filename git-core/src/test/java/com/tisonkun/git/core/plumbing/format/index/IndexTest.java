@@ -16,10 +16,24 @@
 
 package com.tisonkun.git.core.plumbing.format.index;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.Assumptions.assumeThat;
+import com.google.common.hash.HashCode;
+import com.tisonkun.git.core.plumbing.format.config.Config;
+import com.tisonkun.git.core.plumbing.hash.HashFn;
 import com.tisonkun.git.core.test.TestUtils;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 class IndexTest {
     @Test
@@ -29,4 +43,227 @@ class IndexTest {
         final Index index = Index.create(file);
         assumeThat(index.getEntries()).anyMatch(ent -> ent.getPathname().equals(".editorconfig"));
     }
+
+    @Test
+    public void testMapIndexFile() throws Exception {
+        final File file = new File(TestUtils.rootDir(), ".git/index");
+        assumeThat(file.exists()).describedAs("runs only with .git folder").isTrue();
+        final Index index = Index.map(file);
+        assertThat(index).isEqualTo(Index.create(file));
+    }
+
+    @Test
+    public void testParallelParseIndexFile() throws Exception {
+        // generated with index.threads=4, index.recordEndOfIndexEntries and index.recordOffsetTable
+        final File file = new File(TestUtils.testResourceDir(), "gitindex/index-ieot");
+        final Index index = Index.create(file);
+        assertThat(index.getEntries()).hasSize(61);
+        assertThat(index.getExtensions())
+                .map(IndexExtension::getSig)
+                .map(CharSequence::toString)
+                .containsExactly(IndexEntryOffsetTable.SIGNATURE, IndexEndOfEntries.SIGNATURE);
+
+        final ByteBuf bytes = Unpooled.wrappedBuffer(Files.readAllBytes(file.toPath()));
+        final IndexEndOfEntries eoie =
+                IndexEndOfEntries.find(bytes, HashFn.DEFAULT).orElseThrow();
+        final IndexEntryOffsetTable ieot = eoie.findExtension(bytes, IndexEntryOffsetTable.SIGNATURE)
+                .map(IndexEntryOffsetTable::create)
+                .orElseThrow();
+        assertThat(ieot.getBlocks()).map(IndexEntryOffsetTable.Block::count).containsExactly(16, 16, 16, 13);
+
+        // an extension size that the EOIE offset leads to is not trusted before the hash check
+        for (int size : new int[] {-8, Integer.MIN_VALUE, Integer.MAX_VALUE}) {
+            final ByteBuf corrupt = bytes.copy();
+            corrupt.setInt(eoie.getOffset() + 4, size);
+            assertThat(IndexEndOfEntries.find(corrupt, HashFn.DEFAULT)).isEmpty();
+        }
+
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertThat(Index.create(file, pool)).isEqualTo(index);
+            assertThat(Index.map(file, pool)).isEqualTo(index);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testIndexView() throws Exception {
+        final File file = new File(TestUtils.testResourceDir(), "gitindex/index-ieot");
+        final Index index = Index.create(file);
+        final IndexView view = IndexView.map(file);
+        assertThat(view.size()).isEqualTo(index.getEntries().size());
+        assertThat(view.toIndex()).isEqualTo(index);
+
+        final IndexEntryCursor cursor = view.cursor();
+        while (cursor.next()) {
+            final IndexEntry entry = index.getEntries().get(cursor.index());
+            assertThat(cursor.getPathname()).isEqualTo(entry.getPathname());
+            assertThat(cursor.getSha1()).isEqualTo(entry.getSha1());
+            assertThat(cursor.getObjectId()).isEqualTo(entry.getObjectId());
+            assertThat(cursor.getMtimeSeconds()).isEqualTo(entry.getMtimeSeconds());
+            assertThat(cursor.getMode()).isEqualTo(entry.getMode());
+            assertThat(cursor.getFileSize()).isEqualTo(entry.getFileSize());
+            assertThat(cursor.getStage()).isEqualTo(entry.getStage());
+            assertThat(cursor.pathnameEquals(entry.getPathname().getBytes(StandardCharsets.UTF_8)))
+                    .isTrue();
+            assertThat(cursor.toEntry()).isEqualTo(entry);
+        }
+        assertThat(cursor.moveTo(60).getPathname()).isEqualTo("top.txt");
+    }
+
+    @Test
+    public void testVersion4(@TempDir File tempDir) throws Exception {
+        final File file = new File(TestUtils.testResourceDir(), "gitindex/index-v4-ieot");
+        final Index index = Index.create(file);
+        assertThat(index.getVersion()).isEqualTo(4);
+        assertThat(index.getEntries())
+                .hasSize(63)
+                .map(IndexEntry::getPathname)
+                .contains("a/b/g1", "deep/very/long/directory/name/for/prefix/b.txt", "top.txt")
+                .isSorted();
+
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertThat(Index.create(file, pool)).isEqualTo(index);
+        } finally {
+            pool.shutdown();
+        }
+
+        final IndexView view = IndexView.create(file);
+        assertThat(view.toIndex()).isEqualTo(index);
+        final IndexEntryCursor cursor = view.cursor();
+        while (cursor.next()) {
+            final String pathname = index.getEntries().get(cursor.index()).getPathname();
+            assertThat(cursor.getPathname()).isEqualTo(pathname);
+            assertThat(cursor.pathnameEquals(pathname.getBytes(StandardCharsets.UTF_8)))
+                    .isTrue();
+        }
+
+        final IndexWriter writer = new IndexWriter();
+        final File v2 = new File(tempDir, "index-v2");
+        writer.write(index, 2, v2);
+        final Index index2 = Index.create(v2);
+        assertThat(index2.getVersion()).isEqualTo(2);
+        assertThat(index2.getEntries()).isEqualTo(index.getEntries());
+
+        final File v4 = new File(tempDir, "index-v4");
+        writer.write(index2, 4, v4);
+        assertThat(Index.create(v4).getEntries()).isEqualTo(index.getEntries());
+        assertThat(v4.length()).isLessThan(v2.length());
+    }
+
+    @Test
+    public void testWriteIndex(@TempDir File tempDir) throws Exception {
+        final Index index = Index.create(new File(TestUtils.testResourceDir(), "gitindex/index-ieot"));
+        final File target = new File(tempDir, "index");
+        final File lock = new File(tempDir, "index.lock");
+
+        // a tiny buffer forces many flushes
+        final IndexWriter writer = new IndexWriter(64);
+        writer.write(index, target);
+        assertThat(lock).doesNotExist();
+        final Index written = Index.create(target);
+        assertThat(written.getEntries()).isEqualTo(index.getEntries());
+        assertThat(written.getExtensions()).isEmpty();
+
+        // overwrite with the same writer while nobody holds the lock
+        writer.write(written, 4, target);
+        assertThat(Index.map(target).getEntries()).isEqualTo(index.getEntries());
+
+        assertThat(lock.createNewFile()).isTrue();
+        assertThatThrownBy(() -> writer.write(index, target))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("index.lock");
+        assertThat(Index.create(target).getVersion()).isEqualTo(4);
+    }
+
+    @Test
+    public void testSha256(@TempDir File tempDir) throws Exception {
+        // written by git-write-tree in a repository with extensions.objectFormat=sha256
+        final File dir = new File(TestUtils.testResourceDir(), "gitindex/sha256");
+        final HashFn hashFn = Config.create(new File(dir, "config")).hashFn();
+        assertThat(hashFn).isSameAs(HashFn.SHA256);
+
+        final File file = new File(dir, "index");
+        final Index index = Index.create(file, hashFn, null);
+        assertThat(index.getEntries())
+                .map(IndexEntry::getPathname)
+                .containsExactly("a/b/one.txt", "a/two.txt", "three.txt");
+        assertThat(index.entry("a/two.txt").map(IndexEntry::getSha1))
+                .hasValue(HashCode.fromString("8446ed2ffaaee0989a1fea8f4b851329aa9bd18fa3830902da973cf632c6be19"));
+        assertThat(index.getCacheTree().flatMap(CacheTree::objectId))
+                .hasValue(HashCode.fromString("c5b8c953729f42f6fdedf25b8458277611ce48866bcc1be24dfed68e8a7f8444"));
+        assertThatThrownBy(() -> Index.create(file)).isInstanceOf(IllegalStateException.class);
+
+        final IndexView view = IndexView.map(file, hashFn);
+        assertThat(view.toIndex()).isEqualTo(index);
+        final IndexEntryCursor cursor = view.cursor();
+        while (cursor.next()) {
+            final IndexEntry entry = index.getEntries().get(cursor.index());
+            assertThat(cursor.getSha1()).isEqualTo(entry.getSha1());
+            assertThat(cursor.getObjectId()).isEqualTo(entry.getObjectId());
+            assertThat(cursor.getPathname()).isEqualTo(entry.getPathname());
+            assertThat(cursor.getStage()).isEqualTo(entry.getStage());
+        }
+
+        final File target = new File(tempDir, "index");
+        new IndexWriter().write(index, 4, target);
+        final Index written = Index.map(target, hashFn, null);
+        assertThat(written.getEntries()).isEqualTo(index.getEntries());
+        assertThat(written.getCacheTree()).isEqualTo(index.getCacheTree());
+    }
+
+    @Test
+    public void testLookup() throws Exception {
+        final File file = new File(TestUtils.testResourceDir(), "gitindex/index-v4-ieot");
+        final Index index = Index.create(file);
+        final IndexView view = IndexView.create(file);
+        final List<IndexEntry> entries = index.getEntries();
+
+        for (int i = 0; i < entries.size(); i++) {
+            final byte[] pathname = entries.get(i).getPathname().getBytes(StandardCharsets.UTF_8);
+            assertThat(index.indexOf(pathname, IndexEntryStage.Merged)).isEqualTo(i);
+            assertThat(view.indexOf(pathname, IndexEntryStage.Merged)).isEqualTo(i);
+            assertThat(index.indexOf(pathname, IndexEntryStage.OurMode)).isEqualTo(-(i + 1) - 1);
+            assertThat(view.isTracked(pathname)).isTrue();
+        }
+
+        assertThat(index.isTracked("top.txt")).isTrue();
+        assertThat(index.isTracked("a/b")).isFalse();
+        assertThat(index.entry("c/h7")).map(IndexEntry::getPathname).hasValue("c/h7");
+        assertThat(index.entry("c/h0")).isEmpty();
+        assertThat(index.indexOf("a".getBytes(StandardCharsets.UTF_8), IndexEntryStage.Merged))
+                .isEqualTo(-1);
+        assertThat(view.isTracked("zzz".getBytes(StandardCharsets.UTF_8))).isFalse();
+
+        assertThat(index.entriesUnder("a/b")).hasSize(20).allMatch(e -> e.getPathname()
+                .startsWith("a/b/"));
+        assertThat(index.entriesUnder("a")).hasSize(40);
+        assertThat(index.entriesUnder("deep/very")).hasSize(2);
+        assertThat(index.entriesUnder("")).hasSize(63);
+        assertThat(index.entriesWithPrefix("c/h1")).hasSize(11);
+        assertThat(index.entriesWithPrefix("x")).isEmpty();
+
+        final IndexRange range = view.prefixRange("c/h1".getBytes(StandardCharsets.UTF_8));
+        assertThat(range).isEqualTo(index.prefixRange("c/h1".getBytes(StandardCharsets.UTF_8)));
+        assertThat(range.size()).isEqualTo(11);
+        assertThat(view.cursor().moveTo(range.from()).getPathname()).isEqualTo("c/h1");
+    }
+
+    @Test
+    public void testCompareUtf8() {
+        final String[] pathnames = {"", "a", "a/b", "a-b", "ab", "é", "e\u0301", "\uFFFD", "\uD83D\uDE00", "中文", "z"};
+        for (String lhs : pathnames) {
+            for (String rhs : pathnames) {
+                final byte[] lhsBytes = lhs.getBytes(StandardCharsets.UTF_8);
+                final byte[] rhsBytes = rhs.getBytes(StandardCharsets.UTF_8);
+                assertThat(Integer.signum(IndexSearch.compare(lhs, rhsBytes, false)))
+                        .describedAs("%s vs %s", lhs, rhs)
+                        .isEqualTo(Integer.signum(Arrays.compareUnsigned(lhsBytes, rhsBytes)));
+            }
+        }
+        assertThat(IndexSearch.compare("src/foo/bar", "src/foo/".getBytes(StandardCharsets.UTF_8), true))
+                .isZero();
+    }
 }
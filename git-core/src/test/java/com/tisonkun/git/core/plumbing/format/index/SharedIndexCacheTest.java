@@ -0,0 +1,116 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.plumbing.format.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import com.google.common.hash.HashCode;
+import com.tisonkun.git.core.plumbing.hash.HashFn;
+import com.tisonkun.git.core.test.TestUtils;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SharedIndexCacheTest {
+    private static final String SHARED_INDEX = "e7c6095cc74570c8365ef783b759b604340a4a25";
+
+    @Test
+    public void testResolveSplitIndex() throws Exception {
+        // b.txt was updated, d.txt was removed, n.txt and sub/z.txt were added after splitting
+        final File file = new File(TestUtils.testResourceDir(), "gitindex/split/index");
+        final Index split = Index.create(file);
+        assertThat(split.getEntries()).map(IndexEntry::getPathname).containsExactly("", "n.txt", "sub/z.txt");
+        final SplitIndexLink link =
+                SplitIndexLink.create(split.extension(SplitIndexLink.SIGNATURE).orElseThrow());
+        assertThat(link.getSharedIndex()).isEqualTo(HashCode.fromString(SHARED_INDEX));
+
+        final SharedIndexCache cache = new SharedIndexCache();
+        final Index index = cache.read(file);
+        assertThat(index.getEntries())
+                .map(IndexEntry::getPathname)
+                .containsExactly("a.txt", "b.txt", "c.txt", "e.txt", "f.txt", "n.txt", "sub/s.txt", "sub/z.txt");
+        assertThat(index.entry("b.txt").map(IndexEntry::getSha1))
+                .hasValue(HashCode.fromString("5ea2ed416fbd4a4cbe227b75fe255dd7fa6bd4d6"));
+        assertThat(index.extension(SplitIndexLink.SIGNATURE)).isEmpty();
+
+        // the shared index is parsed only once
+        assertThat(cache.read(file)).isEqualTo(index);
+        assertThat(cache.stats().loadCount()).isEqualTo(1);
+        assertThat(cache.stats().hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testWriteResolvedIndex(@TempDir File tempDir) throws Exception {
+        final Index index = new SharedIndexCache().read(new File(TestUtils.testResourceDir(), "gitindex/split/index"));
+        final File target = new File(tempDir, "index");
+        new IndexWriter().write(index, target);
+        assertThat(Index.create(target)).isEqualTo(index);
+    }
+
+    @Test
+    public void testMergeResolvesConflict() throws Exception {
+        final Index shared =
+                Index.create(new File(TestUtils.testResourceDir(), "gitindex/split/sharedindex." + SHARED_INDEX));
+        final IndexEntry a = shared.entry("a.txt").orElseThrow();
+        final IndexEntry b = shared.entry("b.txt").orElseThrow();
+        final IndexEntry c = shared.entry("c.txt").orElseThrow();
+        final Index conflicted = new Index(
+                2,
+                List.of(
+                        a,
+                        withStage(b, IndexEntryStage.AncestorMode),
+                        withStage(b, IndexEntryStage.OurMode),
+                        withStage(b, IndexEntryStage.TheirMode),
+                        c),
+                List.of(),
+                HashFn.DEFAULT);
+
+        // b.txt was resolved after splitting, which drops its unmerged entries from the shared index
+        final Index split = new Index(2, List.of(b), List.of(), HashFn.DEFAULT);
+        final SplitIndexLink link =
+                SplitIndexLink.create(Unpooled.wrappedBuffer(new byte[HashFn.DEFAULT.size()]), HashFn.DEFAULT);
+        final Index merged = SharedIndexCache.merge(split, link, conflicted);
+        assertThat(merged.getEntries()).containsExactly(a, b, c);
+    }
+
+    @Test
+    public void testSharedIndexChecksumMismatch(@TempDir File tempDir) throws Exception {
+        final File dir = new File(TestUtils.testResourceDir(), "gitindex/split");
+        Files.copy(new File(dir, "index").toPath(), new File(tempDir, "index").toPath());
+        Files.copy(
+                new File(TestUtils.testResourceDir(), "gitindex/index-tree").toPath(),
+                new File(tempDir, "sharedindex." + SHARED_INDEX).toPath());
+
+        final SharedIndexCache cache = new SharedIndexCache();
+        assertThatThrownBy(() -> cache.read(new File(tempDir, "index")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("shared index checksum mismatch");
+    }
+
+    private static IndexEntry withStage(IndexEntry entry, IndexEntryStage stage) {
+        final ByteBuf bytes = Unpooled.buffer();
+        entry.write(bytes, 2, new IndexPathBuffer());
+        // the stage is in bits 12-13 of the flags after the stat data and the object id
+        final int flagOffset = 40 + HashFn.DEFAULT.size();
+        bytes.setShort(flagOffset, (bytes.getShort(flagOffset) & ~0x3000) | (stage.ordinal() << 12));
+        return IndexEntry.create(bytes, 2, HashFn.DEFAULT, new IndexPathBuffer());
+    }
+}
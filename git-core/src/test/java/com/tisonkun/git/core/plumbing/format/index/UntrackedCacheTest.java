@@ -0,0 +1,88 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.plumbing.format.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import com.google.common.hash.HashCode;
+import com.tisonkun.git.core.plumbing.format.ewah.EwahBitmap;
+import com.tisonkun.git.core.test.TestUtils;
+import java.io.File;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class UntrackedCacheTest {
+    @Test
+    public void testParseUntrackedCache() throws Exception {
+        // written by git-status with core.untrackedCache and a stand-in fsmonitor hook
+        final File file = new File(TestUtils.testResourceDir(), "gitindex/index-untr");
+        final Index index = Index.create(file);
+        final UntrackedCache cache = index.getUntrackedCache().orElseThrow();
+
+        assertThat(cache.ident()).isEqualTo("Location /tmp/untr, system Linux\0");
+        assertThat(cache.excludePerDir()).isEqualTo(".gitignore");
+        assertThat(cache.dirFlags()).isEqualTo(6);
+
+        final UntrackedCache.Directory root = cache.root().orElseThrow();
+        assertThat(root.isValid()).isTrue();
+        assertThat(root.untracked()).containsExactly(".gitignore", "newdir/");
+        assertThat(root.subdirs()).map(UntrackedCache.Directory::name).containsExactly("docs", "newdir", "src");
+        assertThat(root.excludeHash()).hasValue(HashCode.fromString("cfce1ade9509051648024d9a26997f898ae6821f"));
+        assertThat(cache.find("newdir").map(UntrackedCache.Directory::isCheckOnly))
+                .hasValue(true);
+        assertThat(cache.find("src/foo").orElseThrow().untracked()).containsExactly("untracked.txt");
+        assertThat(cache.find("src/foo").orElseThrow().stat()).isPresent();
+        assertThat(cache.find("src/nope")).isEmpty();
+
+        // the encoding round trips byte by byte
+        final IndexExtension extension =
+                index.extension(UntrackedCache.SIGNATURE).orElseThrow();
+        assertThat(cache.toExtension().getData()).isEqualTo(extension.getData());
+    }
+
+    @Test
+    public void testParseFsMonitor() throws Exception {
+        final File file = new File(TestUtils.testResourceDir(), "gitindex/index-untr");
+        final Index index = Index.create(file);
+        final FsMonitorData fsMonitor = index.getFsMonitorData().orElseThrow();
+
+        assertThat(fsMonitor.version()).isEqualTo(2);
+        assertThat(fsMonitor.token()).isEqualTo("token-2");
+        assertThat(fsMonitor.dirty().cardinality()).isZero();
+        assertThat(fsMonitor.isDirty(0)).isFalse();
+
+        final IndexExtension extension =
+                index.extension(FsMonitorData.SIGNATURE).orElseThrow();
+        assertThat(fsMonitor.toExtension().getData()).isEqualTo(extension.getData());
+    }
+
+    @Test
+    public void testWriteBack(@TempDir File tempDir) throws Exception {
+        final Index index = Index.create(new File(TestUtils.testResourceDir(), "gitindex/index-untr"));
+        index.getUntrackedCache().orElseThrow().find("src/foo").orElseThrow().invalidate();
+        index.getFsMonitorData().orElseThrow().update("token-3", EwahBitmap.of(1));
+
+        final File target = new File(tempDir, "index");
+        new IndexWriter().write(index, target);
+        final Index written = Index.create(target);
+        assertThat(written.getUntrackedCache().flatMap(cache -> cache.find("src/foo")))
+                .hasValueSatisfying(dir -> assertThat(dir.isValid()).isFalse());
+        assertThat(written.getUntrackedCache().flatMap(cache -> cache.find("src/bar")))
+                .hasValueSatisfying(dir -> assertThat(dir.isValid()).isTrue());
+        assertThat(written.getFsMonitorData().map(FsMonitorData::token)).hasValue("token-3");
+        assertThat(written.getFsMonitorData().map(data -> data.isDirty(1))).hasValue(true);
+    }
+}
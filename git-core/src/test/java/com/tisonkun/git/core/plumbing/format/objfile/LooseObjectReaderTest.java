@@ -0,0 +1,121 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.plumbing.format.objfile;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import com.tisonkun.git.core.plumbing.ObjectHeader;
+import com.tisonkun.git.core.plumbing.ObjectType;
+import com.tisonkun.git.core.plumbing.RawObject;
+import com.tisonkun.git.core.plumbing.hash.HashFn;
+import com.tisonkun.git.core.plumbing.hash.ObjectId;
+import com.tisonkun.git.core.test.TestUtils;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.zip.DeflaterOutputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LooseObjectReaderTest {
+    private static final File OBJECTS_DIR = new File(TestUtils.testResourceDir(), "gitobjects");
+
+    @Test
+    public void testRead() throws Exception {
+        final LooseObjectReader reader = new LooseObjectReader(OBJECTS_DIR, HashFn.SHA1);
+
+        final ObjectId blob = ObjectId.fromString("ce013625030ba8dba906f756967f9e9ca394464a");
+        assertThat(reader.has(blob)).isTrue();
+        final RawObject hello = reader.read(blob);
+        assertThat(hello.type()).isEqualTo(ObjectType.BLOB);
+        assertThat(new String(hello.content(), StandardCharsets.UTF_8)).isEqualTo("hello\n");
+
+        final RawObject commit = reader.read(ObjectId.fromString("0b67c47759f2b9ccfeb0630590049516daf051a6"));
+        assertThat(commit.type()).isEqualTo(ObjectType.COMMIT);
+        assertThat(new String(commit.content(), StandardCharsets.UTF_8))
+                .startsWith("tree bf4932740f61e17da7912058b83034b7d11c12cb\n");
+
+        assertThat(reader.readHeader(ObjectId.fromString("bf4932740f61e17da7912058b83034b7d11c12cb")))
+                .isEqualTo(new ObjectHeader(ObjectType.TREE, 74));
+
+        final ObjectId missing = ObjectId.zero(HashFn.SHA1);
+        assertThat(reader.has(missing)).isFalse();
+        assertThatThrownBy(() -> reader.read(missing)).isInstanceOf(NoSuchFileException.class);
+    }
+
+    @Test
+    public void testStream() throws Exception {
+        final LooseObjectReader reader = new LooseObjectReader(OBJECTS_DIR, HashFn.SHA1);
+        final ObjectId large = ObjectId.fromString("c09a5ed61af991780ae0e90953fe34870353b08c");
+        assertThat(reader.readHeader(large)).isEqualTo(new ObjectHeader(ObjectType.BLOB, 128890));
+
+        final StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            expected.append("line ").append(i).append(" of a large blob\n");
+        }
+        try (LooseObjectInputStream in = reader.open(large)) {
+            assertThat(in.getType()).isEqualTo(ObjectType.BLOB);
+            assertThat(in.getSize()).isEqualTo(128890);
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] buf = new byte[1000];
+            int n;
+            while ((n = in.read(buf)) >= 0) {
+                out.write(buf, 0, n);
+            }
+            assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(expected.toString());
+        }
+    }
+
+    @Test
+    public void testVerify(@TempDir Path tempDir) throws Exception {
+        final File objectsDir = tempDir.toFile();
+        final ObjectId id = ObjectId.fromString("ce013625030ba8dba906f756967f9e9ca394464a");
+        final LooseObjectReader reader = new LooseObjectReader(objectsDir, HashFn.SHA1);
+
+        // the content does not match the id
+        write(reader.path(id), "blob 6\0hellO\n");
+        assertThatThrownBy(() -> reader.read(id))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("id mismatch");
+        assertThat(new LooseObjectReader(objectsDir, HashFn.SHA1, false)
+                        .read(id)
+                        .content())
+                .asString(StandardCharsets.UTF_8)
+                .isEqualTo("hellO\n");
+
+        write(reader.path(id), "blob 7\0hello\n");
+        assertThatThrownBy(() -> reader.read(id)).hasMessageContaining("shorter than its size");
+        write(reader.path(id), "blob 5\0hello\n");
+        assertThatThrownBy(() -> reader.read(id)).hasMessageContaining("longer than its size");
+        write(reader.path(id), "blob 06\0hello\n");
+        assertThatThrownBy(() -> reader.read(id)).hasMessageContaining("malformed loose object size");
+        write(reader.path(id), "bloc 6\0hello\n");
+        assertThatThrownBy(() -> reader.read(id)).hasMessageContaining("unknown object type");
+    }
+
+    private static void write(File file, String content) throws IOException {
+        Files.createDirectories(file.getParentFile().toPath());
+        try (OutputStream out = new DeflaterOutputStream(Files.newOutputStream(file.toPath()))) {
+            out.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
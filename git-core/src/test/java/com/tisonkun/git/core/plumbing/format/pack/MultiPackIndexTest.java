@@ -0,0 +1,67 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.plumbing.format.pack;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import com.tisonkun.git.core.plumbing.hash.HashFn;
+import com.tisonkun.git.core.plumbing.hash.ObjectId;
+import com.tisonkun.git.core.test.TestUtils;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class MultiPackIndexTest {
+    private static final File PACK_DIR = new File(TestUtils.testResourceDir(), "gitmultipack/pack");
+
+    @Test
+    public void testMultiPackIndex() throws Exception {
+        final MultiPackIndex midx = MultiPackIndex.open(new File(PACK_DIR, MultiPackIndex.FILE_NAME), HashFn.SHA1);
+        assertThat(midx.getPackNames())
+                .containsExactly(
+                        "pack-6d72066760919fcc78c7581e052e7f841a4d5fc3.idx",
+                        "pack-8a3a5c9d55a04a4f3953fe377e597e0e5a6ee2f0.idx",
+                        "pack-ac9ea46998095838d6bc266ccc1190fbedf068a5.idx");
+
+        // every object of every pack is found with a single lookup, at the same offset as in its pack
+        final List<PackIndex> indexes = new ArrayList<>();
+        int total = 0;
+        for (String name : midx.getPackNames()) {
+            final PackIndex index = PackIndex.open(new File(PACK_DIR, name), HashFn.SHA1);
+            indexes.add(index);
+            total += index.getObjectCount();
+        }
+        assertThat(midx.getObjectCount()).isEqualTo(total);
+        for (int packId = 0; packId < indexes.size(); packId++) {
+            final PackIndex index = indexes.get(packId);
+            for (int i = 0; i < index.getObjectCount(); i++) {
+                final ObjectId id = index.objectId(i);
+                assertThat(midx.find(id)).contains(new MultiPackIndex.Location(packId, index.offset(i)));
+            }
+        }
+
+        final List<ObjectId> ids = new ArrayList<>();
+        for (int i = 0; i < midx.getObjectCount(); i++) {
+            ids.add(midx.objectId(i));
+            assertThat(midx.findPosition(midx.objectId(i))).isEqualTo(i);
+        }
+        assertThat(ids).isSorted();
+        assertThat(midx.contains(ObjectId.zero(HashFn.SHA1))).isFalse();
+        assertThat(midx.find(ObjectId.fromString("6c92eabb64d64cdd63823310483503598e6af00b")))
+                .isEmpty();
+    }
+}
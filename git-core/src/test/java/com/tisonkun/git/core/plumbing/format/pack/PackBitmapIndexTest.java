@@ -0,0 +1,105 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.plumbing.format.pack;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import com.tisonkun.git.core.plumbing.ObjectType;
+import com.tisonkun.git.core.plumbing.format.ewah.EwahBitmap;
+import com.tisonkun.git.core.plumbing.hash.HashFn;
+import com.tisonkun.git.core.plumbing.hash.ObjectId;
+import com.tisonkun.git.core.test.TestUtils;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class PackBitmapIndexTest {
+    private static final String PACK_NAME = "pack-e7b5aef2345f76d3aee47f7478e08d035beffb78";
+    private static final File PACK_DIR = new File(TestUtils.testResourceDir(), "gitpack");
+
+    private static ObjectId id(String name) {
+        return ObjectId.fromString(name);
+    }
+
+    private static List<ObjectId> objectIds(PackBitmapIndex bitmaps, EwahBitmap bitmap) {
+        final List<ObjectId> ids = new ArrayList<>();
+        bitmap.forEach(bit -> ids.add(bitmaps.objectId(bit)));
+        return ids;
+    }
+
+    @Test
+    public void testBitmaps() throws Exception {
+        final PackIndex index = PackIndex.open(new File(PACK_DIR, PACK_NAME + ".idx"), HashFn.SHA1);
+        final PackBitmapIndex bitmaps = PackBitmapIndex.open(new File(PACK_DIR, PACK_NAME + ".bitmap"), index);
+        assertThat(bitmaps.getEntryCount()).isEqualTo(10);
+        assertThat(bitmaps.typeBitmap(ObjectType.COMMIT).cardinality()).isEqualTo(10);
+        assertThat(bitmaps.typeBitmap(ObjectType.TREE).cardinality()).isEqualTo(10);
+        assertThat(bitmaps.typeBitmap(ObjectType.BLOB).cardinality()).isEqualTo(8);
+        assertThat(bitmaps.typeBitmap(ObjectType.TAG).cardinality()).isZero();
+
+        // bits follow pack order
+        for (int bit = 0; bit < index.getObjectCount(); bit++) {
+            assertThat(bitmaps.bitPosition(bitmaps.objectId(bit))).isEqualTo(bit);
+            if (bit > 0) {
+                assertThat(index.findOffset(bitmaps.objectId(bit)))
+                        .isGreaterThan(index.findOffset(bitmaps.objectId(bit - 1)));
+            }
+        }
+
+        // counts of objects reachable from each commit, as by git rev-list --objects <commit> | wc -l
+        final Map<String, Integer> reachable = Map.of(
+                "6c92eabb64d64cdd63823310483503598e6af00a", 28,
+                "58679aeb8d400e191048bd078193c32f87cad68d", 12,
+                "239196c75c05bd84e2be633c06bf86657a0d1704", 23,
+                "5cb9bcb02b6021d035e9cf49cdc30063da17be0b", 20,
+                "677df3bf96c284459e4685b8900995eb017fe3c4", 9,
+                "ad180787d19e770afe4f1187c096515d11be4433", 6);
+        reachable.forEach((commit, count) -> assertThat(
+                        bitmaps.bitmap(id(commit)).orElseThrow().cardinality())
+                .as(commit)
+                .isEqualTo(count));
+
+        final ObjectId root = id("3abcbac5cfb972170b40683babcdc7fa1550a1cb");
+        assertThat(objectIds(bitmaps, bitmaps.bitmap(root).orElseThrow()))
+                .containsExactlyInAnyOrder(
+                        root,
+                        id("3761768783e5df864ff0335e7319162e4463fa32"),
+                        id("8f6edfd455a3c66a6f6cf9af6d2d9a480e8e7323"));
+        assertThat(bitmaps.bitmap(id("3761768783e5df864ff0335e7319162e4463fa32")))
+                .isEmpty();
+
+        // what a fetch of the merge needs when the client has its first parent
+        final EwahBitmap want = bitmaps.reachable(List.of(id("6c92eabb64d64cdd63823310483503598e6af00a")))
+                .orElseThrow();
+        final EwahBitmap have = bitmaps.reachable(List.of(id("239196c75c05bd84e2be633c06bf86657a0d1704")))
+                .orElseThrow();
+        assertThat(want.andNot(have).cardinality()).isEqualTo(5);
+        assertThat(want.andNot(have).and(bitmaps.typeBitmap(ObjectType.COMMIT)).cardinality())
+                .isEqualTo(2);
+        assertThat(bitmaps.reachable(List.of(
+                                id("58679aeb8d400e191048bd078193c32f87cad68d"),
+                                id("239196c75c05bd84e2be633c06bf86657a0d1704")))
+                        .orElseThrow()
+                        .toBitSet())
+                .isEqualTo(have.or(bitmaps.bitmap(id("58679aeb8d400e191048bd078193c32f87cad68d"))
+                                .orElseThrow())
+                        .toBitSet());
+        assertThat(bitmaps.reachable(List.of(root, id("3761768783e5df864ff0335e7319162e4463fa32"))))
+                .isEmpty();
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.plumbing.format.pack;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import com.tisonkun.git.core.plumbing.ObjectType;
+import com.tisonkun.git.core.plumbing.RawObject;
+import com.tisonkun.git.core.plumbing.hash.HashFn;
+import com.tisonkun.git.core.plumbing.hash.ObjectId;
+import com.tisonkun.git.core.test.TestUtils;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.CRC32;
+import org.junit.jupiter.api.Test;
+
+class PackFileTest {
+    private static final String PACK_NAME = "pack-1fe9fe35a35a4341ecd356344f3beac2adadd1fb";
+    // the same objects packed with --no-delta-base-offset, so its deltas are REF_DELTA
+    private static final String REF_PACK_NAME = "pack-93f5df449dc8b6d29a67cd7f4a5c0a1842e053b0";
+    private static final File PACK_DIR = new File(TestUtils.testResourceDir(), "gitpack");
+
+    private static ObjectId id(String name) {
+        return ObjectId.fromString(name);
+    }
+
+    private static ObjectId hash(RawObject object) {
+        final byte[] header = object.type().header(object.size());
+        return ObjectId.fromHashCode(HashFn.SHA1
+                .newHasher()
+                .update(header, 0, header.length)
+                .update(object.content(), 0, object.size())
+                .finish());
+    }
+
+    @Test
+    public void testPackIndex() throws Exception {
+        // the fixture was indexed with --index-version=2,0x200 so that offsets above 0x200 are 64-bit
+        final PackIndex index = PackIndex.open(new File(PACK_DIR, PACK_NAME + ".idx"), HashFn.SHA1);
+        assertThat(index.getObjectCount()).isEqualTo(23);
+        assertThat(index.packChecksum()).isEqualTo(id("1fe9fe35a35a4341ecd356344f3beac2adadd1fb"));
+
+        assertThat(index.findOffset(id("afecbef1a8e6478dea0f7953852ae8c7fb1660c2")))
+                .isEqualTo(12);
+        assertThat(index.findOffset(id("ce36eff2f1b58b9cc7ef93f1f83f176d82aa934a")))
+                .isEqualTo(267);
+        assertThat(index.findOffset(id("ceb7864e857a0e13451d4f59c2fef6b78ac3ab11")))
+                .isEqualTo(1419);
+        assertThat(index.findOffset(id("61780798228d17af2d34fce4cfbdf35556832472")))
+                .isEqualTo(2411);
+        assertThat(index.findOffset(id("61780798228d17af2d34fce4cfbdf35556832473")))
+                .isEqualTo(-1);
+        assertThat(index.contains(ObjectId.zero(HashFn.SHA1))).isFalse();
+
+        final List<ObjectId> ids = new ArrayList<>();
+        for (int i = 0; i < index.getObjectCount(); i++) {
+            ids.add(index.objectId(i));
+            assertThat(index.findPosition(index.objectId(i))).isEqualTo(i);
+        }
+        assertThat(ids).isSorted();
+    }
+
+    @Test
+    public void testRead() throws Exception {
+        try (PackFile pack = PackFile.open(new File(PACK_DIR, PACK_NAME + ".pack"), HashFn.SHA1, new WindowCache())) {
+            assertThat(pack.verifyChecksum()).isTrue();
+
+            final RawObject tag =
+                    pack.read(id("ce36eff2f1b58b9cc7ef93f1f83f176d82aa934a")).orElseThrow();
+            assertThat(tag.type()).isEqualTo(ObjectType.TAG);
+            assertThat(new String(tag.content(), StandardCharsets.UTF_8))
+                    .isEqualTo("object 428f0d303af88132d44c9d8ef709a974650df81b\n"
+                            + "type commit\n"
+                            + "tag v1\n"
+                            + "tagger t <t@e> 1704067200 +0000\n"
+                            + "\n"
+                            + "tag v1\n");
+
+            final RawObject blob =
+                    pack.read(id("61780798228d17af2d34fce4cfbdf35556832472")).orElseThrow();
+            assertThat(blob.type()).isEqualTo(ObjectType.BLOB);
+            assertThat(blob.content()).isEqualTo("b\n".getBytes(StandardCharsets.UTF_8));
+            assertThat(pack.read(ObjectId.zero(HashFn.SHA1))).isEmpty();
+
+            final PackEntry delta = pack.readEntry(1419 + 750);
+            assertThat(delta.type()).isEqualTo(ObjectType.OFS_DELTA);
+            assertThat(delta.baseOffset()).isEqualTo(1419);
+            final RawObject resolved = pack.read(delta.offset());
+            assertThat(resolved.type()).isEqualTo(pack.read(1419).type());
+            assertThat(hash(resolved)).isEqualTo(id("2c49b0ba69a6d7f6400f7e3ac28b332251dcfc1b"));
+
+            // the CRC32 in the index covers the whole packed entry, header included
+            final PackIndex index = pack.getIndex();
+            final int position = index.findPosition(id("ce36eff2f1b58b9cc7ef93f1f83f176d82aa934a"));
+            final byte[] packed = Files.readAllBytes(new File(PACK_DIR, PACK_NAME + ".pack").toPath());
+            final CRC32 crc32 = new CRC32();
+            crc32.update(packed, 267, 372 - 267);
+            assertThat(index.crc32(position)).isEqualTo((int) crc32.getValue());
+        }
+    }
+
+    @Test
+    public void testSmallWindows() throws Exception {
+        // windows far smaller than entries, and a limit of two windows, exercise crossing and eviction
+        final WindowCache cache = new WindowCache(64, 128);
+        try (PackFile pack = PackFile.open(new File(PACK_DIR, PACK_NAME + ".pack"), HashFn.SHA1, cache);
+                PackFile reference =
+                        PackFile.open(new File(PACK_DIR, PACK_NAME + ".pack"), HashFn.SHA1, new WindowCache())) {
+            final PackIndex index = pack.getIndex();
+            for (int i = 0; i < index.getObjectCount(); i++) {
+                final ObjectId id = index.objectId(i);
+                final PackEntry entry = pack.readEntry(index.offset(i));
+                assertThat(entry).isEqualTo(reference.readEntry(index.offset(i)));
+                if (!entry.type().isDelta()) {
+                    final Optional<RawObject> object = pack.read(id);
+                    assertThat(object.orElseThrow().content())
+                            .isEqualTo(reference.read(id).orElseThrow().content());
+                }
+            }
+            assertThat(cache.stats().evictionCount()).isPositive();
+            assertThat(cache.stats().hitCount()).isPositive();
+        }
+    }
+
+    @Test
+    public void testDeltaApplier() {
+        final byte[] base = "hello, world\n".getBytes(StandardCharsets.UTF_8);
+        // sizes 13 -> 12; copy 7 bytes at 0, insert "git\n", copy "hello"
+        final byte[] delta = {13, 16, (byte) 0x90, 7, 4, 'g', 'i', 't', '\n', (byte) 0x90, 5};
+        assertThat(DeltaApplier.resultSize(delta)).isEqualTo(16);
+        assertThat(new String(DeltaApplier.apply(base, delta), StandardCharsets.UTF_8))
+                .isEqualTo("hello, git\nhello");
+
+        assertThatThrownBy(() -> DeltaApplier.apply(new byte[12], delta))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("base size");
+        assertThatThrownBy(() -> DeltaApplier.apply(base, new byte[] {13, 1, 0}))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("opcode 0");
+        assertThatThrownBy(() -> DeltaApplier.apply(base, new byte[] {13, 1, (byte) 0x91, 13, 1}))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("out of range");
+    }
+
+    @Test
+    public void testDeltaResolution() throws Exception {
+        for (String name : List.of(PACK_NAME, REF_PACK_NAME)) {
+            final DeltaBaseCache cache = new DeltaBaseCache();
+            try (PackFile pack =
+                    PackFile.open(new File(PACK_DIR, name + ".pack"), HashFn.SHA1, new WindowCache(), cache)) {
+                final PackIndex index = pack.getIndex();
+                int deltas = 0;
+                for (int i = 0; i < index.getObjectCount(); i++) {
+                    if (pack.readEntry(index.offset(i)).type().isDelta()) {
+                        deltas++;
+                    }
+                    final RawObject object = pack.read(index.objectId(i)).orElseThrow();
+                    assertThat(object.type().isDelta()).isFalse();
+                    assertThat(hash(object)).isEqualTo(index.objectId(i));
+                }
+                assertThat(deltas).as(name).isPositive();
+                assertThat(cache.size()).isPositive();
+
+                // a second pass reads bases from the cache, and returned content must not alias it
+                final long hits = cache.stats().hitCount();
+                for (int i = 0; i < index.getObjectCount(); i++) {
+                    final RawObject object = pack.read(index.objectId(i)).orElseThrow();
+                    Arrays.fill(object.content(), (byte) 0);
+                }
+                assertThat(cache.stats().hitCount()).isGreaterThan(hits);
+                for (int i = 0; i < index.getObjectCount(); i++) {
+                    assertThat(hash(pack.read(index.objectId(i)).orElseThrow())).isEqualTo(index.objectId(i));
+                }
+            }
+            assertThat(cache.size()).isZero();
+        }
+    }
+
+    @Test
+    public void testDeltaBaseCacheEviction() throws Exception {
+        // a limit smaller than most bases keeps the cache nearly empty, yet reads still resolve
+        final DeltaBaseCache cache = new DeltaBaseCache(64);
+        try (PackFile pack =
+                PackFile.open(new File(PACK_DIR, PACK_NAME + ".pack"), HashFn.SHA1, new WindowCache(), cache)) {
+            final PackIndex index = pack.getIndex();
+            for (int i = 0; i < index.getObjectCount(); i++) {
+                assertThat(hash(pack.read(index.objectId(i)).orElseThrow())).isEqualTo(index.objectId(i));
+            }
+            assertThat(cache.stats().evictionCount()).isPositive();
+        }
+
+        // a base of half the limit is kept, rather than evicted as heavier than a segment's share
+        final DeltaBaseCache large = new DeltaBaseCache(1 << 20);
+        try (PackFile pack =
+                PackFile.open(new File(PACK_DIR, PACK_NAME + ".pack"), HashFn.SHA1, new WindowCache(), large)) {
+            large.put(pack, 12, new RawObject(ObjectType.BLOB, new byte[1 << 19]));
+            assertThat(large.get(pack, 12)).isNotNull();
+            assertThat(large.stats().hitCount()).isEqualTo(1);
+            assertThat(large.stats().evictionCount()).isZero();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.plumbing.format.pack;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import com.tisonkun.git.core.plumbing.hash.HashFn;
+import com.tisonkun.git.core.plumbing.hash.ObjectId;
+import com.tisonkun.git.core.test.TestUtils;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PackIndexerTest {
+    private static final File PACK_DIR = new File(TestUtils.testResourceDir(), "gitpack");
+
+    private static File copyPack(String name, Path tempDir) throws Exception {
+        final Path pack = tempDir.resolve(name + ".pack");
+        Files.copy(new File(PACK_DIR, name + ".pack").toPath(), pack);
+        return pack.toFile();
+    }
+
+    @Test
+    public void testIndex(@TempDir Path tempDir) throws Exception {
+        // OFS_DELTA and REF_DELTA packs whose indexes git wrote with default options
+        for (String name : new String[] {
+            "pack-93f5df449dc8b6d29a67cd7f4a5c0a1842e053b0", "pack-e7b5aef2345f76d3aee47f7478e08d035beffb78"
+        }) {
+            for (int parallelism : new int[] {1, 4}) {
+                final ForkJoinPool pool = new ForkJoinPool(parallelism);
+                try {
+                    final Path dir = Files.createDirectories(tempDir.resolve(name + "-" + parallelism));
+                    final File pack = copyPack(name, dir);
+                    final ObjectId checksum = new PackIndexer(pool, new WindowCache()).index(pack, HashFn.SHA1);
+                    assertThat(checksum.name()).isEqualTo(name.substring("pack-".length()));
+                    assertThat(Files.readAllBytes(dir.resolve(name + ".idx")))
+                            .isEqualTo(Files.readAllBytes(new File(PACK_DIR, name + ".idx").toPath()));
+                } finally {
+                    pool.shutdown();
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testIndexLargeOffsetFixture(@TempDir Path tempDir) throws Exception {
+        // git indexed this one with a lowered large offset threshold, so compare entries instead of bytes
+        final String name = "pack-1fe9fe35a35a4341ecd356344f3beac2adadd1fb";
+        final File pack = copyPack(name, tempDir);
+        new PackIndexer().index(pack, HashFn.SHA1);
+        final PackIndex expected = PackIndex.open(new File(PACK_DIR, name + ".idx"), HashFn.SHA1);
+        final PackIndex actual = PackIndex.open(tempDir.resolve(name + ".idx").toFile(), HashFn.SHA1);
+        assertThat(actual.getObjectCount()).isEqualTo(expected.getObjectCount());
+        assertThat(actual.packChecksum()).isEqualTo(expected.packChecksum());
+        for (int i = 0; i < expected.getObjectCount(); i++) {
+            assertThat(actual.objectId(i)).isEqualTo(expected.objectId(i));
+            assertThat(actual.offset(i)).isEqualTo(expected.offset(i));
+            assertThat(actual.crc32(i)).isEqualTo(expected.crc32(i));
+        }
+
+        // the new index serves reads of deltified objects
+        try (PackFile reopened = PackFile.open(pack, HashFn.SHA1, new WindowCache())) {
+            assertThat(reopened.read(expected.objectId(0))).isPresent();
+        }
+    }
+
+    @Test
+    public void testCorruptPack(@TempDir Path tempDir) throws Exception {
+        final String name = "pack-93f5df449dc8b6d29a67cd7f4a5c0a1842e053b0";
+        final File pack = copyPack(name, tempDir);
+        final byte[] bytes = Files.readAllBytes(pack.toPath());
+        bytes[100] ^= 0x01;
+        Files.write(pack.toPath(), bytes);
+        assertThatThrownBy(() -> new PackIndexer().index(pack, HashFn.SHA1))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("checksum");
+        assertThat(tempDir.resolve(name + ".idx")).doesNotExist();
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.plumbing.hash;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import com.google.common.hash.HashCode;
+import com.google.common.primitives.Longs;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class HashFnTest {
+    private static final byte[] ABC = "abc".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * The first 320 bytes of shattered-1.pdf and shattered-2.pdf, which collide under SHA-1: a shared
+     * header and two differing near-collision blocks.
+     */
+    private static final String SHATTERED_PREFIX = "255044462d312e330a25e2e3cfd30a0a0a312030206f626a0a3c3c2f57696474"
+            + "682032203020522f4865696768742033203020522f547970652034203020522f"
+            + "537562747970652035203020522f46696c7465722036203020522f436f6c6f72"
+            + "53706163652037203020522f4c656e6774682038203020522f42697473506572"
+            + "436f6d706f6e656e7420383e3e0a73747265616d0affd8fffe00245348412d31"
+            + "20697320646561642121212121852fec092339759c39b1a1c63c4c97e1fffe01";
+
+    private static final String SHATTERED_1 = "7f46dc93a6b67e013b029aaa1db2560b45ca67d688c7f84b8c4c791fe02b3df6"
+            + "14f86db1690901c56b45c1530afedfb76038e972722fe7ad728f0e4904e046c2"
+            + "30570fe9d41398abe12ef5bc942be33542a4802d98b5d70f2a332ec37fac3514"
+            + "e74ddc0f2cc1a874cd0c78305a21566461309789606bd0bf3f98cda8044629a1";
+
+    private static final String SHATTERED_2 = "7346dc9166b67e118f029ab621b2560ff9ca67cca8c7f85ba84c79030c2b3de2"
+            + "18f86db3a90901d5df45c14f26fedfb3dc38e96ac22fe7bd728f0e45bce046d2"
+            + "3c570feb141398bb552ef5a0a82be331fea48037b8b5d71f0e332edf93ac3500"
+            + "eb4ddc0decc1a864790c782c76215660dd309791d06bd0af3f98cda4bc4629b1";
+
+    @Test
+    public void testCalculate() {
+        assertThat(HashFn.SHA1.calculate(ABC, 0, ABC.length))
+                .isEqualTo(HashCode.fromString("a9993e364706816aba3e25717850c26c9cd0d89d"));
+        assertThat(HashFn.SHA256.calculate(ABC, 0, ABC.length))
+                .isEqualTo(HashCode.fromString("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad"));
+
+        for (HashFn hashFn : List.of(HashFn.SHA1, HashFn.SHA256)) {
+            final ByteBuf direct = Unpooled.directBuffer().writeByte('x').writeBytes(ABC);
+            assertThat(hashFn.calculate(direct, 1, ABC.length)).isEqualTo(hashFn.calculate(ABC, 0, ABC.length));
+            assertThat(hashFn.newHasher().update(ABC, 0, ABC.length).finish())
+                    .isEqualTo(hashFn.calculate(ABC, 0, ABC.length));
+            assertThat(hashFn.calculate(ABC, 0, 0).bits()).isEqualTo(hashFn.size() * 8);
+        }
+    }
+
+    @Test
+    public void testHasher(@TempDir Path tempDir) throws Exception {
+        final byte[] content = new byte[100_000];
+        new Random(42).nextBytes(content);
+        final Path file = tempDir.resolve("content");
+        Files.write(file, content);
+
+        for (HashFn hashFn : List.of(HashFn.SHA1, HashFn.SHA256)) {
+            final HashCode expected = hashFn.calculate(content, 0, content.length);
+            final Hasher hasher = hashFn.newHasher();
+
+            final ByteBuf direct = Unpooled.directBuffer().writeBytes(content);
+            assertThat(hasher.update(direct).finish()).isEqualTo(expected);
+            assertThat(direct.readerIndex()).isZero();
+
+            final ByteBuf composite = Unpooled.wrappedBuffer(
+                    Unpooled.wrappedBuffer(content, 0, 10), Unpooled.wrappedBuffer(content, 10, content.length - 10));
+            assertThat(hasher.update(composite).finish()).isEqualTo(expected);
+
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                hasher.update(channel, 0, 7).update(channel, 7, content.length - 7);
+            }
+            final ByteBuf out = Unpooled.directBuffer();
+            hasher.finish(out);
+            assertThat(hashFn.read(out)).isEqualTo(expected);
+
+            final long[] words = new long[hashFn.words() + 1];
+            hasher.update(ByteBuffer.wrap(content)).finish(words, 1);
+            final long[] read = new long[hashFn.words() + 1];
+            hashFn.read(Unpooled.wrappedBuffer(expected.asBytes()), read, 1);
+            assertThat(words).isEqualTo(read);
+            assertThat(words[1]).isEqualTo(Longs.fromByteArray(expected.asBytes()));
+
+            final byte[] bytes = new byte[hashFn.size()];
+            hashFn.read(Unpooled.wrappedBuffer(expected.asBytes()), bytes, 0);
+            assertThat(HashCode.fromBytes(bytes)).isEqualTo(expected);
+        }
+
+        // SHA-1 takes two and a half words; the last one is left-aligned
+        final long[] words = new long[HashFn.SHA1.words()];
+        HashFn.SHA1.read(
+                Unpooled.wrappedBuffer(HashFn.SHA1.calculate(ABC, 0, ABC.length).asBytes()), words, 0);
+        assertThat(words).containsExactly(0xa9993e364706816aL, 0xba3e25717850c26cL, 0x9cd0d89d00000000L);
+    }
+
+    @Test
+    public void testSha1dc() {
+        final Random random = new Random(42);
+        final byte[] content = new byte[4096];
+        random.nextBytes(content);
+        for (int len : new int[] {0, 1, 55, 56, 63, 64, 65, 119, 120, 128, 1000, content.length}) {
+            final HashCode expected = HashFn.SHA1.calculate(content, 0, len);
+            assertThat(HashFn.SHA1DC.calculate(content, 0, len)).isEqualTo(expected);
+
+            // split updates across block boundaries, from heap, direct and little-endian buffers
+            final Hasher hasher = HashFn.SHA1DC.newHasher();
+            final int split = len / 3;
+            hasher.update(content, 0, split);
+            final ByteBuffer direct = ByteBuffer.allocateDirect(len - split).order(ByteOrder.LITTLE_ENDIAN);
+            direct.put(content, split, len - split).flip();
+            assertThat(hasher.update(direct).finish()).isEqualTo(expected);
+            assertThat(direct.hasRemaining()).isFalse();
+
+            final ByteBuf buf = Unpooled.directBuffer().writeBytes(content, 0, len);
+            assertThat(HashFn.SHA1DC.calculate(buf, 0, len)).isEqualTo(expected);
+        }
+
+        final long[] words = new long[HashFn.SHA1DC.words()];
+        HashFn.SHA1DC.newHasher().update(ABC, 0, ABC.length).finish(words, 0);
+        assertThat(words).containsExactly(0xa9993e364706816aL, 0xba3e25717850c26cL, 0x9cd0d89d00000000L);
+    }
+
+    @Test
+    public void testSha1dcRecompress() {
+        final byte[] block = new byte[64];
+        new Random(7).nextBytes(block);
+        final Sha1dcHasher hasher = new Sha1dcHasher(false);
+        hasher.update(block, 0, block.length);
+
+        // an undisturbed message trivially recompresses to the same state from either saved step
+        assertThat(hasher.isCollision(new UbcCheck.DvInfo(1, 0, 0, 58, 0, new int[80])))
+                .isTrue();
+        assertThat(hasher.isCollision(new UbcCheck.DvInfo(1, 0, 0, 65, 0, new int[80])))
+                .isTrue();
+        for (UbcCheck.DvInfo dv : UbcCheck.DV) {
+            assertThat(hasher.isCollision(dv)).isFalse();
+        }
+    }
+
+    @Test
+    public void testSha1dcShattered() {
+        final HexFormat hex = HexFormat.of();
+        final byte[] shattered1 = hex.parseHex(SHATTERED_PREFIX + SHATTERED_1);
+        final byte[] shattered2 = hex.parseHex(SHATTERED_PREFIX + SHATTERED_2);
+        assertThat(shattered1).hasSize(320).isNotEqualTo(shattered2);
+
+        final HashCode collision = HashCode.fromString("f92d74e3874587aaf443d1db961d4e26dde13e9c");
+        assertThat(HashFn.SHA1.calculate(shattered1, 0, shattered1.length)).isEqualTo(collision);
+        assertThat(HashFn.SHA1.calculate(shattered2, 0, shattered2.length)).isEqualTo(collision);
+
+        for (byte[] content : List.of(shattered1, shattered2)) {
+            assertThatThrownBy(() -> HashFn.SHA1DC.calculate(content, 0, content.length))
+                    .isInstanceOf(Sha1CollisionException.class)
+                    .hasMessageContaining(collision.toString());
+        }
+    }
+
+    @Test
+    public void testConcurrentCalculate() throws Exception {
+        final HashCode expected = HashFn.SHA256.calculate(ABC, 0, ABC.length);
+        try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+            final List<Future<HashCode>> futures =
+                    executor.invokeAll(Collections.nCopies(64, () -> HashFn.SHA256.calculate(ABC, 0, ABC.length)));
+            for (Future<HashCode> future : futures) {
+                assertThat(future.get()).isEqualTo(expected);
+            }
+        }
+    }
+
+    @Test
+    public void testObjectFormat() {
+        assertThat(HashFn.of("sha1")).isSameAs(HashFn.SHA1);
+        assertThat(HashFn.of("SHA256")).isSameAs(HashFn.SHA256);
+        assertThat(HashFn.DEFAULT.name()).isEqualTo("sha1");
+        assertThatThrownBy(() -> HashFn.of("md5")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
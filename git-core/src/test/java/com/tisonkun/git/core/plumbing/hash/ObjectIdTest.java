@@ -0,0 +1,136 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.plumbing.hash;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import com.google.common.hash.HashCode;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class ObjectIdTest {
+    private static ObjectId id(HashFn hashFn, int i) {
+        final byte[] bytes = Integer.toString(i).getBytes(StandardCharsets.US_ASCII);
+        return ObjectId.fromHashCode(hashFn.calculate(bytes, 0, bytes.length));
+    }
+
+    @Test
+    public void testObjectId() {
+        for (HashFn hashFn : List.of(HashFn.SHA1, HashFn.SHA256)) {
+            final HashCode hashCode = hashFn.calculate(new byte[] {1, 2, 3}, 0, 3);
+            final ObjectId id = ObjectId.fromHashCode(hashCode);
+            assertThat(id.size()).isEqualTo(hashFn.size());
+            assertThat(id.name()).isEqualTo(hashCode.toString());
+            assertThat(id.toHashCode()).isEqualTo(hashCode);
+            assertThat(ObjectId.fromString(id.name())).isEqualTo(id).hasSameHashCodeAs(id);
+
+            final ByteBuf bytes = Unpooled.directBuffer().writeByte(0);
+            id.write(bytes);
+            assertThat(id.equals(bytes, 1)).isTrue();
+            assertThat(bytes.readByte()).isZero();
+            assertThat(ObjectId.read(bytes, hashFn.size())).isEqualTo(id);
+            assertThat(bytes.isReadable()).isFalse();
+
+            final long[] words = new long[hashFn.words()];
+            hashFn.read(Unpooled.wrappedBuffer(hashCode.asBytes()), words, 0);
+            for (int i = 0; i < words.length; i++) {
+                assertThat(id.word(i)).isEqualTo(words[i]);
+            }
+        }
+
+        assertThat(ObjectId.fromString("000000ff").compareTo(ObjectId.fromString("ff000000")))
+                .isNegative();
+        assertThat(ObjectId.zero(HashFn.SHA1).name()).isEqualTo("0".repeat(40));
+        assertThat(ObjectId.zero(HashFn.SHA1)).isNotEqualTo(ObjectId.zero(HashFn.SHA256));
+        // SHA-1 ids have their own layout but order with ids of other sizes by bytes, then size
+        final ObjectId sha1 = ObjectId.fromString("ab".repeat(20));
+        final ObjectId padded = ObjectId.fromString("ab".repeat(20) + "00".repeat(12));
+        assertThat(sha1).isNotEqualTo(padded);
+        assertThat(sha1.word(3)).isEqualTo(padded.word(3)).isZero();
+        assertThat(sha1.compareTo(padded)).isNegative();
+        assertThat(padded.compareTo(sha1)).isPositive();
+        assertThatThrownBy(() -> ObjectId.fromString("xyz00000")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testObjectIdSet() {
+        for (HashFn hashFn : List.of(HashFn.SHA1, HashFn.SHA256)) {
+            try (ObjectIdSet heap = ObjectIdSet.create(hashFn);
+                    ObjectIdSet direct = ObjectIdSet.createDirect(hashFn, 10)) {
+                for (int i = 0; i < 10_000; i++) {
+                    assertThat(heap.add(id(hashFn, i))).isTrue();
+                    final ByteBuf raw = Unpooled.buffer();
+                    id(hashFn, i).write(raw);
+                    assertThat(direct.add(raw, 0)).isTrue();
+                }
+                assertThat(heap.add(id(hashFn, 42))).isFalse();
+                assertThat(heap.add(ObjectId.zero(hashFn))).isTrue();
+                assertThat(heap.size()).isEqualTo(10_001);
+                assertThat(direct.size()).isEqualTo(10_000);
+
+                for (int i = 0; i < 10_000; i++) {
+                    assertThat(heap.contains(id(hashFn, i))).isTrue();
+                    assertThat(direct.contains(id(hashFn, i))).isTrue();
+                }
+                assertThat(direct.contains(id(hashFn, 10_000))).isFalse();
+                assertThat(direct.contains(ObjectId.zero(hashFn))).isFalse();
+
+                final List<ObjectId> ids = new ArrayList<>();
+                direct.forEach(ids::add);
+                assertThat(ids).hasSize(10_000).allMatch(heap::contains);
+            }
+        }
+
+        try (ObjectIdSet set = ObjectIdSet.create(HashFn.SHA1)) {
+            assertThatThrownBy(() -> set.add(ObjectId.zero(HashFn.SHA256)))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Test
+    public void testObjectIdMap() {
+        try (ObjectIdMap<Integer> map = ObjectIdMap.createDirect(HashFn.SHA1, 0)) {
+            final Map<ObjectId, Integer> expected = new HashMap<>();
+            for (int i = 0; i < 5_000; i++) {
+                assertThat(map.put(id(HashFn.SHA1, i), i)).isNull();
+                expected.put(id(HashFn.SHA1, i), i);
+            }
+            assertThat(map.put(id(HashFn.SHA1, 7), -7)).isEqualTo(7);
+            expected.put(id(HashFn.SHA1, 7), -7);
+            assertThat(map.computeIfAbsent(id(HashFn.SHA1, 8), id -> 0)).isEqualTo(8);
+            assertThat(map.computeIfAbsent(id(HashFn.SHA1, 5_000), id -> 5_000)).isEqualTo(5_000);
+            expected.put(id(HashFn.SHA1, 5_000), 5_000);
+
+            final ByteBuf raw = Unpooled.buffer();
+            id(HashFn.SHA1, 9).write(raw);
+            assertThat(map.get(raw, 0)).isEqualTo(9);
+            assertThat(map.get(id(HashFn.SHA1, 5_001))).isNull();
+            assertThat(map.containsKey(id(HashFn.SHA1, 5_001))).isFalse();
+
+            final Map<ObjectId, Integer> actual = new HashMap<>();
+            map.forEach(actual::put);
+            assertThat(actual).isEqualTo(expected);
+            assertThat(map.size()).isEqualTo(expected.size());
+        }
+    }
+}
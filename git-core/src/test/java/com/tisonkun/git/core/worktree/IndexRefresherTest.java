@@ -0,0 +1,130 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.worktree;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import com.tisonkun.git.core.plumbing.format.index.Index;
+import com.tisonkun.git.core.plumbing.format.index.IndexEntry;
+import com.tisonkun.git.core.test.TestUtils;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Instant;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.annotation.Nullable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+
+class IndexRefresherTest {
+    @Test
+    @DisabledOnOs(OS.WINDOWS)
+    public void testRefresh(@TempDir Path worktree) throws Exception {
+        // README, src/bar/b.txt and src/foo/a.txt, each of 2 bytes
+        final Index index = Index.create(new File(TestUtils.testResourceDir(), "gitindex/index-untr"));
+        final IndexEntry readme = index.entry("README").orElseThrow();
+
+        // same size and mtime, the rest of the stat is ignored with core.checkStat=minimal
+        write(worktree.resolve("README"), "r\n", readme);
+        // same size but a new mtime
+        write(worktree.resolve("src/bar/b.txt"), "b\n", null);
+        final IndexRefresher refresher =
+                IndexRefresher.builder().worktree(worktree).checkStat(false).build();
+
+        final int seconds = readme.getMtimeSeconds();
+        RefreshResult result = refresher.refresh(index.getEntries(), seconds + 1, 0);
+        assertThat(result.state(0)).isEqualTo(RefreshState.UNCHANGED);
+        assertThat(result.state(1)).isEqualTo(RefreshState.NEEDS_HASH);
+        assertThat(result.state(2)).isEqualTo(RefreshState.DELETED);
+        assertThat(result.entries(RefreshState.DELETED))
+                .map(IndexEntry::getPathname)
+                .containsExactly("src/foo/a.txt");
+        assertThat(result.isClean()).isFalse();
+
+        // the index was written in the same instant as README was modified
+        result = refresher.refresh(index.getEntries(), seconds, readme.getMtimeNanoseconds());
+        assertThat(result.state(0)).isEqualTo(RefreshState.NEEDS_HASH);
+        result = refresher.refresh(index.getEntries(), 0, 0);
+        assertThat(result.state(0)).isEqualTo(RefreshState.UNCHANGED);
+
+        // a different size or executable bit is a change without looking at the content
+        write(worktree.resolve("src/foo/a.txt"), "abc\n", null);
+        Files.setPosixFilePermissions(worktree.resolve("README"), PosixFilePermissions.fromString("rwxr-xr-x"));
+        result = refresher.refresh(index.getEntries(), seconds + 1, 0);
+        assertThat(result.state(0)).isEqualTo(RefreshState.STAT_DIRTY);
+        assertThat(result.state(2)).isEqualTo(RefreshState.STAT_DIRTY);
+        assertThat(result.count(RefreshState.STAT_DIRTY)).isEqualTo(2);
+
+        final IndexRefresher ignoreMode = IndexRefresher.builder()
+                .worktree(worktree)
+                .checkStat(false)
+                .fileMode(false)
+                .build();
+        assertThat(ignoreMode.refresh(index.getEntries(), seconds + 1, 0).state(0))
+                .isEqualTo(RefreshState.UNCHANGED);
+
+        // with the full stat check, the ctime and inode differ from those recorded by git
+        final IndexRefresher full =
+                IndexRefresher.builder().worktree(worktree).fileMode(false).build();
+        assertThat(full.refresh(index.getEntries(), seconds + 1, 0).state(0)).isEqualTo(RefreshState.NEEDS_HASH);
+    }
+
+    @Test
+    public void testParallelRefresh(@TempDir Path worktree) throws Exception {
+        final Index index = Index.create(new File(TestUtils.testResourceDir(), "gitindex/index-ieot"));
+        for (IndexEntry entry : index.getEntries().subList(0, 20)) {
+            write(worktree.resolve(entry.getPathname()), "x", null);
+        }
+
+        final RefreshResult sequential = IndexRefresher.builder()
+                .worktree(worktree)
+                .parallelism(1)
+                .build()
+                .refresh(index.getEntries(), 0, 0);
+        assertThat(sequential.count(RefreshState.DELETED))
+                .isEqualTo(index.getEntries().size() - 20);
+
+        final RefreshResult virtual =
+                IndexRefresher.builder().worktree(worktree).build().refresh(index.getEntries(), 0, 0);
+        try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+            final RefreshResult pooled = IndexRefresher.builder()
+                    .worktree(worktree)
+                    .executor(executor)
+                    .parallelism(8)
+                    .build()
+                    .refresh(index.getEntries(), 0, 0);
+            for (int i = 0; i < index.getEntries().size(); i++) {
+                assertThat(virtual.state(i)).isEqualTo(sequential.state(i));
+                assertThat(pooled.state(i)).isEqualTo(sequential.state(i));
+            }
+        }
+    }
+
+    private static void write(Path path, String content, @Nullable IndexEntry mtimeFrom) throws Exception {
+        Files.createDirectories(path.getParent());
+        Files.writeString(path, content);
+        Files.setPosixFilePermissions(path, PosixFilePermissions.fromString("rw-r--r--"));
+        if (mtimeFrom != null) {
+            final Instant mtime = Instant.ofEpochSecond(mtimeFrom.getMtimeSeconds(), mtimeFrom.getMtimeNanoseconds());
+            Files.setLastModifiedTime(path, FileTime.from(mtime));
+        }
+    }
+}
@@ -0,0 +1,271 @@
+/*
+ * Copyright 2024 tison <wander4096@gmail.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.tisonkun.git.core.worktree;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import com.tisonkun.git.core.plumbing.format.index.FsMonitorData;
+import com.tisonkun.git.core.plumbing.format.index.Index;
+import com.tisonkun.git.core.plumbing.format.index.IndexWriter;
+import com.tisonkun.git.core.plumbing.format.index.UntrackedCache;
+import com.tisonkun.git.core.plumbing.hash.HashFn;
+import com.tisonkun.git.core.test.TestUtils;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+import javax.annotation.Nullable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+
+class StatusScannerTest {
+    private static final Predicate<String> IGNORED = path -> path.endsWith(".log");
+
+    /**
+     * The info/exclude of the worktree the index-untr fixture was written in.
+     */
+    private static final String INFO_EXCLUDE =
+            """
+            # git ls-files --others --exclude-from=.git/info/exclude
+            # Lines that start with '#' are comments.
+            # For a project mostly in C, the following would be a good set of
+            # exclude patterns (uncomment them if you want to use them):
+            # *.[oa]
+            # *~
+            """;
+
+    @Test
+    public void testScanWithUntrackedCache(@TempDir Path worktree) throws Exception {
+        final Index index = Index.create(new File(TestUtils.testResourceDir(), "gitindex/index-untr"));
+        createWorktree(worktree);
+
+        // the cached stat is from another worktree, so every directory is read once
+        final WorktreeStatus first = new StatusScanner(worktree, index, null, IGNORED).scan();
+        assertThat(first.modified()).containsExactly("README", "src/bar/b.txt", "src/foo/a.txt");
+        assertThat(first.deleted()).isEmpty();
+        assertThat(first.untracked()).containsExactly(".gitignore", "newdir/", "src/foo/untracked.txt");
+        assertThat(first.readdirCount()).isGreaterThan(0);
+        assertThat(first.token()).isNull();
+
+        // nothing has changed, so the cache answers for every directory
+        final WorktreeStatus second = new StatusScanner(worktree, index, null, IGNORED).scan();
+        assertThat(second.untracked()).isEqualTo(first.untracked());
+        assertThat(second.readdirCount()).isZero();
+        assertThat(second.statCount()).isEqualTo(3 + 4);
+
+        // only the directory that has changed is read again
+        write(worktree.resolve("src/bar/new.txt"));
+        final WorktreeStatus third = new StatusScanner(worktree, index, null, IGNORED).scan();
+        assertThat(third.untracked())
+                .containsExactly(".gitignore", "newdir/", "src/bar/new.txt", "src/foo/untracked.txt");
+        assertThat(third.readdirCount()).isEqualTo(1);
+        assertThat(index.getUntrackedCache().flatMap(cache -> cache.find("src/bar")))
+                .hasValueSatisfying(dir -> assertThat(dir.untracked()).containsExactly("new.txt"));
+
+        // paths added to the index since the cache was written are no longer untracked, although the
+        // stat of their directory still matches the cache
+        final File target = worktree.resolve(".git/index").toFile();
+        new IndexWriter().write(index, target);
+        addEntries(target, ".gitignore", "newdir/n.txt");
+        final Index added = Index.create(target);
+        final WorktreeStatus fourth = new StatusScanner(worktree, added, null, IGNORED).scan();
+        assertThat(fourth.untracked()).containsExactly("src/bar/new.txt", "src/foo/untracked.txt");
+        // the root, docs for untracked files, and newdir, which now has a tracked file
+        assertThat(fourth.readdirCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void testScanWithFsMonitor(@TempDir Path worktree) throws Exception {
+        final Index index = Index.create(new File(TestUtils.testResourceDir(), "gitindex/index-untr"));
+        createWorktree(worktree);
+        write(worktree.resolve("src/foo/new.txt"));
+
+        // only src/foo is reported, so nothing else is stat-ed, let alone read
+        final FakeFsMonitor fsMonitor = new FakeFsMonitor(List.of("src/foo/new.txt"));
+        final UntrackedCacheSettings settings = fixtureSettings(worktree);
+        final WorktreeStatus status = new StatusScanner(worktree, index, fsMonitor, IGNORED, settings).scan();
+        assertThat(fsMonitor.tokens).containsExactly("token-2");
+        assertThat(status.modified()).isEmpty();
+        assertThat(status.untracked())
+                .containsExactly(".gitignore", "newdir/", "src/foo/new.txt", "src/foo/untracked.txt");
+        assertThat(status.statCount()).isEqualTo(2);
+        assertThat(status.readdirCount()).isEqualTo(1);
+        assertThat(status.token()).isEqualTo("token-3");
+
+        // the refreshed caches are written back
+        final File target = worktree.resolve(".git-index").toFile();
+        new IndexWriter().write(index, target);
+        final Index written = Index.create(target);
+        assertThat(written.getFsMonitorData().map(FsMonitorData::token)).hasValue("token-3");
+        assertThat(written.getUntrackedCache().flatMap(cache -> cache.find("src/foo")))
+                .map(UntrackedCache.Directory::untracked)
+                .hasValue(List.of("new.txt", "untracked.txt"));
+
+        // a token the fsmonitor cannot answer for makes everything dirty
+        fsMonitor.everything = true;
+        final WorktreeStatus full = new StatusScanner(worktree, index, fsMonitor, IGNORED, settings).scan();
+        assertThat(full.modified()).containsExactly("README", "src/bar/b.txt", "src/foo/a.txt");
+        assertThat(index.getFsMonitorData().map(data -> data.dirty().cardinality()))
+                .hasValue(3);
+    }
+
+    @Test
+    public void testValidateUntrackedCache(@TempDir Path worktree) throws Exception {
+        final Index index = Index.create(new File(TestUtils.testResourceDir(), "gitindex/index-untr"));
+        createWorktree(worktree);
+        final UntrackedCacheSettings settings = fixtureSettings(worktree);
+        final UntrackedCache cache = index.getUntrackedCache().orElseThrow();
+
+        final WorktreeStatus first = new StatusScanner(worktree, index, null, IGNORED, settings).scan();
+        assertThat(first.readdirCount()).isGreaterThan(0);
+        assertThat(new StatusScanner(worktree, index, null, IGNORED, settings)
+                        .scan()
+                        .readdirCount())
+                .isZero();
+
+        // a changed exclude file may ignore other files in any directory
+        Files.writeString(settings.infoExclude(), INFO_EXCLUDE + "*.tmp\n");
+        final WorktreeStatus excluded = new StatusScanner(worktree, index, null, IGNORED, settings).scan();
+        assertThat(excluded.untracked()).isEqualTo(first.untracked());
+        assertThat(excluded.readdirCount()).isEqualTo(first.readdirCount());
+        assertThat(new StatusScanner(worktree, index, null, IGNORED, settings)
+                        .scan()
+                        .readdirCount())
+                .isZero();
+
+        // a cache of another worktree location is dropped as a whole
+        final UntrackedCacheSettings moved =
+                UntrackedCacheSettings.of(worktree, worktree.resolve(".git"), worktree.resolve("no-such-ignore"));
+        final WorktreeStatus relocated = new StatusScanner(worktree, index, null, IGNORED, moved).scan();
+        assertThat(relocated.untracked()).isEqualTo(first.untracked());
+        assertThat(relocated.readdirCount()).isEqualTo(first.readdirCount());
+        assertThat(cache.hasIdent(moved.ident())).isTrue();
+        assertThat(cache.ident()).endsWith("\0");
+
+        // an invalidated directory no longer holds its untracked names
+        final UntrackedCache.Directory foo = cache.find("src/foo").orElseThrow();
+        assertThat(foo.untracked()).containsExactly("untracked.txt");
+        foo.invalidate();
+        assertThat(foo.isValid()).isFalse();
+        assertThat(foo.untracked()).isEmpty();
+    }
+
+    @Test
+    @DisabledOnOs(OS.WINDOWS)
+    public void testHookFsMonitor(@TempDir Path dir) throws Exception {
+        final Path hook = dir.resolve("fsmonitor-hook");
+        final Path args = dir.resolve("args");
+        Files.writeString(hook, "#!/bin/sh\necho \"$1 $2\" > " + args + "\nprintf 'token-3\\0src/foo/\\0README\\0'\n");
+        Files.setPosixFilePermissions(hook, PosixFilePermissions.fromString("rwx------"));
+
+        final FsMonitor.Changes changes = new HookFsMonitor(hook, dir).query("token-2");
+        assertThat(changes.token()).isEqualTo("token-3");
+        assertThat(changes.everything()).isFalse();
+        assertThat(changes.paths()).containsExactly("src/foo/", "README");
+        assertThat(Files.readString(args)).isEqualTo("2 token-2\n");
+
+        assertThat(HookFsMonitor.parse("token-4\0/\0".getBytes(StandardCharsets.UTF_8))
+                        .everything())
+                .isTrue();
+    }
+
+    /**
+     * The settings the index-untr fixture was written with, but for the info/exclude in the worktree.
+     */
+    private static UntrackedCacheSettings fixtureSettings(Path worktree) throws Exception {
+        final Path infoExclude = worktree.resolve(".git/info/exclude");
+        Files.createDirectories(infoExclude.getParent());
+        Files.writeString(infoExclude, INFO_EXCLUDE);
+        return new UntrackedCacheSettings(
+                "Location /tmp/untr, system Linux", UntrackedCacheSettings.STATUS_DIR_FLAGS, infoExclude, null);
+    }
+
+    private static void createWorktree(Path worktree) throws Exception {
+        Files.createDirectories(worktree.resolve(".git"));
+        write(worktree.resolve(".gitignore"));
+        write(worktree.resolve("README"));
+        write(worktree.resolve("docs/build.log"));
+        write(worktree.resolve("newdir/n.txt"));
+        write(worktree.resolve("src/bar/b.txt"));
+        write(worktree.resolve("src/foo/a.txt"));
+        write(worktree.resolve("src/foo/untracked.txt"));
+    }
+
+    /**
+     * Add entries to a version 2 index file, copied from its first entry but for the pathname, and leave
+     * its extensions as they are, as a writer that does not maintain the untracked cache would.
+     */
+    private static void addEntries(File file, String... pathnames) throws Exception {
+        final ByteBuf bytes = Unpooled.wrappedBuffer(Files.readAllBytes(file.toPath()));
+        assertThat(bytes.getInt(4)).isEqualTo(2);
+        final int count = bytes.getInt(8);
+        final TreeMap<String, byte[]> entries = new TreeMap<>();
+        int pos = 12;
+        for (int i = 0; i < count; i++) {
+            final int nameLength = bytes.getShort(pos + 60) & 0xFFF;
+            final int size = (62 + nameLength + 8) & ~7;
+            final String pathname = bytes.toString(pos + 62, nameLength, StandardCharsets.UTF_8);
+            entries.put(pathname, ByteBufUtil.getBytes(bytes, pos, size));
+            pos += size;
+        }
+        final byte[] first = entries.firstEntry().getValue();
+        for (String pathname : pathnames) {
+            final byte[] name = pathname.getBytes(StandardCharsets.UTF_8);
+            final ByteBuf entry = Unpooled.buffer().writeBytes(first, 0, 60);
+            entry.writeShort((first[60] & 0xF0) << 8 | name.length).writeBytes(name);
+            entry.writeZero(((62 + name.length + 8) & ~7) - entry.readableBytes());
+            entries.put(pathname, ByteBufUtil.getBytes(entry));
+        }
+
+        final ByteBuf result = Unpooled.buffer().writeBytes(bytes, 0, 8).writeInt(entries.size());
+        entries.values().forEach(result::writeBytes);
+        result.writeBytes(bytes, pos, bytes.writerIndex() - HashFn.SHA1.size() - pos);
+        result.writeBytes(
+                HashFn.SHA1.calculate(result, 0, result.readableBytes()).asBytes());
+        Files.write(file.toPath(), ByteBufUtil.getBytes(result));
+    }
+
+    private static void write(Path path) throws Exception {
+        Files.createDirectories(path.getParent());
+        Files.writeString(path, path.getFileName().toString());
+    }
+
+    private static final class FakeFsMonitor implements FsMonitor {
+        private final List<String> paths;
+        private final List<String> tokens = new ArrayList<>();
+        private boolean everything = false;
+
+        private FakeFsMonitor(List<String> paths) {
+            this.paths = paths;
+        }
+
+        @Override
+        public Changes query(@Nullable String token) {
+            tokens.add(token);
+            return everything ? Changes.everything("token-4") : new Changes("token-3", false, paths);
+        }
+    }
+}